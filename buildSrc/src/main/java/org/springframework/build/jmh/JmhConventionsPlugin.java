@@ -0,0 +1,80 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.build.jmh;
+
+import java.io.File;
+import java.util.Arrays;
+
+import me.champeau.gradle.JMHPlugin;
+import me.champeau.gradle.JMHPluginExtension;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.file.DuplicatesStrategy;
+import org.gradle.api.plugins.JavaPlugin;
+
+/**
+ * {@link Plugin} that applies conventions for JMH benchmarks in Spring Framework.
+ * <p>Benchmarks are located in the {@code src/jmh/java} source set of each module
+ * and are run with {@code "./gradlew :spring-core:jmh"}. Results are written in
+ * the JSON format to {@code build/reports/jmh/results.json}, for comparing them
+ * across commits. A different results file and the benchmarks to run can be
+ * chosen on the CLI: {@code "./gradlew :spring-core:jmh -PjmhInclude=AntPathMatcher
+ * -PjmhResultsFile=/tmp/before.json"}.
+ */
+public class JmhConventionsPlugin implements Plugin<Project> {
+
+	/**
+	 * The project property that can be used to select the benchmarks to run,
+	 * as a comma-separated list of regular expressions.
+	 */
+	public static final String JMH_INCLUDE_PROPERTY = "jmhInclude";
+
+	/**
+	 * The project property that can be used to choose the results file.
+	 */
+	public static final String JMH_RESULTS_FILE_PROPERTY = "jmhResultsFile";
+
+	public static final String JMH_VERSION = "1.21";
+
+	@Override
+	public void apply(Project project) {
+		project.getPlugins().withType(JavaPlugin.class, javaPlugin -> applyJmhConventions(project));
+	}
+
+	/**
+	 * Applies the JMH plugin and the common JMH options.
+	 * @param project the current project
+	 */
+	private void applyJmhConventions(Project project) {
+		project.getPlugins().apply(JMHPlugin.class);
+		JMHPluginExtension jmh = project.getExtensions().getByType(JMHPluginExtension.class);
+		jmh.setJmhVersion(JMH_VERSION);
+		jmh.setDuplicateClassesStrategy(DuplicatesStrategy.EXCLUDE);
+		jmh.setFailOnError(true);
+		jmh.setResultFormat("JSON");
+		if (project.hasProperty(JMH_RESULTS_FILE_PROPERTY)) {
+			jmh.setResultsFile(project.file(project.property(JMH_RESULTS_FILE_PROPERTY)));
+		}
+		else {
+			jmh.setResultsFile(new File(project.getBuildDir(), "reports/jmh/results.json"));
+		}
+		if (project.hasProperty(JMH_INCLUDE_PROPERTY)) {
+			jmh.setInclude(Arrays.asList(project.property(JMH_INCLUDE_PROPERTY).toString().split(",")));
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop;
+
+/**
+ * Marker for {@link org.aopalliance.intercept.MethodInterceptor MethodInterceptors}
+ * that do not retain the {@link org.aopalliance.intercept.MethodInvocation} passed
+ * to them beyond their {@code invoke} call: they neither keep a reference to it
+ * nor expose it to other code that could, and they do not proceed with it
+ * asynchronously.
+ *
+ * <p>If all interceptors applying to a method carry this marker, AOP proxies
+ * may reuse invocation objects held per thread instead of creating a new one
+ * for each call. Subclasses of a marked interceptor that
+ * override {@code invoke} need to honor the same contract.
+ *
+ * @since 5.2
+ * @see org.springframework.aop.interceptor.ExposeInvocationInterceptor
+ */
+public interface NonCapturingInterceptor {
+
+}
@@ -119,6 +119,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	@Nullable
 	private transient PointcutExpression pointcutExpression;
 
+	@Nullable
+	private transient PointcutAnnotationDiscriminator annotationDiscriminator;
+
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
 
@@ -195,7 +198,9 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		}
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
-			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			PointcutExpression pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.annotationDiscriminator = PointcutAnnotationDiscriminator.forPointcutExpression(pointcutExpression);
+			this.pointcutExpression = pointcutExpression;
 		}
 		return this.pointcutExpression;
 	}
@@ -272,7 +277,13 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		PointcutExpression pointcutExpression = obtainPointcutExpression();
 		try {
 			try {
-				return pointcutExpression.couldMatchJoinPointsInType(targetClass);
+				if (!pointcutExpression.couldMatchJoinPointsInType(targetClass)) {
+					return false;
+				}
+				// AspectJ's type-level matching does not take annotation-based designators
+				// into account: check whether the required annotations are present at all.
+				PointcutAnnotationDiscriminator annotationDiscriminator = this.annotationDiscriminator;
+				return (annotationDiscriminator == null || annotationDiscriminator.mayMatch(targetClass));
 			}
 			catch (ReflectionWorldException ex) {
 				logger.debug("PointcutExpression matching rejected target class - trying fallback expression", ex);
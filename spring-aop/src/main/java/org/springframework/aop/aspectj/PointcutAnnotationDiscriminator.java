@@ -0,0 +1,210 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.aspectj.weaver.UnresolvedType;
+import org.aspectj.weaver.internal.tools.PointcutExpressionImpl;
+import org.aspectj.weaver.patterns.AndPointcut;
+import org.aspectj.weaver.patterns.AnnotationPointcut;
+import org.aspectj.weaver.patterns.AnnotationTypePattern;
+import org.aspectj.weaver.patterns.ExactAnnotationTypePattern;
+import org.aspectj.weaver.patterns.OrPointcut;
+import org.aspectj.weaver.patterns.Pointcut;
+import org.aspectj.weaver.patterns.WithinAnnotationPointcut;
+import org.aspectj.weaver.tools.PointcutExpression;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Cheap class-level pre-filter for AspectJ pointcut expressions which can only
+ * match join points that carry specific annotations, i.e. expressions built on
+ * {@code @annotation(...)} or {@code @within(...)} with an exact annotation type.
+ *
+ * <p>AspectJ's own type-level fast matching cannot rule out such expressions,
+ * leaving every method of every candidate class to full shadow matching. This
+ * discriminator rejects a class upfront unless the class, one of its superclasses
+ * or interfaces, or one of their methods declares at least one of the annotation
+ * types in question. The annotation types declared within a class hierarchy are
+ * determined once per class and shared across all pointcut expressions.
+ *
+ * <p>Like {@link RuntimeTestWalker}, this class relies on AspectJ internals.
+ * Any part of a pointcut expression that it does not recognize is considered
+ * unconstrained, so it never rejects a class that the expression could match.
+ *
+ * @since 5.2
+ * @see AspectJExpressionPointcut#matches(Class)
+ */
+final class PointcutAnnotationDiscriminator {
+
+	/** Names of the annotation types declared within the hierarchy of a class. */
+	private static final Map<Class<?>, Set<String>> declaredAnnotationTypesCache =
+			new ConcurrentReferenceHashMap<>(256);
+
+
+	private final Set<String> requiredAnnotationTypes;
+
+
+	private PointcutAnnotationDiscriminator(Set<String> requiredAnnotationTypes) {
+		this.requiredAnnotationTypes = requiredAnnotationTypes;
+	}
+
+
+	/**
+	 * Determine whether the given class may contain join points that carry
+	 * one of the required annotation types.
+	 * @param targetClass the class to check
+	 * @return {@code false} if the pointcut expression cannot match any method
+	 * of the given class, {@code true} if it may match
+	 */
+	boolean mayMatch(Class<?> targetClass) {
+		Set<String> declaredAnnotationTypes = getDeclaredAnnotationTypes(targetClass);
+		if (declaredAnnotationTypes == null) {
+			return true;
+		}
+		for (String annotationType : this.requiredAnnotationTypes) {
+			if (declaredAnnotationTypes.contains(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return "PointcutAnnotationDiscriminator: " + this.requiredAnnotationTypes;
+	}
+
+
+	/**
+	 * Create a discriminator for the given pointcut expression, if applicable.
+	 * @param pointcutExpression the AspectJ pointcut expression
+	 * @return the discriminator, or {@code null} if the expression is not
+	 * constrained to specific annotation types
+	 */
+	@Nullable
+	static PointcutAnnotationDiscriminator forPointcutExpression(PointcutExpression pointcutExpression) {
+		if (pointcutExpression instanceof PointcutExpressionImpl) {
+			Set<String> annotationTypes = determineRequiredAnnotationTypes(
+					((PointcutExpressionImpl) pointcutExpression).getUnderlyingPointcut());
+			if (annotationTypes != null) {
+				return new PointcutAnnotationDiscriminator(annotationTypes);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determine the names of the annotation types of which at least one needs
+	 * to be present for the given pointcut to match.
+	 * @return the annotation type names, or {@code null} if not constrained
+	 */
+	@Nullable
+	private static Set<String> determineRequiredAnnotationTypes(Pointcut pointcut) {
+		if (pointcut instanceof AnnotationPointcut) {
+			return getAnnotationTypeName(((AnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		else if (pointcut instanceof WithinAnnotationPointcut) {
+			return getAnnotationTypeName(((WithinAnnotationPointcut) pointcut).getAnnotationTypePattern());
+		}
+		else if (pointcut instanceof AndPointcut) {
+			// Each side on its own constrains the entire conjunction.
+			AndPointcut andPointcut = (AndPointcut) pointcut;
+			Set<String> left = determineRequiredAnnotationTypes(andPointcut.getLeft());
+			return (left != null ? left : determineRequiredAnnotationTypes(andPointcut.getRight()));
+		}
+		else if (pointcut instanceof OrPointcut) {
+			// Only constrained if both sides are.
+			OrPointcut orPointcut = (OrPointcut) pointcut;
+			Set<String> left = determineRequiredAnnotationTypes(orPointcut.getLeft());
+			Set<String> right = (left != null ? determineRequiredAnnotationTypes(orPointcut.getRight()) : null);
+			if (left == null || right == null) {
+				return null;
+			}
+			Set<String> combined = new HashSet<>(left);
+			combined.addAll(right);
+			return combined;
+		}
+		return null;
+	}
+
+	@Nullable
+	private static Set<String> getAnnotationTypeName(AnnotationTypePattern annotationTypePattern) {
+		if (annotationTypePattern instanceof ExactAnnotationTypePattern) {
+			UnresolvedType annotationType = ((ExactAnnotationTypePattern) annotationTypePattern).getAnnotationType();
+			if (annotationType != null) {
+				return Collections.singleton(annotationType.getName());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determine the names of all annotation types declared on the given class,
+	 * its superclasses and interfaces, and their methods.
+	 * @return the annotation type names, or {@code null} if the class could
+	 * not be introspected
+	 */
+	@Nullable
+	private static Set<String> getDeclaredAnnotationTypes(Class<?> clazz) {
+		Set<String> annotationTypes = declaredAnnotationTypesCache.get(clazz);
+		if (annotationTypes == null) {
+			annotationTypes = new HashSet<>();
+			try {
+				addDeclaredAnnotationTypes(clazz, annotationTypes, new HashSet<>());
+			}
+			catch (Throwable ex) {
+				// Could not introspect class hierarchy, e.g. due to unresolvable
+				// method signatures -> leave it to regular pointcut matching.
+				return null;
+			}
+			declaredAnnotationTypesCache.put(clazz, annotationTypes);
+		}
+		return annotationTypes;
+	}
+
+	private static void addDeclaredAnnotationTypes(
+			@Nullable Class<?> type, Set<String> annotationTypes, Set<Class<?>> visited) {
+
+		if (type == null || type == Object.class || !visited.add(type)) {
+			return;
+		}
+		addAnnotationTypes(type.getDeclaredAnnotations(), annotationTypes);
+		for (Method method : ReflectionUtils.getDeclaredMethods(type)) {
+			addAnnotationTypes(method.getDeclaredAnnotations(), annotationTypes);
+		}
+		addDeclaredAnnotationTypes(type.getSuperclass(), annotationTypes, visited);
+		for (Class<?> ifc : type.getInterfaces()) {
+			addDeclaredAnnotationTypes(ifc, annotationTypes, visited);
+		}
+	}
+
+	private static void addAnnotationTypes(Annotation[] annotations, Set<String> annotationTypes) {
+		for (Annotation annotation : annotations) {
+			annotationTypes.add(annotation.annotationType().getName());
+		}
+	}
+
+}
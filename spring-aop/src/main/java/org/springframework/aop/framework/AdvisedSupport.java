@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -41,6 +41,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Base class for AOP proxy configuration managers.
@@ -80,8 +81,14 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	/** The AdvisorChainFactory to use. */
 	AdvisorChainFactory advisorChainFactory = new DefaultAdvisorChainFactory();
 
-	/** Cache with Method as key and advisor chain List as value. */
-	private transient Map<MethodCacheKey, List<Object>> methodCache;
+	/** Cache with Method as key and interceptor chain as value. */
+	private transient Map<Method, InterceptorChain> methodCache;
+
+	/**
+	 * Whether {@link #getInterceptorsAndDynamicInterceptionAdvice} is overridden,
+	 * in which case it needs to be called for every invocation.
+	 */
+	private transient boolean customInterceptorLookup;
 
 	/**
 	 * Interfaces to be implemented by the proxy. Held in List to keep the order
@@ -106,7 +113,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 * No-arg constructor for use as a JavaBean.
 	 */
 	public AdvisedSupport() {
-		this.methodCache = new ConcurrentHashMap<>(32);
+		initMethodCache();
 	}
 
 	/**
@@ -477,12 +484,38 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 	 * @return a List of MethodInterceptors (may also include InterceptorAndDynamicMethodMatchers)
 	 */
 	public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
-		MethodCacheKey cacheKey = new MethodCacheKey(method);
-		List<Object> cached = this.methodCache.get(cacheKey);
+		return getCachedInterceptorChain(method, targetClass).getInterceptorsAndDynamicMethodMatchers();
+	}
+
+	/**
+	 * Determine the {@link InterceptorChain} for the given method, based on this
+	 * configuration, for use by AOP proxies.
+	 * <p>Returns a cached instance unless a subclass overrides
+	 * {@link #getInterceptorsAndDynamicInterceptionAdvice}, in which case the
+	 * returned chain is determined for the current call only: it neither reuses
+	 * invocations nor invokes the target through a method proxy.
+	 * @param method the proxied method
+	 * @param targetClass the target class
+	 * @return the interceptor chain
+	 * @since 5.2
+	 */
+	InterceptorChain getInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		if (this.customInterceptorLookup) {
+			return new InterceptorChain(method,
+					getInterceptorsAndDynamicInterceptionAdvice(method, targetClass), false);
+		}
+		return getCachedInterceptorChain(method, targetClass);
+	}
+
+	private InterceptorChain getCachedInterceptorChain(Method method, @Nullable Class<?> targetClass) {
+		// Keyed by the Method itself: a hit on the same Method instance is resolved
+		// through an identity check, without allocating a key object per invocation.
+		InterceptorChain cached = this.methodCache.get(method);
 		if (cached == null) {
-			cached = this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(
-					this, method, targetClass);
-			this.methodCache.put(cacheKey, cached);
+			List<Object> interceptors =
+					this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass);
+			cached = new InterceptorChain(method, interceptors, true);
+			this.methodCache.put(method, cached);
 		}
 		return cached;
 	}
@@ -551,7 +584,14 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 		ois.defaultReadObject();
 
 		// Initialize transient fields.
+		initMethodCache();
+	}
+
+	private void initMethodCache() {
 		this.methodCache = new ConcurrentHashMap<>(32);
+		Method lookup = ReflectionUtils.findMethod(getClass(),
+				"getInterceptorsAndDynamicInterceptionAdvice", Method.class, Class.class);
+		this.customInterceptorLookup = (lookup == null || lookup.getDeclaringClass() != AdvisedSupport.class);
 	}
 
 
@@ -575,46 +615,4 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
 		return sb.toString();
 	}
 
-
-	/**
-	 * Simple wrapper class around a Method. Used as the key when
-	 * caching methods, for efficient equals and hashCode comparisons.
-	 */
-	private static final class MethodCacheKey implements Comparable<MethodCacheKey> {
-
-		private final Method method;
-
-		private final int hashCode;
-
-		public MethodCacheKey(Method method) {
-			this.method = method;
-			this.hashCode = method.hashCode();
-		}
-
-		@Override
-		public boolean equals(@Nullable Object other) {
-			return (this == other || (other instanceof MethodCacheKey &&
-					this.method == ((MethodCacheKey) other).method));
-		}
-
-		@Override
-		public int hashCode() {
-			return this.hashCode;
-		}
-
-		@Override
-		public String toString() {
-			return this.method.toString();
-		}
-
-		@Override
-		public int compareTo(MethodCacheKey other) {
-			int result = this.method.getName().compareTo(other.method.getName());
-			if (result == 0) {
-				result = this.method.toString().compareTo(other.method.toString());
-			}
-			return result;
-		}
-	}
-
 }
@@ -395,6 +395,33 @@ class CglibAopProxy implements AopProxy, Serializable {
 		return returnValue;
 	}
 
+	/**
+	 * Proceed with the given reusable invocation, applying the same exception
+	 * handling as {@link CglibMethodInvocation#proceed()}.
+	 */
+	@Nullable
+	private static Object proceedWithReusableInvocation(ReusableMethodInvocation invocation, InterceptorChain chain,
+			Object proxy, @Nullable Object target, Method method, Object[] args, @Nullable Class<?> targetClass,
+			MethodProxy methodProxy) throws Throwable {
+
+		Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+		try {
+			return invocation.invoke(chain, proxy, target, argsToUse, targetClass,
+					(chain.isMethodProxyApplicable() ? methodProxy : null));
+		}
+		catch (RuntimeException ex) {
+			throw ex;
+		}
+		catch (Exception ex) {
+			if (ReflectionUtils.declaresException(chain.getMethod(), ex.getClass())) {
+				throw ex;
+			}
+			else {
+				throw new UndeclaredThrowableException(ex);
+			}
+		}
+	}
+
 
 	/**
 	 * Serializable replacement for CGLIB's NoOp interface.
@@ -623,6 +650,10 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final Class<?> targetClass;
 
+		/** Lazily built from the advice chain for the intercepted method. */
+		@Nullable
+		private transient volatile InterceptorChain interceptorChain;
+
 		public FixedChainStaticTargetInterceptor(
 				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
 
@@ -634,10 +665,23 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-			MethodInvocation invocation = new CglibMethodInvocation(
-					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
-			// If we get here, we need to create a MethodInvocation.
-			Object retVal = invocation.proceed();
+			InterceptorChain chain = this.interceptorChain;
+			if (chain == null) {
+				chain = new InterceptorChain(method, this.adviceChain, true);
+				this.interceptorChain = chain;
+			}
+			Object retVal;
+			ReusableMethodInvocation reusableInvocation = chain.getReusableInvocation();
+			if (reusableInvocation != null) {
+				retVal = proceedWithReusableInvocation(
+						reusableInvocation, chain, proxy, this.target, method, args, this.targetClass, methodProxy);
+			}
+			else {
+				// If we get here, we need to create a MethodInvocation.
+				MethodInvocation invocation = new CglibMethodInvocation(
+						proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
+				retVal = invocation.proceed();
+			}
 			retVal = processReturnType(proxy, this.target, method, retVal);
 			return retVal;
 		}
@@ -672,7 +716,7 @@ class CglibAopProxy implements AopProxy, Serializable {
 				// Get as late as possible to minimize the time we "own" the target, in case it comes from a pool...
 				target = targetSource.getTarget();
 				Class<?> targetClass = (target != null ? target.getClass() : null);
-				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				InterceptorChain chain = this.advised.getInterceptorChain(method, targetClass);
 				Object retVal;
 				// Check whether we only have one InvokerInterceptor: that is,
 				// no real advice, but just reflective invocation of the target.
@@ -685,8 +729,17 @@ class CglibAopProxy implements AopProxy, Serializable {
 					retVal = methodProxy.invoke(target, argsToUse);
 				}
 				else {
-					// We need to create a method invocation...
-					retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy).proceed();
+					ReusableMethodInvocation reusableInvocation = chain.getReusableInvocation();
+					if (reusableInvocation != null) {
+						// None of the interceptors retains the invocation: reuse the one for this thread.
+						retVal = proceedWithReusableInvocation(
+								reusableInvocation, chain, proxy, target, method, args, targetClass, methodProxy);
+					}
+					else {
+						// We need to create a method invocation...
+						retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass,
+								chain.getInterceptorsAndDynamicMethodMatchers(), methodProxy).proceed();
+					}
 				}
 				retVal = processReturnType(proxy, target, method, retVal);
 				return retVal;
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aop.NonCapturingInterceptor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.asm.Type;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Internal framework class, holding the interceptor chain for a method of an
+ * AOP proxy along with the state that can be computed once per method: the
+ * chain as an array, whether the target method may be invoked through a CGLIB
+ * {@link MethodProxy} rather than through reflection, and whether a
+ * {@link ReusableMethodInvocation} may be used because all interceptors in the
+ * chain are {@link NonCapturingInterceptor NonCapturingInterceptors}.
+ *
+ * <p>A chain that is not cached, i.e. one that is determined for a single call
+ * only, neither reuses invocations nor resolves a method proxy for the target.
+ *
+ * @since 5.2
+ * @see AdvisedSupport#getInterceptorChain
+ */
+final class InterceptorChain {
+
+	private static final Log logger = LogFactory.getLog(InterceptorChain.class);
+
+
+	private final Method method;
+
+	private final List<Object> interceptorsAndDynamicMethodMatchers;
+
+	private final Object[] interceptors;
+
+	private final boolean cached;
+
+	private final boolean methodProxyApplicable;
+
+	private final boolean reusable;
+
+	@Nullable
+	private volatile TargetInvoker targetInvoker;
+
+
+	/**
+	 * Create a new InterceptorChain for the given method.
+	 * @param method the proxied method
+	 * @param interceptorsAndDynamicMethodMatchers the MethodInterceptors and
+	 * InterceptorAndDynamicMethodMatchers that apply to the method
+	 * @param cached whether the chain is cached for subsequent calls of the
+	 * method, as opposed to being determined for a single call only
+	 */
+	InterceptorChain(Method method, List<Object> interceptorsAndDynamicMethodMatchers, boolean cached) {
+		this.method = BridgeMethodResolver.findBridgedMethod(method);
+		this.interceptorsAndDynamicMethodMatchers = interceptorsAndDynamicMethodMatchers;
+		this.interceptors = interceptorsAndDynamicMethodMatchers.toArray();
+		this.cached = cached;
+		// Only use a method proxy for public methods not derived from java.lang.Object
+		this.methodProxyApplicable = (Modifier.isPublic(method.getModifiers()) &&
+				method.getDeclaringClass() != Object.class && !AopUtils.isEqualsMethod(method) &&
+				!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method));
+		this.reusable = (cached && this.interceptors.length > 0 && isNonCapturing(this.interceptors));
+	}
+
+
+	/**
+	 * Return the proxied method, resolved to its bridged method if necessary.
+	 */
+	Method getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Return the MethodInterceptors and InterceptorAndDynamicMethodMatchers
+	 * as returned by {@link AdvisedSupport#getInterceptorsAndDynamicInterceptionAdvice}.
+	 */
+	List<Object> getInterceptorsAndDynamicMethodMatchers() {
+		return this.interceptorsAndDynamicMethodMatchers;
+	}
+
+	/**
+	 * Return the MethodInterceptors and InterceptorAndDynamicMethodMatchers as an array.
+	 */
+	Object[] getInterceptors() {
+		return this.interceptors;
+	}
+
+	/**
+	 * Return whether no interceptors apply to the method.
+	 */
+	boolean isEmpty() {
+		return (this.interceptors.length == 0);
+	}
+
+	/**
+	 * Return whether the target method may be invoked through a CGLIB
+	 * {@link MethodProxy}: that is, whether it is a public method that
+	 * is not derived from {@code java.lang.Object}.
+	 */
+	boolean isMethodProxyApplicable() {
+		return this.methodProxyApplicable;
+	}
+
+	/**
+	 * Return an invocation object of the current thread to reuse for a call.
+	 * @return the invocation, or {@code null} if the chain is not cached or
+	 * contains interceptors that may retain the invocation, or if all invocation
+	 * objects of the current thread are in use by outer calls
+	 * @see ReusableMethodInvocation#forCurrentThread()
+	 */
+	@Nullable
+	ReusableMethodInvocation getReusableInvocation() {
+		return (this.reusable ? ReusableMethodInvocation.forCurrentThread() : null);
+	}
+
+	/**
+	 * Return a {@link MethodProxy} for invoking the method on instances of the
+	 * given target class, avoiding reflection for JDK dynamic proxies.
+	 * <p>The method proxy is resolved for the first target class only, which
+	 * applies to all calls in case of a static target source.
+	 * @param targetClass the class of the target object
+	 * @return the method proxy, or {@code null} if the target method needs to
+	 * be invoked through reflection, or if the chain is not cached
+	 */
+	@Nullable
+	MethodProxy getTargetMethodProxy(Class<?> targetClass) {
+		if (!this.cached) {
+			return null;
+		}
+		TargetInvoker targetInvoker = this.targetInvoker;
+		if (targetInvoker == null) {
+			targetInvoker = new TargetInvoker(targetClass, createTargetMethodProxy(targetClass));
+			this.targetInvoker = targetInvoker;
+		}
+		return (targetInvoker.targetClass == targetClass ? targetInvoker.methodProxy : null);
+	}
+
+	@Nullable
+	private MethodProxy createTargetMethodProxy(Class<?> targetClass) {
+		if (!this.methodProxyApplicable || !this.method.getDeclaringClass().isAssignableFrom(targetClass) ||
+				!Modifier.isPublic(targetClass.getModifiers()) || targetClass.isSynthetic() ||
+				targetClass.getClassLoader() == null || Proxy.isProxyClass(targetClass)) {
+			return null;
+		}
+		Method targetMethod = ClassUtils.getMostSpecificMethod(this.method, targetClass);
+		if (!Modifier.isPublic(targetMethod.getModifiers()) || Modifier.isStatic(targetMethod.getModifiers())) {
+			return null;
+		}
+		try {
+			MethodProxy methodProxy = MethodProxy.create(targetClass, targetClass,
+					Type.getMethodDescriptor(targetMethod), targetMethod.getName(), targetMethod.getName());
+			// Generates the FastClass for the target class and resolves the method index
+			return (methodProxy.getSuperIndex() >= 0 ? methodProxy : null);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Cannot generate FastClass for target class [" + targetClass.getName() +
+						"] - invoking method [" + this.method + "] through reflection: " + ex);
+			}
+			return null;
+		}
+	}
+
+
+	private static boolean isNonCapturing(Object[] interceptors) {
+		for (Object interceptor : interceptors) {
+			if (interceptor instanceof InterceptorAndDynamicMethodMatcher) {
+				interceptor = ((InterceptorAndDynamicMethodMatcher) interceptor).interceptor;
+			}
+			if (!(interceptor instanceof NonCapturingInterceptor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * The method proxy resolved for a specific target class.
+	 */
+	private static final class TargetInvoker {
+
+		final Class<?> targetClass;
+
+		@Nullable
+		final MethodProxy methodProxy;
+
+		TargetInvoker(Class<?> targetClass, @Nullable MethodProxy methodProxy) {
+			this.targetClass = targetClass;
+			this.methodProxy = methodProxy;
+		}
+	}
+
+}
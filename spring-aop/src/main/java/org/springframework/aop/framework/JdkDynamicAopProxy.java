@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -30,6 +32,7 @@ import org.springframework.aop.AopInvocationException;
 import org.springframework.aop.RawTargetAccess;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.proxy.MethodProxy;
 import org.springframework.core.DecoratingProxy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -79,6 +82,18 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	/** We use a static Log to avoid serialization issues. */
 	private static final Log logger = LogFactory.getLog(JdkDynamicAopProxy.class);
 
+	/**
+	 * The {@link Advised} interface along with all of its superinterfaces,
+	 * i.e. the interfaces whose methods get dispatched to the proxy config.
+	 */
+	private static final Class<?>[] advisedInterfaces;
+
+	static {
+		Set<Class<?>> interfaces = new LinkedHashSet<>();
+		addInterfaceHierarchy(Advised.class, interfaces);
+		advisedInterfaces = interfaces.toArray(new Class<?>[0]);
+	}
+
 	/** Config used to configure this proxy. */
 	private final AdvisedSupport advised;
 
@@ -173,8 +188,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 				// There is only getDecoratedClass() declared -> dispatch to proxy config.
 				return AopProxyUtils.ultimateTargetClass(this.advised);
 			}
-			else if (!this.advised.opaque && method.getDeclaringClass().isInterface() &&
-					method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+			else if (!this.advised.opaque && isAdvisedInterfaceMethod(method)) {
 				// Service invocations on ProxyConfig with the proxy config...
 				return AopUtils.invokeJoinpointUsingReflection(this.advised, method, args);
 			}
@@ -193,23 +207,39 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 			Class<?> targetClass = (target != null ? target.getClass() : null);
 
 			// Get the interception chain for this method.
-			List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			InterceptorChain chain = this.advised.getInterceptorChain(method, targetClass);
+
+			// Invoke the target through a FastClass rather than reflection, if possible.
+			MethodProxy targetMethodProxy = (targetClass != null ? chain.getTargetMethodProxy(targetClass) : null);
 
 			// Check whether we have any advice. If we don't, we can fallback on direct
-			// reflective invocation of the target, and avoid creating a MethodInvocation.
+			// invocation of the target, and avoid creating a MethodInvocation.
 			if (chain.isEmpty()) {
 				// We can skip creating a MethodInvocation: just invoke the target directly
 				// Note that the final invoker must be an InvokerInterceptor so we know it does
 				// nothing but a reflective operation on the target, and no hot swapping or fancy proxying.
 				Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-				retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+				retVal = (targetMethodProxy != null ? targetMethodProxy.invoke(target, argsToUse) :
+						AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse));
 			}
 			else {
-				// We need to create a method invocation...
-				MethodInvocation invocation =
-						new ReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain);
-				// Proceed to the joinpoint through the interceptor chain.
-				retVal = invocation.proceed();
+				ReusableMethodInvocation reusableInvocation = chain.getReusableInvocation();
+				if (reusableInvocation != null) {
+					// None of the interceptors retains the invocation: reuse the one for this thread.
+					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+					retVal = reusableInvocation.invoke(chain, proxy, target, argsToUse, targetClass, targetMethodProxy);
+				}
+				else {
+					// We need to create a method invocation...
+					List<Object> interceptors = chain.getInterceptorsAndDynamicMethodMatchers();
+					MethodInvocation invocation = (targetMethodProxy != null ?
+							new JdkMethodInvocation(proxy, target, method, args,
+									targetClass, interceptors, targetMethodProxy) :
+							new ReflectiveMethodInvocation(proxy, target, method, args,
+									targetClass, interceptors));
+					// Proceed to the joinpoint through the interceptor chain.
+					retVal = invocation.proceed();
+				}
 			}
 
 			// Massage return value if necessary.
@@ -241,6 +271,31 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Determine whether the given method is declared on the {@link Advised}
+	 * interface or one of its superinterfaces.
+	 * <p>Equivalent to checking {@code isAssignableFrom(Advised.class)} on
+	 * the declaring interface but based on identity checks only, which is
+	 * significantly cheaper on this per-invocation path.
+	 */
+	private static boolean isAdvisedInterfaceMethod(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		for (Class<?> advisedInterface : advisedInterfaces) {
+			if (declaringClass == advisedInterface) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addInterfaceHierarchy(Class<?> ifc, Set<Class<?>> interfaces) {
+		if (interfaces.add(ifc)) {
+			for (Class<?> superIfc : ifc.getInterfaces()) {
+				addInterfaceHierarchy(superIfc, interfaces);
+			}
+		}
+	}
+
 	/**
 	 * Equality means interfaces, advisors and TargetSource are equal.
 	 * <p>The compared object may be a JdkDynamicAopProxy instance itself
@@ -283,4 +338,28 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		return JdkDynamicAopProxy.class.hashCode() * 13 + this.advised.getTargetSource().hashCode();
 	}
 
+
+	/**
+	 * Implementation of AOP Alliance MethodInvocation used by this AOP proxy,
+	 * invoking the target method through a FastClass.
+	 */
+	private static class JdkMethodInvocation extends ReflectiveMethodInvocation {
+
+		private final MethodProxy targetMethodProxy;
+
+		public JdkMethodInvocation(Object proxy, @Nullable Object target, Method method,
+				@Nullable Object[] arguments, @Nullable Class<?> targetClass,
+				List<Object> interceptorsAndDynamicMethodMatchers, MethodProxy targetMethodProxy) {
+
+			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.targetMethodProxy = targetMethodProxy;
+		}
+
+		@Override
+		@Nullable
+		protected Object invokeJoinpoint() throws Throwable {
+			return this.targetMethodProxy.invoke(this.target, this.arguments);
+		}
+	}
+
 }
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ProxyMethodInvocation} that is reused for subsequent calls on the same
+ * thread, used by AOP proxies if all interceptors for a method are
+ * {@link org.springframework.aop.NonCapturingInterceptor NonCapturingInterceptors}.
+ *
+ * <p>Invocation objects are held in a single static {@code ThreadLocal}, with
+ * a few more created on demand for nested proxy calls. An invocation is bound
+ * to an {@link InterceptorChain} only for the duration of a call, so it does not
+ * keep any proxy, target or advice reachable from the thread afterwards.
+ *
+ * <p>Proceeds through the precomputed interceptor array of its chain, and
+ * invokes the target method through a CGLIB {@link MethodProxy} if one has been
+ * specified, or through reflection otherwise. Clones returned by
+ * {@link #invocableClone()} are independent of the reused instance.
+ *
+ * @since 5.2
+ * @see InterceptorChain#getReusableInvocation()
+ * @see ReflectiveMethodInvocation
+ */
+final class ReusableMethodInvocation implements ProxyMethodInvocation, Cloneable {
+
+	/**
+	 * Maximum number of nested proxy calls on a thread that use a reusable
+	 * invocation. Calls nested deeper create a new invocation each.
+	 */
+	static final int MAX_NESTING_DEPTH = 8;
+
+	private static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+	private static final ThreadLocal<ReusableMethodInvocation> currentInvocation =
+			new NamedThreadLocal<>("Reusable AOP method invocation");
+
+
+	@Nullable
+	private InterceptorChain chain;
+
+	@Nullable
+	private Object proxy;
+
+	@Nullable
+	private Object target;
+
+	private Object[] arguments = EMPTY_ARGUMENTS;
+
+	@Nullable
+	private Class<?> targetClass;
+
+	@Nullable
+	private MethodProxy methodProxy;
+
+	@Nullable
+	private Map<String, Object> userAttributes;
+
+	private int currentInterceptorIndex = -1;
+
+	/** The invocation for a call nested in the call that this invocation is in use for. */
+	@Nullable
+	private ReusableMethodInvocation nested;
+
+
+	private ReusableMethodInvocation() {
+	}
+
+
+	/**
+	 * Return an invocation of the current thread that is not in use by an outer call.
+	 * @return the invocation, or {@code null} if the current thread already has
+	 * {@link #MAX_NESTING_DEPTH} calls in progress
+	 */
+	@Nullable
+	static ReusableMethodInvocation forCurrentThread() {
+		ReusableMethodInvocation invocation = currentInvocation.get();
+		if (invocation == null) {
+			invocation = new ReusableMethodInvocation();
+			currentInvocation.set(invocation);
+		}
+		for (int depth = 1; invocation.isInUse(); depth++) {
+			if (depth == MAX_NESTING_DEPTH) {
+				return null;
+			}
+			if (invocation.nested == null) {
+				invocation.nested = new ReusableMethodInvocation();
+			}
+			invocation = invocation.nested;
+		}
+		return invocation;
+	}
+
+
+	/**
+	 * Return whether this invocation is currently being processed.
+	 */
+	boolean isInUse() {
+		return (this.chain != null);
+	}
+
+	/**
+	 * Proceed through the given interceptor chain for a call on the given proxy,
+	 * resetting this invocation for the next call afterwards.
+	 * @param chain the interceptor chain for the invoked method
+	 * @param proxy the proxy object that the invocation was made on
+	 * @param target the target object to invoke
+	 * @param arguments the arguments to invoke the method with, already adapted
+	 * for varargs if necessary
+	 * @param targetClass the target class, for MethodMatcher invocations
+	 * @param methodProxy the method proxy for invoking the target method,
+	 * or {@code null} to use reflection
+	 * @return the return value of the invocation
+	 */
+	@Nullable
+	Object invoke(InterceptorChain chain, Object proxy, @Nullable Object target, Object[] arguments,
+			@Nullable Class<?> targetClass, @Nullable MethodProxy methodProxy) throws Throwable {
+
+		this.chain = chain;
+		this.proxy = proxy;
+		this.target = target;
+		this.arguments = arguments;
+		this.targetClass = targetClass;
+		this.methodProxy = methodProxy;
+		try {
+			return proceed();
+		}
+		finally {
+			this.chain = null;
+			this.proxy = null;
+			this.target = null;
+			this.arguments = EMPTY_ARGUMENTS;
+			this.targetClass = null;
+			this.methodProxy = null;
+			this.userAttributes = null;
+			this.currentInterceptorIndex = -1;
+		}
+	}
+
+	private InterceptorChain getChain() {
+		InterceptorChain chain = this.chain;
+		if (chain == null) {
+			throw new IllegalStateException("Invocation not in progress");
+		}
+		return chain;
+	}
+
+
+	@Override
+	public Object getProxy() {
+		Object proxy = this.proxy;
+		if (proxy == null) {
+			throw new IllegalStateException("Invocation not in progress");
+		}
+		return proxy;
+	}
+
+	@Override
+	@Nullable
+	public Object getThis() {
+		return this.target;
+	}
+
+	@Override
+	public AccessibleObject getStaticPart() {
+		return getChain().getMethod();
+	}
+
+	@Override
+	public Method getMethod() {
+		return getChain().getMethod();
+	}
+
+	@Override
+	public Object[] getArguments() {
+		return this.arguments;
+	}
+
+	@Override
+	public void setArguments(Object... arguments) {
+		this.arguments = arguments;
+	}
+
+
+	@Override
+	@Nullable
+	public Object proceed() throws Throwable {
+		InterceptorChain chain = getChain();
+		Object[] interceptors = chain.getInterceptors();
+		// We start with an index of -1 and increment early.
+		if (this.currentInterceptorIndex == interceptors.length - 1) {
+			return invokeJoinpoint();
+		}
+
+		Object interceptorOrInterceptionAdvice = interceptors[++this.currentInterceptorIndex];
+		if (interceptorOrInterceptionAdvice instanceof InterceptorAndDynamicMethodMatcher) {
+			// Evaluate dynamic method matcher here: static part will already have
+			// been evaluated and found to match.
+			InterceptorAndDynamicMethodMatcher dm =
+					(InterceptorAndDynamicMethodMatcher) interceptorOrInterceptionAdvice;
+			Method method = chain.getMethod();
+			Class<?> targetClass = (this.targetClass != null ? this.targetClass : method.getDeclaringClass());
+			if (dm.methodMatcher.matches(method, targetClass, this.arguments)) {
+				return dm.interceptor.invoke(this);
+			}
+			else {
+				// Dynamic matching failed.
+				// Skip this interceptor and invoke the next in the chain.
+				return proceed();
+			}
+		}
+		else {
+			return ((MethodInterceptor) interceptorOrInterceptionAdvice).invoke(this);
+		}
+	}
+
+	@Nullable
+	private Object invokeJoinpoint() throws Throwable {
+		if (this.methodProxy != null) {
+			return this.methodProxy.invoke(this.target, this.arguments);
+		}
+		else {
+			return AopUtils.invokeJoinpointUsingReflection(this.target, getChain().getMethod(), this.arguments);
+		}
+	}
+
+
+	/**
+	 * This implementation returns a shallow copy of this invocation object,
+	 * including an independent copy of the original arguments array.
+	 * @see ReflectiveMethodInvocation#invocableClone()
+	 */
+	@Override
+	public MethodInvocation invocableClone() {
+		return invocableClone(this.arguments.clone());
+	}
+
+	/**
+	 * This implementation returns a shallow copy of this invocation object,
+	 * using the given arguments array for the clone. The clone stays bound to
+	 * the interceptor chain and is not affected when this invocation gets reset
+	 * for its next call.
+	 * @see ReflectiveMethodInvocation#invocableClone(Object...)
+	 */
+	@Override
+	public MethodInvocation invocableClone(Object... arguments) {
+		// Only an invocation in progress has a state to clone.
+		getChain();
+
+		// Force initialization of the user attributes Map,
+		// for having a shared Map reference in the clone.
+		if (this.userAttributes == null) {
+			this.userAttributes = new HashMap<>();
+		}
+
+		// Create the MethodInvocation clone.
+		try {
+			ReusableMethodInvocation clone = (ReusableMethodInvocation) clone();
+			clone.arguments = arguments;
+			clone.nested = null;
+			return clone;
+		}
+		catch (CloneNotSupportedException ex) {
+			throw new IllegalStateException(
+					"Should be able to clone object of type [" + getClass() + "]: " + ex);
+		}
+	}
+
+
+	@Override
+	public void setUserAttribute(String key, @Nullable Object value) {
+		if (value != null) {
+			if (this.userAttributes == null) {
+				this.userAttributes = new HashMap<>();
+			}
+			this.userAttributes.put(key, value);
+		}
+		else {
+			if (this.userAttributes != null) {
+				this.userAttributes.remove(key);
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public Object getUserAttribute(String key) {
+		return (this.userAttributes != null ? this.userAttributes.get(key) : null);
+	}
+
+
+	@Override
+	public String toString() {
+		// Don't do toString on target, it may be proxied.
+		InterceptorChain chain = this.chain;
+		if (chain == null) {
+			return "ReusableMethodInvocation: not in progress";
+		}
+		StringBuilder sb = new StringBuilder("ReusableMethodInvocation: ");
+		sb.append(chain.getMethod()).append("; ");
+		if (this.target == null) {
+			sb.append("target is null");
+		}
+		else {
+			sb.append("target is of class [").append(this.target.getClass().getName()).append(']');
+		}
+		return sb.toString();
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import org.aopalliance.intercept.MethodInvocation;
 
 import org.springframework.aop.BeforeAdvice;
 import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.NonCapturingInterceptor;
 import org.springframework.util.Assert;
 
 /**
@@ -35,7 +36,7 @@ import org.springframework.util.Assert;
  * @see ThrowsAdviceInterceptor
  */
 @SuppressWarnings("serial")
-public class MethodBeforeAdviceInterceptor implements MethodInterceptor, BeforeAdvice, Serializable {
+public class MethodBeforeAdviceInterceptor implements MethodInterceptor, BeforeAdvice, NonCapturingInterceptor, Serializable {
 
 	private final MethodBeforeAdvice advice;
 
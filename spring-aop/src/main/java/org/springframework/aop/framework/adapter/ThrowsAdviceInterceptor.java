@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.aop.AfterAdvice;
+import org.springframework.aop.NonCapturingInterceptor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -54,7 +55,7 @@ import org.springframework.util.Assert;
  * @see MethodBeforeAdviceInterceptor
  * @see AfterReturningAdviceInterceptor
  */
-public class ThrowsAdviceInterceptor implements MethodInterceptor, AfterAdvice {
+public class ThrowsAdviceInterceptor implements MethodInterceptor, AfterAdvice, NonCapturingInterceptor {
 
 	private static final String AFTER_THROWING = "afterThrowing";
 
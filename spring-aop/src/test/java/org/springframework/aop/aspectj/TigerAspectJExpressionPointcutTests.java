@@ -179,6 +179,39 @@ public class TigerAspectJExpressionPointcutTests {
 		assertThat(ajexp.matches(IBeanA.class.getMethod("getAge"), proxy.getClass())).isTrue();
 	}
 
+	@Test
+	public void testClassFilterWithAnnotationOnMethod() {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@annotation(test.annotation.transaction.Tx)");
+
+		assertThat(ajexp.matches(TestBean.class)).isFalse();
+		assertThat(ajexp.matches(SpringAnnotated.class)).isFalse();
+		assertThat(ajexp.matches(BeanA.class)).isTrue();
+		assertThat(ajexp.matches(HasTransactionalAnnotation.class)).isTrue();
+
+		ProxyFactory factory = new ProxyFactory(new BeanA());
+		factory.setProxyTargetClass(false);
+		assertThat(ajexp.matches(factory.getProxy().getClass())).isTrue();
+	}
+
+	@Test
+	public void testClassFilterWithAnnotationOnClassAndFurtherConditions() {
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("execution(* set*(..)) && @within(test.annotation.transaction.Tx)");
+		assertThat(ajexp.matches(TestBean.class)).isFalse();
+		assertThat(ajexp.matches(BeanB.class)).isTrue();
+
+		ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@within(test.annotation.transaction.Tx) || @within(test.annotation.EmptySpringAnnotation)");
+		assertThat(ajexp.matches(TestBean.class)).isFalse();
+		assertThat(ajexp.matches(BeanB.class)).isTrue();
+		assertThat(ajexp.matches(SpringAnnotated.class)).isTrue();
+
+		ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression("@within(test.annotation.transaction.Tx) || execution(* getAge())");
+		assertThat(ajexp.matches(TestBean.class)).isTrue();
+	}
+
 	@Test
 	public void testAnnotationOnMethodWithWildcard() throws Exception {
 		String expression = "execution(@(test.annotation..*) * *(..))";
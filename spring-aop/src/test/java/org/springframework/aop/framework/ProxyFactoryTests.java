@@ -16,8 +16,10 @@
 
 package org.springframework.aop.framework;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.accessibility.Accessible;
 import javax.swing.JFrame;
 import javax.swing.RootPaneContainer;
@@ -28,6 +30,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.aop.Advisor;
+import org.springframework.aop.NonCapturingInterceptor;
 import org.springframework.aop.interceptor.DebugInterceptor;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultIntroductionAdvisor;
@@ -35,6 +38,7 @@ import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.DelegatingIntroductionInterceptor;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
+import org.springframework.lang.Nullable;
 import org.springframework.tests.TimeStamped;
 import org.springframework.tests.aop.advice.CountingBeforeAdvice;
 import org.springframework.tests.aop.interceptor.NopInterceptor;
@@ -359,6 +363,55 @@ public class ProxyFactoryTests {
 		assertThat(list.get(1)).isSameAs(proxy1);
 	}
 
+	@Test
+	public void testOverriddenInterceptorLookupUsedForEveryInvocation() {
+		AtomicInteger lookups = new AtomicInteger();
+		@SuppressWarnings("serial")
+		ProxyFactory pf = new ProxyFactory(new TestBean()) {
+			@Override
+			public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+				lookups.incrementAndGet();
+				return super.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			}
+		};
+		NopInterceptor nop = new NopInterceptor();
+		pf.addAdvice(nop);
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		proxy.getAge();
+		proxy.getAge();
+		assertThat(lookups.get()).isEqualTo(2);
+		assertThat(nop.getCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void testOverriddenInterceptorLookupWithNonCachingChainFactory() {
+		AtomicInteger lookups = new AtomicInteger();
+		AdvisorChainFactory chainFactory = (config, method, targetClass) -> {
+			lookups.incrementAndGet();
+			return new ArrayList<>(new DefaultAdvisorChainFactory().getInterceptorsAndDynamicInterceptionAdvice(
+					config, method, targetClass));
+		};
+		@SuppressWarnings("serial")
+		ProxyFactory pf = new ProxyFactory(new TestBean()) {
+			@Override
+			public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+				return chainFactory.getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass);
+			}
+		};
+		List<MethodInvocation> invocations = new ArrayList<>();
+		pf.addAdvice(new InvocationRecordingInterceptor(invocations));
+		ITestBean proxy = (ITestBean) pf.getProxy();
+		proxy.setAge(26);
+		assertThat(proxy.getAge()).isEqualTo(26);
+		assertThat(proxy.getAge()).isEqualTo(26);
+		assertThat(lookups.get()).isEqualTo(3);
+		// Neither reused nor invoking the target through a method proxy
+		assertThat(invocations).hasSize(3);
+		assertThat(invocations).allSatisfy(invocation ->
+				assertThat(invocation).isExactlyInstanceOf(ReflectiveMethodInvocation.class));
+		assertThat(invocations.get(2)).isNotSameAs(invocations.get(1));
+	}
+
 	@Test
 	public void testInterceptorWithoutJoinpoint() {
 		final TestBean target = new TestBean("tb");
@@ -370,6 +423,22 @@ public class ProxyFactoryTests {
 	}
 
 
+	private static class InvocationRecordingInterceptor implements MethodInterceptor, NonCapturingInterceptor {
+
+		private final List<MethodInvocation> invocations;
+
+		public InvocationRecordingInterceptor(List<MethodInvocation> invocations) {
+			this.invocations = invocations;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			this.invocations.add(invocation);
+			return invocation.proceed();
+		}
+	}
+
+
 	@SuppressWarnings("serial")
 	private static class TimestampIntroductionInterceptor extends DelegatingIntroductionInterceptor
 			implements TimeStamped {
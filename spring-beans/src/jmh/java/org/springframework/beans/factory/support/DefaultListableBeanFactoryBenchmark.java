@@ -0,0 +1,115 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+/**
+ * Benchmarks for bean retrieval and creation with {@link DefaultListableBeanFactory}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"10", "1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("repository" + i, new RootBeanDefinition(Repository.class));
+			}
+			this.beanFactory.registerBeanDefinition("singleton", new RootBeanDefinition(Service.class));
+
+			RootBeanDefinition prototype = new RootBeanDefinition(Service.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+
+			RootBeanDefinition wiredPrototype = new RootBeanDefinition(Service.class);
+			wiredPrototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			wiredPrototype.getPropertyValues().add("repository", new RuntimeBeanReference("repository0"));
+			wiredPrototype.getPropertyValues().add("name", "wired");
+			this.beanFactory.registerBeanDefinition("wiredPrototype", wiredPrototype);
+
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+	@Benchmark
+	public Object getSingletonByName(BenchmarkData data) {
+		return data.beanFactory.getBean("singleton");
+	}
+
+	@Benchmark
+	public Object getPrototypeByName(BenchmarkData data) {
+		return data.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object getPrototypeWithPropertiesByName(BenchmarkData data) {
+		return data.beanFactory.getBean("wiredPrototype");
+	}
+
+	@Benchmark
+	public void getBeanNamesForType(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.beanFactory.getBeanNamesForType(Repository.class));
+	}
+
+
+	public static class Repository {
+	}
+
+	public static class Service {
+
+		private Repository repository;
+
+		private String name;
+
+		public void setRepository(Repository repository) {
+			this.repository = repository;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of bean definition names by bean type, allowing
+ * {@link DefaultListableBeanFactory} to restrict by-type lookups
+ * to the beans that may possibly match.
+ *
+ * <p>A bean gets indexed under its type as well as all of that type's
+ * superclasses and interfaces once its type has been determined, and
+ * returns to the pending state on any change that may affect its type.
+ * Pending beans and beans whose type cannot be indexed (e.g. FactoryBeans
+ * and non-singletons) are candidates for every lookup.
+ *
+ * <p>All bean names are kept ordered by registration sequence number,
+ * so that candidates can be returned in registration order by merging
+ * the indexed names with the pending and unindexed names, without sorting.
+ *
+ * @since 5.2
+ * @see DefaultListableBeanFactory#getBeanNamesForType
+ */
+final class BeanTypeIndex {
+
+	/** Registration sequence number per bean name, for preserving registration order. */
+	private final Map<String, Long> registrationOrder = new HashMap<>(256);
+
+	/** Indexed type per bean name. */
+	private final Map<String, Class<?>> beanTypes = new HashMap<>(256);
+
+	/** Names of indexed beans per type, including the supertypes of their indexed type, by registration order. */
+	private final Map<Class<?>, SortedMap<Long, String>> beanNamesByType = new HashMap<>(256);
+
+	/** Names of beans whose type has not been determined yet. */
+	private final Set<String> pendingBeanNames = new HashSet<>(256);
+
+	/** Names of pending beans and of beans whose type is not suitable for indexing, by registration order. */
+	private final SortedMap<Long, String> unresolvedBeanNames = new TreeMap<>();
+
+	private long nextRegistration;
+
+	private long modificationCount;
+
+
+	/**
+	 * Register the given bean name, initially in the pending state.
+	 * Re-registering an existing name keeps its registration order.
+	 */
+	synchronized void registerBeanName(String beanName) {
+		if (!this.registrationOrder.containsKey(beanName)) {
+			this.registrationOrder.put(beanName, this.nextRegistration++);
+		}
+		reset(beanName);
+	}
+
+	/**
+	 * Remove the given bean name from the index.
+	 */
+	synchronized void removeBeanName(String beanName) {
+		Long registration = this.registrationOrder.remove(beanName);
+		if (registration != null) {
+			removeIndexedType(beanName, registration);
+			this.pendingBeanNames.remove(beanName);
+			this.unresolvedBeanNames.remove(registration);
+			this.modificationCount++;
+		}
+	}
+
+	/**
+	 * Return the given bean to the pending state, to be indexed again.
+	 */
+	synchronized void invalidate(String beanName) {
+		if (this.registrationOrder.containsKey(beanName)) {
+			reset(beanName);
+		}
+	}
+
+	/**
+	 * Return all beans to the pending state, to be indexed again.
+	 */
+	synchronized void invalidateAll() {
+		this.beanTypes.clear();
+		this.beanNamesByType.clear();
+		this.pendingBeanNames.addAll(this.registrationOrder.keySet());
+		this.registrationOrder.forEach((beanName, registration) -> this.unresolvedBeanNames.put(registration, beanName));
+		this.modificationCount++;
+	}
+
+	/**
+	 * Return whether the given bean is pending, i.e. has not been indexed yet.
+	 */
+	synchronized boolean isPending(String beanName) {
+		return this.pendingBeanNames.contains(beanName);
+	}
+
+	/**
+	 * Return a counter for changes to the index, to be passed into
+	 * {@link #setBeanType} after determining the type of a bean.
+	 */
+	synchronized long getModificationCount() {
+		return this.modificationCount;
+	}
+
+	/**
+	 * Index the given pending bean under the given type.
+	 * <p>Ignored if the index has been modified in the meantime,
+	 * leaving the bean pending.
+	 * @param beanName the name of the bean
+	 * @param beanType the type of the bean, or {@code null} if the bean
+	 * is not suitable for indexing
+	 * @param expectedModificationCount the counter as obtained from
+	 * {@link #getModificationCount()} before determining the type
+	 */
+	synchronized void setBeanType(String beanName, @Nullable Class<?> beanType, long expectedModificationCount) {
+		if (this.modificationCount != expectedModificationCount || !this.pendingBeanNames.remove(beanName)) {
+			return;
+		}
+		if (beanType != null) {
+			Long registration = this.registrationOrder.get(beanName);
+			this.unresolvedBeanNames.remove(registration);
+			this.beanTypes.put(beanName, beanType);
+			for (Class<?> type : getTypeHierarchy(beanType)) {
+				this.beanNamesByType.computeIfAbsent(type, key -> new TreeMap<>()).put(registration, beanName);
+			}
+		}
+		// Otherwise the bean remains a candidate for every lookup.
+	}
+
+	/**
+	 * Return the names of the beans that may match the given type:
+	 * the beans indexed under that type as well as all pending and
+	 * unindexed beans, in registration order.
+	 * @param type the raw type to match (not {@code Object})
+	 */
+	synchronized List<String> getCandidateNames(Class<?> type) {
+		SortedMap<Long, String> indexedBeanNames = this.beanNamesByType.get(type);
+		if (indexedBeanNames == null) {
+			return new ArrayList<>(this.unresolvedBeanNames.values());
+		}
+		// Both maps are disjoint and ordered by registration -> merge them.
+		List<String> candidates = new ArrayList<>(indexedBeanNames.size() + this.unresolvedBeanNames.size());
+		Iterator<Map.Entry<Long, String>> indexed = indexedBeanNames.entrySet().iterator();
+		Iterator<Map.Entry<Long, String>> unresolved = this.unresolvedBeanNames.entrySet().iterator();
+		Map.Entry<Long, String> nextIndexed = (indexed.hasNext() ? indexed.next() : null);
+		Map.Entry<Long, String> nextUnresolved = (unresolved.hasNext() ? unresolved.next() : null);
+		while (nextIndexed != null || nextUnresolved != null) {
+			if (nextUnresolved == null ||
+					(nextIndexed != null && nextIndexed.getKey() < nextUnresolved.getKey())) {
+				candidates.add(nextIndexed.getValue());
+				nextIndexed = (indexed.hasNext() ? indexed.next() : null);
+			}
+			else {
+				candidates.add(nextUnresolved.getValue());
+				nextUnresolved = (unresolved.hasNext() ? unresolved.next() : null);
+			}
+		}
+		return candidates;
+	}
+
+	private void reset(String beanName) {
+		Long registration = this.registrationOrder.get(beanName);
+		removeIndexedType(beanName, registration);
+		this.pendingBeanNames.add(beanName);
+		this.unresolvedBeanNames.put(registration, beanName);
+		this.modificationCount++;
+	}
+
+	private void removeIndexedType(String beanName, Long registration) {
+		Class<?> beanType = this.beanTypes.remove(beanName);
+		if (beanType != null) {
+			for (Class<?> type : getTypeHierarchy(beanType)) {
+				SortedMap<Long, String> beanNames = this.beanNamesByType.get(type);
+				if (beanNames != null && beanNames.remove(registration) != null && beanNames.isEmpty()) {
+					this.beanNamesByType.remove(type);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Determine the given type along with all of its superclasses and
+	 * interfaces, except for {@code Object} which is never indexed.
+	 */
+	private static Set<Class<?>> getTypeHierarchy(Class<?> type) {
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		addTypeHierarchy(type, hierarchy);
+		return hierarchy;
+	}
+
+	private static void addTypeHierarchy(@Nullable Class<?> type, Set<Class<?>> hierarchy) {
+		if (type != null && type != Object.class && hierarchy.add(type)) {
+			addTypeHierarchy(type.getSuperclass(), hierarchy);
+			for (Class<?> ifc : type.getInterfaces()) {
+				addTypeHierarchy(ifc, hierarchy);
+			}
+		}
+	}
+
+}
@@ -44,6 +44,8 @@ import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
 import org.springframework.beans.factory.InjectionPoint;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
@@ -775,11 +777,14 @@ class ConstructorResolver {
 							"] - did you specify the correct bean references as arguments?");
 				}
 				try {
+					Set<String> argumentBeanNames = new LinkedHashSet<>(1);
 					Object autowiredArgument = resolveAutowiredArgument(
-							methodParam, beanName, autowiredBeanNames, converter, fallback);
+							methodParam, beanName, argumentBeanNames, converter, fallback);
+					autowiredBeanNames.addAll(argumentBeanNames);
 					args.rawArguments[paramIndex] = autowiredArgument;
 					args.arguments[paramIndex] = autowiredArgument;
-					args.preparedArguments[paramIndex] = autowiredArgumentMarker;
+					args.preparedArguments[paramIndex] = (mbd.isSingleton() ? autowiredArgumentMarker :
+							getPreparedAutowiredArgument(methodParam, argumentBeanNames));
 					args.resolveNecessary = true;
 				}
 				catch (BeansException ex) {
@@ -820,6 +825,22 @@ class ConstructorResolver {
 			if (argValue == autowiredArgumentMarker) {
 				argValue = resolveAutowiredArgument(methodParam, beanName, null, converter, fallback);
 			}
+			else if (argValue instanceof ShortcutDependencyDescriptor) {
+				try {
+					argValue = this.beanFactory.resolveDependency(
+							(ShortcutDependencyDescriptor) argValue, beanName, null, converter);
+				}
+				catch (NoSuchBeanDefinitionException | BeanNotOfRequiredTypeException ex) {
+					// Target bean removed or replaced in the meantime -> drop the shortcut
+					// and resolve the argument from scratch.
+					synchronized (mbd.constructorArgumentLock) {
+						if (argsToResolve[argIndex] == argValue) {
+							argsToResolve[argIndex] = autowiredArgumentMarker;
+						}
+					}
+					argValue = resolveAutowiredArgument(methodParam, beanName, null, converter, fallback);
+				}
+			}
 			else if (argValue instanceof BeanMetadataElement) {
 				argValue = valueResolver.resolveValueIfNecessary("constructor argument", argValue);
 			}
@@ -840,6 +861,27 @@ class ConstructorResolver {
 		return resolvedArgs;
 	}
 
+	/**
+	 * Determine the prepared form of an autowired argument for a bean that gets
+	 * created repeatedly: a shortcut to the target bean if the argument resolved
+	 * to a single bean of the parameter type, avoiding a by-type lookup for
+	 * subsequent instances, or a marker for full resolution otherwise.
+	 * @param param the autowired parameter
+	 * @param autowiredBeanNames the names of the beans that the argument resolved to
+	 */
+	private Object getPreparedAutowiredArgument(MethodParameter param, Set<String> autowiredBeanNames) {
+		if (autowiredBeanNames.size() == 1) {
+			String autowiredBeanName = autowiredBeanNames.iterator().next();
+			Class<?> paramType = param.getParameterType();
+			if (this.beanFactory.containsBean(autowiredBeanName) &&
+					this.beanFactory.isTypeMatch(autowiredBeanName, paramType)) {
+				return new ShortcutDependencyDescriptor(
+						new DependencyDescriptor(param, true), autowiredBeanName, paramType);
+			}
+		}
+		return autowiredArgumentMarker;
+	}
+
 	protected Constructor<?> getUserDeclaredConstructor(Constructor<?> constructor) {
 		Class<?> declaringClass = constructor.getDeclaringClass();
 		Class<?> userClass = ClassUtils.getUserClass(declaringClass);
@@ -971,6 +1013,29 @@ class ConstructorResolver {
 	}
 
 
+	/**
+	 * DependencyDescriptor variant with a pre-resolved target bean name.
+	 */
+	@SuppressWarnings("serial")
+	private static class ShortcutDependencyDescriptor extends DependencyDescriptor {
+
+		private final String shortcut;
+
+		private final Class<?> requiredType;
+
+		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, Class<?> requiredType) {
+			super(original);
+			this.shortcut = shortcut;
+			this.requiredType = requiredType;
+		}
+
+		@Override
+		public Object resolveShortcut(BeanFactory beanFactory) {
+			return beanFactory.getBean(this.shortcut, this.requiredType);
+		}
+	}
+
+
 	/**
 	 * Delegate for checking Java 6's {@link ConstructorProperties} annotation.
 	 */
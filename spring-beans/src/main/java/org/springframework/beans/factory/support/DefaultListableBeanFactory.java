@@ -40,6 +40,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -72,6 +73,7 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.MergedAnnotation;
@@ -155,6 +157,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Nullable
 	private Comparator<Object> dependencyComparator;
 
+	/** Optional Executor for pre-instantiating singletons in parallel. */
+	@Nullable
+	private Executor bootstrapExecutor;
+
 	/** Resolver to use for checking if a bean definition is an autowire candidate. */
 	private AutowireCandidateResolver autowireCandidateResolver = new SimpleAutowireCandidateResolver();
 
@@ -173,6 +179,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	/** List of bean definition names, in registration order. */
 	private volatile List<String> beanDefinitionNames = new ArrayList<>(256);
 
+	/** Index of bean definition names by bean type, for by-type lookups. */
+	private final BeanTypeIndex beanTypeIndex = new BeanTypeIndex();
+
 	/** List of names of manually registered singletons, in registration order. */
 	private volatile Set<String> manualSingletonNames = new LinkedHashSet<>(16);
 
@@ -286,6 +295,36 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.dependencyComparator;
 	}
 
+	/**
+	 * Specify an {@link Executor} for pre-instantiating independent singletons
+	 * in parallel, typically a thread pool with a bounded number of threads.
+	 * <p>Default is none, creating all non-lazy singletons one after another in
+	 * the thread calling {@link #preInstantiateSingletons()}. If specified, the
+	 * dependencies declared in the bean definitions (depends-on, bean references
+	 * in constructor arguments and property values, factory beans for factory
+	 * methods) determine the order of creation, with each singleton submitted
+	 * to the executor once its declared dependencies have been created.
+	 * Dependencies only discovered during creation, e.g. through autowiring,
+	 * are waited for if another thread creates them at the same time.
+	 * <p>{@link SmartInitializingSingleton} callbacks are invoked in the calling
+	 * thread afterwards, in bean registration order as usual.
+	 * @since 5.2
+	 * @see #preInstantiateSingletons()
+	 * @see #setConcurrentSingletonCreation
+	 */
+	public void setBootstrapExecutor(@Nullable Executor bootstrapExecutor) {
+		this.bootstrapExecutor = bootstrapExecutor;
+	}
+
+	/**
+	 * Return the Executor for pre-instantiating singletons in parallel, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Executor getBootstrapExecutor() {
+		return this.bootstrapExecutor;
+	}
+
 	/**
 	 * Set a custom autowire candidate resolver for this BeanFactory to use
 	 * when deciding whether a bean definition should be considered as a
@@ -323,6 +362,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
+			this.bootstrapExecutor = otherListableFactory.bootstrapExecutor;
+			// Copied bean post-processors may predict different bean types...
+			this.beanTypeIndex.invalidateAll();
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware...
 			setAutowireCandidateResolver(BeanUtils.instantiateClass(getAutowireCandidateResolver().getClass()));
 			// Make resolvable dependencies (e.g. ResourceLoader) available here as well...
@@ -504,8 +546,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
 
-		// Check all bean definitions.
-		for (String beanName : this.beanDefinitionNames) {
+		// Check all bean definitions, or only the candidates from the type index if applicable.
+		boolean useTypeIndex = (getTempClassLoader() == null);
+		Class<?> indexedType = (useTypeIndex ? type.resolve() : null);
+		List<String> beanNames = (indexedType != null && indexedType != Object.class && !indexedType.isPrimitive() ?
+				this.beanTypeIndex.getCandidateNames(indexedType) : this.beanDefinitionNames);
+		for (String beanName : beanNames) {
 			// Only consider bean as eligible if the bean name
 			// is not defined as alias for some other bean.
 			if (!isAlias(beanName)) {
@@ -516,6 +562,9 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 							(mbd.hasBeanClass() || !mbd.isLazyInit() || isAllowEagerClassLoading()) &&
 									!requiresEagerInitForType(mbd.getFactoryBeanName()))) {
 						boolean isFactoryBean = isFactoryBean(beanName, mbd);
+						if (useTypeIndex) {
+							indexBeanType(beanName, mbd, isFactoryBean);
+						}
 						BeanDefinitionHolder dbd = mbd.getDecoratedDefinition();
 						boolean matchFound = false;
 						boolean allowFactoryBeanInit = allowEagerInit || containsSingleton(beanName);
@@ -587,6 +636,34 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
 
+	/**
+	 * Determine the type of the specified bean for the type index, if pending.
+	 * <p>The type of a singleton is the type of its instance or, if not created yet,
+	 * its predicted type. Other beans are not indexed since their type may vary.
+	 * @param beanName the name of the bean
+	 * @param mbd the merged bean definition for the bean
+	 * @param isFactoryBean whether the bean is a FactoryBean
+	 */
+	private void indexBeanType(String beanName, RootBeanDefinition mbd, boolean isFactoryBean) {
+		if (!this.beanTypeIndex.isPending(beanName) || isSingletonCurrentlyInCreation(beanName)) {
+			return;
+		}
+		long modificationCount = this.beanTypeIndex.getModificationCount();
+		Class<?> beanType = null;
+		if (!isFactoryBean && mbd.isSingleton()) {
+			Object beanInstance = getSingleton(beanName, false);
+			beanType = (beanInstance != null ? beanInstance.getClass() : predictBeanType(beanName, mbd));
+			if (beanType == null) {
+				// Type not determinable yet -> try again on next lookup.
+				return;
+			}
+			if (FactoryBean.class.isAssignableFrom(beanType) || NullBean.class == beanType || beanType.isArray()) {
+				beanType = null;
+			}
+		}
+		this.beanTypeIndex.setBeanType(beanName, beanType, modificationCount);
+	}
+
 	/**
 	 * Check whether the specified bean would need to be eagerly initialized
 	 * in order to determine its type.
@@ -817,6 +894,28 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
 		clearByTypeCache();
+		this.beanTypeIndex.invalidateAll();
+	}
+
+	/**
+	 * Overridden to reset the bean's entry in the type index as well.
+	 */
+	@Override
+	protected void clearMergedBeanDefinition(String beanName) {
+		super.clearMergedBeanDefinition(beanName);
+		this.beanTypeIndex.invalidate(beanName);
+	}
+
+	/**
+	 * Overridden to reset the type index as well if the given post-processor
+	 * may predict bean types.
+	 */
+	@Override
+	public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
+		super.addBeanPostProcessor(beanPostProcessor);
+		if (beanPostProcessor instanceof SmartInstantiationAwareBeanPostProcessor) {
+			this.beanTypeIndex.invalidateAll();
+		}
 	}
 
 	@Override
@@ -851,30 +950,14 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		List<String> beanNames = new ArrayList<>(this.beanDefinitionNames);
 
 		// Trigger initialization of all non-lazy singleton beans...
-		for (String beanName : beanNames) {
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				if (isFactoryBean(beanName)) {
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					if (bean instanceof FactoryBean) {
-						final FactoryBean<?> factory = (FactoryBean<?>) bean;
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
-											((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						}
-						else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				}
-				else {
-					getBean(beanName);
+		Executor bootstrapExecutor = getBootstrapExecutor();
+		if (bootstrapExecutor != null) {
+			new ParallelSingletonInstantiator(this, bootstrapExecutor).preInstantiateSingletons(beanNames);
+		}
+		else {
+			for (String beanName : beanNames) {
+				if (isPreInstantiationCandidate(beanName)) {
+					preInstantiateSingleton(beanName);
 				}
 			}
 		}
@@ -898,6 +981,50 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 
+	/**
+	 * Determine whether the specified bean is a non-lazy singleton to be
+	 * pre-instantiated.
+	 * @param beanName the name of the bean
+	 * @since 5.2
+	 */
+	boolean isPreInstantiationCandidate(String beanName) {
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		return (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit());
+	}
+
+	/**
+	 * Pre-instantiate the specified singleton, for a FactoryBean only
+	 * including the object it exposes if declared as eager.
+	 * @param beanName the name of the bean
+	 * @since 5.2
+	 * @see SmartFactoryBean#isEagerInit()
+	 */
+	void preInstantiateSingleton(String beanName) {
+		if (isFactoryBean(beanName)) {
+			Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+			if (bean instanceof FactoryBean) {
+				final FactoryBean<?> factory = (FactoryBean<?>) bean;
+				boolean isEagerInit;
+				if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+					isEagerInit = AccessController.doPrivileged((PrivilegedAction<Boolean>)
+									((SmartFactoryBean<?>) factory)::isEagerInit,
+							getAccessControlContext());
+				}
+				else {
+					isEagerInit = (factory instanceof SmartFactoryBean &&
+							((SmartFactoryBean<?>) factory).isEagerInit());
+				}
+				if (isEagerInit) {
+					getBean(beanName);
+				}
+			}
+		}
+		else {
+			getBean(beanName);
+		}
+	}
+
+
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
 	//---------------------------------------------------------------------
@@ -966,6 +1093,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				this.beanDefinitionNames.add(beanName);
 				removeManualSingletonName(beanName);
 			}
+			this.beanTypeIndex.registerBeanName(beanName);
 			this.frozenBeanDefinitionNames = null;
 		}
 
@@ -998,6 +1126,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			// Still in startup registration phase
 			this.beanDefinitionNames.remove(beanName);
 		}
+		this.beanTypeIndex.removeBeanName(beanName);
 		this.frozenBeanDefinitionNames = null;
 
 		resetBeanDefinition(beanName);
@@ -1061,6 +1190,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		super.destroySingletons();
 		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
 		clearByTypeCache();
+		this.beanTypeIndex.invalidateAll();
 	}
 
 	@Override
@@ -1070,6 +1200,35 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		clearByTypeCache();
 	}
 
+	/**
+	 * Overridden to reset the bean's entry in the type index as well,
+	 * since an early singleton reference may differ from the predicted type.
+	 */
+	@Override
+	protected void beforeSingletonCreation(String beanName) {
+		super.beforeSingletonCreation(beanName);
+		this.beanTypeIndex.invalidate(beanName);
+	}
+
+	/**
+	 * Overridden to reset the bean's entry in the type index as well,
+	 * since the singleton instance may differ from the predicted type.
+	 */
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		this.beanTypeIndex.invalidate(beanName);
+	}
+
+	/**
+	 * Overridden to reset the bean's entry in the type index as well.
+	 */
+	@Override
+	protected void removeSingleton(String beanName) {
+		super.removeSingleton(beanName);
+		this.beanTypeIndex.invalidate(beanName);
+	}
+
 	private void removeManualSingletonName(String beanName) {
 		updateManualSingletonNames(set -> set.remove(beanName), set -> set.contains(beanName));
 	}
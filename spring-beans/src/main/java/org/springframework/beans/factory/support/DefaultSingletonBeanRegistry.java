@@ -25,6 +25,7 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanCreationNotAllowedException;
@@ -32,6 +33,7 @@ import org.springframework.beans.factory.BeanCurrentlyInCreationException;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.SimpleAliasRegistry;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -109,6 +111,19 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	/** Map between depending bean names: bean name to Set of bean names for the bean's dependencies. */
 	private final Map<String, Set<String>> dependenciesForBeanMap = new ConcurrentHashMap<>(64);
 
+	/** Whether singletons may currently be created by several threads at the same time. */
+	private volatile boolean concurrentSingletonCreation = false;
+
+	/** Singletons being created in concurrent mode: bean name to creation in progress. */
+	private final Map<String, SingletonCreation> singletonCreations = new HashMap<>(16);
+
+	/** Threads waiting for a singleton in concurrent mode: waiting thread to awaited creation. */
+	private final Map<Thread, SingletonCreation> singletonCreationWaits = new HashMap<>(16);
+
+	/** Suppressed Exceptions of the current thread in concurrent mode. */
+	private final ThreadLocal<Set<Exception>> concurrentSuppressedExceptions =
+			new NamedThreadLocal<>("Suppressed exceptions of concurrent singleton creation");
+
 
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
@@ -176,6 +191,13 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	protected Object getSingleton(String beanName, boolean allowEarlyReference) {
 		Object singletonObject = this.singletonObjects.get(beanName);
 		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+			if (allowEarlyReference && this.concurrentSingletonCreation) {
+				// Rather wait for the fully initialized singleton if created by another thread.
+				singletonObject = awaitSingletonCreation(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+			}
 			synchronized (this.singletonObjects) {
 				singletonObject = this.earlySingletonObjects.get(beanName);
 				if (singletonObject == null && allowEarlyReference) {
@@ -201,6 +223,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		synchronized (this.singletonObjects) {
 			Object singletonObject = this.singletonObjects.get(beanName);
 			if (singletonObject == null) {
@@ -252,12 +277,172 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent singleton
+	 * creation, only holding the singleton mutex for registration purposes and waiting
+	 * for the singleton if another thread is creating it already.
+	 * @param beanName the name of the bean
+	 * @param singletonFactory the ObjectFactory to lazily create the singleton
+	 * with, if necessary
+	 * @return the registered singleton object
+	 * @see #setConcurrentSingletonCreation
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		SingletonCreation creation = null;
+		while (creation == null) {
+			Object singletonObject = awaitSingletonCreation(beanName);
+			if (singletonObject != null) {
+				return singletonObject;
+			}
+			synchronized (this.singletonObjects) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+				// Another thread may have started creating it in the meantime -> wait again.
+				if (!isToBeAwaited(this.singletonCreations.get(beanName), currentThread)) {
+					if (this.singletonsCurrentlyInDestruction) {
+						throw new BeanCreationNotAllowedException(beanName,
+								"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+								"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+					}
+					if (logger.isDebugEnabled()) {
+						logger.debug("Creating shared instance of singleton bean '" + beanName + "' in thread '" +
+								currentThread.getName() + "'");
+					}
+					// Fails for a circular reference within the current thread or across threads.
+					beforeSingletonCreation(beanName);
+					creation = new SingletonCreation(currentThread);
+					this.singletonCreations.put(beanName, creation);
+				}
+			}
+		}
+
+		Object singletonObject = null;
+		boolean newSingleton = false;
+		boolean recordSuppressedExceptions = (this.concurrentSuppressedExceptions.get() == null);
+		if (recordSuppressedExceptions) {
+			this.concurrentSuppressedExceptions.set(new LinkedHashSet<>());
+		}
+		try {
+			singletonObject = singletonFactory.getObject();
+			newSingleton = true;
+		}
+		catch (IllegalStateException ex) {
+			// Has the singleton object implicitly appeared in the meantime ->
+			// if yes, proceed with it since the exception indicates that state.
+			singletonObject = this.singletonObjects.get(beanName);
+			if (singletonObject == null) {
+				throw ex;
+			}
+		}
+		catch (BeanCreationException ex) {
+			if (recordSuppressedExceptions) {
+				for (Exception suppressedException : this.concurrentSuppressedExceptions.get()) {
+					ex.addRelatedCause(suppressedException);
+				}
+			}
+			throw ex;
+		}
+		finally {
+			if (recordSuppressedExceptions) {
+				this.concurrentSuppressedExceptions.remove();
+			}
+			synchronized (this.singletonObjects) {
+				if (newSingleton) {
+					addSingleton(beanName, singletonObject);
+				}
+				afterSingletonCreation(beanName);
+				this.singletonCreations.remove(beanName);
+			}
+			creation.complete();
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Wait for the given singleton if it is being created by another thread,
+	 * unless that thread is (indirectly) waiting for the current thread itself,
+	 * i.e. in case of a circular reference across threads.
+	 * <p>If the current thread holds the singleton mutex, it cannot wait since the
+	 * creating thread could not complete; neither must it see the early reference
+	 * of a singleton that another thread is still initializing. A
+	 * {@link BeanCurrentlyInCreationException} gets thrown in that case instead.
+	 * @param beanName the name of the bean
+	 * @return the singleton object if available now, or {@code null} if not
+	 * @throws BeanCurrentlyInCreationException if the singleton would have to be
+	 * awaited while holding the singleton mutex
+	 */
+	@Nullable
+	private Object awaitSingletonCreation(String beanName) {
+		Thread currentThread = Thread.currentThread();
+		boolean holdsMutex = Thread.holdsLock(this.singletonObjects);
+		while (true) {
+			SingletonCreation creation;
+			synchronized (this.singletonObjects) {
+				creation = this.singletonCreations.get(beanName);
+				if (!isToBeAwaited(creation, currentThread)) {
+					return this.singletonObjects.get(beanName);
+				}
+				if (holdsMutex) {
+					throw new BeanCurrentlyInCreationException(beanName,
+							"Singleton bean is currently in creation in thread '" + creation.getThread().getName() +
+							"' and cannot be awaited while holding the singleton mutex");
+				}
+				this.singletonCreationWaits.put(currentThread, creation);
+			}
+			try {
+				creation.await();
+			}
+			catch (InterruptedException ex) {
+				currentThread.interrupt();
+				throw new BeanCreationException(beanName,
+						"Interrupted while waiting for singleton creation in thread '" + creation.getThread().getName() + "'");
+			}
+			finally {
+				synchronized (this.singletonObjects) {
+					this.singletonCreationWaits.remove(currentThread);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the current thread needs to wait for the given singleton creation,
+	 * i.e. whether it is in progress in another thread that does not (indirectly) wait
+	 * for the current thread itself.
+	 * <p>To be called with the singleton mutex held.
+	 */
+	private boolean isToBeAwaited(@Nullable SingletonCreation creation, Thread currentThread) {
+		if (creation == null || creation.getThread() == currentThread) {
+			return false;
+		}
+		Thread waitingThread = creation.getThread();
+		for (int i = 0; i < this.singletonCreationWaits.size(); i++) {
+			SingletonCreation awaitedCreation = this.singletonCreationWaits.get(waitingThread);
+			if (awaitedCreation == null) {
+				return true;
+			}
+			waitingThread = awaitedCreation.getThread();
+			if (waitingThread == currentThread) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Register an Exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
 	 * @param ex the Exception to register
 	 */
 	protected void onSuppressedException(Exception ex) {
+		Set<Exception> concurrentSuppressedExceptions = this.concurrentSuppressedExceptions.get();
+		if (concurrentSuppressedExceptions != null) {
+			concurrentSuppressedExceptions.add(ex);
+			return;
+		}
 		synchronized (this.singletonObjects) {
 			if (this.suppressedExceptions != null) {
 				this.suppressedExceptions.add(ex);
@@ -300,6 +485,36 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	}
 
 
+	/**
+	 * Specify whether singletons may be created by several threads at the same time,
+	 * e.g. during parallel pre-instantiation of singletons.
+	 * <p>Default is "false", creating one singleton at a time while holding the
+	 * {@link #getSingletonMutex() singleton mutex}. If switched on, the mutex is
+	 * only held for registration purposes, with a thread that requests a singleton
+	 * currently being created by another thread waiting for its completion. This
+	 * is unless the other thread is in turn waiting for the requesting thread,
+	 * in which case circular references are resolved through early singleton
+	 * references just like within a single thread. Where no early reference is
+	 * available, or where the requesting thread holds the singleton mutex itself,
+	 * a {@link BeanCurrentlyInCreationException} gets thrown, which callers may
+	 * take as a signal to retry the creation in a single thread.
+	 * <p>Only to be switched while no singletons are being created.
+	 * @since 5.2
+	 * @see #getSingleton(String, ObjectFactory)
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		this.concurrentSingletonCreation = concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether singletons may be created by several threads at the same time.
+	 * @since 5.2
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
 	public void setCurrentlyInCreation(String beanName, boolean inCreation) {
 		Assert.notNull(beanName, "Bean name must not be null");
 		if (!inCreation) {
@@ -617,4 +832,32 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		return this.singletonObjects;
 	}
 
+
+	/**
+	 * A singleton being created by a specific thread in concurrent mode,
+	 * allowing other threads to wait for its completion.
+	 */
+	private static final class SingletonCreation {
+
+		private final Thread thread;
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		SingletonCreation(Thread thread) {
+			this.thread = thread;
+		}
+
+		Thread getThread() {
+			return this.thread;
+		}
+
+		void await() throws InterruptedException {
+			this.latch.await();
+		}
+
+		void complete() {
+			this.latch.countDown();
+		}
+	}
+
 }
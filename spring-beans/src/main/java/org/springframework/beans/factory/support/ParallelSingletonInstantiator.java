@@ -0,0 +1,385 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanCurrentlyInCreationException;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Helper class for pre-instantiating the non-lazy singletons of a
+ * {@link DefaultListableBeanFactory} in parallel, based on the dependency
+ * graph derived from their bean definitions.
+ *
+ * <p>Each singleton gets submitted to the given {@link Executor} once all of
+ * its declared dependencies have been created, so independent parts of the
+ * graph are created at the same time. Singletons involved in declared circular
+ * references are created one after another in the calling thread afterwards.
+ * The same applies to singletons running into a circular reference at runtime,
+ * e.g. between beans created by different threads: since such a circular
+ * reference may only result from the order of creation across threads, their
+ * creation is retried in the calling thread, in registration order. Since a failed
+ * attempt tears down the singleton, beans that obtained a reference to it in the
+ * meantime get destroyed and recreated in the calling thread as well.
+ *
+ * @since 5.2
+ * @see DefaultListableBeanFactory#setBootstrapExecutor
+ */
+class ParallelSingletonInstantiator {
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+	private final Log logger;
+
+	@Nullable
+	private final ClassLoader contextClassLoader;
+
+	/** Names of the beans depending on a bean, limited to the beans to pre-instantiate. */
+	private final Map<String, List<String>> dependentBeans = new HashMap<>();
+
+	/** Number of declared dependencies not created yet: bean name to count. */
+	private final Map<String, Integer> pendingDependencies = new HashMap<>();
+
+	/** Time taken to create each singleton: bean name to nanoseconds. */
+	private final Map<String, Long> creationTimes = new ConcurrentHashMap<>();
+
+	/** Names of the beans torn down after failing due to a circular reference at runtime. */
+	private final Set<String> deferredBeans = new LinkedHashSet<>();
+
+	private int runningTasks;
+
+	@Nullable
+	private Throwable failure;
+
+
+	ParallelSingletonInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+		this.logger = beanFactory.getLogger();
+		this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+	}
+
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given beans,
+	 * returning once all of them have been created.
+	 * @param beanNames the names of the beans, in registration order
+	 */
+	void preInstantiateSingletons(List<String> beanNames) {
+		long startTime = System.nanoTime();
+		List<String> candidates = new ArrayList<>(beanNames.size());
+		for (String beanName : beanNames) {
+			if (this.beanFactory.isPreInstantiationCandidate(beanName)) {
+				candidates.add(beanName);
+			}
+		}
+
+		List<String> independentBeans = new ArrayList<>();
+		Set<String> candidateSet = new HashSet<>(candidates);
+		for (String beanName : candidates) {
+			Set<String> dependencies = new LinkedHashSet<>();
+			for (String dependency : getDeclaredDependencies(beanName)) {
+				String canonicalName = this.beanFactory.canonicalName(BeanFactoryUtils.transformedBeanName(dependency));
+				if (!canonicalName.equals(beanName) && candidateSet.contains(canonicalName)) {
+					dependencies.add(canonicalName);
+				}
+			}
+			for (String dependency : dependencies) {
+				this.dependentBeans.computeIfAbsent(dependency, key -> new ArrayList<>()).add(beanName);
+			}
+			this.pendingDependencies.put(beanName, dependencies.size());
+			if (dependencies.isEmpty()) {
+				independentBeans.add(beanName);
+			}
+		}
+
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		try {
+			for (String beanName : independentBeans) {
+				submit(beanName);
+			}
+			awaitCompletion();
+		}
+		finally {
+			this.beanFactory.setConcurrentSingletonCreation(false);
+		}
+
+		Throwable failure = this.failure;
+		if (failure != null) {
+			ReflectionUtils.rethrowRuntimeException(failure);
+		}
+
+		// Beans that obtained a reference to a singleton torn down after a failed attempt,
+		// unless destroyed along with it already...
+		for (String beanName : this.deferredBeans) {
+			for (String dependentBean : this.beanFactory.getDependentBeans(beanName)) {
+				this.beanFactory.destroySingleton(dependentBean);
+			}
+		}
+
+		// Remaining beans with circular dependencies between their bean definitions
+		// or with circular references at runtime, plus the beans depending on them...
+		for (String beanName : candidates) {
+			if (!this.beanFactory.containsSingleton(beanName)) {
+				long beanStartTime = System.nanoTime();
+				this.beanFactory.preInstantiateSingleton(beanName);
+				this.creationTimes.put(beanName, System.nanoTime() - beanStartTime);
+			}
+		}
+
+		if (logger.isDebugEnabled()) {
+			logger.debug(getTimingReport(candidates, System.nanoTime() - startTime,
+					logger.isTraceEnabled() ? candidates.size() : 10));
+		}
+	}
+
+	/**
+	 * Determine the names of the beans that the given bean declares dependencies on.
+	 */
+	private Set<String> getDeclaredDependencies(String beanName) {
+		Set<String> dependencies = new LinkedHashSet<>();
+		addDeclaredDependencies(dependencies, this.beanFactory.getMergedLocalBeanDefinition(beanName));
+		Collections.addAll(dependencies, this.beanFactory.getDependenciesForBean(beanName));
+		return dependencies;
+	}
+
+	private void addDeclaredDependencies(Set<String> dependencies, BeanDefinition bd) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			Collections.addAll(dependencies, dependsOn);
+		}
+		if (bd.getFactoryBeanName() != null) {
+			dependencies.add(bd.getFactoryBeanName());
+		}
+		if (bd.hasConstructorArgumentValues()) {
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+				addReferencedBeans(dependencies, valueHolder.getValue());
+			}
+			for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+				addReferencedBeans(dependencies, valueHolder.getValue());
+			}
+		}
+		if (bd.hasPropertyValues()) {
+			for (PropertyValue pv : bd.getPropertyValues().getPropertyValues()) {
+				addReferencedBeans(dependencies, pv.getValue());
+			}
+		}
+	}
+
+	private void addReferencedBeans(Set<String> dependencies, @Nullable Object value) {
+		if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			if (!reference.isToParent() && reference.getBeanType() == null) {
+				dependencies.add(reference.getBeanName());
+			}
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			addDeclaredDependencies(dependencies, ((BeanDefinitionHolder) value).getBeanDefinition());
+		}
+		else if (value instanceof BeanDefinition) {
+			addDeclaredDependencies(dependencies, (BeanDefinition) value);
+		}
+		else if (value instanceof Collection) {
+			for (Object element : (Collection<?>) value) {
+				addReferencedBeans(dependencies, element);
+			}
+		}
+		else if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				addReferencedBeans(dependencies, entry.getKey());
+				addReferencedBeans(dependencies, entry.getValue());
+			}
+		}
+		else if (value instanceof Object[]) {
+			for (Object element : (Object[]) value) {
+				addReferencedBeans(dependencies, element);
+			}
+		}
+	}
+
+	private void submit(String beanName) {
+		synchronized (this) {
+			this.runningTasks++;
+		}
+		try {
+			this.executor.execute(() -> instantiate(beanName));
+		}
+		catch (RejectedExecutionException ex) {
+			// Executor saturated -> create the singleton in the submitting thread
+			instantiate(beanName);
+		}
+	}
+
+	private void instantiate(String beanName) {
+		List<String> readyBeans = Collections.emptyList();
+		try {
+			if (!hasFailed()) {
+				Thread currentThread = Thread.currentThread();
+				ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+				currentThread.setContextClassLoader(this.contextClassLoader);
+				long startTime = System.nanoTime();
+				try {
+					this.beanFactory.preInstantiateSingleton(beanName);
+					this.creationTimes.put(beanName, System.nanoTime() - startTime);
+					readyBeans = getReadyDependentBeans(beanName);
+				}
+				finally {
+					currentThread.setContextClassLoader(originalClassLoader);
+				}
+			}
+		}
+		catch (BeanCreationException ex) {
+			if (ex.contains(BeanCurrentlyInCreationException.class)) {
+				// Possibly a circular reference across threads -> retry in calling thread.
+				registerDeferral(beanName, ex);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Deferring creation of singleton '" + beanName +
+							"' to sequential pre-instantiation: " + ex.getMessage());
+				}
+			}
+			else {
+				registerFailure(ex);
+			}
+		}
+		catch (Throwable ex) {
+			registerFailure(ex);
+		}
+		finally {
+			for (String readyBean : readyBeans) {
+				submit(readyBean);
+			}
+			synchronized (this) {
+				this.runningTasks--;
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Mark the given bean as created, returning the dependent beans
+	 * that have no more dependencies to wait for.
+	 */
+	private synchronized List<String> getReadyDependentBeans(String beanName) {
+		List<String> dependentBeans = this.dependentBeans.get(beanName);
+		if (dependentBeans == null) {
+			return Collections.emptyList();
+		}
+		List<String> readyBeans = new ArrayList<>(dependentBeans.size());
+		for (String dependentBean : dependentBeans) {
+			int pending = this.pendingDependencies.merge(dependentBean, -1, Integer::sum);
+			if (pending == 0) {
+				readyBeans.add(dependentBean);
+			}
+		}
+		return readyBeans;
+	}
+
+	/**
+	 * Record the given bean as deferred to sequential pre-instantiation, along with
+	 * all beans in the chain of failed creations, since all of them got torn down.
+	 */
+	private synchronized void registerDeferral(String beanName, BeanCreationException ex) {
+		this.deferredBeans.add(beanName);
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof BeanCreationException) {
+				String failedBean = ((BeanCreationException) cause).getBeanName();
+				if (failedBean != null) {
+					this.deferredBeans.add(failedBean);
+				}
+			}
+		}
+	}
+
+	private synchronized boolean hasFailed() {
+		return (this.failure != null);
+	}
+
+	private synchronized void registerFailure(Throwable ex) {
+		if (this.failure == null) {
+			this.failure = ex;
+		}
+		else if (this.failure instanceof BeanCreationException && ex instanceof Exception) {
+			((BeanCreationException) this.failure).addRelatedCause((Exception) ex);
+		}
+	}
+
+	/**
+	 * Wait until all submitted tasks have completed, including the ones
+	 * they submitted in turn. Interruption is deferred since singletons
+	 * must not be created concurrently once this method has returned.
+	 */
+	private synchronized void awaitCompletion() {
+		boolean interrupted = false;
+		while (this.runningTasks > 0) {
+			try {
+				wait();
+			}
+			catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Build a report of the time taken per singleton, slowest first.
+	 * @param beanNames the names of the pre-instantiated singletons
+	 * @param totalTime the total time taken in nanoseconds
+	 * @param limit the maximum number of singletons to list
+	 */
+	private String getTimingReport(List<String> beanNames, long totalTime, int limit) {
+		List<String> sortedBeanNames = new ArrayList<>(beanNames);
+		sortedBeanNames.sort((name1, name2) ->
+				Long.compare(this.creationTimes.getOrDefault(name2, 0L), this.creationTimes.getOrDefault(name1, 0L)));
+		StringBuilder report = new StringBuilder("Pre-instantiated ").append(beanNames.size())
+				.append(" singletons in parallel within ").append(TimeUnit.NANOSECONDS.toMillis(totalTime))
+				.append(" ms; time per singleton, including time spent waiting for dependencies:");
+		for (String beanName : sortedBeanNames.subList(0, Math.min(limit, sortedBeanNames.size()))) {
+			report.append("\n\t").append(beanName).append(": ")
+					.append(TimeUnit.NANOSECONDS.toMillis(this.creationTimes.getOrDefault(beanName, 0L))).append(" ms");
+		}
+		return report.toString();
+	}
+
+}
@@ -37,6 +37,10 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Priority;
 import javax.security.auth.Subject;
@@ -55,6 +59,8 @@ import org.springframework.beans.PropertyEditorRegistry;
 import org.springframework.beans.PropertyValue;
 import org.springframework.beans.TypeConverter;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.AutowiredPropertyMarker;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -1289,6 +1295,46 @@ public class DefaultListableBeanFactoryTests {
 		assertThat(kerry.spouse).isSameAs(rod);
 	}
 
+	@Test
+	public void testPrototypeWithAutowiredConstructorDependency() {
+		lbf.registerBeanDefinition("rod", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependency.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("kerry", bd);
+
+		ConstructorDependency kerry1 = (ConstructorDependency) lbf.getBean("kerry");
+		ConstructorDependency kerry2 = (ConstructorDependency) lbf.getBean("kerry");
+		assertThat(kerry1).isNotSameAs(kerry2);
+		assertThat(kerry1.spouse).isSameAs(lbf.getBean("rod"));
+		assertThat(kerry2.spouse).isSameAs(lbf.getBean("rod"));
+
+		// Replace the target of the cached argument resolution
+		lbf.removeBeanDefinition("rod");
+		lbf.registerBeanDefinition("rod2", new RootBeanDefinition(TestBean.class));
+		ConstructorDependency kerry3 = (ConstructorDependency) lbf.getBean("kerry");
+		assertThat(kerry3.spouse).isSameAs(lbf.getBean("rod2"));
+	}
+
+	@Test
+	public void testPrototypeWithAutowiredConstructorDependencyOfChangedType() {
+		lbf.registerBeanDefinition("rod", new RootBeanDefinition(TestBean.class));
+		RootBeanDefinition bd = new RootBeanDefinition(ConstructorDependency.class);
+		bd.setScope(RootBeanDefinition.SCOPE_PROTOTYPE);
+		bd.setAutowireMode(RootBeanDefinition.AUTOWIRE_CONSTRUCTOR);
+		lbf.registerBeanDefinition("kerry", bd);
+		ConstructorDependency kerry1 = (ConstructorDependency) lbf.getBean("kerry");
+		assertThat(kerry1.spouse).isSameAs(lbf.getBean("rod"));
+
+		// Replace the target of the cached argument resolution with a bean of another type
+		lbf.registerBeanDefinition("rod", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("rod2", new RootBeanDefinition(TestBean.class));
+		ConstructorDependency kerry2 = (ConstructorDependency) lbf.getBean("kerry");
+		assertThat(kerry2.spouse).isSameAs(lbf.getBean("rod2"));
+		ConstructorDependency kerry3 = (ConstructorDependency) lbf.getBean("kerry");
+		assertThat(kerry3.spouse).isSameAs(lbf.getBean("rod2"));
+	}
+
 	@Test
 	public void testAutowireWithTwoMatchesForConstructorDependency() {
 		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
@@ -1385,6 +1431,49 @@ public class DefaultListableBeanFactoryTests {
 			.withMessageContaining("'tb1'");
 	}
 
+	@Test
+	public void testGetBeanNamesForTypeAfterBeanDefinitionChanges() {
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("tb2", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb1", "tb2");
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("tb1", "tb2");
+
+		lbf.registerBeanDefinition("tb1", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb2");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb1", "ntb");
+
+		lbf.removeBeanDefinition("ntb");
+		lbf.registerBeanDefinition("ntb", new RootBeanDefinition(DerivedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb2", "ntb");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb1");
+	}
+
+	@Test
+	public void testGetBeanNamesForTypeAfterSingletonCreation() {
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(Object.class, TestBean::new));
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(Object.class)).containsExactly("tb");
+
+		lbf.getBean("tb");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("tb");
+	}
+
+	@Test
+	public void testGetBeanNamesForTypeWithTypePredictingPostProcessor() {
+		lbf.registerBeanDefinition("tb", new RootBeanDefinition(TestBean.class));
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).isEmpty();
+
+		lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				return NestedTestBean.class;
+			}
+		});
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("tb");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+	}
+
 	@Test
 	public void testGetBeanByTypeWithNoneFound() {
 		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
@@ -2786,6 +2875,144 @@ public class DefaultListableBeanFactoryTests {
 		assertThat(holder.getNonPublicEnum()).isEqualTo(NonPublicEnum.VALUE_1);
 	}
 
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutor() {
+		for (int i = 0; i < 20; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+			if (i > 0) {
+				bd.getPropertyValues().add("spouse", new RuntimeBeanReference("tb" + (i - 1)));
+			}
+			lbf.registerBeanDefinition("tb" + i, bd);
+		}
+		RootBeanDefinition bd1 = new RootBeanDefinition(TestBean.class);
+		bd1.getPropertyValues().add("spouse", new RuntimeBeanReference("cyclic2"));
+		lbf.registerBeanDefinition("cyclic1", bd1);
+		RootBeanDefinition bd2 = new RootBeanDefinition(TestBean.class);
+		bd2.getPropertyValues().add("spouse", new RuntimeBeanReference("cyclic1"));
+		lbf.registerBeanDefinition("cyclic2", bd2);
+		RootBeanDefinition lazy = new RootBeanDefinition(TestBean.class);
+		lazy.setLazyInit(true);
+		lbf.registerBeanDefinition("lazy", lazy);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		for (int i = 1; i < 20; i++) {
+			assertThat(lbf.containsSingleton("tb" + i)).isTrue();
+			assertThat(lbf.getBean("tb" + i, TestBean.class).getSpouse()).isSameAs(lbf.getBean("tb" + (i - 1)));
+		}
+		assertThat(lbf.getBean("cyclic1", TestBean.class).getSpouse()).isSameAs(lbf.getBean("cyclic2"));
+		assertThat(lbf.getBean("cyclic2", TestBean.class).getSpouse()).isSameAs(lbf.getBean("cyclic1"));
+		assertThat(lbf.containsSingleton("lazy")).isFalse();
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndFailure() {
+		for (int i = 0; i < 10; i++) {
+			lbf.registerBeanDefinition("tb" + i, new RootBeanDefinition(TestBean.class));
+		}
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("age", "notANumber");
+		lbf.registerBeanDefinition("failing", bd);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			lbf.setBootstrapExecutor(executor);
+			assertThatExceptionOfType(BeanCreationException.class).isThrownBy(
+					lbf::preInstantiateSingletons)
+				.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(lbf.containsSingleton("failing")).isFalse();
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndCircularReferenceAtRuntime() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			// Repeat for different orders of creation across threads
+			for (int i = 0; i < 10; i++) {
+				DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+				AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+				bpp.setBeanFactory(lbf);
+				lbf.addBeanPostProcessor(bpp);
+				lbf.registerBeanDefinition("fieldInjected", new RootBeanDefinition(FieldInjectedCycleBean.class));
+				lbf.registerBeanDefinition("constructorInjected", new RootBeanDefinition(ConstructorInjectedCycleBean.class));
+				lbf.setBootstrapExecutor(executor);
+				lbf.preInstantiateSingletons();
+
+				FieldInjectedCycleBean fieldInjected = lbf.getBean(FieldInjectedCycleBean.class);
+				ConstructorInjectedCycleBean constructorInjected = lbf.getBean(ConstructorInjectedCycleBean.class);
+				assertThat(fieldInjected.dependency).isSameAs(constructorInjected);
+				assertThat(constructorInjected.dependency).isSameAs(fieldInjected);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndDependentOfCircularReferenceAtRuntime() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			// Repeat for different orders of creation across threads
+			for (int i = 0; i < 10; i++) {
+				DefaultListableBeanFactory lbf = new DefaultListableBeanFactory();
+				AutowiredAnnotationBeanPostProcessor bpp = new AutowiredAnnotationBeanPostProcessor();
+				bpp.setBeanFactory(lbf);
+				lbf.addBeanPostProcessor(bpp);
+				lbf.registerBeanDefinition("fieldInjected", new RootBeanDefinition(FieldInjectedCycleBean.class));
+				lbf.registerBeanDefinition("constructorInjected", new RootBeanDefinition(ConstructorInjectedCycleBean.class));
+				lbf.registerBeanDefinition("cycleDependent", new RootBeanDefinition(CycleDependentBean.class));
+				lbf.setBootstrapExecutor(executor);
+				lbf.preInstantiateSingletons();
+
+				assertThat(lbf.containsSingleton("fieldInjected")).isTrue();
+				assertThat(lbf.containsSingleton("constructorInjected")).isTrue();
+				assertThat(lbf.containsSingleton("cycleDependent")).isTrue();
+				FieldInjectedCycleBean fieldInjected = lbf.getBean(FieldInjectedCycleBean.class);
+				ConstructorInjectedCycleBean constructorInjected = lbf.getBean(ConstructorInjectedCycleBean.class);
+				assertThat(fieldInjected.dependency).isSameAs(constructorInjected);
+				assertThat(constructorInjected.dependency).isSameAs(fieldInjected);
+				assertThat(lbf.getBean(CycleDependentBean.class).dependency).isSameAs(constructorInjected);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testPreInstantiateSingletonsWithBootstrapExecutorAndFactoryBeanReferencingBeanInCreation() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			CountDownLatch slowBeanInCreation = new CountDownLatch(1);
+			RootBeanDefinition slow = new RootBeanDefinition(SlowlyCreatedBean.class);
+			slow.getConstructorArgumentValues().addGenericArgumentValue(slowBeanInCreation);
+			lbf.registerBeanDefinition("slow", slow);
+			RootBeanDefinition factory = new RootBeanDefinition(SlowBeanReferencingFactoryBean.class);
+			factory.getConstructorArgumentValues().addGenericArgumentValue(slowBeanInCreation);
+			lbf.registerBeanDefinition("factory", factory);
+			lbf.setBootstrapExecutor(executor);
+			lbf.preInstantiateSingletons();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(lbf.containsSingleton("slow")).isTrue();
+		assertThat(lbf.getBean("factory")).isSameAs(lbf.getBean("slow"));
+	}
+
 	/**
 	 * Test that by-type bean lookup caching is working effectively by searching for a
 	 * bean of type B 10K times within a container having 1K additional beans of type A.
@@ -2842,6 +3069,82 @@ public class DefaultListableBeanFactoryTests {
 	static class B { }
 
 
+	static class ConstructorInjectedCycleBean {
+
+		final FieldInjectedCycleBean dependency;
+
+		public ConstructorInjectedCycleBean(FieldInjectedCycleBean dependency) {
+			this.dependency = dependency;
+		}
+	}
+
+
+	static class FieldInjectedCycleBean {
+
+		@Autowired
+		ConstructorInjectedCycleBean dependency;
+
+		public FieldInjectedCycleBean() throws InterruptedException {
+			// Give the other thread a chance to request this bean while in creation
+			Thread.sleep(20);
+		}
+	}
+
+
+	static class CycleDependentBean {
+
+		final ConstructorInjectedCycleBean dependency;
+
+		public CycleDependentBean(ConstructorInjectedCycleBean dependency) {
+			this.dependency = dependency;
+		}
+	}
+
+
+	static class SlowlyCreatedBean {
+
+		public SlowlyCreatedBean(CountDownLatch inCreation) throws InterruptedException {
+			inCreation.countDown();
+			// Give the FactoryBean a chance to request this bean while in creation
+			Thread.sleep(100);
+		}
+	}
+
+
+	static class SlowBeanReferencingFactoryBean implements SmartFactoryBean<SlowlyCreatedBean>, BeanFactoryAware {
+
+		private final CountDownLatch slowBeanInCreation;
+
+		private BeanFactory beanFactory;
+
+		public SlowBeanReferencingFactoryBean(CountDownLatch slowBeanInCreation) {
+			this.slowBeanInCreation = slowBeanInCreation;
+		}
+
+		@Override
+		public void setBeanFactory(BeanFactory beanFactory) {
+			this.beanFactory = beanFactory;
+		}
+
+		@Override
+		public SlowlyCreatedBean getObject() throws Exception {
+			// Called with the singleton mutex held
+			this.slowBeanInCreation.await(10, TimeUnit.SECONDS);
+			return this.beanFactory.getBean("slow", SlowlyCreatedBean.class);
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return SlowlyCreatedBean.class;
+		}
+
+		@Override
+		public boolean isEagerInit() {
+			return true;
+		}
+	}
+
+
 	public static class NoDependencies {
 
 		private NoDependencies() {
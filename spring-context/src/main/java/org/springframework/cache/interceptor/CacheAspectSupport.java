@@ -45,6 +45,7 @@ import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -87,7 +88,7 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
-	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
+	private CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
 	@Nullable
 	private CacheOperationSource cacheOperationSource;
@@ -194,6 +195,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Set the {@link SpelCompilerMode} to apply to the {@code key}, {@code condition}
+	 * and {@code unless} expressions of the cache operations.
+	 * <p>The default is {@link SpelCompilerMode#OFF}, i.e. expressions are interpreted.
+	 * With {@link SpelCompilerMode#IMMEDIATE IMMEDIATE} or {@link SpelCompilerMode#MIXED
+	 * MIXED}, expressions are compiled to byte code once they have been evaluated and
+	 * method arguments are bound without registering them as variables on every
+	 * invocation. Expressions that cannot be compiled keep being interpreted.
+	 * @since 5.2
+	 * @see org.springframework.expression.spel.SpelParserConfiguration
+	 */
+	public void setExpressionCompilerMode(SpelCompilerMode compilerMode) {
+		Assert.notNull(compilerMode, "SpelCompilerMode must not be null");
+		this.evaluator = new CacheOperationExpressionEvaluator(compilerMode, null);
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,10 @@
 package org.springframework.cache.interceptor;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.context.expression.MethodBasedEvaluationContext;
@@ -36,6 +39,8 @@ import org.springframework.lang.Nullable;
  *
  * <p>To limit the creation of objects, an ugly constructor is used
  * (rather then a dedicated 'closure'-like class for deferred execution).
+ * Method arguments may also be resolved through a pre-computed
+ * {@link ArgumentBinding} rather than being registered as variables.
  *
  * @author Costin Leau
  * @author Stephane Nicoll
@@ -46,11 +51,24 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 
 	private final Set<String> unavailableVariables = new HashSet<>(1);
 
+	private final Object[] arguments;
+
+	@Nullable
+	private final ArgumentBinding argumentBinding;
+
 
 	CacheEvaluationContext(Object rootObject, Method method, Object[] arguments,
 			ParameterNameDiscoverer parameterNameDiscoverer) {
 
+		this(rootObject, method, arguments, parameterNameDiscoverer, null);
+	}
+
+	CacheEvaluationContext(Object rootObject, Method method, Object[] arguments,
+			ParameterNameDiscoverer parameterNameDiscoverer, @Nullable ArgumentBinding argumentBinding) {
+
 		super(rootObject, method, arguments, parameterNameDiscoverer);
+		this.arguments = arguments;
+		this.argumentBinding = argumentBinding;
 	}
 
 
@@ -75,7 +93,60 @@ class CacheEvaluationContext extends MethodBasedEvaluationContext {
 		if (this.unavailableVariables.contains(name)) {
 			throw new VariableNotAvailableException(name);
 		}
-		return super.lookupVariable(name);
+		Object variable = super.lookupVariable(name);
+		if (variable == null && this.argumentBinding != null) {
+			variable = this.argumentBinding.resolve(name, this.arguments);
+		}
+		return variable;
+	}
+
+	@Override
+	protected void lazyLoadArguments() {
+		// Arguments resolved against the binding do not need to be registered as variables
+		if (this.argumentBinding == null) {
+			super.lazyLoadArguments();
+		}
+	}
+
+
+	/**
+	 * Pre-computed mapping of the variable names exposed for the arguments of a
+	 * given method, following the aliases of {@link MethodBasedEvaluationContext}.
+	 * Meant to be shared by all contexts created for the same method.
+	 */
+	static final class ArgumentBinding {
+
+		private final Map<String, Integer> indexes;
+
+		private final int parameterCount;
+
+		ArgumentBinding(Method method, ParameterNameDiscoverer parameterNameDiscoverer) {
+			String[] paramNames = parameterNameDiscoverer.getParameterNames(method);
+			this.parameterCount = (paramNames != null ? paramNames.length : method.getParameterCount());
+			this.indexes = new HashMap<>(this.parameterCount * 4);
+			for (int i = 0; i < this.parameterCount; i++) {
+				this.indexes.put("a" + i, i);
+				this.indexes.put("p" + i, i);
+				if (paramNames != null && paramNames[i] != null) {
+					this.indexes.put(paramNames[i], i);
+				}
+			}
+		}
+
+		@Nullable
+		Object resolve(String name, Object[] arguments) {
+			Integer index = this.indexes.get(name);
+			if (index == null) {
+				return null;
+			}
+			int i = index;
+			int argsCount = arguments.length;
+			if (argsCount > this.parameterCount && i == this.parameterCount - 1) {
+				// Expose remaining arguments as vararg array for last parameter
+				return Arrays.copyOfRange(arguments, i, argsCount);
+			}
+			return (argsCount > i ? arguments[i] : null);
+		}
 	}
 
 }
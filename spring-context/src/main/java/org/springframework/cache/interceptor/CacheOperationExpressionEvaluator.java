@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,12 @@ import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
@@ -37,6 +43,12 @@ import org.springframework.lang.Nullable;
  * <p>Performs internal caching for performance reasons
  * using {@link AnnotatedElementKey}.
  *
+ * <p>Expressions are interpreted by default. If a {@link SpelCompilerMode}
+ * other than {@link SpelCompilerMode#OFF OFF} is specified, expressions are
+ * compiled once they have been evaluated, method arguments are resolved
+ * through a binding shared per method, and an expression whose compiled form
+ * fails at runtime, e.g. for varying argument types, is interpreted from then on.
+ *
  * @author Costin Leau
  * @author Phillip Webb
  * @author Sam Brannen
@@ -60,6 +72,12 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 	 */
 	public static final String RESULT_VARIABLE = "result";
 
+	/**
+	 * Parser for expressions that gave up on compilation.
+	 */
+	private static final SpelExpressionParser interpretingParser =
+			new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.OFF, null));
+
 
 	private final Map<ExpressionKey, Expression> keyCache = new ConcurrentHashMap<>(64);
 
@@ -67,6 +85,32 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> unlessCache = new ConcurrentHashMap<>(64);
 
+	@Nullable
+	private final Map<Method, CacheEvaluationContext.ArgumentBinding> argumentBindings;
+
+	private final Map<BeanFactory, BeanFactoryResolver> beanFactoryResolvers = new ConcurrentHashMap<>(4);
+
+
+	/**
+	 * Create a new instance evaluating expressions in interpreted mode.
+	 */
+	public CacheOperationExpressionEvaluator() {
+		this.argumentBindings = null;
+	}
+
+	/**
+	 * Create a new instance using the specified {@link SpelCompilerMode}.
+	 * @param compilerMode the compiler mode to apply to key, condition
+	 * and unless expressions
+	 * @param compilerClassLoader the class loader to use for compiled
+	 * expressions (may be {@code null} to use the default class loader)
+	 * @since 5.2
+	 */
+	public CacheOperationExpressionEvaluator(SpelCompilerMode compilerMode, @Nullable ClassLoader compilerClassLoader) {
+		super(new SpelExpressionParser(new SpelParserConfiguration(compilerMode, compilerClassLoader)));
+		this.argumentBindings = (compilerMode != SpelCompilerMode.OFF ? new ConcurrentHashMap<>(64) : null);
+	}
+
 
 	/**
 	 * Create an {@link EvaluationContext}.
@@ -86,7 +130,7 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		CacheExpressionRootObject rootObject = new CacheExpressionRootObject(
 				caches, method, args, target, targetClass);
 		CacheEvaluationContext evaluationContext = new CacheEvaluationContext(
-				rootObject, targetMethod, args, getParameterNameDiscoverer());
+				rootObject, targetMethod, args, getParameterNameDiscoverer(), getArgumentBinding(targetMethod));
 		if (result == RESULT_UNAVAILABLE) {
 			evaluationContext.addUnavailableVariable(RESULT_VARIABLE);
 		}
@@ -94,24 +138,68 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 			evaluationContext.setVariable(RESULT_VARIABLE, result);
 		}
 		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+			evaluationContext.setBeanResolver(getBeanFactoryResolver(beanFactory));
 		}
 		return evaluationContext;
 	}
 
+	@Nullable
+	private CacheEvaluationContext.ArgumentBinding getArgumentBinding(Method method) {
+		if (this.argumentBindings == null) {
+			return null;
+		}
+		return this.argumentBindings.computeIfAbsent(method,
+				m -> new CacheEvaluationContext.ArgumentBinding(m, getParameterNameDiscoverer()));
+	}
+
+	private BeanFactoryResolver getBeanFactoryResolver(BeanFactory beanFactory) {
+		if (this.argumentBindings == null) {
+			return new BeanFactoryResolver(beanFactory);
+		}
+		return this.beanFactoryResolvers.computeIfAbsent(beanFactory, BeanFactoryResolver::new);
+	}
+
 	@Nullable
 	public Object key(String keyExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return getExpression(this.keyCache, methodKey, keyExpression).getValue(evalContext);
+		return getValue(this.keyCache, methodKey, keyExpression, evalContext, null);
 	}
 
 	public boolean condition(String conditionExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evalContext, Boolean.class)));
+		return (Boolean.TRUE.equals(
+				getValue(this.conditionCache, methodKey, conditionExpression, evalContext, Boolean.class)));
 	}
 
 	public boolean unless(String unlessExpression, AnnotatedElementKey methodKey, EvaluationContext evalContext) {
-		return (Boolean.TRUE.equals(getExpression(this.unlessCache, methodKey, unlessExpression).getValue(
-				evalContext, Boolean.class)));
+		return (Boolean.TRUE.equals(
+				getValue(this.unlessCache, methodKey, unlessExpression, evalContext, Boolean.class)));
+	}
+
+	/**
+	 * Evaluate the given expression, replacing a compiled expression in the cache
+	 * with an interpreted one for good if its compiled form fails: a compiled
+	 * expression reverted to interpreted mode would get compiled again on the
+	 * next evaluation in {@link SpelCompilerMode#IMMEDIATE IMMEDIATE} mode.
+	 */
+	@Nullable
+	private <T> T getValue(Map<ExpressionKey, Expression> cache, AnnotatedElementKey methodKey,
+			String expressionString, EvaluationContext evalContext, @Nullable Class<T> resultType) {
+
+		Expression expression = getExpression(cache, methodKey, expressionString);
+		try {
+			return expression.getValue(evalContext, resultType);
+		}
+		catch (SpelEvaluationException ex) {
+			if (ex.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION ||
+					!(expression instanceof SpelExpression)) {
+				throw ex;
+			}
+			if (ex.getCause() instanceof VariableNotAvailableException) {
+				throw (VariableNotAvailableException) ex.getCause();
+			}
+			Expression interpretedExpression = interpretingParser.parseExpression(expressionString);
+			cache.replaceAll((key, value) -> (value == expression ? interpretedExpression : value));
+			return interpretedExpression.getValue(evalContext, resultType);
+		}
 	}
 
 	/**
@@ -121,6 +209,10 @@ class CacheOperationExpressionEvaluator extends CachedExpressionEvaluator {
 		this.keyCache.clear();
 		this.conditionCache.clear();
 		this.unlessCache.clear();
+		if (this.argumentBindings != null) {
+			this.argumentBindings.clear();
+		}
+		this.beanFactoryResolvers.clear();
 	}
 
 }
@@ -16,13 +16,16 @@
 
 package org.springframework.context.annotation;
 
+import java.io.IOException;
 import java.util.function.Supplier;
 
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.Resource;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -56,6 +59,9 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 
 	private final ClassPathBeanDefinitionScanner scanner;
 
+	@Nullable
+	private Resource beanDefinitionSnapshot;
+
 
 	/**
 	 * Create a new AnnotationConfigApplicationContext that needs to be populated
@@ -138,6 +144,57 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 		this.scanner.setScopeMetadataResolver(scopeMetadataResolver);
 	}
 
+	/**
+	 * Specify a {@link BeanDefinitionSnapshot} to restore bean definitions from,
+	 * instead of processing the registered configuration classes at refresh time.
+	 * <p>The snapshot only gets applied if it matches the registered classes, the
+	 * active profiles, the relevant properties and the component class files of
+	 * this context. Otherwise, or if the resource does not exist, configuration
+	 * classes are processed as usual.
+	 * <p>Any call to this method must occur prior to {@link #refresh()}.
+	 * @param snapshot the snapshot resource, e.g. created by
+	 * {@link BeanDefinitionSnapshotGenerator} at build time
+	 * @since 5.2
+	 * @see BeanDefinitionSnapshot
+	 */
+	public void setBeanDefinitionSnapshot(Resource snapshot) {
+		this.beanDefinitionSnapshot = snapshot;
+	}
+
+
+	/**
+	 * Apply the specified {@link BeanDefinitionSnapshot}, if any and if current.
+	 * @see #setBeanDefinitionSnapshot
+	 */
+	@Override
+	protected void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		super.postProcessBeanFactory(beanFactory);
+		if (this.beanDefinitionSnapshot != null) {
+			try {
+				BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.load(this.beanDefinitionSnapshot);
+				if (snapshot != null && snapshot.isCurrent(this)) {
+					snapshot.registerPropertySources(getEnvironment(), this, getClassLoader());
+					snapshot.registerBeanDefinitions(getDefaultListableBeanFactory());
+					if (logger.isDebugEnabled()) {
+						logger.debug("Restored " + snapshot.getBeanDefinitionNames().size() +
+								" bean definitions from " + this.beanDefinitionSnapshot);
+					}
+				}
+				else if (logger.isInfoEnabled()) {
+					logger.info("Bean definition snapshot " + this.beanDefinitionSnapshot +
+							(snapshot != null ? " is outdated" : " not found") +
+							" - processing configuration classes instead");
+				}
+			}
+			catch (IOException ex) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Could not load bean definition snapshot from " + this.beanDefinitionSnapshot +
+							" - processing configuration classes instead", ex);
+				}
+			}
+		}
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of AnnotationConfigRegistry
@@ -0,0 +1,1205 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.annotation.ConfigurationClassBeanDefinitionReader.ConfigurationClassBeanDefinition;
+import org.springframework.core.Conventions;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Snapshot of the bean definitions derived from the configuration classes of an
+ * {@link AnnotationConfigApplicationContext}, allowing for skipping configuration
+ * class parsing, component scanning and condition evaluation at runtime.
+ *
+ * <p>A snapshot is typically captured at build time, e.g. through
+ * {@link BeanDefinitionSnapshotGenerator}, and loaded through
+ * {@link AnnotationConfigApplicationContext#setBeanDefinitionSnapshot}.
+ * It carries a fingerprint of the inputs of configuration class processing:
+ * the registered bean definitions, the active and default profiles, the values
+ * of all properties looked up while processing configuration classes (e.g. by
+ * conditions), the content of the class files in the packages of the registered
+ * components and in the base packages of component scans, the content of the
+ * class files of imported configuration classes and of classes declaring
+ * {@code @Bean} methods outside of those packages, and the class path entries
+ * of the context's class loader: their paths, and the size and last-modified
+ * timestamp of jar files. A snapshot only gets applied if its fingerprint
+ * matches the context at runtime, so it needs to be captured with the runtime
+ * class path of the application. The content of class path directories other
+ * than the covered class files is ignored, so a snapshot may be stored in a
+ * class path directory or on the file system, but not in a jar on the class path.
+ *
+ * <p>Property sources declared through {@code @PropertySource} on the processed
+ * configuration classes are recorded as well, and get added to the environment
+ * when the snapshot is applied, in the same order as during regular processing.
+ *
+ * <p>Only declarative bean definition state can be captured: definitions with
+ * instance suppliers, method overrides, qualifiers or complex property values
+ * are rejected when capturing the snapshot.
+ *
+ * @since 5.2
+ * @see AnnotationConfigApplicationContext#setBeanDefinitionSnapshot
+ * @see BeanDefinitionSnapshotGenerator
+ */
+public final class BeanDefinitionSnapshot {
+
+	/**
+	 * Bean definition attribute marking a definition restored from a snapshot,
+	 * indicating that it does not need to be checked for configuration classes.
+	 */
+	static final String SNAPSHOT_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(BeanDefinitionSnapshot.class, "restored");
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 4;
+
+	private static final byte ROOT_DEFINITION = 1;
+
+	private static final byte GENERIC_DEFINITION = 2;
+
+	private static final byte BEAN_METHOD_DEFINITION = 3;
+
+	private static final byte NULL_VALUE = 0;
+
+	private static final byte STRING_VALUE = 1;
+
+	private static final byte BOOLEAN_VALUE = 2;
+
+	private static final byte INTEGER_VALUE = 3;
+
+	private static final byte LONG_VALUE = 4;
+
+	private static final byte TYPED_STRING_VALUE = 5;
+
+	private static final byte BEAN_REFERENCE_VALUE = 6;
+
+	private static final byte BEAN_NAME_REFERENCE_VALUE = 7;
+
+
+	private final String fingerprint;
+
+	private final List<String> basePackages;
+
+	/** Classes outside of the base packages whose class files are covered by the fingerprint. */
+	private final List<String> classNames;
+
+	private final List<String> propertyNames;
+
+	private final List<BeanDefinitionHolder> beanDefinitions;
+
+	private final Map<String, Map<String, Object>> attributes;
+
+	private final Map<String, String> importingClasses;
+
+	/** Metadata of the processed {@code @PropertySource} annotations, with the factory as class name. */
+	private final List<AnnotationAttributes> propertySources;
+
+
+	private BeanDefinitionSnapshot(String fingerprint, List<String> basePackages, List<String> classNames,
+			List<String> propertyNames, List<BeanDefinitionHolder> beanDefinitions,
+			Map<String, Map<String, Object>> attributes, Map<String, String> importingClasses,
+			List<AnnotationAttributes> propertySources) {
+
+		this.fingerprint = fingerprint;
+		this.basePackages = basePackages;
+		this.classNames = classNames;
+		this.propertyNames = propertyNames;
+		this.beanDefinitions = beanDefinitions;
+		this.attributes = attributes;
+		this.importingClasses = importingClasses;
+		this.propertySources = propertySources;
+	}
+
+
+	/**
+	 * Return the fingerprint of the configuration class processing inputs
+	 * that this snapshot has been captured for.
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Return the packages whose class files are covered by the fingerprint,
+	 * including their subpackages: the packages of the registered components
+	 * and the base packages of component scans.
+	 */
+	public List<String> getBasePackages() {
+		return Collections.unmodifiableList(this.basePackages);
+	}
+
+	/**
+	 * Return the names of the classes outside of the {@linkplain #getBasePackages()
+	 * base packages} whose class files are covered by the fingerprint, i.e. imported
+	 * configuration classes and classes declaring {@code @Bean} methods.
+	 */
+	public List<String> getClassNames() {
+		return Collections.unmodifiableList(this.classNames);
+	}
+
+	/**
+	 * Return the names of the properties whose values are covered by the fingerprint,
+	 * i.e. the properties looked up while processing configuration classes.
+	 */
+	public List<String> getPropertyNames() {
+		return Collections.unmodifiableList(this.propertyNames);
+	}
+
+	/**
+	 * Return the names of the bean definitions contained in this snapshot,
+	 * in registration order.
+	 */
+	public List<String> getBeanDefinitionNames() {
+		List<String> names = new ArrayList<>(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			names.add(holder.getBeanName());
+		}
+		return names;
+	}
+
+	/**
+	 * Determine whether this snapshot applies to the current state of the given context,
+	 * recomputing the fingerprint for the base packages, class names and property names
+	 * of this snapshot.
+	 * @param context the (not yet refreshed) application context
+	 * @throws IOException if class files could not be read
+	 */
+	public boolean isCurrent(AnnotationConfigApplicationContext context) throws IOException {
+		ConfigurableEnvironment environment = context.getEnvironment();
+		return this.fingerprint.equals(fingerprint(context, context.getBeanDefinitionNames(),
+				environment.getActiveProfiles(), environment.getDefaultProfiles(),
+				environment.getPropertySources(), this.basePackages, this.classNames, this.propertyNames));
+	}
+
+	/**
+	 * Return the locations of the property sources declared through
+	 * {@code @PropertySource}, to be added to the environment when applied.
+	 */
+	public List<String> getPropertySourceLocations() {
+		List<String> locations = new ArrayList<>();
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			Collections.addAll(locations, propertySource.getStringArray("value"));
+		}
+		return locations;
+	}
+
+	/**
+	 * Add the property sources declared through {@code @PropertySource} on the
+	 * processed configuration classes to the given environment, as configuration
+	 * class processing would do.
+	 * @param environment the environment to add the property sources to
+	 * @param resourceLoader the resource loader to load the property sources with
+	 * @param classLoader the class loader to resolve custom property source factories with
+	 * @throws BeanDefinitionStoreException if a property source could not be loaded
+	 */
+	void registerPropertySources(ConfigurableEnvironment environment, ResourceLoader resourceLoader,
+			@Nullable ClassLoader classLoader) {
+
+		PropertySourceRegistry registry = new PropertySourceRegistry(environment, resourceLoader);
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			AnnotationAttributes resolved = new AnnotationAttributes(propertySource);
+			resolved.put("factory", ClassUtils.resolveClassName(propertySource.getString("factory"), classLoader));
+			try {
+				registry.processPropertySource(resolved);
+			}
+			catch (IOException ex) {
+				throw new BeanDefinitionStoreException("Failed to load property source " +
+						Arrays.toString(propertySource.getStringArray("value")) + " from bean definition snapshot", ex);
+			}
+		}
+	}
+
+	/**
+	 * Register the bean definitions of this snapshot with the given bean factory.
+	 * <p>Bean definitions which are present already, e.g. registered configuration
+	 * classes, are kept but get marked as processed.
+	 * @param beanFactory the bean factory to register bean definitions with
+	 */
+	void registerBeanDefinitions(DefaultListableBeanFactory beanFactory) {
+		this.attributes.forEach((beanName, attributes) -> {
+			if (beanFactory.containsBeanDefinition(beanName)) {
+				BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+				attributes.forEach(beanDefinition::setAttribute);
+			}
+		});
+		List<BeanDefinitionHolder> registered = new ArrayList<>(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			String beanName = holder.getBeanName();
+			if (!beanFactory.containsBeanDefinition(beanName)) {
+				AbstractBeanDefinition beanDefinition =
+						((AbstractBeanDefinition) holder.getBeanDefinition()).cloneBeanDefinition();
+				beanDefinition.setAttribute(SNAPSHOT_ATTRIBUTE, Boolean.TRUE);
+				beanFactory.registerBeanDefinition(beanName, beanDefinition);
+				registered.add(new BeanDefinitionHolder(beanDefinition, beanName));
+			}
+			String[] aliases = holder.getAliases();
+			if (aliases != null) {
+				for (String alias : aliases) {
+					if (!beanFactory.isAlias(alias)) {
+						beanFactory.registerAlias(beanName, alias);
+					}
+				}
+			}
+		}
+		// Link scoped proxies to the registered target bean definitions
+		for (BeanDefinitionHolder holder : registered) {
+			if (holder.getBeanDefinition() instanceof RootBeanDefinition) {
+				RootBeanDefinition beanDefinition = (RootBeanDefinition) holder.getBeanDefinition();
+				BeanDefinitionHolder decorated = beanDefinition.getDecoratedDefinition();
+				if (decorated != null && beanFactory.containsBeanDefinition(decorated.getBeanName())) {
+					beanDefinition.setDecoratedDefinition(new BeanDefinitionHolder(
+							beanFactory.getBeanDefinition(decorated.getBeanName()), decorated.getBeanName()));
+				}
+			}
+		}
+		if (!beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			beanFactory.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(this.importingClasses, beanFactory.getBeanClassLoader()));
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given stream.
+	 * @param outputStream the stream to write to (not closed)
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(this.fingerprint);
+		writeStringArray(out, StringUtils.toStringArray(this.basePackages));
+		writeStringArray(out, StringUtils.toStringArray(this.classNames));
+		writeStringArray(out, StringUtils.toStringArray(this.propertyNames));
+		out.writeInt(this.beanDefinitions.size());
+		for (BeanDefinitionHolder holder : this.beanDefinitions) {
+			writeBeanDefinition(out, holder);
+		}
+		out.writeInt(this.attributes.size());
+		for (Map.Entry<String, Map<String, Object>> entry : this.attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeAttributes(out, entry.getValue());
+		}
+		out.writeInt(this.importingClasses.size());
+		for (Map.Entry<String, String> entry : this.importingClasses.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+		out.writeInt(this.propertySources.size());
+		for (AnnotationAttributes propertySource : this.propertySources) {
+			out.writeUTF(propertySource.getString("name"));
+			writeStringArray(out, propertySource.getStringArray("value"));
+			out.writeBoolean(propertySource.getBoolean("ignoreResourceNotFound"));
+			out.writeUTF(propertySource.getString("encoding"));
+			out.writeUTF(propertySource.getString("factory"));
+		}
+		out.flush();
+	}
+
+	@Override
+	public String toString() {
+		return "BeanDefinitionSnapshot with " + this.beanDefinitions.size() +
+				" bean definitions: fingerprint [" + this.fingerprint + "]";
+	}
+
+
+	/**
+	 * Process the configuration classes registered with the given context and
+	 * capture the resulting bean definitions in a snapshot.
+	 * <p>The context must not be refreshed: it only serves as a bean definition
+	 * registry here, and is not usable afterwards.
+	 * @param context the application context, with configuration classes registered
+	 * @return the snapshot
+	 * @throws IllegalStateException if a bean definition cannot be captured
+	 * @throws IOException if class files could not be read for the fingerprint
+	 */
+	public static BeanDefinitionSnapshot capture(AnnotationConfigApplicationContext context) throws IOException {
+		Assert.state(!context.isActive(), "Context must not be refreshed");
+		DefaultListableBeanFactory beanFactory = context.getDefaultListableBeanFactory();
+		String[] initialNames = beanFactory.getBeanDefinitionNames();
+		Set<String> basePackages = new TreeSet<>();
+		for (String beanName : initialNames) {
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			if (beanDefinition.getRole() == BeanDefinition.ROLE_APPLICATION) {
+				addPackage(basePackages, beanDefinition.getBeanClassName());
+			}
+		}
+
+		// Property values and profiles at runtime are only known before @PropertySource processing
+		ConfigurableEnvironment environment = context.getEnvironment();
+		MutablePropertySources initialPropertySources = new MutablePropertySources(environment.getPropertySources());
+		String[] activeProfiles = environment.getActiveProfiles();
+		String[] defaultProfiles = environment.getDefaultProfiles();
+		PropertyLookupRecorder recorder = new PropertyLookupRecorder();
+		environment.getPropertySources().addFirst(recorder);
+		ConfigurationClassPostProcessor postProcessor = new ConfigurationClassPostProcessor();
+		try {
+			postProcessor.setEnvironment(environment);
+			postProcessor.setResourceLoader(context);
+			postProcessor.setBeanClassLoader(context.getClassLoader());
+			postProcessor.postProcessBeanDefinitionRegistry(beanFactory);
+		}
+		finally {
+			environment.getPropertySources().remove(recorder.getName());
+		}
+
+		Object importRegistry = beanFactory.getSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>();
+		Map<String, Map<String, Object>> attributes = new LinkedHashMap<>();
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		Set<String> classNames = new TreeSet<>();
+		Set<String> initialNameSet = new HashSet<>(Arrays.asList(initialNames));
+		for (String beanName : beanFactory.getBeanDefinitionNames()) {
+			BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+			if (initialNameSet.contains(beanName)) {
+				attributes.put(beanName, captureAttributes(beanName, beanDefinition));
+			}
+			else {
+				beanDefinitions.add(new BeanDefinitionHolder(captureBeanDefinition(beanName, beanDefinition),
+						beanName, beanFactory.getAliases(beanName)));
+				if (beanDefinition instanceof AnnotatedBeanDefinition) {
+					// Scanned components, imported configuration classes and @Bean methods
+					AnnotatedBeanDefinition annotatedDefinition = (AnnotatedBeanDefinition) beanDefinition;
+					classNames.add(annotatedDefinition.getMetadata().getClassName());
+					MethodMetadata factoryMethod = annotatedDefinition.getFactoryMethodMetadata();
+					if (factoryMethod != null) {
+						classNames.add(factoryMethod.getDeclaringClassName());
+					}
+				}
+			}
+			String beanClassName = beanDefinition.getBeanClassName();
+			if (beanClassName != null && importRegistry instanceof ImportRegistry) {
+				AnnotationMetadata importingClass = ((ImportRegistry) importRegistry).getImportingClassFor(beanClassName);
+				if (importingClass != null) {
+					importingClasses.put(beanClassName, importingClass.getClassName());
+				}
+			}
+		}
+		for (BeanDefinitionHolder holder : beanDefinitions) {
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) holder.getBeanDefinition()).getDecoratedDefinition();
+			if (decorated != null && !beanFactory.containsBeanDefinition(decorated.getBeanName())) {
+				throw new IllegalStateException("Bean definition '" + holder.getBeanName() +
+						"' cannot be captured in a snapshot: decorated bean definition '" +
+						decorated.getBeanName() + "' is not registered");
+			}
+		}
+
+		List<AnnotationAttributes> propertySources = new ArrayList<>();
+		for (AnnotationAttributes propertySource : postProcessor.getProcessedPropertySources()) {
+			AnnotationAttributes captured = new AnnotationAttributes(propertySource);
+			captured.put("factory", propertySource.getClass("factory").getName());
+			propertySources.add(captured);
+		}
+
+		// Only scanned packages are covered as a whole, not the packages of imported
+		// classes which may well be library or framework configuration classes
+		for (String scannedPackage : postProcessor.getScannedPackages()) {
+			// The default package would span the entire class path
+			if (!scannedPackage.isEmpty()) {
+				basePackages.add(scannedPackage);
+			}
+		}
+		List<String> packageList = collapsePackages(basePackages);
+		List<String> classNameList = new ArrayList<>();
+		for (String className : classNames) {
+			if (!isInPackages(className, packageList)) {
+				classNameList.add(className);
+			}
+		}
+		List<String> propertyNames = new ArrayList<>(recorder.getPropertyNames());
+		String fingerprint = fingerprint(context, initialNames, activeProfiles, defaultProfiles,
+				initialPropertySources, packageList, classNameList, propertyNames);
+		return new BeanDefinitionSnapshot(fingerprint, packageList, classNameList, propertyNames,
+				beanDefinitions, attributes, importingClasses, propertySources);
+	}
+
+	/**
+	 * Read a snapshot from the given stream.
+	 * @param inputStream the stream to read from (not closed)
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or an unsupported format
+	 */
+	public static BeanDefinitionSnapshot readFrom(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version " + version);
+		}
+		String fingerprint = in.readUTF();
+		List<String> basePackages = readStringList(in);
+		List<String> classNames = readStringList(in);
+		List<String> propertyNames = readStringList(in);
+		int count = in.readInt();
+		List<BeanDefinitionHolder> beanDefinitions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			beanDefinitions.add(readBeanDefinition(in));
+		}
+		count = in.readInt();
+		Map<String, Map<String, Object>> attributes = new LinkedHashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			attributes.put(in.readUTF(), readAttributes(in));
+		}
+		count = in.readInt();
+		Map<String, String> importingClasses = new LinkedHashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			importingClasses.put(in.readUTF(), in.readUTF());
+		}
+		count = in.readInt();
+		List<AnnotationAttributes> propertySources = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			AnnotationAttributes propertySource =
+					new AnnotationAttributes(org.springframework.context.annotation.PropertySource.class);
+			propertySource.put("name", in.readUTF());
+			propertySource.put("value", readStringList(in).toArray(new String[0]));
+			propertySource.put("ignoreResourceNotFound", in.readBoolean());
+			propertySource.put("encoding", in.readUTF());
+			propertySource.put("factory", in.readUTF());
+			propertySources.add(propertySource);
+		}
+		return new BeanDefinitionSnapshot(fingerprint, basePackages, classNames, propertyNames,
+				beanDefinitions, attributes, importingClasses, propertySources);
+	}
+
+	/**
+	 * Load a snapshot from the given resource.
+	 * @param resource the snapshot resource
+	 * @return the snapshot, or {@code null} if the resource does not exist
+	 * @throws IOException in case of I/O errors or an unsupported format
+	 */
+	@Nullable
+	public static BeanDefinitionSnapshot load(Resource resource) throws IOException {
+		if (!resource.exists()) {
+			return null;
+		}
+		try (InputStream inputStream = resource.getInputStream()) {
+			return readFrom(inputStream);
+		}
+	}
+
+	/**
+	 * Compute the fingerprint of the configuration class processing inputs of the
+	 * given context: the names and classes of the given bean definitions, the
+	 * active and default profiles, the values of the given properties, the content
+	 * of the class files in the given packages and of the given classes, and the
+	 * class path entries of the context's class loader.
+	 * <p>Class files are identified by their path relative to the class path root.
+	 * Class path entries contribute their path, plus size and last-modified timestamp
+	 * in case of files, so that added, removed and changed jars are detected. Other
+	 * resources in class path directories, including the snapshot itself, are ignored.
+	 */
+	private static String fingerprint(AnnotationConfigApplicationContext context, String[] beanNames,
+			String[] activeProfiles, String[] defaultProfiles, PropertySources propertySources,
+			List<String> basePackages, List<String> classNames, List<String> propertyNames) throws IOException {
+
+		StringBuilder sb = new StringBuilder();
+		for (String beanName : beanNames) {
+			sb.append(beanName).append('=').append(context.getBeanDefinition(beanName).getBeanClassName()).append(';');
+		}
+		sb.append("profiles=").append(StringUtils.arrayToCommaDelimitedString(activeProfiles));
+		sb.append(";defaults=").append(StringUtils.arrayToCommaDelimitedString(defaultProfiles));
+		PropertySourcesPropertyResolver propertyResolver = new PropertySourcesPropertyResolver(propertySources);
+		propertyResolver.setIgnoreUnresolvableNestedPlaceholders(true);
+		for (String propertyName : propertyNames) {
+			sb.append(';').append(propertyName).append('=').append(propertyResolver.getProperty(propertyName));
+		}
+		ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver(context);
+		for (String basePackage : basePackages) {
+			String packagePath = ClassUtils.convertClassNameToResourcePath(basePackage) + '/';
+			appendClassFiles(sb, resourcePatternResolver, packagePath, packagePath + "**/*.class");
+		}
+		for (String className : classNames) {
+			String classPath = ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+			appendClassFiles(sb, resourcePatternResolver, classPath, classPath);
+		}
+		for (String entry : getClassPathEntries(context.getClassLoader())) {
+			sb.append(";entry=").append(entry);
+			File file = new File(entry);
+			if (file.isFile()) {
+				sb.append('@').append(file.length()).append('@').append(file.lastModified());
+			}
+		}
+		return DigestUtils.md5DigestAsHex(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Append the relative paths and content hashes of all class files matching the
+	 * given pattern on the class path, in all class path entries.
+	 */
+	private static void appendClassFiles(StringBuilder sb, ResourcePatternResolver resourcePatternResolver,
+			String rootPath, String pattern) throws IOException {
+
+		List<String> classFiles = new ArrayList<>();
+		for (Resource resource : resourcePatternResolver.getResources(
+				ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + pattern)) {
+			String location = resource.getURL().toString();
+			int index = location.lastIndexOf(rootPath);
+			String relativePath = (index != -1 ? location.substring(index) : resource.getFilename());
+			try (InputStream inputStream = resource.getInputStream()) {
+				classFiles.add(relativePath + '@' + DigestUtils.md5DigestAsHex(inputStream));
+			}
+		}
+		Collections.sort(classFiles);
+		for (String classFile : classFiles) {
+			sb.append(';').append(classFile);
+		}
+	}
+
+	/**
+	 * Determine the class path entries of the given class loader: the URLs of
+	 * {@link URLClassLoader URLClassLoaders} in its hierarchy, from the root
+	 * downwards, followed by the entries of the {@code java.class.path} system
+	 * property. File entries are returned as absolute paths.
+	 */
+	private static Set<String> getClassPathEntries(@Nullable ClassLoader classLoader) {
+		List<ClassLoader> hierarchy = new ArrayList<>();
+		for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+			hierarchy.add(0, current);
+		}
+		Set<String> entries = new LinkedHashSet<>();
+		for (ClassLoader current : hierarchy) {
+			if (current instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) current).getURLs()) {
+					if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+						try {
+							entries.add(ResourceUtils.getFile(url).getAbsolutePath());
+						}
+						catch (IOException ex) {
+							entries.add(url.toString());
+						}
+					}
+					else {
+						entries.add(url.toString());
+					}
+				}
+			}
+		}
+		String javaClassPath = System.getProperty("java.class.path");
+		if (javaClassPath != null) {
+			for (String entry : StringUtils.delimitedListToStringArray(javaClassPath, File.pathSeparator)) {
+				if (!entry.isEmpty()) {
+					entries.add(new File(entry).getAbsolutePath());
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static boolean isInPackages(String className, List<String> packageNames) {
+		String packageName = ClassUtils.getPackageName(className);
+		for (String candidate : packageNames) {
+			if (packageName.equals(candidate) || packageName.startsWith(candidate + '.')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addPackage(Set<String> basePackages, @Nullable String className) {
+		if (className != null) {
+			String packageName = ClassUtils.getPackageName(className);
+			// The default package would span the entire class path
+			if (!packageName.isEmpty()) {
+				basePackages.add(packageName);
+			}
+		}
+	}
+
+	/**
+	 * Reduce the given sorted packages to their top-level packages,
+	 * since class files get collected from subpackages as well.
+	 */
+	private static List<String> collapsePackages(Set<String> sortedPackages) {
+		List<String> result = new ArrayList<>();
+		String current = null;
+		for (String packageName : sortedPackages) {
+			if (current == null || !packageName.startsWith(current + '.')) {
+				result.add(packageName);
+				current = packageName;
+			}
+		}
+		return result;
+	}
+
+	private static AbstractBeanDefinition captureBeanDefinition(String beanName, BeanDefinition original) {
+		if (!(original instanceof AbstractBeanDefinition)) {
+			throw notCapturable(beanName, "not an AbstractBeanDefinition");
+		}
+		AbstractBeanDefinition abd = (AbstractBeanDefinition) original;
+		if (abd.getInstanceSupplier() != null) {
+			throw notCapturable(beanName, "instance supplier");
+		}
+		if (!abd.getMethodOverrides().isEmpty()) {
+			throw notCapturable(beanName, "method overrides");
+		}
+		if (!abd.getQualifiers().isEmpty()) {
+			throw notCapturable(beanName, "qualifiers");
+		}
+
+		AbstractBeanDefinition copy;
+		if (abd.getParentName() != null) {
+			copy = new GenericBeanDefinition();
+			copy.setParentName(abd.getParentName());
+		}
+		else {
+			// Keep the @Bean method semantics of definitions from configuration classes
+			RootBeanDefinition rbd = (abd instanceof ConfigurationClassBeanDefinition ?
+					new BeanMethodDefinition() : new RootBeanDefinition());
+			if (abd instanceof RootBeanDefinition) {
+				BeanDefinitionHolder decorated = ((RootBeanDefinition) abd).getDecoratedDefinition();
+				if (decorated != null) {
+					rbd.setDecoratedDefinition(decoratedPlaceholder(decorated.getBeanName()));
+				}
+			}
+			copy = rbd;
+		}
+		copy.setBeanClassName(abd.getBeanClassName());
+		copy.setScope(abd.getScope());
+		copy.setAbstract(abd.isAbstract());
+		if (abd.getLazyInit() != null) {
+			copy.setLazyInit(abd.getLazyInit());
+		}
+		copy.setAutowireMode(abd.getAutowireMode());
+		copy.setDependencyCheck(abd.getDependencyCheck());
+		copy.setDependsOn(abd.getDependsOn());
+		copy.setAutowireCandidate(abd.isAutowireCandidate());
+		copy.setPrimary(abd.isPrimary());
+		copy.setNonPublicAccessAllowed(abd.isNonPublicAccessAllowed());
+		copy.setLenientConstructorResolution(abd.isLenientConstructorResolution());
+		copy.setFactoryBeanName(abd.getFactoryBeanName());
+		copy.setFactoryMethodName(abd.getFactoryMethodName());
+		if (copy instanceof BeanMethodDefinition && abd.getFactoryMethodName() != null &&
+				((ConfigurationClassBeanDefinition) abd).isFactoryMethodUnique()) {
+			((BeanMethodDefinition) copy).setUniqueFactoryMethodName(abd.getFactoryMethodName());
+		}
+		copy.setInitMethodName(abd.getInitMethodName());
+		copy.setEnforceInitMethod(abd.isEnforceInitMethod());
+		copy.setDestroyMethodName(abd.getDestroyMethodName());
+		copy.setEnforceDestroyMethod(abd.isEnforceDestroyMethod());
+		copy.setSynthetic(abd.isSynthetic());
+		copy.setRole(abd.getRole());
+		copy.setDescription(abd.getDescription());
+		copy.setResourceDescription(abd.getResourceDescription());
+		captureAttributes(beanName, abd).forEach(copy::setAttribute);
+
+		ConstructorArgumentValues args = abd.getConstructorArgumentValues();
+		args.getIndexedArgumentValues().forEach((index, holder) ->
+				copy.getConstructorArgumentValues().addIndexedArgumentValue(index, captureValueHolder(beanName, holder)));
+		for (ConstructorArgumentValues.ValueHolder holder : args.getGenericArgumentValues()) {
+			copy.getConstructorArgumentValues().addGenericArgumentValue(captureValueHolder(beanName, holder));
+		}
+		for (PropertyValue pv : abd.getPropertyValues().getPropertyValues()) {
+			copy.getPropertyValues().add(pv.getName(), captureValue(beanName, pv.getValue()));
+		}
+		return copy;
+	}
+
+	private static Map<String, Object> captureAttributes(String beanName, BeanDefinition beanDefinition) {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		for (String name : beanDefinition.attributeNames()) {
+			Object value = beanDefinition.getAttribute(name);
+			if (value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+				attributes.put(name, value);
+			}
+			else if (value != null) {
+				throw notCapturable(beanName, "attribute '" + name + "' of type " + value.getClass().getName());
+			}
+		}
+		return attributes;
+	}
+
+	private static ConstructorArgumentValues.ValueHolder captureValueHolder(
+			String beanName, ConstructorArgumentValues.ValueHolder holder) {
+
+		return new ConstructorArgumentValues.ValueHolder(
+				captureValue(beanName, holder.getValue()), holder.getType(), holder.getName());
+	}
+
+	@Nullable
+	private static Object captureValue(String beanName, @Nullable Object value) {
+		if (value == null || value instanceof String || value instanceof Boolean ||
+				value instanceof Integer || value instanceof Long || value instanceof RuntimeBeanNameReference) {
+			return value;
+		}
+		if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			return (typedValue.getTargetTypeName() != null ?
+					new TypedStringValue(typedValue.getValue(), typedValue.getTargetTypeName()) :
+					new TypedStringValue(typedValue.getValue()));
+		}
+		if (value instanceof RuntimeBeanReference && ((RuntimeBeanReference) value).getBeanType() == null) {
+			return value;
+		}
+		throw notCapturable(beanName, "value of type " + value.getClass().getName());
+	}
+
+	/**
+	 * Refer to a decorated bean definition by name only: it gets linked to the
+	 * registered bean definition of that name when the snapshot is applied.
+	 */
+	private static BeanDefinitionHolder decoratedPlaceholder(String beanName) {
+		return new BeanDefinitionHolder(new RootBeanDefinition(), beanName);
+	}
+
+	private static IllegalStateException notCapturable(String beanName, String reason) {
+		return new IllegalStateException(
+				"Bean definition '" + beanName + "' cannot be captured in a snapshot: " + reason);
+	}
+
+
+	private static void writeBeanDefinition(DataOutputStream out, BeanDefinitionHolder holder) throws IOException {
+		AbstractBeanDefinition bd = (AbstractBeanDefinition) holder.getBeanDefinition();
+		out.writeUTF(holder.getBeanName());
+		writeStringArray(out, holder.getAliases());
+		if (bd instanceof BeanMethodDefinition) {
+			out.writeByte(BEAN_METHOD_DEFINITION);
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) bd).getDecoratedDefinition();
+			writeNullableString(out, decorated != null ? decorated.getBeanName() : null);
+			out.writeBoolean(((BeanMethodDefinition) bd).isFactoryMethodUnique());
+		}
+		else if (bd instanceof RootBeanDefinition) {
+			out.writeByte(ROOT_DEFINITION);
+			BeanDefinitionHolder decorated = ((RootBeanDefinition) bd).getDecoratedDefinition();
+			writeNullableString(out, decorated != null ? decorated.getBeanName() : null);
+		}
+		else {
+			out.writeByte(GENERIC_DEFINITION);
+			writeNullableString(out, bd.getParentName());
+		}
+		writeNullableString(out, bd.getBeanClassName());
+		writeNullableString(out, bd.getScope());
+		out.writeBoolean(bd.isAbstract());
+		writeValue(out, bd.getLazyInit());
+		out.writeInt(bd.getAutowireMode());
+		out.writeInt(bd.getDependencyCheck());
+		writeStringArray(out, bd.getDependsOn());
+		out.writeBoolean(bd.isAutowireCandidate());
+		out.writeBoolean(bd.isPrimary());
+		out.writeBoolean(bd.isNonPublicAccessAllowed());
+		out.writeBoolean(bd.isLenientConstructorResolution());
+		writeNullableString(out, bd.getFactoryBeanName());
+		writeNullableString(out, bd.getFactoryMethodName());
+		writeNullableString(out, bd.getInitMethodName());
+		out.writeBoolean(bd.isEnforceInitMethod());
+		writeNullableString(out, bd.getDestroyMethodName());
+		out.writeBoolean(bd.isEnforceDestroyMethod());
+		out.writeBoolean(bd.isSynthetic());
+		out.writeInt(bd.getRole());
+		writeNullableString(out, bd.getDescription());
+		writeNullableString(out, bd.getResourceDescription());
+		writeAttributes(out, captureAttributes(holder.getBeanName(), bd));
+
+		ConstructorArgumentValues args = bd.getConstructorArgumentValues();
+		out.writeInt(args.getIndexedArgumentValues().size());
+		for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : args.getIndexedArgumentValues().entrySet()) {
+			out.writeInt(entry.getKey());
+			writeValueHolder(out, entry.getValue());
+		}
+		out.writeInt(args.getGenericArgumentValues().size());
+		for (ConstructorArgumentValues.ValueHolder valueHolder : args.getGenericArgumentValues()) {
+			writeValueHolder(out, valueHolder);
+		}
+		PropertyValue[] pvs = bd.getPropertyValues().getPropertyValues();
+		out.writeInt(pvs.length);
+		for (PropertyValue pv : pvs) {
+			out.writeUTF(pv.getName());
+			writeValue(out, pv.getValue());
+		}
+	}
+
+	private static BeanDefinitionHolder readBeanDefinition(DataInputStream in) throws IOException {
+		String beanName = in.readUTF();
+		String[] aliases = readStringArray(in);
+		AbstractBeanDefinition bd;
+		boolean factoryMethodUnique = false;
+		byte kind = in.readByte();
+		if (kind == ROOT_DEFINITION || kind == BEAN_METHOD_DEFINITION) {
+			RootBeanDefinition rbd = (kind == BEAN_METHOD_DEFINITION ?
+					new BeanMethodDefinition() : new RootBeanDefinition());
+			String decoratedName = readNullableString(in);
+			if (decoratedName != null) {
+				rbd.setDecoratedDefinition(decoratedPlaceholder(decoratedName));
+			}
+			if (kind == BEAN_METHOD_DEFINITION) {
+				factoryMethodUnique = in.readBoolean();
+			}
+			bd = rbd;
+		}
+		else if (kind == GENERIC_DEFINITION) {
+			bd = new GenericBeanDefinition();
+			bd.setParentName(readNullableString(in));
+		}
+		else {
+			throw new IOException("Unsupported bean definition kind " + kind);
+		}
+		bd.setBeanClassName(readNullableString(in));
+		bd.setScope(readNullableString(in));
+		bd.setAbstract(in.readBoolean());
+		Object lazyInit = readValue(in);
+		if (lazyInit != null) {
+			bd.setLazyInit((Boolean) lazyInit);
+		}
+		bd.setAutowireMode(in.readInt());
+		bd.setDependencyCheck(in.readInt());
+		bd.setDependsOn(readStringArray(in));
+		bd.setAutowireCandidate(in.readBoolean());
+		bd.setPrimary(in.readBoolean());
+		bd.setNonPublicAccessAllowed(in.readBoolean());
+		bd.setLenientConstructorResolution(in.readBoolean());
+		bd.setFactoryBeanName(readNullableString(in));
+		String factoryMethodName = readNullableString(in);
+		if (factoryMethodUnique && factoryMethodName != null) {
+			((RootBeanDefinition) bd).setUniqueFactoryMethodName(factoryMethodName);
+		}
+		else {
+			bd.setFactoryMethodName(factoryMethodName);
+		}
+		bd.setInitMethodName(readNullableString(in));
+		bd.setEnforceInitMethod(in.readBoolean());
+		bd.setDestroyMethodName(readNullableString(in));
+		bd.setEnforceDestroyMethod(in.readBoolean());
+		bd.setSynthetic(in.readBoolean());
+		bd.setRole(in.readInt());
+		bd.setDescription(readNullableString(in));
+		bd.setResourceDescription(readNullableString(in));
+		readAttributes(in).forEach(bd::setAttribute);
+
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			int index = in.readInt();
+			bd.getConstructorArgumentValues().addIndexedArgumentValue(index, readValueHolder(in));
+		}
+		count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			bd.getConstructorArgumentValues().addGenericArgumentValue(readValueHolder(in));
+		}
+		count = in.readInt();
+		MutablePropertyValues pvs = bd.getPropertyValues();
+		for (int i = 0; i < count; i++) {
+			pvs.add(in.readUTF(), readValue(in));
+		}
+		return new BeanDefinitionHolder(bd, beanName, aliases);
+	}
+
+	private static void writeAttributes(DataOutputStream out, Map<String, Object> attributes) throws IOException {
+		out.writeInt(attributes.size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			writeValue(out, entry.getValue());
+		}
+	}
+
+	private static Map<String, Object> readAttributes(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		Map<String, Object> attributes = new LinkedHashMap<>(count * 4 / 3 + 1);
+		for (int i = 0; i < count; i++) {
+			String name = in.readUTF();
+			Object value = readValue(in);
+			if (value != null) {
+				attributes.put(name, value);
+			}
+		}
+		return attributes;
+	}
+
+	private static void writeValueHolder(DataOutputStream out, ConstructorArgumentValues.ValueHolder holder)
+			throws IOException {
+
+		writeValue(out, holder.getValue());
+		writeNullableString(out, holder.getType());
+		writeNullableString(out, holder.getName());
+	}
+
+	private static ConstructorArgumentValues.ValueHolder readValueHolder(DataInputStream in) throws IOException {
+		return new ConstructorArgumentValues.ValueHolder(readValue(in), readNullableString(in), readNullableString(in));
+	}
+
+	private static void writeValue(DataOutputStream out, @Nullable Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL_VALUE);
+		}
+		else if (value instanceof String) {
+			out.writeByte(STRING_VALUE);
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN_VALUE);
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte(INTEGER_VALUE);
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte(LONG_VALUE);
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof TypedStringValue) {
+			TypedStringValue typedValue = (TypedStringValue) value;
+			out.writeByte(TYPED_STRING_VALUE);
+			writeNullableString(out, typedValue.getValue());
+			writeNullableString(out, typedValue.getTargetTypeName());
+		}
+		else if (value instanceof RuntimeBeanReference) {
+			RuntimeBeanReference reference = (RuntimeBeanReference) value;
+			out.writeByte(BEAN_REFERENCE_VALUE);
+			out.writeUTF(reference.getBeanName());
+			out.writeBoolean(reference.isToParent());
+		}
+		else if (value instanceof RuntimeBeanNameReference) {
+			out.writeByte(BEAN_NAME_REFERENCE_VALUE);
+			out.writeUTF(((RuntimeBeanNameReference) value).getBeanName());
+		}
+		else {
+			throw new IllegalStateException("Unsupported value of type " + value.getClass().getName());
+		}
+	}
+
+	@Nullable
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+			case NULL_VALUE:
+				return null;
+			case STRING_VALUE:
+				return in.readUTF();
+			case BOOLEAN_VALUE:
+				return in.readBoolean();
+			case INTEGER_VALUE:
+				return in.readInt();
+			case LONG_VALUE:
+				return in.readLong();
+			case TYPED_STRING_VALUE:
+				String value = readNullableString(in);
+				String targetTypeName = readNullableString(in);
+				return (targetTypeName != null ? new TypedStringValue(value, targetTypeName) : new TypedStringValue(value));
+			case BEAN_REFERENCE_VALUE:
+				return new RuntimeBeanReference(in.readUTF(), in.readBoolean());
+			case BEAN_NAME_REFERENCE_VALUE:
+				return new RuntimeBeanNameReference(in.readUTF());
+			default:
+				throw new IOException("Unsupported value type " + type);
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	private static void writeStringArray(DataOutputStream out, @Nullable String[] values) throws IOException {
+		out.writeInt(values != null ? values.length : -1);
+		if (values != null) {
+			for (String value : values) {
+				out.writeUTF(value);
+			}
+		}
+	}
+
+	private static List<String> readStringList(DataInputStream in) throws IOException {
+		String[] values = readStringArray(in);
+		return (values != null ? Arrays.asList(values) : Collections.emptyList());
+	}
+
+	@Nullable
+	private static String[] readStringArray(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = in.readUTF();
+		}
+		return values;
+	}
+
+
+	/**
+	 * Property source recording the names of all properties looked up while
+	 * processing configuration classes, without providing any values itself.
+	 */
+	private static class PropertyLookupRecorder extends PropertySource<Object> {
+
+		private final Set<String> propertyNames = Collections.synchronizedSet(new TreeSet<>());
+
+		PropertyLookupRecorder() {
+			super(PropertyLookupRecorder.class.getName());
+		}
+
+		@Override
+		@Nullable
+		public Object getProperty(String name) {
+			this.propertyNames.add(name);
+			return null;
+		}
+
+		Set<String> getPropertyNames() {
+			synchronized (this.propertyNames) {
+				return new TreeSet<>(this.propertyNames);
+			}
+		}
+	}
+
+
+	/**
+	 * {@link RootBeanDefinition} for a {@code @Bean} method restored from a snapshot,
+	 * only considering {@code @Bean} methods as factory methods and keeping track of
+	 * whether the factory method is unique, like the bean definitions created for
+	 * configuration classes.
+	 */
+	@SuppressWarnings("serial")
+	private static class BeanMethodDefinition extends RootBeanDefinition {
+
+		private boolean factoryMethodUnique;
+
+		BeanMethodDefinition() {
+		}
+
+		private BeanMethodDefinition(BeanMethodDefinition original) {
+			super(original);
+			this.factoryMethodUnique = original.factoryMethodUnique;
+		}
+
+		@Override
+		public void setUniqueFactoryMethodName(String name) {
+			super.setUniqueFactoryMethodName(name);
+			this.factoryMethodUnique = true;
+		}
+
+		@Override
+		public void setNonUniqueFactoryMethodName(String name) {
+			super.setNonUniqueFactoryMethodName(name);
+			this.factoryMethodUnique = false;
+		}
+
+		boolean isFactoryMethodUnique() {
+			return this.factoryMethodUnique;
+		}
+
+		@Override
+		public boolean isFactoryMethod(Method candidate) {
+			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
+		}
+
+		@Override
+		public BeanMethodDefinition cloneBeanDefinition() {
+			return new BeanMethodDefinition(this);
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting
+	 * importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final Map<String, AnnotationMetadata> metadataCache = new ConcurrentHashMap<>();
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			if (importingClass == null) {
+				return null;
+			}
+			return this.metadataCache.computeIfAbsent(importingClass, className ->
+					AnnotationMetadata.introspect(ClassUtils.resolveClassName(className, this.classLoader)));
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+	}
+
+}
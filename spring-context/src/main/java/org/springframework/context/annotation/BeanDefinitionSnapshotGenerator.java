@@ -0,0 +1,103 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Build-time generator for a {@link BeanDefinitionSnapshot}, meant to be invoked
+ * through a Gradle {@code JavaExec} task or the Maven exec plugin with the
+ * application's runtime class path.
+ *
+ * <p>Arguments: the output file, followed by the fully-qualified names of the
+ * component classes to register, in the order used by the application.
+ * Active profiles may be specified through the {@code spring.profiles.active}
+ * system property, as at runtime.
+ *
+ * <p>The class path needs to be the same as at runtime, since its entries are
+ * part of the snapshot fingerprint. The output file may be located in a class
+ * path directory, as in the example below, but not within a jar on the class path.
+ *
+ * <pre class="code">
+ * java -cp ... org.springframework.context.annotation.BeanDefinitionSnapshotGenerator \
+ *     build/resources/main/META-INF/app.snapshot com.example.AppConfig
+ * </pre>
+ *
+ * @since 5.2
+ * @see BeanDefinitionSnapshot
+ * @see AnnotationConfigApplicationContext#setBeanDefinitionSnapshot
+ */
+public final class BeanDefinitionSnapshotGenerator {
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshotGenerator.class);
+
+
+	private BeanDefinitionSnapshotGenerator() {
+	}
+
+
+	/**
+	 * Capture a snapshot for the given component classes and write it to the given file.
+	 * <p>The class path of the snapshot is the one of the default class loader,
+	 * typically the thread context class loader.
+	 * @param outputFile the file to write the snapshot to
+	 * @param componentClasses the component classes to register
+	 * @return the captured snapshot
+	 * @throws IOException if the snapshot could not be written
+	 */
+	public static BeanDefinitionSnapshot generate(Path outputFile, Class<?>... componentClasses) throws IOException {
+		Assert.notEmpty(componentClasses, "At least one component class must be specified");
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(componentClasses);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		Path parent = outputFile.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (OutputStream out = Files.newOutputStream(outputFile)) {
+			snapshot.writeTo(out);
+		}
+		return snapshot;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			throw new IllegalArgumentException(
+					"Usage: BeanDefinitionSnapshotGenerator <outputFile> <componentClass>...");
+		}
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		Class<?>[] componentClasses = new Class<?>[args.length - 1];
+		for (int i = 1; i < args.length; i++) {
+			componentClasses[i - 1] = ClassUtils.forName(args[i], classLoader);
+		}
+		BeanDefinitionSnapshot snapshot = generate(Paths.get(args[0]), componentClasses);
+		if (logger.isInfoEnabled()) {
+			logger.info("Wrote " + snapshot + " to " + args[0]);
+		}
+	}
+
+}
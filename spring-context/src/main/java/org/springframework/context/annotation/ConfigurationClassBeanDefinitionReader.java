@@ -393,12 +393,14 @@ class ConfigurationClassBeanDefinitionReader {
 	 * definition was created externally.
 	 */
 	@SuppressWarnings("serial")
-	private static class ConfigurationClassBeanDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
+	static class ConfigurationClassBeanDefinition extends RootBeanDefinition implements AnnotatedBeanDefinition {
 
 		private final AnnotationMetadata annotationMetadata;
 
 		private final MethodMetadata factoryMethodMetadata;
 
+		private boolean factoryMethodUnique;
+
 		public ConfigurationClassBeanDefinition(ConfigurationClass configClass, MethodMetadata beanMethodMetadata) {
 			this.annotationMetadata = configClass.getMetadata();
 			this.factoryMethodMetadata = beanMethodMetadata;
@@ -416,6 +418,7 @@ class ConfigurationClassBeanDefinitionReader {
 			super(original);
 			this.annotationMetadata = original.annotationMetadata;
 			this.factoryMethodMetadata = original.factoryMethodMetadata;
+			this.factoryMethodUnique = original.factoryMethodUnique;
 		}
 
 		@Override
@@ -429,6 +432,28 @@ class ConfigurationClassBeanDefinitionReader {
 			return this.factoryMethodMetadata;
 		}
 
+		@Override
+		public void setUniqueFactoryMethodName(String name) {
+			super.setUniqueFactoryMethodName(name);
+			this.factoryMethodUnique = true;
+		}
+
+		@Override
+		public void setNonUniqueFactoryMethodName(String name) {
+			super.setNonUniqueFactoryMethodName(name);
+			this.factoryMethodUnique = false;
+		}
+
+		/**
+		 * Return whether the factory method has been specified as unique,
+		 * i.e. as not overloaded, for bean definition snapshots.
+		 * @since 5.2
+		 * @see #setUniqueFactoryMethodName
+		 */
+		boolean isFactoryMethodUnique() {
+			return this.factoryMethodUnique;
+		}
+
 		@Override
 		public boolean isFactoryMethod(Method candidate) {
 			return (super.isFactoryMethod(candidate) && BeanAnnotationHelper.isBeanAnnotated(candidate));
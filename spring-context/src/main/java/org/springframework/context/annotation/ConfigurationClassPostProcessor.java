@@ -53,6 +53,7 @@ import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.annotation.ConfigurationClassEnhancer.EnhancedConfiguration;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.io.DefaultResourceLoader;
@@ -104,7 +105,7 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	};
 
-	private static final String IMPORT_REGISTRY_BEAN_NAME =
+	static final String IMPORT_REGISTRY_BEAN_NAME =
 			ConfigurationClassPostProcessor.class.getName() + ".importRegistry";
 
 
@@ -141,6 +142,12 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 	/* Using fully qualified class names as default bean names by default. */
 	private BeanNameGenerator importBeanNameGenerator = IMPORT_BEAN_NAME_GENERATOR;
 
+	/* Metadata of the @PropertySource annotations processed, for bean definition snapshots. */
+	private final List<AnnotationAttributes> processedPropertySources = new ArrayList<>();
+
+	/* Base packages of the component scans performed, for bean definition snapshots. */
+	private final Set<String> scannedPackages = new LinkedHashSet<>();
+
 
 	@Override
 	public int getOrder() {
@@ -279,7 +286,8 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 					logger.debug("Bean definition has already been processed as a configuration class: " + beanDef);
 				}
 			}
-			else if (ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
+			else if (beanDef.getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE) == null &&
+					ConfigurationClassUtils.checkConfigurationClassCandidate(beanDef, this.metadataReaderFactory)) {
 				configCandidates.add(new BeanDefinitionHolder(beanDef, beanName));
 			}
 		}
@@ -359,6 +367,9 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 		while (!candidates.isEmpty());
 
+		this.processedPropertySources.addAll(parser.getProcessedPropertySources());
+		this.scannedPackages.addAll(parser.getScannedPackages());
+
 		// Register the ImportRegistry as a bean in order to support ImportAware @Configuration classes
 		if (sbr != null && !sbr.containsSingleton(IMPORT_REGISTRY_BEAN_NAME)) {
 			sbr.registerSingleton(IMPORT_REGISTRY_BEAN_NAME, parser.getImportRegistry());
@@ -371,6 +382,26 @@ public class ConfigurationClassPostProcessor implements BeanDefinitionRegistryPo
 		}
 	}
 
+	/**
+	 * Return the metadata of all {@code @PropertySource} annotations processed
+	 * by this post-processor so far, in processing order.
+	 * @since 5.2
+	 * @see BeanDefinitionSnapshot
+	 */
+	List<AnnotationAttributes> getProcessedPropertySources() {
+		return this.processedPropertySources;
+	}
+
+	/**
+	 * Return the base packages of all {@code @ComponentScan} annotations
+	 * processed by this post-processor so far.
+	 * @since 5.2
+	 * @see BeanDefinitionSnapshot
+	 */
+	Set<String> getScannedPackages() {
+		return this.scannedPackages;
+	}
+
 	/**
 	 * Post-processes a BeanFactory in search of Configuration class BeanDefinitions;
 	 * any candidates are then enhanced by a {@link ConfigurationClassEnhancer}.
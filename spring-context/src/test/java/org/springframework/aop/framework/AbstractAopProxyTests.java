@@ -22,11 +22,15 @@ import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.rmi.MarshalException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.aopalliance.aop.Advice;
 import org.aopalliance.intercept.MethodInterceptor;
@@ -43,6 +47,8 @@ import org.springframework.aop.Advisor;
 import org.springframework.aop.AfterReturningAdvice;
 import org.springframework.aop.DynamicIntroductionAdvice;
 import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.NonCapturingInterceptor;
+import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.aop.TargetSource;
 import org.springframework.aop.ThrowsAdvice;
 import org.springframework.aop.interceptor.DebugInterceptor;
@@ -1472,6 +1478,132 @@ public abstract class AbstractAopProxyTests {
 		assertThat(car.getCalls()).isEqualTo(2);
 	}
 
+	@Test
+	public void testInvocationReusedForNonCapturingInterceptors() {
+		InvocationRecordingInterceptor recorder = new InvocationRecordingInterceptor();
+		CountingBeforeAdvice cba = new CountingBeforeAdvice();
+		TestBean target = new TestBean();
+		target.setAge(26);
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(recorder);
+		pf.addAdvice(cba);
+		ITestBean proxied = (ITestBean) createProxy(pf);
+
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(cba.getCalls("getAge")).isEqualTo(2);
+		assertThat(recorder.invocations).hasSize(2);
+		assertThat(recorder.invocations.get(1)).isSameAs(recorder.invocations.get(0));
+		// Reset after each call
+		assertThat(recorder.invocations.get(0).getThis()).isNull();
+	}
+
+	@Test
+	public void testInvocationNotReusedForNestedCall() {
+		InvocationRecordingInterceptor recorder = new InvocationRecordingInterceptor();
+		TestBean target = new TestBean();
+		target.setAge(26);
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(recorder);
+		pf.addAdvice(new CountingBeforeAdvice());
+		ITestBean proxied = (ITestBean) createProxy(pf);
+		recorder.nestedCall = () -> assertThat(proxied.getAge()).isEqualTo(26);
+		recorder.nestedCalls = 1;
+
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(recorder.invocations).hasSize(2);
+		assertThat(recorder.invocations.get(1)).isNotSameAs(recorder.invocations.get(0));
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(recorder.invocations.get(2)).isSameAs(recorder.invocations.get(0));
+	}
+
+	@Test
+	public void testInvocationsForRecursiveCalls() {
+		InvocationRecordingInterceptor recorder = new InvocationRecordingInterceptor();
+		CountingBeforeAdvice cba = new CountingBeforeAdvice();
+		TestBean target = new TestBean();
+		target.setAge(26);
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(recorder);
+		pf.addAdvice(cba);
+		ITestBean proxied = (ITestBean) createProxy(pf);
+		int depth = ReusableMethodInvocation.MAX_NESTING_DEPTH + 2;
+		recorder.nestedCall = () -> assertThat(proxied.getAge()).isEqualTo(26);
+		recorder.nestedCalls = depth - 1;
+
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(cba.getCalls("getAge")).isEqualTo(depth);
+		assertThat(recorder.invocations).hasSize(depth);
+		Set<MethodInvocation> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+		distinct.addAll(recorder.invocations);
+		assertThat(distinct).hasSize(depth);
+		List<MethodInvocation> reused =
+				new ArrayList<>(recorder.invocations.subList(0, ReusableMethodInvocation.MAX_NESTING_DEPTH));
+		assertThat(reused).allSatisfy(invocation ->
+				assertThat(invocation).isInstanceOf(ReusableMethodInvocation.class));
+		assertThat(recorder.invocations.subList(ReusableMethodInvocation.MAX_NESTING_DEPTH, depth)).allSatisfy(
+				invocation -> assertThat(invocation).isNotInstanceOf(ReusableMethodInvocation.class));
+
+		// The same invocations are reused by the same recursion again
+		recorder.nestedCalls = depth - 1;
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(recorder.invocations.subList(depth, depth + ReusableMethodInvocation.MAX_NESTING_DEPTH))
+				.containsExactlyElementsOf(reused);
+	}
+
+	@Test
+	public void testInvocableCloneAfterCallReturns() throws Throwable {
+		InvocationRecordingInterceptor recorder = new InvocationRecordingInterceptor();
+		CloningInterceptor cloner = new CloningInterceptor();
+		CountingBeforeAdvice cba = new CountingBeforeAdvice();
+		TestBean target = new TestBean();
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(recorder);
+		pf.addAdvice(cloner);
+		pf.addAdvice(cba);
+		ITestBean proxied = (ITestBean) createProxy(pf);
+
+		proxied.setAge(26);
+		assertThat(target.getAge()).isEqualTo(26);
+		assertThat(cba.getCalls("setAge")).isEqualTo(1);
+
+		// A clone taken during the call proceeds from where it was taken
+		MethodInvocation clone = cloner.clone;
+		assertThat(clone).isNotNull();
+		assertThat(clone.getMethod().getName()).isEqualTo("setAge");
+		assertThat(clone.getThis()).isSameAs(target);
+		assertThat(clone.getArguments()).containsExactly(26);
+		target.setAge(0);
+		clone.proceed();
+		assertThat(target.getAge()).isEqualTo(26);
+		assertThat(cba.getCalls("setAge")).isEqualTo(2);
+
+		// Cloning the reused invocation itself is only possible during the call
+		MethodInvocation invocation = recorder.invocations.get(0);
+		if (invocation instanceof ReusableMethodInvocation) {
+			assertThatIllegalStateException().isThrownBy(((ProxyMethodInvocation) invocation)::invocableClone);
+		}
+		else {
+			assertThat(((ProxyMethodInvocation) invocation).invocableClone().getThis()).isSameAs(target);
+		}
+	}
+
+	@Test
+	public void testInvocationNotReusedForCapturingInterceptors() {
+		InvocationRecordingInterceptor recorder = new InvocationRecordingInterceptor();
+		TestBean target = new TestBean();
+		target.setAge(26);
+		ProxyFactory pf = new ProxyFactory(target);
+		pf.addAdvice(ExposeInvocationInterceptor.INSTANCE);
+		pf.addAdvice(recorder);
+		ITestBean proxied = (ITestBean) createProxy(pf);
+
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(proxied.getAge()).isEqualTo(26);
+		assertThat(recorder.invocations).hasSize(2);
+		assertThat(recorder.invocations.get(1)).isNotSameAs(recorder.invocations.get(0));
+	}
+
 
 	@Test
 	public void testThrowsAdvisorIsInvoked() throws Throwable {
@@ -1548,6 +1680,48 @@ public abstract class AbstractAopProxyTests {
 	}
 
 
+	/**
+	 * Records the invocations it sees, which is only fine for identity checks
+	 * in tests given the {@link NonCapturingInterceptor} contract.
+	 */
+	private static class InvocationRecordingInterceptor implements MethodInterceptor, NonCapturingInterceptor {
+
+		final List<MethodInvocation> invocations = new LinkedList<>();
+
+		@Nullable
+		Runnable nestedCall;
+
+		int nestedCalls;
+
+		@Override
+		public Object invoke(MethodInvocation mi) throws Throwable {
+			this.invocations.add(mi);
+			if (this.nestedCall != null && this.nestedCalls > 0) {
+				this.nestedCalls--;
+				this.nestedCall.run();
+			}
+			return mi.proceed();
+		}
+	}
+
+
+	/**
+	 * Keeps a clone of the last invocation it sees, which is independent
+	 * of the invocation and therefore does not capture it.
+	 */
+	private static class CloningInterceptor implements MethodInterceptor, NonCapturingInterceptor {
+
+		@Nullable
+		MethodInvocation clone;
+
+		@Override
+		public Object invoke(MethodInvocation mi) throws Throwable {
+			this.clone = ((ProxyMethodInvocation) mi).invocableClone();
+			return mi.proceed();
+		}
+	}
+
+
 	/**
 	 * ExposeInvocation must be set to true.
 	 */
@@ -17,13 +17,16 @@
 package org.springframework.aop.framework;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.aop.TargetClassAware;
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.tests.aop.advice.CountingBeforeAdvice;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -140,6 +143,42 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 		assertThat(named.hashCode()).isEqualTo(proxy.hashCode());
 	}
 
+	@Test
+	public void testAdvisedMethodsDispatchedToProxyConfig() {
+		ProxyFactory proxyFactory = new ProxyFactory(new TestBean());
+		proxyFactory.addInterface(ITestBean.class);
+		proxyFactory.addAdvice((MethodInterceptor) MethodInvocation::proceed);
+		Object proxy = proxyFactory.getProxy();
+		assertThat(((Advised) proxy).getAdvisors()).hasSize(1);
+		assertThat(((TargetClassAware) proxy).getTargetClass()).isEqualTo(TestBean.class);
+		assertThat(((ITestBean) proxy).getAge()).isEqualTo(0);
+	}
+
+	@Test
+	public void testAdvisedMethodsNotDispatchedToOpaqueProxyConfig() {
+		ProxyFactory proxyFactory = new ProxyFactory(new TestBean());
+		proxyFactory.addInterface(ITestBean.class);
+		proxyFactory.setOpaque(true);
+		Object proxy = proxyFactory.getProxy();
+		assertThat(proxy).isNotInstanceOf(Advised.class);
+		assertThat(((ITestBean) proxy).getAge()).isEqualTo(0);
+	}
+
+	@Test
+	public void testTargetMethodInvokedWithoutReflection() {
+		ProxyFactory proxyFactory = new ProxyFactory(new CallInspector());
+		Inspector proxy = (Inspector) proxyFactory.getProxy();
+		assertThat(proxy.isCalledReflectively()).isFalse();
+
+		proxyFactory.addAdvice((MethodInterceptor) MethodInvocation::proceed);
+		assertThat(proxy.isCalledReflectively()).isFalse();
+
+		ProxyFactory reusingProxyFactory = new ProxyFactory(new CallInspector());
+		reusingProxyFactory.addAdvice(new CountingBeforeAdvice());
+		Inspector reusingProxy = (Inspector) reusingProxyFactory.getProxy();
+		assertThat(reusingProxy.isCalledReflectively()).isFalse();
+	}
+
 	@Test  // SPR-13328
 	public void testVarargsWithEnumArray() {
 		ProxyFactory proxyFactory = new ProxyFactory(new VarargTestBean());
@@ -211,6 +250,30 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 	}
 
 
+	public interface Inspector {
+
+		boolean isCalledReflectively();
+	}
+
+
+	public static class CallInspector implements Inspector {
+
+		@Override
+		public boolean isCalledReflectively() {
+			// Only look at the frames between this method and the proxy
+			for (StackTraceElement element : new Throwable().getStackTrace()) {
+				if (element.getClassName().equals(JdkDynamicAopProxy.class.getName())) {
+					return false;
+				}
+				if (element.getClassName().equals(Method.class.getName()) && element.getMethodName().equals("invoke")) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+
 	public interface VarargTestInterface {
 
 		<V extends MyInterface> boolean doWithVarargs(V... args);
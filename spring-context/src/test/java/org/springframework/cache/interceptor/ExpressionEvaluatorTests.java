@@ -16,10 +16,12 @@
 
 package org.springframework.cache.interceptor;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -32,7 +34,11 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.ReflectionUtils;
 
@@ -136,10 +142,122 @@ public class ExpressionEvaluatorTests {
 		assertThat(value).isEqualTo(String.class.getName());
 	}
 
+	@Test
+	public void compiledExpressions() {
+		CacheOperationExpressionEvaluator eval = new CacheOperationExpressionEvaluator(SpelCompilerMode.IMMEDIATE, null);
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey key = new AnnotatedElementKey(method, AnnotatedClass.class);
+		for (int i = 0; i < 5; i++) {
+			Object[] args = new Object[] {"a" + i, i};
+			EvaluationContext context = createEvaluationContext(
+					eval, method, args, CacheOperationExpressionEvaluator.NO_RESULT, null);
+			assertThat(eval.key("#p0", key, context)).isEqualTo("a" + i);
+			assertThat(eval.key("#a1", key, context)).isEqualTo(i);
+			assertThat(eval.condition("#p1 != null and #p0 != null", key, context)).isTrue();
+			assertThat(eval.unless("#result == null", key, createEvaluationContext(
+					eval, method, args, "theResult", null))).isFalse();
+		}
+	}
+
+	@Test
+	public void compiledExpressionWithUnavailableReturnValue() {
+		CacheOperationExpressionEvaluator eval = new CacheOperationExpressionEvaluator(SpelCompilerMode.IMMEDIATE, null);
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey key = new AnnotatedElementKey(method, AnnotatedClass.class);
+		Object[] args = new Object[] {new Object(), new Object()};
+		for (int i = 0; i < 3; i++) {
+			assertThat(eval.condition("#result != null", key,
+					createEvaluationContext(eval, method, args, "theResult", null))).isTrue();
+		}
+		EvaluationContext context = createEvaluationContext(
+				eval, method, args, CacheOperationExpressionEvaluator.RESULT_UNAVAILABLE, null);
+		assertThatExceptionOfType(VariableNotAvailableException.class).isThrownBy(() ->
+				eval.condition("#result != null", key, context))
+			.satisfies(ex ->  assertThat(ex.getName()).isEqualTo("result"));
+	}
+
+	@Test
+	public void compiledExpressionRevertsToInterpretedOnFailure() {
+		CacheOperationExpressionEvaluator eval = new CacheOperationExpressionEvaluator(SpelCompilerMode.IMMEDIATE, null);
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey key = new AnnotatedElementKey(method, AnnotatedClass.class);
+		for (int i = 0; i < 3; i++) {
+			EvaluationContext context = createEvaluationContext(
+					eval, method, new Object[] {"abc", null}, CacheOperationExpressionEvaluator.NO_RESULT, null);
+			assertThat(eval.key("#p0.length()", key, context)).isEqualTo(3);
+		}
+		EvaluationContext context = createEvaluationContext(
+				eval, method, new Object[] {new StringBuilder("abcd"), null}, CacheOperationExpressionEvaluator.NO_RESULT, null);
+		assertThat(eval.key("#p0.length()", key, context)).isEqualTo(4);
+	}
+
+	@Test
+	public void compiledExpressionGivesUpCompilationForAlternatingArgumentTypes() {
+		CacheOperationExpressionEvaluator eval = new CacheOperationExpressionEvaluator(SpelCompilerMode.IMMEDIATE, null);
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		AnnotatedElementKey key = new AnnotatedElementKey(method, AnnotatedClass.class);
+		Field compiledAst = ReflectionUtils.findField(SpelExpression.class, "compiledAst");
+		ReflectionUtils.makeAccessible(compiledAst);
+		Expression interpreted = null;
+		for (int i = 0; i < 20; i++) {
+			Object arg = (i % 2 == 0 ? "abc" : new StringBuilder("abc"));
+			EvaluationContext context = createEvaluationContext(
+					eval, method, new Object[] {arg, null}, CacheOperationExpressionEvaluator.NO_RESULT, null);
+			assertThat(eval.key("#p0.length()", key, context)).isEqualTo(3);
+			if (i >= 4) {
+				// Compiled for one argument type, failed for the other -> interpreted from now on
+				Expression expression = getCachedKeyExpression(eval);
+				if (interpreted == null) {
+					interpreted = expression;
+				}
+				assertThat(expression).isSameAs(interpreted);
+				assertThat(ReflectionUtils.getField(compiledAst, expression)).isNull();
+			}
+		}
+	}
+
+	@Test
+	public void argumentBinding() {
+		Method method = ReflectionUtils.findMethod(
+				AnnotatedClass.class, "multipleCaching", Object.class, Object.class);
+		CacheEvaluationContext.ArgumentBinding binding = new CacheEvaluationContext.ArgumentBinding(
+				method, new DefaultParameterNameDiscoverer());
+		Object[] args = new Object[] {"a", "b"};
+		assertThat(binding.resolve("a0", args)).isEqualTo("a");
+		assertThat(binding.resolve("p1", args)).isEqualTo("b");
+		assertThat(binding.resolve("a", args)).isEqualTo("a");
+		assertThat(binding.resolve("b", args)).isEqualTo("b");
+		assertThat(binding.resolve("p2", args)).isNull();
+		assertThat(binding.resolve("p1", new Object[] {"a"})).isNull();
+		assertThat((Object[]) binding.resolve("p1", new Object[] {"a", "b", "c"})).containsExactly("b", "c");
+	}
+
+	@SuppressWarnings("unchecked")
+	private Expression getCachedKeyExpression(CacheOperationExpressionEvaluator eval) {
+		Field keyCache = ReflectionUtils.findField(CacheOperationExpressionEvaluator.class, "keyCache");
+		ReflectionUtils.makeAccessible(keyCache);
+		Map<?, Expression> cache = (Map<?, Expression>) ReflectionUtils.getField(keyCache, eval);
+		assertThat(cache).hasSize(1);
+		return cache.values().iterator().next();
+	}
+
 	private EvaluationContext createEvaluationContext(Object result) {
 		return createEvaluationContext(result, null);
 	}
 
+	private EvaluationContext createEvaluationContext(CacheOperationExpressionEvaluator eval,
+			Method method, Object[] args, Object result, BeanFactory beanFactory) {
+
+		AnnotatedClass target = new AnnotatedClass();
+		Collection<ConcurrentMapCache> caches = Collections.singleton(new ConcurrentMapCache("test"));
+		return eval.createEvaluationContext(
+				caches, method, args, target, target.getClass(), method, result, beanFactory);
+	}
+
 	private EvaluationContext createEvaluationContext(Object result, BeanFactory beanFactory) {
 		AnnotatedClass target = new AnnotatedClass();
 		Method method = ReflectionUtils.findMethod(
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import example.snapshot.ExternalSnapshotConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.tests.sample.beans.TestBean;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BeanDefinitionSnapshot}.
+ */
+public class BeanDefinitionSnapshotTests {
+
+	@BeforeEach
+	public void resetCondition() {
+		CountingCondition.evaluations.set(0);
+	}
+
+
+	@Test
+	public void captureAndRestore() throws Exception {
+		Resource snapshot = captureSnapshot(SnapshotConfig.class);
+		assertThat(CountingCondition.evaluations.get()).isGreaterThan(0);
+		CountingCondition.evaluations.set(0);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.register(SnapshotConfig.class);
+		context.refresh();
+
+		assertThat(CountingCondition.evaluations.get()).isEqualTo(0);
+		assertThat(context.getBean("testBean", TestBean.class).getName()).isEqualTo("snapshot");
+		assertThat(context.getBean("testBeanAlias")).isSameAs(context.getBean("testBean"));
+		assertThat(context.getBean("importedBean", TestBean.class).getName()).isEqualTo("imported");
+		assertThat(context.containsBean("skippedBean")).isFalse();
+		assertThat(context.getBeanDefinition("testBean").getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE))
+				.isEqualTo(Boolean.TRUE);
+		context.close();
+	}
+
+	@Test
+	public void restoreImportMetadata() throws Exception {
+		Resource snapshot = captureSnapshot(SnapshotConfig.class);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.register(SnapshotConfig.class);
+		context.refresh();
+
+		AnnotationMetadata importMetadata = context.getBean(ImportedConfig.class).importMetadata;
+		assertThat(importMetadata).isNotNull();
+		assertThat(importMetadata.getClassName()).isEqualTo(SnapshotConfig.class.getName());
+		assertThat(importMetadata.hasAnnotation(SnapshotMarker.class.getName())).isTrue();
+		context.close();
+	}
+
+	@Test
+	public void outdatedSnapshotIsIgnored() throws Exception {
+		Resource snapshot = captureSnapshot(SnapshotConfig.class);
+		CountingCondition.evaluations.set(0);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.getEnvironment().setActiveProfiles("other");
+		context.register(SnapshotConfig.class);
+		context.refresh();
+
+		assertThat(CountingCondition.evaluations.get()).isGreaterThan(0);
+		assertThat(context.getBean("testBean", TestBean.class).getName()).isEqualTo("snapshot");
+		assertThat(context.getBeanDefinition("testBean").getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE)).isNull();
+		context.close();
+	}
+
+	@Test
+	public void snapshotWithChangedConditionPropertyIsIgnored() throws Exception {
+		Resource snapshot = captureSnapshot(SnapshotConfig.class);
+		CountingCondition.evaluations.set(0);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+				Collections.singletonMap(CountingCondition.PROPERTY_NAME, "true")));
+		context.register(SnapshotConfig.class);
+		context.refresh();
+
+		assertThat(CountingCondition.evaluations.get()).isGreaterThan(0);
+		assertThat(context.getBean("skippedBean", TestBean.class).getName()).isEqualTo("skipped");
+		context.close();
+	}
+
+	@Test
+	public void snapshotFromClassPath(@TempDir Path tempDir) throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {tempDir.toUri().toURL()}, getClass().getClassLoader())) {
+			// Generate with the runtime class path, as covered by the fingerprint
+			Thread currentThread = Thread.currentThread();
+			ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+			BeanDefinitionSnapshot generated;
+			currentThread.setContextClassLoader(classLoader);
+			try {
+				generated = BeanDefinitionSnapshotGenerator.generate(
+						tempDir.resolve("META-INF/app.snapshot"), SnapshotConfig.class);
+			}
+			finally {
+				currentThread.setContextClassLoader(originalClassLoader);
+			}
+			assertThat(generated.getBasePackages()).containsExactly(SnapshotConfig.class.getPackage().getName());
+			assertThat(generated.getClassNames()).isEmpty();
+			assertThat(generated.getPropertyNames()).contains(CountingCondition.PROPERTY_NAME);
+			CountingCondition.evaluations.set(0);
+
+			AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+			context.setClassLoader(classLoader);
+			context.setBeanDefinitionSnapshot(new ClassPathResource("META-INF/app.snapshot", classLoader));
+			context.register(SnapshotConfig.class);
+			context.refresh();
+
+			assertThat(CountingCondition.evaluations.get()).isEqualTo(0);
+			assertThat(context.getBean("testBean", TestBean.class).getName()).isEqualTo("snapshot");
+			assertThat(context.containsBean("skippedBean")).isFalse();
+			assertThat(context.getBeanDefinition("testBean").getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE))
+					.isEqualTo(Boolean.TRUE);
+			context.close();
+		}
+	}
+
+	@Test
+	public void snapshotWithChangedImportedClassIsIgnored(@TempDir Path tempDir) throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {tempDir.toUri().toURL()}, getClass().getClassLoader())) {
+			AnnotationConfigApplicationContext captureContext = new AnnotationConfigApplicationContext();
+			captureContext.setClassLoader(classLoader);
+			captureContext.register(ExternalImportConfig.class);
+			BeanDefinitionSnapshot captured = BeanDefinitionSnapshot.capture(captureContext);
+			assertThat(captured.getBasePackages()).doesNotContain(ExternalSnapshotConfig.class.getPackage().getName());
+			assertThat(captured.getClassNames()).containsExactly(ExternalSnapshotConfig.class.getName());
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			captured.writeTo(out);
+
+			// Shadow the imported configuration class with a changed class file
+			Path classFile = tempDir.resolve(
+					ClassUtils.convertClassNameToResourcePath(ExternalSnapshotConfig.class.getName()) + ".class");
+			Files.createDirectories(classFile.getParent());
+			Files.write(classFile, "changed".getBytes(StandardCharsets.UTF_8));
+
+			AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+			context.setClassLoader(classLoader);
+			context.setBeanDefinitionSnapshot(new ByteArrayResource(out.toByteArray()));
+			context.register(ExternalImportConfig.class);
+			context.refresh();
+
+			assertThat(context.getBean("externalBean")).isEqualTo("external");
+			assertThat(context.getBeanDefinition("externalBean").getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE))
+					.isNull();
+			context.close();
+		}
+	}
+
+	@Test
+	public void snapshotCoversScannedPackages() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(ScanningConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		assertThat(snapshot.getBasePackages()).containsExactly(
+				ExternalSnapshotConfig.class.getPackage().getName(), ScanningConfig.class.getPackage().getName());
+		assertThat(snapshot.getClassNames()).isEmpty();
+		assertThat(snapshot.getBeanDefinitionNames()).contains("externalBean");
+	}
+
+	@Test
+	public void snapshotWithChangedClassPathEntryIsIgnored(@TempDir Path tempDir) throws Exception {
+		Path jar = writeJar(tempDir.resolve("lib.jar"), "one");
+		Path otherJar = writeJar(tempDir.resolve("other.jar"), "other");
+		try (URLClassLoader classLoader = new URLClassLoader(
+				new URL[] {jar.toUri().toURL()}, getClass().getClassLoader());
+				URLClassLoader extendedClassLoader = new URLClassLoader(
+						new URL[] {jar.toUri().toURL(), otherJar.toUri().toURL()}, getClass().getClassLoader())) {
+
+			AnnotationConfigApplicationContext captureContext = new AnnotationConfigApplicationContext();
+			captureContext.setClassLoader(classLoader);
+			captureContext.register(SnapshotConfig.class);
+			BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(captureContext);
+
+			assertThat(snapshot.isCurrent(createContext(classLoader, SnapshotConfig.class))).isTrue();
+			assertThat(snapshot.isCurrent(createContext(extendedClassLoader, SnapshotConfig.class))).isFalse();
+			writeJar(jar, "two (changed)");
+			assertThat(snapshot.isCurrent(createContext(classLoader, SnapshotConfig.class))).isFalse();
+		}
+	}
+
+	@Test
+	public void restorePropertySources() throws Exception {
+		Resource snapshot = captureSnapshot(PropertySourceConfig.class);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.register(PropertySourceConfig.class);
+		context.refresh();
+
+		assertThat(context.getBeanDefinition("propertyBean").getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE))
+				.isEqualTo(Boolean.TRUE);
+		assertThat(context.getEnvironment().getProperty("testbean.name")).isEqualTo("p1TestBean");
+		assertThat(context.getBean("propertyBean", TestBean.class).getName()).isEqualTo("p1TestBean");
+		context.close();
+	}
+
+	@Test
+	public void missingSnapshotIsIgnored() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(new ByteArrayResource(new byte[0]) {
+			@Override
+			public boolean exists() {
+				return false;
+			}
+		});
+		context.register(SnapshotConfig.class);
+		context.refresh();
+		assertThat(context.getBean("testBean", TestBean.class).getName()).isEqualTo("snapshot");
+		context.close();
+	}
+
+	@Test
+	public void snapshotRoundTrip() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(SnapshotConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+
+		BeanDefinitionSnapshot restored = BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(restored.getFingerprint()).isEqualTo(snapshot.getFingerprint());
+		assertThat(restored.getBasePackages()).isEqualTo(snapshot.getBasePackages());
+		assertThat(restored.getPropertyNames()).isEqualTo(snapshot.getPropertyNames());
+		assertThat(restored.getBeanDefinitionNames()).isEqualTo(snapshot.getBeanDefinitionNames());
+		assertThat(restored.getBeanDefinitionNames()).contains("testBean", "importedBean").doesNotContain("skippedBean");
+	}
+
+	@Test
+	public void snapshotRoundTripWithOverloadedBeanMethod() throws Exception {
+		Resource snapshot = captureSnapshot(OverloadedBeanConfig.class);
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setBeanDefinitionSnapshot(snapshot);
+		context.register(OverloadedBeanConfig.class);
+		context.refresh();
+
+		RootBeanDefinition overloaded = (RootBeanDefinition) context.getBeanDefinition("overloadedBean");
+		assertThat(overloaded.getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+		assertThat(isFactoryMethodUnique(overloaded)).isFalse();
+		assertThat(context.getBean("overloadedBean", TestBean.class).getName()).isEqualTo("overloaded-environment");
+
+		RootBeanDefinition unique = (RootBeanDefinition) context.getBeanDefinition("uniqueBean");
+		assertThat(unique.getAttribute(BeanDefinitionSnapshot.SNAPSHOT_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+		assertThat(isFactoryMethodUnique(unique)).isTrue();
+		assertThat(unique.isFactoryMethod(OverloadedBeanConfig.class.getMethod("uniqueBean"))).isTrue();
+		assertThat(unique.isFactoryMethod(OverloadedBeanConfig.class.getMethod("uniqueBean", Environment.class)))
+				.isFalse();
+		assertThat(isFactoryMethodUnique(unique.cloneBeanDefinition())).isTrue();
+		assertThat(unique.cloneBeanDefinition().isFactoryMethod(
+				OverloadedBeanConfig.class.getMethod("uniqueBean", Environment.class))).isFalse();
+		assertThat(context.getBean("uniqueBean", TestBean.class).getName()).isEqualTo("unique");
+		context.close();
+	}
+
+	@Test
+	public void snapshotRoundTripWithPropertySources() throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(PropertySourceConfig.class);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+
+		BeanDefinitionSnapshot restored = BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(restored.getPropertySourceLocations())
+				.containsExactly("classpath:org/springframework/context/annotation/p1.properties");
+	}
+
+	@Test
+	public void captureRejectsInstanceSupplier() {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(SupplierConfig.class);
+		assertThatIllegalStateException().isThrownBy(() -> BeanDefinitionSnapshot.capture(context))
+				.withMessageContaining("supplierBean")
+				.withMessageContaining("instance supplier");
+	}
+
+
+	private static Resource captureSnapshot(Class<?> componentClass) throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.register(componentClass);
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(context);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		return new ByteArrayResource(out.toByteArray());
+	}
+
+	private static AnnotationConfigApplicationContext createContext(ClassLoader classLoader, Class<?> componentClass) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setClassLoader(classLoader);
+		context.register(componentClass);
+		return context;
+	}
+
+	private static Path writeJar(Path path, String content) throws Exception {
+		try (OutputStream out = Files.newOutputStream(path); ZipOutputStream zip = new ZipOutputStream(out)) {
+			zip.putNextEntry(new ZipEntry("content.txt"));
+			zip.write(content.getBytes(StandardCharsets.UTF_8));
+			zip.closeEntry();
+		}
+		return path;
+	}
+
+	private static boolean isFactoryMethodUnique(RootBeanDefinition beanDefinition) {
+		Field field = ReflectionUtils.findField(RootBeanDefinition.class, "isFactoryMethodUnique");
+		ReflectionUtils.makeAccessible(field);
+		return (Boolean) ReflectionUtils.getField(field, beanDefinition);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface SnapshotMarker {
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Import(ImportedConfig.class)
+	@SnapshotMarker
+	static class SnapshotConfig {
+
+		@Bean(name = {"testBean", "testBeanAlias"})
+		public TestBean testBean() {
+			return new TestBean("snapshot");
+		}
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		public TestBean skippedBean() {
+			return new TestBean("skipped");
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+
+		@Bean
+		public TestBean importedBean() {
+			return new TestBean("imported");
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Import(ExternalSnapshotConfig.class)
+	static class ExternalImportConfig {
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@ComponentScan(basePackageClasses = ExternalSnapshotConfig.class)
+	static class ScanningConfig {
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	static class OverloadedBeanConfig {
+
+		@Bean
+		public TestBean overloadedBean() {
+			return new TestBean("overloaded");
+		}
+
+		@Bean
+		public TestBean overloadedBean(Environment environment) {
+			return new TestBean("overloaded-environment");
+		}
+
+		@Bean
+		public TestBean uniqueBean() {
+			return new TestBean("unique");
+		}
+
+		public TestBean uniqueBean(Environment environment) {
+			return new TestBean("not a bean method");
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@PropertySource("classpath:org/springframework/context/annotation/p1.properties")
+	static class PropertySourceConfig {
+
+		@Bean
+		public TestBean propertyBean(Environment environment) {
+			return new TestBean(environment.getProperty("testbean.name"));
+		}
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final String PROPERTY_NAME = "snapshot.skipped-bean.enabled";
+
+		static final AtomicInteger evaluations = new AtomicInteger();
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			evaluations.incrementAndGet();
+			return context.getEnvironment().getProperty(PROPERTY_NAME, Boolean.class, false);
+		}
+	}
+
+
+	@Configuration(proxyBeanMethods = false)
+	@Import(SupplierRegistrar.class)
+	static class SupplierConfig {
+	}
+
+
+	static class SupplierRegistrar implements ImportBeanDefinitionRegistrar {
+
+		@Override
+		public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+			GenericBeanDefinition beanDefinition = new GenericBeanDefinition();
+			beanDefinition.setBeanClass(TestBean.class);
+			beanDefinition.setInstanceSupplier(TestBean::new);
+			registry.registerBeanDefinition("supplierBean", beanDefinition);
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ResolvableType}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ResolvableTypeBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public Field listField;
+
+		public ResolvableType stringListType;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.listField = Repository.class.getDeclaredField("values");
+			this.stringListType = ResolvableType.forClassWithGenerics(List.class, String.class);
+		}
+	}
+
+	@Benchmark
+	public ResolvableType forClass() {
+		return ResolvableType.forClass(String.class);
+	}
+
+	@Benchmark
+	public ResolvableType forClassWithGenerics() {
+		return ResolvableType.forClassWithGenerics(Map.class, String.class, Integer.class);
+	}
+
+	@Benchmark
+	public void forFieldResolveGeneric(BenchmarkData data, Blackhole bh) {
+		ResolvableType type = ResolvableType.forField(data.listField, StringRepository.class);
+		bh.consume(type.resolveGeneric(0));
+	}
+
+	@Benchmark
+	public void asSuperType(Blackhole bh) {
+		ResolvableType type = ResolvableType.forClass(StringRepository.class).as(Repository.class);
+		bh.consume(type.getGeneric(0).resolve());
+	}
+
+	@Benchmark
+	public boolean isAssignableFrom(BenchmarkData data) {
+		return data.stringListType.isAssignableFrom(ResolvableType.forField(data.listField, StringRepository.class));
+	}
+
+
+	static class Repository<T> {
+
+		List<T> values;
+	}
+
+	static class StringRepository extends Repository<String> {
+	}
+
+}
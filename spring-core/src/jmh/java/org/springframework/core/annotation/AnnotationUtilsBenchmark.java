@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link AnnotationUtils} and {@link AnnotatedElementUtils}
+ * lookups on annotated types and methods, including negative lookups.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AnnotationUtilsBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.method = DefaultService.class.getMethod("handle", String.class);
+		}
+	}
+
+	@Benchmark
+	public Marker findAnnotationOnClass() {
+		return AnnotationUtils.findAnnotation(DefaultService.class, Marker.class);
+	}
+
+	@Benchmark
+	public Marker findAnnotationOnInterfaceMethod(BenchmarkData data) {
+		return AnnotationUtils.findAnnotation(data.method, Marker.class);
+	}
+
+	@Benchmark
+	public Deprecated findMissingAnnotationOnMethod(BenchmarkData data) {
+		return AnnotationUtils.findAnnotation(data.method, Deprecated.class);
+	}
+
+	@Benchmark
+	public Marker findMergedAnnotationOnMethod(BenchmarkData data) {
+		return AnnotatedElementUtils.findMergedAnnotation(data.method, Marker.class);
+	}
+
+	@Benchmark
+	public boolean hasAnnotationOnClass() {
+		return AnnotatedElementUtils.hasAnnotation(DefaultService.class, Marker.class);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+	public @interface Marker {
+
+		String value() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ElementType.TYPE, ElementType.METHOD})
+	@Marker("composed")
+	public @interface ComposedMarker {
+	}
+
+	public interface Service {
+
+		@ComposedMarker
+		void handle(String value);
+	}
+
+	@ComposedMarker
+	public static class AbstractService {
+	}
+
+	public static class DefaultService extends AbstractService implements Service {
+
+		@Override
+		public void handle(String value) {
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for scalar conversions in {@link GenericConversionService},
+ * comparing the {@code Class}-based variant with the {@link TypeDescriptor}-based one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GenericConversionServiceBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		public DefaultConversionService conversionService;
+
+		public String uuid;
+
+		public TypeDescriptor stringType;
+
+		public TypeDescriptor integerType;
+
+		@Setup
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.uuid = UUID.randomUUID().toString();
+			this.stringType = TypeDescriptor.valueOf(String.class);
+			this.integerType = TypeDescriptor.valueOf(Integer.class);
+		}
+	}
+
+	@Benchmark
+	public void stringToInteger(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("12345", Integer.class));
+	}
+
+	@Benchmark
+	public void stringToIntegerWithTypeDescriptors(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("12345", data.stringType, data.integerType));
+	}
+
+	@Benchmark
+	public void stringToLong(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("1234567890123", Long.class));
+	}
+
+	@Benchmark
+	public void stringToUuid(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert(data.uuid, UUID.class));
+	}
+
+	@Benchmark
+	public void stringToEnum(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert("SECONDS", TimeUnit.class));
+	}
+
+	@Benchmark
+	public void integerToString(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.conversionService.convert(12345, String.class));
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"true", "false"})
+		public boolean cachePatterns;
+
+		public AntPathMatcher matcher;
+
+		public List<String> patterns = new ArrayList<>();
+
+		public List<String> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.matcher = new AntPathMatcher();
+			this.matcher.setCachePatterns(this.cachePatterns);
+			this.patterns.add("/orders/{id}/items/{itemId}");
+			this.patterns.add("/resources/**/*.css");
+			this.patterns.add("/customers/{id:[0-9]+}");
+			this.patterns.add("/static/*.js");
+			this.patterns.add("/api/v?/accounts/**");
+			this.paths.add("/orders/42/items/7");
+			this.paths.add("/resources/css/theme/main.css");
+			this.paths.add("/customers/12345");
+			this.paths.add("/static/app.js");
+			this.paths.add("/api/v2/accounts/42/transactions");
+		}
+	}
+
+	@Benchmark
+	public void match(BenchmarkData data, Blackhole bh) {
+		for (String pattern : data.patterns) {
+			for (String path : data.paths) {
+				bh.consume(data.matcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(BenchmarkData data, Blackhole bh) {
+		bh.consume(data.matcher.extractUriTemplateVariables("/orders/{id}/items/{itemId}", "/orders/42/items/7"));
+	}
+
+	@Benchmark
+	public void sortPatterns(BenchmarkData data, Blackhole bh) {
+		List<String> patterns = new ArrayList<>(data.patterns);
+		patterns.sort(data.matcher.getPatternComparator("/orders/42/items/7"));
+		bh.consume(patterns);
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link ConcurrentLruCache}, compared with the queue-based
+ * LRU cache previously nested in {@link MimeTypeUtils}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Threads(4)
+public class ConcurrentLruCacheBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"concurrentLru", "queueBasedLru"})
+		public String cacheType;
+
+		@Param({"64"})
+		public int capacity;
+
+		/** Number of distinct keys: below the capacity for hits only, above it for evictions. */
+		@Param({"32", "64", "128"})
+		public int keyCount;
+
+		public Function<String, String> cache;
+
+		public String[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			Function<String, String> generator = key -> key + "_value";
+			if ("concurrentLru".equals(this.cacheType)) {
+				this.cache = new ConcurrentLruCache<>(this.capacity, generator)::get;
+			}
+			else {
+				this.cache = new QueueBasedLruCache<>(this.capacity, generator)::get;
+			}
+			this.keys = new String[this.keyCount];
+			for (int i = 0; i < this.keyCount; i++) {
+				this.keys[i] = "application/vnd.test" + i + "+json";
+			}
+		}
+	}
+
+	@Benchmark
+	public void get(BenchmarkData data, Blackhole bh) {
+		String key = data.keys[ThreadLocalRandom.current().nextInt(data.keys.length)];
+		bh.consume(data.cache.apply(key));
+	}
+
+
+	/**
+	 * Copy of the LRU cache previously used by {@link MimeTypeUtils},
+	 * kept as a baseline.
+	 */
+	private static class QueueBasedLruCache<K, V> {
+
+		private final int maxSize;
+
+		private final ConcurrentLinkedQueue<K> queue = new ConcurrentLinkedQueue<>();
+
+		private final ConcurrentHashMap<K, V> cache = new ConcurrentHashMap<>();
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final Function<K, V> generator;
+
+		public QueueBasedLruCache(int maxSize, Function<K, V> generator) {
+			this.maxSize = maxSize;
+			this.generator = generator;
+		}
+
+		public V get(K key) {
+			this.lock.readLock().lock();
+			try {
+				if (this.queue.size() < this.maxSize / 2) {
+					V cached = this.cache.get(key);
+					if (cached != null) {
+						return cached;
+					}
+				}
+				else if (this.queue.remove(key)) {
+					this.queue.add(key);
+					return this.cache.get(key);
+				}
+			}
+			finally {
+				this.lock.readLock().unlock();
+			}
+			this.lock.writeLock().lock();
+			try {
+				if (this.queue.remove(key)) {
+					this.queue.add(key);
+					return this.cache.get(key);
+				}
+				if (this.queue.size() == this.maxSize) {
+					K leastUsed = this.queue.poll();
+					if (leastUsed != null) {
+						this.cache.remove(leastUsed);
+					}
+				}
+				V value = this.generator.apply(key);
+				this.queue.add(key);
+				this.cache.put(key, value);
+				return value;
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+	}
+
+}
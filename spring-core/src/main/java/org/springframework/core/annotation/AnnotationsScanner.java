@@ -21,8 +21,12 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiPredicate;
 
 import org.springframework.core.BridgeMethodResolver;
@@ -49,6 +53,8 @@ abstract class AnnotationsScanner {
 
 	private static final Method[] NO_METHODS = {};
 
+	private static final int SEARCH_STRATEGY_COUNT = SearchStrategy.values().length;
+
 
 	private static final Map<AnnotatedElement, Annotation[]> declaredAnnotationCache =
 			new ConcurrentReferenceHashMap<>(256);
@@ -56,6 +62,9 @@ abstract class AnnotationsScanner {
 	private static final Map<Class<?>, Method[]> baseTypeMethodsCache =
 			new ConcurrentReferenceHashMap<>(256);
 
+	private static final Map<AnnotatedElement, ScannedAnnotations[]> scannedAnnotationsCache =
+			new ConcurrentReferenceHashMap<>(256);
+
 
 	private AnnotationsScanner() {
 	}
@@ -94,10 +103,55 @@ abstract class AnnotationsScanner {
 	static <C, R> R scan(C context, AnnotatedElement source, SearchStrategy searchStrategy,
 			AnnotationsProcessor<C, R> processor, @Nullable BiPredicate<C, Class<?>> classFilter) {
 
-		R result = process(context, source, searchStrategy, processor, classFilter);
+		ScannedAnnotations scannedAnnotations =
+				(classFilter == null ? getScannedAnnotations(source, searchStrategy) : null);
+		R result = (scannedAnnotations != null ? scannedAnnotations.process(context, processor) :
+				process(context, source, searchStrategy, processor, classFilter));
 		return processor.finish(result);
 	}
 
+	/**
+	 * Determine whether an annotation of the specified type may be present
+	 * in the hierarchy of the specified element, either directly or as a
+	 * meta-annotation, assuming the {@link AnnotationFilter#PLAIN plain}
+	 * annotation filter and {@link RepeatableContainers#standardRepeatables()
+	 * standard} or {@link RepeatableContainers#none() no} repeatable containers.
+	 * <p>A {@code false} result is definitive, allowing callers to skip a scan.
+	 * @param source the source element to check
+	 * @param searchStrategy the search strategy to use
+	 * @param annotationType the fully qualified class name of the annotation type
+	 * @return {@code false} if the annotation is known to be absent
+	 */
+	static boolean isPossiblyPresent(AnnotatedElement source, SearchStrategy searchStrategy, String annotationType) {
+		ScannedAnnotations scannedAnnotations = getScannedAnnotations(source, searchStrategy);
+		return (scannedAnnotations == null || scannedAnnotations.isPossiblyPresent(annotationType));
+	}
+
+	/**
+	 * Return the cached result of a full scan of the given element's hierarchy,
+	 * or {@code null} if not worth caching for the given search strategy.
+	 */
+	@Nullable
+	private static ScannedAnnotations getScannedAnnotations(AnnotatedElement source, SearchStrategy searchStrategy) {
+		if (searchStrategy == SearchStrategy.DIRECT || !(source instanceof Class || source instanceof Method)) {
+			return null;
+		}
+		ScannedAnnotations[] cached = scannedAnnotationsCache.get(source);
+		if (cached == null) {
+			cached = new ScannedAnnotations[SEARCH_STRATEGY_COUNT];
+			ScannedAnnotations[] existing = scannedAnnotationsCache.putIfAbsent(source, cached);
+			if (existing != null) {
+				cached = existing;
+			}
+		}
+		ScannedAnnotations scannedAnnotations = cached[searchStrategy.ordinal()];
+		if (scannedAnnotations == null) {
+			scannedAnnotations = new ScannedAnnotations(source, searchStrategy);
+			cached[searchStrategy.ordinal()] = scannedAnnotations;
+		}
+		return scannedAnnotations;
+	}
+
 	@Nullable
 	private static <C, R> R process(C context, AnnotatedElement source,
 			SearchStrategy searchStrategy, AnnotationsProcessor<C, R> processor,
@@ -545,6 +599,118 @@ abstract class AnnotationsScanner {
 	static void clearCache() {
 		declaredAnnotationCache.clear();
 		baseTypeMethodsCache.clear();
+		scannedAnnotationsCache.clear();
+	}
+
+
+	/**
+	 * Recorded callbacks of a full hierarchy scan for a specific element and
+	 * search strategy, allowing for processing the same annotations again
+	 * without walking the hierarchy.
+	 */
+	private static final class ScannedAnnotations {
+
+		private final int[] aggregateIndexes;
+
+		private final Object[] sources;
+
+		/** Annotations per callback, or {@code null} for a {@code doWithAggregate} callback. */
+		private final Annotation[][] annotations;
+
+		@Nullable
+		private volatile Set<String> annotationTypes;
+
+		private volatile boolean annotationTypesResolved;
+
+		ScannedAnnotations(AnnotatedElement source, SearchStrategy searchStrategy) {
+			List<Integer> aggregateIndexes = new ArrayList<>();
+			List<Object> sources = new ArrayList<>();
+			List<Annotation[]> annotations = new ArrayList<>();
+			AnnotationsScanner.process(null, source, searchStrategy, new AnnotationsProcessor<Object, Object>() {
+				@Override
+				@Nullable
+				public Object doWithAggregate(Object context, int aggregateIndex) {
+					aggregateIndexes.add(aggregateIndex);
+					sources.add(null);
+					annotations.add(null);
+					return null;
+				}
+
+				@Override
+				@Nullable
+				public Object doWithAnnotations(Object context, int aggregateIndex,
+						@Nullable Object source, Annotation[] declaredAnnotations) {
+					aggregateIndexes.add(aggregateIndex);
+					sources.add(source);
+					annotations.add(declaredAnnotations);
+					return null;
+				}
+			}, null);
+			this.aggregateIndexes = new int[aggregateIndexes.size()];
+			for (int i = 0; i < this.aggregateIndexes.length; i++) {
+				this.aggregateIndexes[i] = aggregateIndexes.get(i);
+			}
+			this.sources = sources.toArray();
+			this.annotations = annotations.toArray(new Annotation[0][]);
+		}
+
+		@Nullable
+		<C, R> R process(C context, AnnotationsProcessor<C, R> processor) {
+			for (int i = 0; i < this.aggregateIndexes.length; i++) {
+				Annotation[] annotations = this.annotations[i];
+				R result = (annotations != null ?
+						processor.doWithAnnotations(context, this.aggregateIndexes[i], this.sources[i], annotations) :
+						processor.doWithAggregate(context, this.aggregateIndexes[i]));
+				if (result != null) {
+					return result;
+				}
+			}
+			return null;
+		}
+
+		boolean isPossiblyPresent(String annotationType) {
+			if (!this.annotationTypesResolved) {
+				this.annotationTypes = resolveAnnotationTypes();
+				this.annotationTypesResolved = true;
+			}
+			Set<String> annotationTypes = this.annotationTypes;
+			return (annotationTypes == null || annotationTypes.contains(annotationType));
+		}
+
+		@Nullable
+		private Set<String> resolveAnnotationTypes() {
+			Set<String> annotationTypes = new HashSet<>();
+			try {
+				for (Annotation[] annotations : this.annotations) {
+					if (annotations != null) {
+						for (Annotation annotation : annotations) {
+							if (annotation != null) {
+								addAnnotationTypes(annotationTypes, annotation);
+							}
+						}
+					}
+				}
+			}
+			catch (Throwable ex) {
+				// Let the actual scan report the introspection failure
+				return null;
+			}
+			return annotationTypes;
+		}
+
+		private static void addAnnotationTypes(Set<String> annotationTypes, Annotation annotation) {
+			AnnotationTypeMappings mappings = AnnotationTypeMappings.forAnnotationType(annotation.annotationType());
+			for (int i = 0; i < mappings.size(); i++) {
+				annotationTypes.add(mappings.get(i).getAnnotationType().getName());
+			}
+			Annotation[] repeatedAnnotations =
+					RepeatableContainers.standardRepeatables().findRepeatedAnnotations(annotation);
+			if (repeatedAnnotations != null) {
+				for (Annotation repeatedAnnotation : repeatedAnnotations) {
+					addAnnotationTypes(annotationTypes, repeatedAnnotation);
+				}
+			}
+		}
 	}
 
 }
@@ -94,7 +94,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -103,7 +103,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -112,7 +112,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isDirectlyPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -121,7 +121,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isDirectlyPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -145,7 +145,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -170,7 +170,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || !isPossiblyPresent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -234,6 +234,28 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return aggregates;
 	}
 
+	private boolean isPossiblyPresent(Class<?> annotationType) {
+		return (!isPresenceCheckSupported() || AnnotationsScanner.isPossiblyPresent(
+				this.element, this.searchStrategy, annotationType.getName()));
+	}
+
+	private boolean isPossiblyPresent(String annotationType) {
+		return (!isPresenceCheckSupported() || AnnotationsScanner.isPossiblyPresent(
+				this.element, this.searchStrategy, annotationType));
+	}
+
+	/**
+	 * Determine whether negative lookups may be answered from the annotation
+	 * types known to be present in the element's hierarchy, which is only the
+	 * case for the default annotation filter and repeatable containers.
+	 */
+	private boolean isPresenceCheckSupported() {
+		return (this.element != null && this.searchStrategy != null &&
+				this.annotationFilter == AnnotationFilter.PLAIN &&
+				(this.repeatableContainers == RepeatableContainers.standardRepeatables() ||
+						this.repeatableContainers == RepeatableContainers.none()));
+	}
+
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
 		if (this.annotations != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.core.convert.support;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -46,6 +47,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -78,6 +80,16 @@ public class GenericConversionService implements ConfigurableConversionService {
 
 	private final Map<ConverterCacheKey, GenericConverter> converterCache = new ConcurrentReferenceHashMap<>(64);
 
+	/** Cache for conversions between plain classes, keyed by source class and then by target class. */
+	private final Map<Class<?>, Map<Class<?>, ClassPairConversion>> classPairCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	/** Whether the TypeDescriptor-based conversion methods and the converter lookup have not been overridden. */
+	private final boolean classPairFastPath =
+			!isOverridden(getClass(), "convert", Object.class, TypeDescriptor.class, TypeDescriptor.class) &&
+			!isOverridden(getClass(), "canConvert", TypeDescriptor.class, TypeDescriptor.class) &&
+			!isOverridden(getClass(), "getConverter", TypeDescriptor.class, TypeDescriptor.class);
+
 
 	// ConverterRegistry implementation
 
@@ -132,8 +144,14 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Override
 	public boolean canConvert(@Nullable Class<?> sourceType, Class<?> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
-				TypeDescriptor.valueOf(targetType));
+		if (!this.classPairFastPath) {
+			return canConvert((sourceType != null ? TypeDescriptor.valueOf(sourceType) : null),
+					TypeDescriptor.valueOf(targetType));
+		}
+		if (sourceType == null) {
+			return true;
+		}
+		return (getClassPairConversion(sourceType, targetType).converter != null);
 	}
 
 	@Override
@@ -171,7 +189,17 @@ public class GenericConversionService implements ConfigurableConversionService {
 	@Nullable
 	public <T> T convert(@Nullable Object source, Class<T> targetType) {
 		Assert.notNull(targetType, "Target type to convert to cannot be null");
-		return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		if (source == null || !this.classPairFastPath) {
+			return (T) convert(source, TypeDescriptor.forObject(source), TypeDescriptor.valueOf(targetType));
+		}
+		// Equivalent to the general variant, reusing cached type descriptors
+		ClassPairConversion conversion = getClassPairConversion(source.getClass(), targetType);
+		GenericConverter converter = conversion.converter;
+		if (converter != null) {
+			Object result = ConversionUtils.invokeConverter(converter, source, conversion.sourceType, conversion.targetType);
+			return (T) handleResult(conversion.sourceType, conversion.targetType, result);
+		}
+		return (T) handleConverterNotFound(source, conversion.sourceType, conversion.targetType);
 	}
 
 	@Override
@@ -302,8 +330,40 @@ public class GenericConversionService implements ConfigurableConversionService {
 		return generics;
 	}
 
+	/**
+	 * Return the conversion between the given plain classes, as determined by
+	 * {@link #getConverter(TypeDescriptor, TypeDescriptor)} for their type descriptors.
+	 * Cache hits do not allocate any objects.
+	 */
+	private ClassPairConversion getClassPairConversion(Class<?> sourceType, Class<?> targetType) {
+		Map<Class<?>, ClassPairConversion> conversions = this.classPairCache.get(sourceType);
+		if (conversions == null) {
+			conversions = new ConcurrentReferenceHashMap<>(8, 1);
+			Map<Class<?>, ClassPairConversion> existing = this.classPairCache.putIfAbsent(sourceType, conversions);
+			if (existing != null) {
+				conversions = existing;
+			}
+		}
+		ClassPairConversion conversion = conversions.get(targetType);
+		if (conversion == null) {
+			TypeDescriptor sourceDescriptor = TypeDescriptor.valueOf(sourceType);
+			TypeDescriptor targetDescriptor = TypeDescriptor.valueOf(targetType);
+			conversion = new ClassPairConversion(sourceDescriptor, targetDescriptor,
+					getConverter(sourceDescriptor, targetDescriptor));
+			conversions.put(targetType, conversion);
+		}
+		return conversion;
+	}
+
 	private void invalidateCache() {
 		this.converterCache.clear();
+		this.classPairCache.clear();
+	}
+
+	private static boolean isOverridden(Class<?> conversionServiceClass, String methodName, Class<?>... paramTypes) {
+		// Also finds protected methods such as getConverter
+		Method method = ReflectionUtils.findMethod(conversionServiceClass, methodName, paramTypes);
+		return (method == null || method.getDeclaringClass() != GenericConversionService.class);
 	}
 
 	@Nullable
@@ -443,6 +503,28 @@ public class GenericConversionService implements ConfigurableConversionService {
 	}
 
 
+	/**
+	 * Cached conversion between plain classes, along with their type descriptors.
+	 */
+	private static final class ClassPairConversion {
+
+		final TypeDescriptor sourceType;
+
+		final TypeDescriptor targetType;
+
+		@Nullable
+		final GenericConverter converter;
+
+		ClassPairConversion(TypeDescriptor sourceType, TypeDescriptor targetType,
+				@Nullable GenericConverter converter) {
+
+			this.sourceType = sourceType;
+			this.targetType = targetType;
+			this.converter = converter;
+		}
+	}
+
+
 	/**
 	 * Key for use with the converter cache.
 	 */
@@ -513,6 +513,17 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 		this.propertyResolver.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
 	}
 
+	/**
+	 * Set whether to resolve properties against an index of this environment's
+	 * property sources, rather than querying each property source in turn.
+	 * <p>The default is {@code false}.
+	 * @since 5.2
+	 * @see PropertySourcesPropertyResolver#setUsePropertySourceIndex
+	 */
+	public void setUsePropertySourceIndex(boolean usePropertySourceIndex) {
+		((PropertySourcesPropertyResolver) this.propertyResolver).setUsePropertySourceIndex(usePropertySourceIndex);
+	}
+
 	@Override
 	public void setRequiredProperties(String... requiredProperties) {
 		this.propertyResolver.setRequiredProperties(requiredProperties);
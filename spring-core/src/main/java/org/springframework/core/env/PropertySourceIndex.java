@@ -0,0 +1,325 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.env;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Snapshot of a {@link MutablePropertySources} instance for fast property
+ * look-ups, as used by {@link PropertySourcesPropertyResolver}.
+ *
+ * <p>Consecutive {@link EnumerablePropertySource}s are merged into a single
+ * hash lookup, holding the value of the property source with the highest
+ * precedence for each property name. A {@link SystemEnvironmentPropertySource}
+ * is indexed by normalized property name, so that its relaxed name variants
+ * only get checked for a name that is actually present. Other property sources,
+ * including {@link CommandLinePropertySource}s and the
+ * {@linkplain StandardEnvironment#SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME system
+ * properties} which are backed by the live {@link System#getProperties()} map,
+ * are queried as usual.
+ *
+ * <p>The index records the size of each indexed {@link MapPropertySource}, so
+ * that it is no longer considered current once properties have been added to
+ * or removed from the underlying map.
+ *
+ * <p>If all property sources are indexed, values with resolved placeholders
+ * are cached as well.
+ *
+ * @since 5.2
+ * @see PropertySourcesPropertyResolver#setUsePropertySourceIndex
+ */
+final class PropertySourceIndex {
+
+	private final int modificationCount;
+
+	private final List<Lookup> lookups;
+
+	private final MapPropertySource[] mapPropertySources;
+
+	private final int[] mapSizes;
+
+	@Nullable
+	private final Map<String, String> resolvedValues;
+
+
+	private PropertySourceIndex(int modificationCount, List<Lookup> lookups,
+			List<MapPropertySource> mapPropertySources, boolean cacheResolvedValues) {
+
+		this.modificationCount = modificationCount;
+		this.lookups = lookups;
+		this.mapPropertySources = mapPropertySources.toArray(new MapPropertySource[0]);
+		this.mapSizes = new int[this.mapPropertySources.length];
+		for (int i = 0; i < this.mapPropertySources.length; i++) {
+			this.mapSizes[i] = this.mapPropertySources[i].getSource().size();
+		}
+		this.resolvedValues = (cacheResolvedValues ? new ConcurrentHashMap<>(256) : null);
+	}
+
+
+	/**
+	 * Determine whether this index reflects the current state of the given property sources.
+	 */
+	boolean isCurrent(MutablePropertySources propertySources) {
+		if (this.modificationCount != propertySources.getModificationCount()) {
+			return false;
+		}
+		for (int i = 0; i < this.mapPropertySources.length; i++) {
+			if (this.mapPropertySources[i].getSource().size() != this.mapSizes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find the value of the given property in the property source with the highest precedence.
+	 * @param name the name of the property
+	 * @return the property value along with its property source,
+	 * or {@code null} if not found
+	 */
+	@Nullable
+	IndexedValue find(String name) {
+		for (Lookup lookup : this.lookups) {
+			IndexedValue value = lookup.find(name);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determine whether any property source contains the given property,
+	 * including properties with a {@code null} value.
+	 * @param name the name of the property
+	 * @see PropertySource#containsProperty(String)
+	 */
+	boolean contains(String name) {
+		for (Lookup lookup : this.lookups) {
+			if (lookup.contains(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Resolve placeholders in the given value of the given property,
+	 * reusing a previous resolution result if possible.
+	 * @param name the name of the property
+	 * @param value the raw value of the property
+	 * @param resolver the function for resolving placeholders
+	 * @return the resolved value
+	 */
+	String resolveValue(String name, String value, UnaryOperator<String> resolver) {
+		if (this.resolvedValues == null) {
+			return resolver.apply(value);
+		}
+		String resolved = this.resolvedValues.get(name);
+		if (resolved == null) {
+			resolved = resolver.apply(value);
+			this.resolvedValues.put(name, resolved);
+		}
+		return resolved;
+	}
+
+
+	/**
+	 * Build an index for the current state of the given property sources.
+	 */
+	static PropertySourceIndex build(MutablePropertySources propertySources) {
+		int modificationCount = propertySources.getModificationCount();
+		List<Lookup> lookups = new ArrayList<>();
+		List<MapPropertySource> mapPropertySources = new ArrayList<>();
+		MergedLookup merged = null;
+		boolean allIndexed = true;
+		for (PropertySource<?> propertySource : propertySources) {
+			if (propertySource instanceof SystemEnvironmentPropertySource) {
+				lookups.add(new SystemEnvironmentLookup((SystemEnvironmentPropertySource) propertySource));
+				merged = null;
+			}
+			else if (propertySource instanceof EnumerablePropertySource &&
+					!(propertySource instanceof CommandLinePropertySource) &&
+					!StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME.equals(propertySource.getName())) {
+				if (merged == null) {
+					merged = new MergedLookup();
+					lookups.add(merged);
+				}
+				merged.add((EnumerablePropertySource<?>) propertySource);
+				if (propertySource instanceof MapPropertySource) {
+					mapPropertySources.add((MapPropertySource) propertySource);
+				}
+			}
+			else {
+				lookups.add(new PropertySourceLookup(propertySource));
+				merged = null;
+				allIndexed = false;
+			}
+		}
+		return new PropertySourceIndex(modificationCount, lookups, mapPropertySources, allIndexed);
+	}
+
+
+	/**
+	 * A property value along with the property source it has been found in.
+	 */
+	static final class IndexedValue {
+
+		private final PropertySource<?> propertySource;
+
+		private final Object value;
+
+		IndexedValue(PropertySource<?> propertySource, Object value) {
+			this.propertySource = propertySource;
+			this.value = value;
+		}
+
+		PropertySource<?> getPropertySource() {
+			return this.propertySource;
+		}
+
+		Object getValue() {
+			return this.value;
+		}
+	}
+
+
+	private interface Lookup {
+
+		@Nullable
+		IndexedValue find(String name);
+
+		boolean contains(String name);
+	}
+
+
+	/**
+	 * Lookup for consecutive enumerable property sources. Names with a
+	 * {@code null} value are tracked separately: they count as contained
+	 * but do not hide a value in a property source with lower precedence.
+	 */
+	private static class MergedLookup implements Lookup {
+
+		private final Map<String, IndexedValue> values = new HashMap<>();
+
+		private final Set<String> nullValueNames = new HashSet<>();
+
+		void add(EnumerablePropertySource<?> propertySource) {
+			for (String name : propertySource.getPropertyNames()) {
+				if (!this.values.containsKey(name)) {
+					Object value = propertySource.getProperty(name);
+					if (value != null) {
+						this.values.put(name, new IndexedValue(propertySource, value));
+					}
+					else {
+						this.nullValueNames.add(name);
+					}
+				}
+			}
+		}
+
+		@Override
+		@Nullable
+		public IndexedValue find(String name) {
+			return this.values.get(name);
+		}
+
+		@Override
+		public boolean contains(String name) {
+			return (this.values.containsKey(name) || this.nullValueNames.contains(name));
+		}
+	}
+
+
+	/**
+	 * Lookup for the system environment, checking relaxed names only if the
+	 * normalized form of the requested name matches an environment variable.
+	 */
+	private static class SystemEnvironmentLookup implements Lookup {
+
+		private final SystemEnvironmentPropertySource propertySource;
+
+		private final Set<String> normalizedNames;
+
+		SystemEnvironmentLookup(SystemEnvironmentPropertySource propertySource) {
+			this.propertySource = propertySource;
+			String[] names = propertySource.getPropertyNames();
+			this.normalizedNames = new HashSet<>(names.length * 4 / 3 + 1);
+			for (String name : names) {
+				this.normalizedNames.add(normalize(name));
+			}
+		}
+
+		@Override
+		@Nullable
+		public IndexedValue find(String name) {
+			if (!this.normalizedNames.contains(normalize(name))) {
+				return null;
+			}
+			Object value = this.propertySource.getProperty(name);
+			return (value != null ? new IndexedValue(this.propertySource, value) : null);
+		}
+
+		@Override
+		public boolean contains(String name) {
+			return (find(name) != null);
+		}
+
+		/**
+		 * Normalize the given name to the common form of all variants checked by
+		 * {@link SystemEnvironmentPropertySource#resolvePropertyName(String)}.
+		 */
+		private static String normalize(String name) {
+			return name.toUpperCase().replace('.', '_').replace('-', '_');
+		}
+	}
+
+
+	/**
+	 * Lookup delegating to a property source that cannot be indexed.
+	 */
+	private static class PropertySourceLookup implements Lookup {
+
+		private final PropertySource<?> propertySource;
+
+		PropertySourceLookup(PropertySource<?> propertySource) {
+			this.propertySource = propertySource;
+		}
+
+		@Override
+		@Nullable
+		public IndexedValue find(String name) {
+			Object value = this.propertySource.getProperty(name);
+			return (value != null ? new IndexedValue(this.propertySource, value) : null);
+		}
+
+		@Override
+		public boolean contains(String name) {
+			return this.propertySource.containsProperty(name);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,10 @@ import org.springframework.lang.Nullable;
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>For a {@link MutablePropertySources} instance, look-ups may optionally go
+ * through an index of the contained property sources: see
+ * {@link #setUsePropertySourceIndex}.
+ *
  * @author Chris Beams
  * @author Juergen Hoeller
  * @since 3.1
@@ -34,6 +38,11 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	@Nullable
 	private final PropertySources propertySources;
 
+	private boolean usePropertySourceIndex = false;
+
+	@Nullable
+	private volatile PropertySourceIndex propertySourceIndex;
+
 
 	/**
 	 * Create a new resolver against the given property sources.
@@ -44,8 +53,70 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 	}
 
 
+	/**
+	 * Set whether to resolve properties against an index of the underlying
+	 * property sources, rather than querying each property source in turn.
+	 * <p>The index merges the properties of consecutive
+	 * {@link EnumerablePropertySource}s into a single hash lookup, and caches
+	 * values with resolved placeholders if all property sources can be indexed.
+	 * It is rebuilt whenever property sources are added, removed or replaced,
+	 * and whenever properties are added to or removed from the map of a
+	 * {@link MapPropertySource}. Since property values are snapshotted, other
+	 * changes to the content of an enumerable property source require a
+	 * {@link MutablePropertySources#replace} call or an explicit
+	 * {@link #clearPropertySourceIndex()}. {@link CommandLinePropertySource}s,
+	 * the {@linkplain StandardEnvironment#SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME
+	 * system properties} and non-enumerable property sources are always queried
+	 * directly.
+	 * <p>The default is {@code false}. Only applies to {@link MutablePropertySources}.
+	 * @since 5.2
+	 */
+	public void setUsePropertySourceIndex(boolean usePropertySourceIndex) {
+		this.usePropertySourceIndex = usePropertySourceIndex;
+		clearPropertySourceIndex();
+	}
+
+	/**
+	 * Discard the current property source index, if any, enforcing a rebuild
+	 * on the next property look-up.
+	 * @since 5.2
+	 * @see #setUsePropertySourceIndex
+	 */
+	public void clearPropertySourceIndex() {
+		this.propertySourceIndex = null;
+	}
+
+	@Override
+	public void setPlaceholderPrefix(String placeholderPrefix) {
+		super.setPlaceholderPrefix(placeholderPrefix);
+		clearPropertySourceIndex();
+	}
+
+	@Override
+	public void setPlaceholderSuffix(String placeholderSuffix) {
+		super.setPlaceholderSuffix(placeholderSuffix);
+		clearPropertySourceIndex();
+	}
+
+	@Override
+	public void setValueSeparator(@Nullable String valueSeparator) {
+		super.setValueSeparator(valueSeparator);
+		clearPropertySourceIndex();
+	}
+
+	@Override
+	public void setIgnoreUnresolvableNestedPlaceholders(boolean ignoreUnresolvableNestedPlaceholders) {
+		super.setIgnoreUnresolvableNestedPlaceholders(ignoreUnresolvableNestedPlaceholders);
+		clearPropertySourceIndex();
+	}
+
+
 	@Override
 	public boolean containsProperty(String key) {
+		PropertySourceIndex index = getPropertySourceIndex();
+		if (index != null) {
+			return index.contains(key);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (propertySource.containsProperty(key)) {
@@ -76,6 +147,10 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 
 	@Nullable
 	protected <T> T getProperty(String key, Class<T> targetValueType, boolean resolveNestedPlaceholders) {
+		PropertySourceIndex index = getPropertySourceIndex();
+		if (index != null) {
+			return getIndexedProperty(index, key, targetValueType, resolveNestedPlaceholders);
+		}
 		if (this.propertySources != null) {
 			for (PropertySource<?> propertySource : this.propertySources) {
 				if (logger.isTraceEnabled()) {
@@ -98,6 +173,43 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
 		return null;
 	}
 
+	@Nullable
+	private <T> T getIndexedProperty(PropertySourceIndex index, String key, Class<T> targetValueType,
+			boolean resolveNestedPlaceholders) {
+
+		PropertySourceIndex.IndexedValue indexedValue = index.find(key);
+		if (indexedValue == null) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Could not find key '" + key + "' in any property source");
+			}
+			return null;
+		}
+		Object value = indexedValue.getValue();
+		if (resolveNestedPlaceholders && value instanceof String) {
+			value = index.resolveValue(key, (String) value, this::resolveNestedPlaceholders);
+		}
+		logKeyFound(key, indexedValue.getPropertySource(), value);
+		return convertValueIfNecessary(value, targetValueType);
+	}
+
+	/**
+	 * Return the property source index to use, building it if necessary.
+	 * @return the current index, or {@code null} if not applicable
+	 */
+	@Nullable
+	private PropertySourceIndex getPropertySourceIndex() {
+		if (!this.usePropertySourceIndex || !(this.propertySources instanceof MutablePropertySources)) {
+			return null;
+		}
+		MutablePropertySources propertySources = (MutablePropertySources) this.propertySources;
+		PropertySourceIndex index = this.propertySourceIndex;
+		if (index == null || !index.isCurrent(propertySources)) {
+			index = PropertySourceIndex.build(propertySources);
+			this.propertySourceIndex = index;
+		}
+		return index;
+	}
+
 	/**
 	 * Log the given key as found in the given {@link PropertySource}, resulting in
 	 * the given value.
@@ -61,7 +61,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	private int writePosition;
 
 
-	private DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
+	DefaultDataBuffer(DefaultDataBufferFactory dataBufferFactory, ByteBuffer byteBuffer) {
 		Assert.notNull(dataBufferFactory, "DefaultDataBufferFactory must not be null");
 		Assert.notNull(byteBuffer, "ByteBuffer must not be null");
 		this.dataBufferFactory = dataBufferFactory;
@@ -88,6 +88,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	 * @return the wrapped byte buffer
 	 */
 	public ByteBuffer getNativeBuffer() {
+		checkAccessible();
 		this.byteBuffer.position(this.readPosition);
 		this.byteBuffer.limit(readableByteCount());
 		return this.byteBuffer;
@@ -107,6 +108,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public int indexOf(IntPredicate predicate, int fromIndex) {
 		Assert.notNull(predicate, "IntPredicate must not be null");
+		checkAccessible();
 		if (fromIndex < 0) {
 			fromIndex = 0;
 		}
@@ -125,6 +127,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
 		Assert.notNull(predicate, "IntPredicate must not be null");
+		checkAccessible();
 		int i = Math.min(fromIndex, this.writePosition - 1);
 		for (; i >= 0; i--) {
 			byte b = this.byteBuffer.get(i);
@@ -184,6 +187,7 @@ public class DefaultDataBuffer implements DataBuffer {
 		if (newCapacity <= 0) {
 			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
 		}
+		checkAccessible();
 		int readPosition = readPosition();
 		int writePosition = writePosition();
 		int oldCapacity = capacity();
@@ -228,14 +232,29 @@ public class DefaultDataBuffer implements DataBuffer {
 		return this;
 	}
 
-	private static ByteBuffer allocate(int capacity, boolean direct) {
+	/**
+	 * Allocate a new native buffer when changing the {@link #capacity(int) capacity}.
+	 * @param capacity the capacity of the new buffer
+	 * @param direct whether the current buffer is a direct buffer
+	 */
+	ByteBuffer allocate(int capacity, boolean direct) {
 		return (direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
 	}
 
+	/**
+	 * Check whether the memory of this buffer may be accessed, before any
+	 * read or write access.
+	 * <p>The default implementation does nothing; pooled buffers throw an
+	 * {@link IllegalStateException} once they have been released.
+	 */
+	void checkAccessible() {
+	}
+
 	@Override
 	public byte getByte(int index) {
 		assertIndex(index >= 0, "index %d must be >= 0", index);
 		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		checkAccessible();
 		return this.byteBuffer.get(index);
 	}
 
@@ -243,6 +262,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	public byte read() {
 		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
 				this.readPosition, this.writePosition - 1);
+		checkAccessible();
 		int pos = this.readPosition;
 		byte b = this.byteBuffer.get(pos);
 		this.readPosition = pos + 1;
@@ -262,6 +282,7 @@ public class DefaultDataBuffer implements DataBuffer {
 		assertIndex(this.readPosition <= this.writePosition - length,
 				"readPosition %d and length %d should be smaller than writePosition %d",
 				this.readPosition, length, this.writePosition);
+		checkAccessible();
 
 		ByteBuffer tmp = this.byteBuffer.duplicate();
 		int limit = this.readPosition + length;
@@ -274,6 +295,7 @@ public class DefaultDataBuffer implements DataBuffer {
 
 	@Override
 	public DefaultDataBuffer write(byte b) {
+		checkAccessible();
 		ensureCapacity(1);
 		int pos = this.writePosition;
 		this.byteBuffer.put(pos, b);
@@ -291,6 +313,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer write(byte[] source, int offset, int length) {
 		Assert.notNull(source, "Byte array must not be null");
+		checkAccessible();
 		ensureCapacity(length);
 
 		ByteBuffer tmp = this.byteBuffer.duplicate();
@@ -314,6 +337,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	public DefaultDataBuffer write(ByteBuffer... buffers) {
 		if (!ObjectUtils.isEmpty(buffers)) {
 			int capacity = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			checkAccessible();
 			ensureCapacity(capacity);
 			Arrays.stream(buffers).forEach(this::write);
 		}
@@ -332,6 +356,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public DefaultDataBuffer slice(int index, int length) {
 		checkIndex(index, length);
+		checkAccessible();
 		int oldPosition = this.byteBuffer.position();
 		// Explicit access via Buffer base type for compatibility
 		// with covariant return type on JDK 9's ByteBuffer...
@@ -356,6 +381,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	@Override
 	public ByteBuffer asByteBuffer(int index, int length) {
 		checkIndex(index, length);
+		checkAccessible();
 
 		ByteBuffer duplicate = this.byteBuffer.duplicate();
 		// Explicit access via Buffer base type for compatibility
@@ -386,6 +412,7 @@ public class DefaultDataBuffer implements DataBuffer {
 	public String toString(int index, int length, Charset charset) {
 		checkIndex(index, length);
 		Assert.notNull(charset, "Charset must not be null");
+		checkAccessible();
 
 		byte[] bytes;
 		int offset;
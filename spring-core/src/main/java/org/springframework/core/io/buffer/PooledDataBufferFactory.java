@@ -0,0 +1,488 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Extension of {@link DefaultDataBufferFactory} that allocates reference counted
+ * buffers and recycles their memory once they have been released, for runtimes
+ * that do not provide a pooled allocator of their own (e.g. Servlet containers
+ * without Netty).
+ *
+ * <p>Memory is pooled in size classes with capacities that are powers of two,
+ * up to a {@linkplain #DEFAULT_MAX_POOLED_CAPACITY maximum pooled capacity}.
+ * Each size class has a shared arena, and each thread keeps a small cache of
+ * buffers per size class in front of the arenas. Buffers with a larger capacity
+ * are allocated as needed and left to the garbage collector once released.
+ *
+ * <p>Buffers allocated by this factory implement {@link PooledDataBuffer} and
+ * must be {@linkplain DataBufferUtils#release(DataBuffer) released} after use;
+ * any further access to their content results in an {@link IllegalStateException}
+ * since their memory may have been handed out to another buffer already. Slices of such buffers share their memory;
+ * {@linkplain DataBuffer#retainedSlice retained slices} also share their
+ * reference count. Buffers returned by the {@code wrap} methods are not pooled.
+ *
+ * <p>{@link #setLeakDetection Leak detection} can be turned on, e.g. in tests,
+ * to keep track of the buffers that have not been released yet.
+ *
+ * @since 5.2
+ * @see PooledDataBuffer
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The default maximum capacity of a pooled buffer.
+	 * @see #PooledDataBufferFactory(boolean, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	private static final int MIN_POOLED_CAPACITY_SHIFT = 6;
+
+	private static final int ARENA_CAPACITY = 64;
+
+	private static final int THREAD_CACHE_CAPACITY = 8;
+
+
+	private final boolean preferDirect;
+
+	private final Arena[] arenas;
+
+	private final ThreadLocal<ThreadCache> threadCaches;
+
+	private volatile boolean leakDetection;
+
+	private final Set<PooledBuffer> trackedBuffers =
+			Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory} for heap buffers.
+	 */
+	public PooledDataBufferFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_MAX_POOLED_CAPACITY);
+	}
+
+	/**
+	 * Create a new {@code PooledDataBufferFactory}, indicating whether direct
+	 * buffers should be pooled, and up to which capacity.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param maxPooledCapacity the maximum capacity of a pooled buffer, rounded
+	 * up to the next power of two
+	 */
+	public PooledDataBufferFactory(boolean preferDirect, int maxPooledCapacity) {
+		super(preferDirect);
+		Assert.isTrue(maxPooledCapacity > 0, "'maxPooledCapacity' should be larger than 0");
+		this.preferDirect = preferDirect;
+		this.arenas = new Arena[sizeClassIndex(maxPooledCapacity) + 1];
+		for (int i = 0; i < this.arenas.length; i++) {
+			this.arenas[i] = new Arena();
+		}
+		this.threadCaches = ThreadLocal.withInitial(() -> new ThreadCache(this.arenas.length));
+	}
+
+
+	/**
+	 * Whether to keep track of allocated buffers, so that the ones that have not
+	 * been released can be reported via {@link #checkForLeaks()}. This records
+	 * the stack trace of every allocation, so it should only be turned on for
+	 * tests or troubleshooting.
+	 * <p>By default this is set to {@code false}.
+	 */
+	public void setLeakDetection(boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Whether leak detection is turned on.
+	 */
+	public boolean isLeakDetection() {
+		return this.leakDetection;
+	}
+
+	/**
+	 * Check whether all buffers allocated while {@link #setLeakDetection leak
+	 * detection} was turned on have been released.
+	 * @throws IllegalStateException if there are buffers that have not been
+	 * released, with the stack traces of their allocations as suppressed
+	 * exceptions
+	 */
+	public void checkForLeaks() {
+		List<PooledBuffer> leaks;
+		synchronized (this.trackedBuffers) {
+			leaks = new ArrayList<>(this.trackedBuffers);
+		}
+		if (!leaks.isEmpty()) {
+			IllegalStateException ex = new IllegalStateException(leaks.size() + " buffer leak(s) detected");
+			for (PooledBuffer leak : leaks) {
+				if (leak.allocationTrace != null) {
+					ex.addSuppressed(leak.allocationTrace);
+				}
+			}
+			throw ex;
+		}
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		ByteBuffer pooledBuffer = acquire(initialCapacity);
+		ByteBuffer byteBuffer = (pooledBuffer != null ?
+				view(pooledBuffer, initialCapacity) : allocateNativeBuffer(initialCapacity));
+		Throwable allocationTrace = (this.leakDetection ?
+				new Throwable("Buffer with capacity " + initialCapacity + " allocated") : null);
+		PooledBuffer buffer = new PooledBuffer(this, byteBuffer, pooledBuffer, allocationTrace);
+		if (allocationTrace != null) {
+			this.trackedBuffers.add(buffer);
+		}
+		return buffer;
+	}
+
+	/**
+	 * Acquire a buffer of the size class for the given capacity.
+	 * @return the buffer, or {@code null} if the capacity is too large for pooling
+	 */
+	@Nullable
+	private ByteBuffer acquire(int capacity) {
+		int index = sizeClassIndex(capacity);
+		if (index >= this.arenas.length) {
+			return null;
+		}
+		ByteBuffer buffer = this.threadCaches.get().poll(index);
+		if (buffer == null) {
+			buffer = this.arenas[index].poll();
+		}
+		if (buffer == null) {
+			buffer = allocateNativeBuffer(1 << (index + MIN_POOLED_CAPACITY_SHIFT));
+		}
+		return buffer;
+	}
+
+	private void recycle(ByteBuffer buffer) {
+		int index = sizeClassIndex(buffer.capacity());
+		if (!this.threadCaches.get().offer(index, buffer)) {
+			this.arenas[index].offer(buffer);
+		}
+	}
+
+	private void deallocate(PooledBuffer buffer) {
+		if (buffer.allocationTrace != null) {
+			this.trackedBuffers.remove(buffer);
+		}
+		ByteBuffer pooledBuffer = buffer.pooledBuffer;
+		buffer.pooledBuffer = null;
+		if (pooledBuffer != null) {
+			recycle(pooledBuffer);
+		}
+		List<ByteBuffer> displacedBuffers = buffer.displacedBuffers;
+		buffer.displacedBuffers = null;
+		if (displacedBuffers != null) {
+			for (ByteBuffer displacedBuffer : displacedBuffers) {
+				recycle(displacedBuffer);
+			}
+		}
+	}
+
+	private ByteBuffer allocateNativeBuffer(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Return the index of the smallest size class for the given capacity.
+	 */
+	private static int sizeClassIndex(int capacity) {
+		if (capacity <= (1 << MIN_POOLED_CAPACITY_SHIFT)) {
+			return 0;
+		}
+		return (Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1) - MIN_POOLED_CAPACITY_SHIFT);
+	}
+
+	/**
+	 * Return a view of the first {@code capacity} bytes of the pooled buffer.
+	 */
+	private static ByteBuffer view(ByteBuffer pooledBuffer, int capacity) {
+		ByteBuffer duplicate = pooledBuffer.duplicate();
+		((Buffer) duplicate).clear().limit(capacity);
+		return duplicate.slice();
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDataBufferFactory (preferDirect=" + this.preferDirect + ")";
+	}
+
+
+	/**
+	 * Buffers of one size class shared across threads.
+	 */
+	private static class Arena {
+
+		private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		@Nullable
+		public ByteBuffer poll() {
+			ByteBuffer buffer = this.buffers.poll();
+			if (buffer != null) {
+				this.size.decrementAndGet();
+			}
+			return buffer;
+		}
+
+		public void offer(ByteBuffer buffer) {
+			if (this.size.incrementAndGet() <= ARENA_CAPACITY) {
+				this.buffers.offer(buffer);
+			}
+			else {
+				// Arena is full: leave the buffer to the garbage collector
+				this.size.decrementAndGet();
+			}
+		}
+	}
+
+
+	/**
+	 * Buffers per size class cached for the current thread.
+	 */
+	private static class ThreadCache {
+
+		private final ByteBuffer[][] buffers;
+
+		private final int[] sizes;
+
+		public ThreadCache(int sizeClasses) {
+			this.buffers = new ByteBuffer[sizeClasses][THREAD_CACHE_CAPACITY];
+			this.sizes = new int[sizeClasses];
+		}
+
+		@Nullable
+		public ByteBuffer poll(int index) {
+			int size = this.sizes[index];
+			if (size == 0) {
+				return null;
+			}
+			size--;
+			ByteBuffer buffer = this.buffers[index][size];
+			this.buffers[index][size] = null;
+			this.sizes[index] = size;
+			return buffer;
+		}
+
+		public boolean offer(int index, ByteBuffer buffer) {
+			int size = this.sizes[index];
+			if (size == THREAD_CACHE_CAPACITY) {
+				return false;
+			}
+			this.buffers[index][size] = buffer;
+			this.sizes[index] = size + 1;
+			return true;
+		}
+	}
+
+
+	/**
+	 * {@link DefaultDataBuffer} with reference counting that returns its memory
+	 * to the factory when it is deallocated.
+	 */
+	private static final class PooledBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledDataBufferFactory factory;
+
+		/** The pooled buffer that backs the native buffer, or {@code null} if not pooled. */
+		@Nullable
+		private ByteBuffer pooledBuffer;
+
+		/**
+		 * Pooled buffers replaced by a capacity change, which slices taken before
+		 * may still refer to, and which can therefore only be recycled once this
+		 * buffer is deallocated.
+		 */
+		@Nullable
+		private List<ByteBuffer> displacedBuffers;
+
+		@Nullable
+		private final Throwable allocationTrace;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		PooledBuffer(PooledDataBufferFactory factory, ByteBuffer byteBuffer,
+				@Nullable ByteBuffer pooledBuffer, @Nullable Throwable allocationTrace) {
+
+			super(factory, byteBuffer);
+			this.factory = factory;
+			this.pooledBuffer = pooledBuffer;
+			this.allocationTrace = allocationTrace;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return (this.refCount.get() > 0);
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				if (count <= 0) {
+					throw new IllegalStateException("Buffer has already been released");
+				}
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count == 1) {
+				this.factory.deallocate(this);
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		void checkAccessible() {
+			if (this.refCount.get() <= 0) {
+				throw new IllegalStateException("Buffer has already been released");
+			}
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			ByteBuffer oldPooledBuffer = this.pooledBuffer;
+			super.capacity(newCapacity);
+			if (oldPooledBuffer != null && oldPooledBuffer != this.pooledBuffer) {
+				if (this.displacedBuffers == null) {
+					this.displacedBuffers = new ArrayList<>(1);
+				}
+				this.displacedBuffers.add(oldPooledBuffer);
+			}
+			return this;
+		}
+
+		@Override
+		ByteBuffer allocate(int capacity, boolean direct) {
+			ByteBuffer pooledBuffer = (direct == this.factory.preferDirect ? this.factory.acquire(capacity) : null);
+			this.pooledBuffer = pooledBuffer;
+			return (pooledBuffer != null ? view(pooledBuffer, capacity) : super.allocate(capacity, direct));
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			ByteBuffer slice = asByteBuffer(index, length);
+			retain();
+			return new RetainedSlice(this, slice);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = asInputStream();
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				private boolean closed;
+				@Override
+				public void close() throws IOException {
+					if (!this.closed) {
+						this.closed = true;
+						PooledBuffer.this.release();
+					}
+				}
+			};
+		}
+	}
+
+
+	/**
+	 * Slice that shares the reference count of the buffer it was created from.
+	 */
+	private static final class RetainedSlice extends DefaultDataBuffer implements PooledDataBuffer {
+
+		private final PooledBuffer parent;
+
+		RetainedSlice(PooledBuffer parent, ByteBuffer byteBuffer) {
+			super(parent.factory, byteBuffer);
+			this.parent = parent;
+			writePosition(byteBuffer.remaining());
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+
+		@Override
+		void checkAccessible() {
+			this.parent.checkAccessible();
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+	}
+
+}
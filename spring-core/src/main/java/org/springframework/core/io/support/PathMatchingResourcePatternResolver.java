@@ -19,6 +19,7 @@ package org.springframework.core.io.support;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.net.JarURLConnection;
@@ -27,20 +28,27 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.zip.ZipException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.core.SpringProperties;
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.DescriptiveResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -169,6 +177,15 @@ import org.springframework.util.StringUtils;
  * Ant-style pattern in such a case, which will search <i>all</i> class path
  * locations that contain the root package.
  *
+ * <p><b>Jar entry caching:</b>
+ *
+ * <p>If the underlying {@code ResourceLoader} is a {@link DefaultResourceLoader}
+ * (e.g. an {@code ApplicationContext}), the entries of each jar file are read
+ * once and kept in its {@linkplain DefaultResourceLoader#getResourceCache
+ * resource cache}, so that subsequent patterns against the same jar file do
+ * not need to iterate all of its entries again. Application contexts clear
+ * that cache at the end of their refresh.
+ *
  * @author Juergen Hoeller
  * @author Colin Sampaleanu
  * @author Marius Bogoevici
@@ -182,6 +199,16 @@ import org.springframework.util.StringUtils;
  */
 public class PathMatchingResourcePatternResolver implements ResourcePatternResolver {
 
+	/**
+	 * System property that instructs Spring to traverse independent root
+	 * directories of a location pattern in parallel by default:
+	 * {@code "spring.resources.parallel-traversal"}.
+	 * <p>The default is "false". May be overridden per resolver through
+	 * {@link #setParallelRootTraversal}.
+	 * @since 5.2
+	 */
+	public static final String PARALLEL_ROOT_TRAVERSAL_PROPERTY_NAME = "spring.resources.parallel-traversal";
+
 	private static final Log logger = LogFactory.getLog(PathMatchingResourcePatternResolver.class);
 
 	@Nullable
@@ -205,6 +232,10 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean cacheJarEntries = true;
+
+	private boolean parallelRootTraversal = SpringProperties.getFlag(PARALLEL_ROOT_TRAVERSAL_PROPERTY_NAME);
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -268,6 +299,50 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set whether to cache the entries of jar files in the resource cache of
+	 * the underlying {@link DefaultResourceLoader}, if any.
+	 * <p>Default is "true". Switch this off if jar files may change while
+	 * the resource cache is in use.
+	 * @since 5.2
+	 * @see DefaultResourceLoader#getResourceCache
+	 * @see DefaultResourceLoader#clearResourceCaches
+	 */
+	public void setCacheJarEntries(boolean cacheJarEntries) {
+		this.cacheJarEntries = cacheJarEntries;
+	}
+
+	/**
+	 * Return whether the entries of jar files get cached.
+	 * @since 5.2
+	 */
+	public boolean isCacheJarEntries() {
+		return this.cacheJarEntries;
+	}
+
+	/**
+	 * Set whether to traverse the root directories of a location pattern,
+	 * e.g. the class path roots for a "classpath*:" pattern, in parallel,
+	 * using the common {@link java.util.concurrent.ForkJoinPool}.
+	 * <p>Matching resources are returned in the same order as with sequential
+	 * traversal. Subclasses overriding the traversal template methods need to
+	 * be thread-safe when this is enabled.
+	 * <p>Default is "false", unless the {@link #PARALLEL_ROOT_TRAVERSAL_PROPERTY_NAME}
+	 * system property has been set to "true".
+	 * @since 5.2
+	 */
+	public void setParallelRootTraversal(boolean parallelRootTraversal) {
+		this.parallelRootTraversal = parallelRootTraversal;
+	}
+
+	/**
+	 * Return whether root directories get traversed in parallel.
+	 * @since 5.2
+	 */
+	public boolean isParallelRootTraversal() {
+		return this.parallelRootTraversal;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -493,24 +568,28 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		String subPattern = locationPattern.substring(rootDirPath.length());
 		Resource[] rootDirResources = getResources(rootDirPath);
 		Set<Resource> result = new LinkedHashSet<>(16);
-		for (Resource rootDirResource : rootDirResources) {
-			rootDirResource = resolveRootDirResource(rootDirResource);
-			URL rootDirUrl = rootDirResource.getURL();
-			if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
-				URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
-				if (resolvedUrl != null) {
-					rootDirUrl = resolvedUrl;
-				}
-				rootDirResource = new UrlResource(rootDirUrl);
-			}
-			if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
-				result.addAll(VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher()));
+		if (this.parallelRootTraversal && rootDirResources.length > 1) {
+			List<Set<Resource>> rootResults;
+			try {
+				rootResults = Arrays.stream(rootDirResources).parallel()
+						.map(rootDirResource -> {
+							try {
+								return findPathMatchingResources(rootDirResource, subPattern);
+							}
+							catch (IOException ex) {
+								throw new UncheckedIOException(ex);
+							}
+						})
+						.collect(Collectors.toList());
 			}
-			else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
-				result.addAll(doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern));
+			catch (UncheckedIOException ex) {
+				throw ex.getCause();
 			}
-			else {
-				result.addAll(doFindPathMatchingFileResources(rootDirResource, subPattern));
+			rootResults.forEach(result::addAll);
+		}
+		else {
+			for (Resource rootDirResource : rootDirResources) {
+				result.addAll(findPathMatchingResources(rootDirResource, subPattern));
 			}
 		}
 		if (logger.isTraceEnabled()) {
@@ -519,6 +598,27 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return result.toArray(new Resource[0]);
 	}
 
+	private Set<Resource> findPathMatchingResources(Resource rootDirResource, String subPattern) throws IOException {
+		rootDirResource = resolveRootDirResource(rootDirResource);
+		URL rootDirUrl = rootDirResource.getURL();
+		if (equinoxResolveMethod != null && rootDirUrl.getProtocol().startsWith("bundle")) {
+			URL resolvedUrl = (URL) ReflectionUtils.invokeMethod(equinoxResolveMethod, null, rootDirUrl);
+			if (resolvedUrl != null) {
+				rootDirUrl = resolvedUrl;
+			}
+			rootDirResource = new UrlResource(rootDirUrl);
+		}
+		if (rootDirUrl.getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+			return VfsResourceMatchingDelegate.findMatchingResources(rootDirUrl, subPattern, getPathMatcher());
+		}
+		else if (ResourceUtils.isJarURL(rootDirUrl) || isJarResource(rootDirResource)) {
+			return doFindPathMatchingJarResources(rootDirResource, rootDirUrl, subPattern);
+		}
+		else {
+			return doFindPathMatchingFileResources(rootDirResource, subPattern);
+		}
+	}
+
 	/**
 	 * Determine the root directory for the given location.
 	 * <p>Used for determining the starting point for file matching,
@@ -589,20 +689,19 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			throws IOException {
 
 		URLConnection con = rootDirURL.openConnection();
-		JarFile jarFile;
+		JarURLConnection jarCon = null;
 		String jarFileUrl;
 		String rootEntryPath;
-		boolean closeJarFile;
 
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
-			JarURLConnection jarCon = (JarURLConnection) con;
+			jarCon = (JarURLConnection) con;
 			ResourceUtils.useCachesIfNecessary(jarCon);
-			jarFile = jarCon.getJarFile();
 			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
-			JarEntry jarEntry = jarCon.getJarEntry();
-			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
-			closeJarFile = !jarCon.getUseCaches();
+			rootEntryPath = jarCon.getEntryName();
+			if (rootEntryPath == null) {
+				rootEntryPath = "";
+			}
 		}
 		else {
 			// No JarURLConnection -> need to resort to URL file parsing.
@@ -610,52 +709,87 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 			// being arbitrary as long as following the entry format.
 			// We'll also handle paths with and without leading "file:" prefix.
 			String urlFile = rootDirURL.getFile();
+			int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
+			if (separatorIndex == -1) {
+				separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+			}
+			if (separatorIndex != -1) {
+				jarFileUrl = urlFile.substring(0, separatorIndex);
+				rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
+			}
+			else {
+				jarFileUrl = urlFile;
+				rootEntryPath = "";
+			}
+		}
+
+		if (logger.isTraceEnabled()) {
+			logger.trace("Looking for matching resources in jar file [" + jarFileUrl + "]");
+		}
+		if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+			// Root entry path must end with slash to allow for proper matching.
+			// The Sun JRE does not return a slash here, but BEA JRockit does.
+			rootEntryPath = rootEntryPath + "/";
+		}
+		JarEntryIndex index = getJarEntryIndex(jarCon, jarFileUrl);
+		if (index == null) {
+			return Collections.emptySet();
+		}
+		Set<Resource> result = new LinkedHashSet<>(8);
+		for (String entryPath : index.getEntryNames(rootEntryPath)) {
+			String relativePath = entryPath.substring(rootEntryPath.length());
+			if (getPathMatcher().match(subPattern, relativePath)) {
+				result.add(rootDirResource.createRelative(relativePath));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the entry index for the given jar file, from the resource cache
+	 * of the underlying {@link DefaultResourceLoader} if possible.
+	 * @param jarCon the connection to the jar file, if available
+	 * @param jarFileUrl the URL of the jar file
+	 * @return the index, or {@code null} if the jar file is invalid
+	 */
+	@Nullable
+	private JarEntryIndex getJarEntryIndex(@Nullable JarURLConnection jarCon, String jarFileUrl) throws IOException {
+		Map<Resource, JarEntryIndex> cache = null;
+		Resource cacheKey = null;
+		if (this.cacheJarEntries && this.resourceLoader instanceof DefaultResourceLoader) {
+			cache = ((DefaultResourceLoader) this.resourceLoader).getResourceCache(JarEntryIndex.class);
+			// Jar file URL as cache key, independent from the root entry path
+			cacheKey = new DescriptiveResource(jarFileUrl);
+			JarEntryIndex index = cache.get(cacheKey);
+			if (index != null) {
+				return index;
+			}
+		}
+
+		JarFile jarFile;
+		boolean closeJarFile;
+		if (jarCon != null) {
+			jarFile = jarCon.getJarFile();
+			closeJarFile = !jarCon.getUseCaches();
+		}
+		else {
 			try {
-				int separatorIndex = urlFile.indexOf(ResourceUtils.WAR_URL_SEPARATOR);
-				if (separatorIndex == -1) {
-					separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
-				}
-				if (separatorIndex != -1) {
-					jarFileUrl = urlFile.substring(0, separatorIndex);
-					rootEntryPath = urlFile.substring(separatorIndex + 2);  // both separators are 2 chars
-					jarFile = getJarFile(jarFileUrl);
-				}
-				else {
-					jarFile = new JarFile(urlFile);
-					jarFileUrl = urlFile;
-					rootEntryPath = "";
-				}
-				closeJarFile = true;
+				jarFile = getJarFile(jarFileUrl);
 			}
 			catch (ZipException ex) {
 				if (logger.isDebugEnabled()) {
-					logger.debug("Skipping invalid jar classpath entry [" + urlFile + "]");
+					logger.debug("Skipping invalid jar classpath entry [" + jarFileUrl + "]");
 				}
-				return Collections.emptySet();
+				return null;
 			}
+			closeJarFile = true;
 		}
-
 		try {
-			if (logger.isTraceEnabled()) {
-				logger.trace("Looking for matching resources in jar file [" + jarFileUrl + "]");
-			}
-			if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
-				// Root entry path must end with slash to allow for proper matching.
-				// The Sun JRE does not return a slash here, but BEA JRockit does.
-				rootEntryPath = rootEntryPath + "/";
+			JarEntryIndex index = new JarEntryIndex(jarFile);
+			if (cache != null) {
+				cache.put(cacheKey, index);
 			}
-			Set<Resource> result = new LinkedHashSet<>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
-				}
-			}
-			return result;
+			return index;
 		}
 		finally {
 			if (closeJarFile) {
@@ -831,6 +965,61 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	}
 
 
+	/**
+	 * Entry names of a jar file in their original order, along with a
+	 * sorted view for looking up all entries below a given path.
+	 */
+	private static final class JarEntryIndex {
+
+		private final String[] entryNames;
+
+		private final int[] sortedPositions;
+
+		JarEntryIndex(JarFile jarFile) {
+			List<String> entryNames = new ArrayList<>();
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				entryNames.add(entries.nextElement().getName());
+			}
+			this.entryNames = entryNames.toArray(new String[0]);
+			this.sortedPositions = IntStream.range(0, this.entryNames.length).boxed()
+					.sorted(Comparator.comparing(position -> this.entryNames[position]))
+					.mapToInt(Integer::intValue).toArray();
+		}
+
+		/**
+		 * Return the names of all entries starting with the given path,
+		 * in their original order within the jar file.
+		 */
+		List<String> getEntryNames(String path) {
+			if (path.isEmpty()) {
+				return Arrays.asList(this.entryNames);
+			}
+			int low = 0;
+			int high = this.sortedPositions.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (this.entryNames[this.sortedPositions[mid]].compareTo(path) < 0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			int end = low;
+			while (end < this.sortedPositions.length && this.entryNames[this.sortedPositions[end]].startsWith(path)) {
+				end++;
+			}
+			int[] positions = Arrays.copyOfRange(this.sortedPositions, low, end);
+			Arrays.sort(positions);
+			List<String> result = new ArrayList<>(positions.length);
+			for (int position : positions) {
+				result.add(this.entryNames[position]);
+			}
+			return result;
+		}
+	}
+
+
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Persistent cache for class metadata read from jar files, allowing a
+ * {@link CachingMetadataReaderFactory} to skip bytecode parsing for unchanged
+ * dependencies across JVM restarts.
+ *
+ * <p>The metadata for all classes read from a given jar file is stored in a
+ * single file in the cache directory, keyed by the path of the jar file and
+ * invalidated as a whole once the size or the last-modified timestamp of the
+ * jar file changes. Classes from other locations, e.g. the application's own
+ * output directories, are always parsed.
+ *
+ * <p>Newly read metadata is held in memory until {@link #flush()} gets called.
+ * {@link CachingMetadataReaderFactory#clearCache()} calls {@link #clear()},
+ * writing new metadata and releasing all metadata held in memory once
+ * configuration class processing is done.
+ *
+ * @since 5.2
+ * @see CachingMetadataReaderFactory#setPersistentCache
+ * @see #CACHE_DIRECTORY_PROPERTY_NAME
+ */
+public class PersistentMetadataReaderCache {
+
+	/**
+	 * System property that specifies a directory for a persistent metadata cache
+	 * to be used by default: {@code "spring.metadata.cache.directory"}.
+	 * <p>If not set, {@link CachingMetadataReaderFactory} only caches in memory.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.metadata.cache.directory";
+
+	private static final int MAGIC = 0x534d4443;
+
+	private static final int VERSION = 1;
+
+	private static final String FILE_SUFFIX = ".metadata";
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataReaderCache.class);
+
+	/** Shared default instances, softly referenced and therefore reclaimable. */
+	private static final Map<Path, PersistentMetadataReaderCache> sharedInstances =
+			new ConcurrentReferenceHashMap<>(4);
+
+
+	private final Path directory;
+
+	private final Map<String, Segment> segments = new ConcurrentHashMap<>(64);
+
+
+	/**
+	 * Create a new {@code PersistentMetadataReaderCache} for the given directory,
+	 * which will be created on {@link #flush()} if necessary.
+	 * @param directory the directory to store cached metadata in
+	 */
+	public PersistentMetadataReaderCache(Path directory) {
+		Assert.notNull(directory, "Directory must not be null");
+		this.directory = directory.toAbsolutePath();
+	}
+
+
+	/**
+	 * Return the directory that cached metadata is stored in.
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Return a {@link MetadataReader} for the given class file resource,
+	 * from the cache if possible.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 */
+	MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader) throws IOException {
+		Segment segment = null;
+		String entryName = null;
+		URL url = getJarUrl(resource);
+		if (url != null) {
+			String urlString = url.toExternalForm();
+			int separatorIndex = urlString.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+			File jarFile = getJarFile(url);
+			if (jarFile != null && separatorIndex != -1) {
+				segment = this.segments.computeIfAbsent(jarFile.getAbsolutePath(), this::loadSegment);
+				entryName = urlString.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length());
+			}
+		}
+		if (segment == null || entryName == null) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+
+		byte[] recording = segment.get(entryName);
+		if (recording != null) {
+			try {
+				SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+				RecordingClassVisitor.replay(recording, visitor);
+				return new SimpleMetadataReader(resource, visitor.getMetadata());
+			}
+			catch (IOException | RuntimeException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring corrupt cached metadata for " + resource, ex);
+				}
+			}
+		}
+		SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+		RecordingClassVisitor recorder = new RecordingClassVisitor(visitor);
+		SimpleMetadataReader.getClassReader(resource).accept(recorder, SimpleMetadataReader.PARSING_OPTIONS);
+		byte[] newRecording = recorder.getRecording();
+		if (newRecording != null) {
+			segment.put(entryName, newRecording);
+		}
+		else if (logger.isDebugEnabled()) {
+			logger.debug("Not caching metadata for " + resource + ": not recordable");
+		}
+		return new SimpleMetadataReader(resource, visitor.getMetadata());
+	}
+
+	/**
+	 * Write all newly read metadata to the cache directory.
+	 * <p>Failures are logged rather than propagated since the cache is
+	 * an optimization only.
+	 */
+	public void flush() {
+		for (Segment segment : this.segments.values()) {
+			if (segment.isDirty()) {
+				try {
+					writeSegment(segment);
+				}
+				catch (IOException ex) {
+					if (logger.isWarnEnabled()) {
+						logger.warn("Could not write metadata cache for " + segment.jarPath +
+								" to " + this.directory, ex);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all metadata held in memory, flushing pending changes first.
+	 */
+	public void clear() {
+		flush();
+		this.segments.clear();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ": " + this.directory;
+	}
+
+
+	@Nullable
+	private URL getJarUrl(Resource resource) {
+		try {
+			URL url = resource.getURL();
+			return (ResourceUtils.isJarURL(url) ? url : null);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private File getJarFile(URL jarUrl) {
+		try {
+			URL jarFileUrl = ResourceUtils.extractJarFileURL(jarUrl);
+			if (ResourceUtils.isFileURL(jarFileUrl)) {
+				File jarFile = ResourceUtils.getFile(jarFileUrl);
+				return (jarFile.isFile() ? jarFile : null);
+			}
+		}
+		catch (IOException ex) {
+			// Not a local jar file -> not cacheable
+		}
+		return null;
+	}
+
+	private Path getSegmentFile(String jarPath) {
+		return this.directory.resolve(DigestUtils.md5DigestAsHex(jarPath.getBytes(StandardCharsets.UTF_8)) + FILE_SUFFIX);
+	}
+
+	private Segment loadSegment(String jarPath) {
+		File jarFile = new File(jarPath);
+		Segment segment = new Segment(jarPath, jarFile.length(), jarFile.lastModified());
+		Path segmentFile = getSegmentFile(jarPath);
+		if (Files.isRegularFile(segmentFile)) {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentFile)))) {
+				if (in.readInt() == MAGIC && in.readInt() == VERSION && in.readUTF().equals(jarPath) &&
+						in.readLong() == segment.size && in.readLong() == segment.lastModified) {
+					int count = in.readInt();
+					for (int i = 0; i < count; i++) {
+						String entryName = in.readUTF();
+						byte[] recording = new byte[in.readInt()];
+						in.readFully(recording);
+						segment.entries.put(entryName, recording);
+					}
+					if (logger.isDebugEnabled()) {
+						logger.debug("Loaded cached metadata for " + count + " classes in " + jarPath);
+					}
+				}
+				else if (logger.isDebugEnabled()) {
+					logger.debug("Ignoring outdated metadata cache for " + jarPath);
+				}
+			}
+			catch (IOException ex) {
+				segment.entries.clear();
+				if (logger.isDebugEnabled()) {
+					logger.debug("Could not read metadata cache for " + jarPath, ex);
+				}
+			}
+		}
+		return segment;
+	}
+
+	private void writeSegment(Segment segment) throws IOException {
+		segment.dirty = false;
+		Files.createDirectories(this.directory);
+		Path segmentFile = getSegmentFile(segment.jarPath);
+		Path tempFile = Files.createTempFile(this.directory, segmentFile.getFileName().toString(), ".tmp");
+		try {
+			Map<String, byte[]> entries = new LinkedHashMap<>(segment.entries);
+			try (OutputStream os = Files.newOutputStream(tempFile);
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(segment.jarPath);
+				out.writeLong(segment.size);
+				out.writeLong(segment.lastModified);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+			}
+			try {
+				Files.move(tempFile, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, segmentFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException ex) {
+			segment.dirty = true;
+			Files.deleteIfExists(tempFile);
+			throw ex;
+		}
+	}
+
+
+	/**
+	 * Return the shared cache instance for the directory specified through the
+	 * {@link #CACHE_DIRECTORY_PROPERTY_NAME} property, if any.
+	 */
+	@Nullable
+	static PersistentMetadataReaderCache getDefaultInstance() {
+		String directory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		if (!StringUtils.hasText(directory)) {
+			return null;
+		}
+		return sharedInstances.computeIfAbsent(
+				Paths.get(directory.trim()).toAbsolutePath(), PersistentMetadataReaderCache::new);
+	}
+
+
+	/**
+	 * Cached metadata for the classes of a single jar file.
+	 */
+	private static final class Segment {
+
+		final String jarPath;
+
+		final long size;
+
+		final long lastModified;
+
+		final Map<String, byte[]> entries = new ConcurrentHashMap<>(256);
+
+		volatile boolean dirty;
+
+		Segment(String jarPath, long size, long lastModified) {
+			this.jarPath = jarPath;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		@Nullable
+		byte[] get(String entryName) {
+			return this.entries.get(entryName);
+		}
+
+		void put(String entryName, byte[] recording) {
+			this.entries.put(entryName, recording);
+			this.dirty = true;
+		}
+
+		boolean isDirty() {
+			return this.dirty;
+		}
+	}
+
+}
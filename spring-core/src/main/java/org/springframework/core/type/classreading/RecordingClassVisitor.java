@@ -0,0 +1,615 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ClassVisitor} that records the events relevant for
+ * {@link SimpleAnnotationMetadataReadingVisitor} in a compact binary form,
+ * so that they can be {@linkplain #replay replayed} without parsing the class
+ * file again.
+ *
+ * <p>Only the class declaration, inner class attributes and visible annotations
+ * on the class and its methods are recorded. Methods without visible annotations
+ * are omitted since they do not contribute to the resulting metadata.
+ *
+ * @since 5.2
+ * @see PersistentMetadataReaderCache
+ */
+final class RecordingClassVisitor extends ClassVisitor {
+
+	private static final byte END = 0;
+
+	private static final byte VISIT = 1;
+
+	private static final byte OUTER_CLASS = 2;
+
+	private static final byte INNER_CLASS = 3;
+
+	private static final byte ANNOTATION = 4;
+
+	private static final byte METHOD = 5;
+
+	private static final byte VALUE = 10;
+
+	private static final byte ENUM = 11;
+
+	private static final byte NESTED_ANNOTATION = 12;
+
+	private static final byte ARRAY = 13;
+
+
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+
+	private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+	private boolean failed;
+
+
+	RecordingClassVisitor(ClassVisitor delegate) {
+		super(SpringAsmInfo.ASM_VERSION, delegate);
+	}
+
+
+	@Override
+	public void visit(int version, int access, String name, @Nullable String signature,
+			@Nullable String superName, @Nullable String[] interfaces) {
+
+		record(() -> {
+			this.out.writeByte(VISIT);
+			this.out.writeInt(version);
+			this.out.writeInt(access);
+			this.out.writeUTF(name);
+			writeNullableString(this.out, superName);
+			String[] names = (interfaces != null ? interfaces : new String[0]);
+			this.out.writeShort(names.length);
+			for (String interfaceName : names) {
+				this.out.writeUTF(interfaceName);
+			}
+		});
+		super.visit(version, access, name, signature, superName, interfaces);
+	}
+
+	@Override
+	public void visitOuterClass(String owner, @Nullable String name, @Nullable String descriptor) {
+		record(() -> {
+			this.out.writeByte(OUTER_CLASS);
+			this.out.writeUTF(owner);
+			writeNullableString(this.out, name);
+			writeNullableString(this.out, descriptor);
+		});
+		super.visitOuterClass(owner, name, descriptor);
+	}
+
+	@Override
+	public void visitInnerClass(String name, @Nullable String outerName, @Nullable String innerName, int access) {
+		record(() -> {
+			this.out.writeByte(INNER_CLASS);
+			this.out.writeUTF(name);
+			writeNullableString(this.out, outerName);
+			writeNullableString(this.out, innerName);
+			this.out.writeInt(access);
+		});
+		super.visitInnerClass(name, outerName, innerName, access);
+	}
+
+	@Override
+	@Nullable
+	public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+		AnnotationVisitor delegate = super.visitAnnotation(descriptor, visible);
+		if (!visible) {
+			return delegate;
+		}
+		record(() -> {
+			this.out.writeByte(ANNOTATION);
+			this.out.writeUTF(descriptor);
+		});
+		return new RecordingAnnotationVisitor(this.out, delegate);
+	}
+
+	@Override
+	@Nullable
+	public MethodVisitor visitMethod(int access, String name, String descriptor,
+			@Nullable String signature, @Nullable String[] exceptions) {
+
+		MethodVisitor delegate = super.visitMethod(access, name, descriptor, signature, exceptions);
+		return (delegate != null ? new RecordingMethodVisitor(delegate, access, name, descriptor) : null);
+	}
+
+	@Override
+	public void visitEnd() {
+		record(() -> this.out.writeByte(END));
+		super.visitEnd();
+	}
+
+	/**
+	 * Return the recorded events.
+	 * @return the recording, or {@code null} if the events could not be
+	 * recorded, e.g. for a string value beyond the 64K limit of
+	 * {@link DataOutputStream#writeUTF}
+	 */
+	@Nullable
+	byte[] getRecording() {
+		return (this.failed ? null : this.bytes.toByteArray());
+	}
+
+	private void record(RecordingAction action) {
+		if (this.failed) {
+			return;
+		}
+		try {
+			action.record();
+		}
+		catch (IOException ex) {
+			// UTFDataFormatException for an oversized string: give up recording
+			// while still passing all events on to the delegate visitor.
+			this.failed = true;
+		}
+	}
+
+
+	/**
+	 * Replay the given recorded events against the given visitor.
+	 * @param recording the events recorded by a {@code RecordingClassVisitor}
+	 * @param visitor the visitor to notify
+	 * @throws IOException if the recording is incomplete or corrupt
+	 */
+	static void replay(byte[] recording, ClassVisitor visitor) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(recording));
+		while (true) {
+			byte event = in.readByte();
+			switch (event) {
+				case VISIT:
+					int version = in.readInt();
+					int access = in.readInt();
+					String name = in.readUTF();
+					String superName = readNullableString(in);
+					String[] interfaces = new String[in.readUnsignedShort()];
+					for (int i = 0; i < interfaces.length; i++) {
+						interfaces[i] = in.readUTF();
+					}
+					visitor.visit(version, access, name, null, superName, interfaces);
+					break;
+				case OUTER_CLASS:
+					visitor.visitOuterClass(in.readUTF(), readNullableString(in), readNullableString(in));
+					break;
+				case INNER_CLASS:
+					visitor.visitInnerClass(in.readUTF(), readNullableString(in), readNullableString(in), in.readInt());
+					break;
+				case ANNOTATION:
+					replayAnnotation(in, visitor.visitAnnotation(in.readUTF(), true));
+					break;
+				case METHOD:
+					replayMethod(in, visitor.visitMethod(in.readInt(), in.readUTF(), in.readUTF(), null, null));
+					break;
+				case END:
+					visitor.visitEnd();
+					return;
+				default:
+					throw new IOException("Unexpected event " + event + " in recorded class metadata");
+			}
+		}
+	}
+
+	private static void replayMethod(DataInputStream in, @Nullable MethodVisitor visitor) throws IOException {
+		while (true) {
+			byte event = in.readByte();
+			if (event == ANNOTATION) {
+				String descriptor = in.readUTF();
+				replayAnnotation(in, (visitor != null ? visitor.visitAnnotation(descriptor, true) : null));
+			}
+			else if (event == END) {
+				if (visitor != null) {
+					visitor.visitEnd();
+				}
+				return;
+			}
+			else {
+				throw new IOException("Unexpected event " + event + " in recorded method metadata");
+			}
+		}
+	}
+
+	private static void replayAnnotation(DataInputStream in, @Nullable AnnotationVisitor visitor) throws IOException {
+		while (true) {
+			byte event = in.readByte();
+			switch (event) {
+				case VALUE:
+					String name = readNullableString(in);
+					Object value = readValue(in);
+					if (visitor != null) {
+						visitor.visit(name, value);
+					}
+					break;
+				case ENUM:
+					String enumName = readNullableString(in);
+					String descriptor = in.readUTF();
+					String enumValue = in.readUTF();
+					if (visitor != null) {
+						visitor.visitEnum(enumName, descriptor, enumValue);
+					}
+					break;
+				case NESTED_ANNOTATION:
+					String nestedName = readNullableString(in);
+					String nestedDescriptor = in.readUTF();
+					replayAnnotation(in, (visitor != null ? visitor.visitAnnotation(nestedName, nestedDescriptor) : null));
+					break;
+				case ARRAY:
+					String arrayName = readNullableString(in);
+					replayAnnotation(in, (visitor != null ? visitor.visitArray(arrayName) : null));
+					break;
+				case END:
+					if (visitor != null) {
+						visitor.visitEnd();
+					}
+					return;
+				default:
+					throw new IOException("Unexpected event " + event + " in recorded annotation metadata");
+			}
+		}
+	}
+
+	private static void writeNullableString(DataOutputStream out, @Nullable String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	@Nullable
+	private static String readNullableString(DataInputStream in) throws IOException {
+		return (in.readBoolean() ? in.readUTF() : null);
+	}
+
+	/**
+	 * Write an annotation attribute value as passed to {@link AnnotationVisitor#visit}.
+	 */
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof Type) {
+			out.writeByte('T');
+			out.writeUTF(((Type) value).getDescriptor());
+		}
+		else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof int[]) {
+			int[] array = (int[]) value;
+			out.writeByte('i');
+			out.writeInt(array.length);
+			for (int element : array) {
+				out.writeInt(element);
+			}
+		}
+		else if (value instanceof boolean[]) {
+			boolean[] array = (boolean[]) value;
+			out.writeByte('z');
+			out.writeInt(array.length);
+			for (boolean element : array) {
+				out.writeBoolean(element);
+			}
+		}
+		else if (value instanceof long[]) {
+			long[] array = (long[]) value;
+			out.writeByte('j');
+			out.writeInt(array.length);
+			for (long element : array) {
+				out.writeLong(element);
+			}
+		}
+		else if (value instanceof byte[]) {
+			byte[] array = (byte[]) value;
+			out.writeByte('b');
+			out.writeInt(array.length);
+			out.write(array);
+		}
+		else if (value instanceof char[]) {
+			char[] array = (char[]) value;
+			out.writeByte('c');
+			out.writeInt(array.length);
+			for (char element : array) {
+				out.writeChar(element);
+			}
+		}
+		else if (value instanceof short[]) {
+			short[] array = (short[]) value;
+			out.writeByte('h');
+			out.writeInt(array.length);
+			for (short element : array) {
+				out.writeShort(element);
+			}
+		}
+		else if (value instanceof float[]) {
+			float[] array = (float[]) value;
+			out.writeByte('f');
+			out.writeInt(array.length);
+			for (float element : array) {
+				out.writeFloat(element);
+			}
+		}
+		else if (value instanceof double[]) {
+			double[] array = (double[]) value;
+			out.writeByte('d');
+			out.writeInt(array.length);
+			for (double element : array) {
+				out.writeDouble(element);
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		switch (tag) {
+			case 's':
+				return in.readUTF();
+			case 'T':
+				return Type.getType(in.readUTF());
+			case 'I':
+				return in.readInt();
+			case 'Z':
+				return in.readBoolean();
+			case 'J':
+				return in.readLong();
+			case 'B':
+				return in.readByte();
+			case 'C':
+				return in.readChar();
+			case 'S':
+				return in.readShort();
+			case 'F':
+				return in.readFloat();
+			case 'D':
+				return in.readDouble();
+			case 'i': {
+				int[] array = new int[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readInt();
+				}
+				return array;
+			}
+			case 'z': {
+				boolean[] array = new boolean[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readBoolean();
+				}
+				return array;
+			}
+			case 'j': {
+				long[] array = new long[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readLong();
+				}
+				return array;
+			}
+			case 'b': {
+				byte[] array = new byte[in.readInt()];
+				in.readFully(array);
+				return array;
+			}
+			case 'c': {
+				char[] array = new char[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readChar();
+				}
+				return array;
+			}
+			case 'h': {
+				short[] array = new short[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readShort();
+				}
+				return array;
+			}
+			case 'f': {
+				float[] array = new float[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readFloat();
+				}
+				return array;
+			}
+			case 'd': {
+				double[] array = new double[in.readInt()];
+				for (int i = 0; i < array.length; i++) {
+					array[i] = in.readDouble();
+				}
+				return array;
+			}
+			default:
+				throw new IOException("Unexpected value type '" + (char) tag + "' in recorded annotation metadata");
+		}
+	}
+
+
+	@FunctionalInterface
+	private interface RecordingAction {
+
+		void record() throws IOException;
+	}
+
+
+	/**
+	 * {@link MethodVisitor} recording visible annotations, only contributing
+	 * to the class recording if there are any.
+	 */
+	private final class RecordingMethodVisitor extends MethodVisitor {
+
+		private final int access;
+
+		private final String name;
+
+		private final String descriptor;
+
+		@Nullable
+		private ByteArrayOutputStream bytes;
+
+		@Nullable
+		private DataOutputStream out;
+
+		RecordingMethodVisitor(MethodVisitor delegate, int access, String name, String descriptor) {
+			super(SpringAsmInfo.ASM_VERSION, delegate);
+			this.access = access;
+			this.name = name;
+			this.descriptor = descriptor;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			AnnotationVisitor delegate = super.visitAnnotation(descriptor, visible);
+			if (!visible) {
+				return delegate;
+			}
+			DataOutputStream out = this.out;
+			if (out == null) {
+				this.bytes = new ByteArrayOutputStream(64);
+				out = new DataOutputStream(this.bytes);
+				this.out = out;
+			}
+			DataOutputStream outToUse = out;
+			record(() -> {
+				outToUse.writeByte(ANNOTATION);
+				outToUse.writeUTF(descriptor);
+			});
+			return new RecordingAnnotationVisitor(out, delegate);
+		}
+
+		@Override
+		public void visitEnd() {
+			ByteArrayOutputStream bytes = this.bytes;
+			if (bytes != null) {
+				DataOutputStream classOut = RecordingClassVisitor.this.out;
+				record(() -> {
+					classOut.writeByte(METHOD);
+					classOut.writeInt(this.access);
+					classOut.writeUTF(this.name);
+					classOut.writeUTF(this.descriptor);
+					bytes.writeTo(classOut);
+					classOut.writeByte(END);
+				});
+			}
+			super.visitEnd();
+		}
+	}
+
+
+	/**
+	 * {@link AnnotationVisitor} recording attribute values and nested annotations.
+	 */
+	private final class RecordingAnnotationVisitor extends AnnotationVisitor {
+
+		private final DataOutputStream out;
+
+		RecordingAnnotationVisitor(DataOutputStream out, @Nullable AnnotationVisitor delegate) {
+			super(SpringAsmInfo.ASM_VERSION, delegate);
+			this.out = out;
+		}
+
+		@Override
+		public void visit(@Nullable String name, Object value) {
+			record(() -> {
+				this.out.writeByte(VALUE);
+				writeNullableString(this.out, name);
+				writeValue(this.out, value);
+			});
+			super.visit(name, value);
+		}
+
+		@Override
+		public void visitEnum(@Nullable String name, String descriptor, String value) {
+			record(() -> {
+				this.out.writeByte(ENUM);
+				writeNullableString(this.out, name);
+				this.out.writeUTF(descriptor);
+				this.out.writeUTF(value);
+			});
+			super.visitEnum(name, descriptor, value);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(@Nullable String name, String descriptor) {
+			record(() -> {
+				this.out.writeByte(NESTED_ANNOTATION);
+				writeNullableString(this.out, name);
+				this.out.writeUTF(descriptor);
+			});
+			return new RecordingAnnotationVisitor(this.out, super.visitAnnotation(name, descriptor));
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(@Nullable String name) {
+			record(() -> {
+				this.out.writeByte(ARRAY);
+				writeNullableString(this.out, name);
+			});
+			return new RecordingAnnotationVisitor(this.out, super.visitArray(name));
+		}
+
+		@Override
+		public void visitEnd() {
+			record(() -> this.out.writeByte(END));
+			super.visitEnd();
+		}
+	}
+
+}
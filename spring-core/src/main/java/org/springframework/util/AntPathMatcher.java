@@ -16,6 +16,7 @@
 
 package org.springframework.util;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -97,6 +98,12 @@ public class AntPathMatcher implements PathMatcher {
 
 	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
 
+	@Nullable
+	private volatile ConcurrentLruCache<String, String[]> boundedTokenizedPatternCache;
+
+	@Nullable
+	volatile ConcurrentLruCache<String, AntPathStringMatcher> boundedStringMatcherCache;
+
 
 	/**
 	 * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
@@ -127,6 +134,15 @@ public class AntPathMatcher implements PathMatcher {
 		this.pathSeparatorPatternCache = new PathSeparatorPatternCache(this.pathSeparator);
 	}
 
+	/**
+	 * Return the path separator used for pattern parsing.
+	 * @since 5.2
+	 * @see #setPathSeparator
+	 */
+	public String getPathSeparator() {
+		return this.pathSeparator;
+	}
+
 	/**
 	 * Specify whether to perform pattern matching in a case-sensitive fashion.
 	 * <p>Default is {@code true}. Switch this to {@code false} for case-insensitive matching.
@@ -160,6 +176,34 @@ public class AntPathMatcher implements PathMatcher {
 		this.cachePatterns = cachePatterns;
 	}
 
+	/**
+	 * Specify a maximum number of patterns for the pattern cache, switching it to
+	 * a bounded cache that evicts the least recently used patterns once the limit
+	 * is reached, keeping frequently used patterns cached.
+	 * <p>This is an alternative to the default variant, which turns the cache off
+	 * completely when encountering too many patterns (see {@link #setCachePatterns}),
+	 * for applications with a large or dynamic set of patterns. The bounded cache
+	 * applies unless the pattern cache has been turned off explicitly through
+	 * {@code setCachePatterns(false)}.
+	 * <p>Default is no limit. A limit of 0 or less switches back to the default variant.
+	 * @param patternCacheLimit the maximum number of patterns to cache
+	 * @since 5.2
+	 * @see ConcurrentLruCache
+	 */
+	public void setPatternCacheLimit(int patternCacheLimit) {
+		if (patternCacheLimit > 0) {
+			this.boundedTokenizedPatternCache = new ConcurrentLruCache<>(patternCacheLimit, this::tokenizePath);
+			this.boundedStringMatcherCache = new ConcurrentLruCache<>(patternCacheLimit,
+					pattern -> new AntPathStringMatcher(pattern, this.caseSensitive));
+		}
+		else {
+			this.boundedTokenizedPatternCache = null;
+			this.boundedStringMatcherCache = null;
+		}
+		this.tokenizedPatternCache.clear();
+		this.stringMatcherCache.clear();
+	}
+
 	private void deactivatePatternCache() {
 		this.cachePatterns = false;
 		this.tokenizedPatternCache.clear();
@@ -397,6 +441,10 @@ public class AntPathMatcher implements PathMatcher {
 	protected String[] tokenizePattern(String pattern) {
 		String[] tokenized = null;
 		Boolean cachePatterns = this.cachePatterns;
+		ConcurrentLruCache<String, String[]> boundedCache = this.boundedTokenizedPatternCache;
+		if (boundedCache != null && (cachePatterns == null || cachePatterns.booleanValue())) {
+			return boundedCache.get(pattern);
+		}
 		if (cachePatterns == null || cachePatterns.booleanValue()) {
 			tokenized = this.tokenizedPatternCache.get(pattern);
 		}
@@ -445,14 +493,21 @@ public class AntPathMatcher implements PathMatcher {
 	 * <p>When encountering too many patterns to cache at runtime (the threshold is 65536),
 	 * it turns the default cache off, assuming that arbitrary permutations of patterns
 	 * are coming in, with little chance for encountering a recurring pattern.
+	 * With a {@link #setPatternCacheLimit pattern cache limit}, a bounded cache is
+	 * used instead.
 	 * <p>This method may be overridden to implement a custom cache strategy.
 	 * @param pattern the pattern to match against (never {@code null})
 	 * @return a corresponding AntPathStringMatcher (never {@code null})
 	 * @see #setCachePatterns
+	 * @see #setPatternCacheLimit
 	 */
 	protected AntPathStringMatcher getStringMatcher(String pattern) {
 		AntPathStringMatcher matcher = null;
 		Boolean cachePatterns = this.cachePatterns;
+		ConcurrentLruCache<String, AntPathStringMatcher> boundedCache = this.boundedStringMatcherCache;
+		if (boundedCache != null && (cachePatterns == null || cachePatterns.booleanValue())) {
+			return boundedCache.get(pattern);
+		}
 		if (cachePatterns == null || cachePatterns.booleanValue()) {
 			matcher = this.stringMatcherCache.get(pattern);
 		}
@@ -634,9 +689,12 @@ public class AntPathMatcher implements PathMatcher {
 
 
 	/**
-	 * Tests whether or not a string matches against a pattern via a {@link Pattern}.
+	 * Tests whether or not a string matches against a pattern.
 	 * <p>The pattern may contain special characters: '*' means zero or more characters; '?' means one and
 	 * only one character; '{' and '}' indicate a URI template pattern. For example <tt>/users/{user}</tt>.
+	 * <p>Patterns without custom regular expressions in URI template variables are matched
+	 * through a sequence of glob tokens, with the same semantics as the corresponding
+	 * {@link Pattern}; other patterns are matched via a {@link Pattern}.
 	 */
 	protected static class AntPathStringMatcher {
 
@@ -644,8 +702,18 @@ public class AntPathMatcher implements PathMatcher {
 
 		private static final String DEFAULT_VARIABLE_PATTERN = "(.*)";
 
+		@Nullable
 		private final Pattern pattern;
 
+		@Nullable
+		private final GlobToken[] globTokens;
+
+		/** Minimum length of the matched text from each glob token to the end. */
+		@Nullable
+		private final int[] minRemainingLengths;
+
+		private final boolean caseSensitive;
+
 		private final List<String> variableNames = new LinkedList<>();
 
 		public AntPathStringMatcher(String pattern) {
@@ -654,21 +722,26 @@ public class AntPathMatcher implements PathMatcher {
 
 		public AntPathStringMatcher(String pattern, boolean caseSensitive) {
 			StringBuilder patternBuilder = new StringBuilder();
+			List<GlobToken> tokens = new ArrayList<>();
 			Matcher matcher = GLOB_PATTERN.matcher(pattern);
 			int end = 0;
 			while (matcher.find()) {
 				patternBuilder.append(quote(pattern, end, matcher.start()));
+				addLiteralToken(tokens, pattern, end, matcher.start());
 				String match = matcher.group();
 				if ("?".equals(match)) {
 					patternBuilder.append('.');
+					addToken(tokens, GlobToken.SINGLE_CHAR);
 				}
 				else if ("*".equals(match)) {
 					patternBuilder.append(".*");
+					addToken(tokens, GlobToken.WILDCARD);
 				}
 				else if (match.startsWith("{") && match.endsWith("}")) {
 					int colonIdx = match.indexOf(':');
 					if (colonIdx == -1) {
 						patternBuilder.append(DEFAULT_VARIABLE_PATTERN);
+						addToken(tokens, new GlobToken(GlobToken.Type.VARIABLE, this.variableNames.size()));
 						this.variableNames.add(matcher.group(1));
 					}
 					else {
@@ -678,13 +751,41 @@ public class AntPathMatcher implements PathMatcher {
 						patternBuilder.append(')');
 						String variableName = match.substring(1, colonIdx);
 						this.variableNames.add(variableName);
+						// Custom regular expression: needs to be matched via a Pattern
+						tokens = null;
 					}
 				}
 				end = matcher.end();
 			}
 			patternBuilder.append(quote(pattern, end, pattern.length()));
-			this.pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
-					Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+			addLiteralToken(tokens, pattern, end, pattern.length());
+			this.caseSensitive = caseSensitive;
+			if (tokens != null) {
+				this.pattern = null;
+				this.globTokens = tokens.toArray(new GlobToken[0]);
+				this.minRemainingLengths = new int[this.globTokens.length + 1];
+				for (int i = this.globTokens.length - 1; i >= 0; i--) {
+					this.minRemainingLengths[i] = this.minRemainingLengths[i + 1] + this.globTokens[i].minLength();
+				}
+			}
+			else {
+				this.pattern = (caseSensitive ? Pattern.compile(patternBuilder.toString()) :
+						Pattern.compile(patternBuilder.toString(), Pattern.CASE_INSENSITIVE));
+				this.globTokens = null;
+				this.minRemainingLengths = null;
+			}
+		}
+
+		private static void addLiteralToken(@Nullable List<GlobToken> tokens, String s, int start, int end) {
+			if (start < end) {
+				addToken(tokens, new GlobToken(s.substring(start, end)));
+			}
+		}
+
+		private static void addToken(@Nullable List<GlobToken> tokens, GlobToken token) {
+			if (tokens != null) {
+				tokens.add(token);
+			}
 		}
 
 		private String quote(String s, int start, int end) {
@@ -699,6 +800,10 @@ public class AntPathMatcher implements PathMatcher {
 		 * @return {@code true} if the string matches against the pattern, or {@code false} otherwise.
 		 */
 		public boolean matchStrings(String str, @Nullable Map<String, String> uriTemplateVariables) {
+			if (this.globTokens != null) {
+				return matchGlobTokens(str, uriTemplateVariables);
+			}
+			Assert.state(this.pattern != null, "No Pattern");
 			Matcher matcher = this.pattern.matcher(str);
 			if (matcher.matches()) {
 				if (uriTemplateVariables != null) {
@@ -721,6 +826,135 @@ public class AntPathMatcher implements PathMatcher {
 				return false;
 			}
 		}
+
+		private boolean matchGlobTokens(String str, @Nullable Map<String, String> uriTemplateVariables) {
+			int[] variableBounds = (this.variableNames.isEmpty() ? null : new int[this.variableNames.size() * 2]);
+			if (!matchGlobTokens(str, 0, 0, variableBounds)) {
+				return false;
+			}
+			if (uriTemplateVariables != null && variableBounds != null) {
+				for (int i = 0; i < this.variableNames.size(); i++) {
+					uriTemplateVariables.put(this.variableNames.get(i),
+							str.substring(variableBounds[i * 2], variableBounds[i * 2 + 1]));
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Match the given tokens against the remainder of the string, trying the
+		 * longest candidates for wildcards and variables first, as the greedy
+		 * quantifier of the corresponding regular expression would.
+		 */
+		private boolean matchGlobTokens(String str, int tokenIndex, int pos, @Nullable int[] variableBounds) {
+			GlobToken[] tokens = this.globTokens;
+			int[] minRemainingLengths = this.minRemainingLengths;
+			Assert.state(tokens != null && minRemainingLengths != null, "No glob tokens");
+			while (tokenIndex < tokens.length) {
+				GlobToken token = tokens[tokenIndex];
+				if (token.type == GlobToken.Type.LITERAL) {
+					if (!regionMatches(str, pos, token.literal)) {
+						return false;
+					}
+					pos += token.literal.length();
+				}
+				else if (token.type == GlobToken.Type.SINGLE_CHAR) {
+					if (pos >= str.length() || isLineTerminator(str.charAt(pos))) {
+						return false;
+					}
+					pos++;
+				}
+				else {
+					// Neither '*' nor a URI template variable span line terminators, as with '.*'
+					int maxEnd = str.length() - minRemainingLengths[tokenIndex + 1];
+					for (int i = pos; i < maxEnd; i++) {
+						if (isLineTerminator(str.charAt(i))) {
+							maxEnd = i;
+							break;
+						}
+					}
+					for (int end = maxEnd; end >= pos; end--) {
+						if (variableBounds != null && token.type == GlobToken.Type.VARIABLE) {
+							variableBounds[token.variableIndex * 2] = pos;
+							variableBounds[token.variableIndex * 2 + 1] = end;
+						}
+						if (matchGlobTokens(str, tokenIndex + 1, end, variableBounds)) {
+							return true;
+						}
+					}
+					return false;
+				}
+				tokenIndex++;
+			}
+			return (pos == str.length());
+		}
+
+		private boolean regionMatches(String str, int pos, String literal) {
+			if (pos + literal.length() > str.length()) {
+				return false;
+			}
+			for (int i = 0; i < literal.length(); i++) {
+				char c1 = str.charAt(pos + i);
+				char c2 = literal.charAt(i);
+				if (c1 != c2 && (this.caseSensitive || !equalsIgnoreAsciiCase(c1, c2))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Case-insensitive comparison for US-ASCII characters only,
+		 * as with {@link Pattern#CASE_INSENSITIVE}.
+		 */
+		private static boolean equalsIgnoreAsciiCase(char c1, char c2) {
+			if (c1 >= 'A' && c1 <= 'Z') {
+				c1 += 'a' - 'A';
+			}
+			if (c2 >= 'A' && c2 <= 'Z') {
+				c2 += 'a' - 'A';
+			}
+			return (c1 == c2 && c1 >= 'a' && c1 <= 'z');
+		}
+
+		private static boolean isLineTerminator(char c) {
+			return (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029');
+		}
+	}
+
+
+	/**
+	 * A token of an {@link AntPathStringMatcher} pattern.
+	 */
+	private static final class GlobToken {
+
+		enum Type { LITERAL, SINGLE_CHAR, WILDCARD, VARIABLE }
+
+		static final GlobToken SINGLE_CHAR = new GlobToken(Type.SINGLE_CHAR, -1);
+
+		static final GlobToken WILDCARD = new GlobToken(Type.WILDCARD, -1);
+
+		final Type type;
+
+		final String literal;
+
+		final int variableIndex;
+
+		GlobToken(String literal) {
+			this.type = Type.LITERAL;
+			this.literal = literal;
+			this.variableIndex = -1;
+		}
+
+		GlobToken(Type type, int variableIndex) {
+			this.type = type;
+			this.literal = "";
+			this.variableIndex = variableIndex;
+		}
+
+		int minLength() {
+			return (this.type == Type.LITERAL ? this.literal.length() : this.type == Type.SINGLE_CHAR ? 1 : 0);
+		}
 	}
 
 
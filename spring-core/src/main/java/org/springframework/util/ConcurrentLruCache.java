@@ -0,0 +1,433 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache capacity.
+ *
+ * <p>This is a simplified, opinionated implementation of an LRU cache for internal
+ * use in Spring Framework. It is inspired by
+ * <a href="https://github.com/ben-manes/concurrentlinkedhashmap">ConcurrentLinkedHashMap</a>:
+ * cached values are stored in a {@link ConcurrentHashMap}, and accesses are recorded
+ * in lossy, striped read buffers and a write buffer rather than applied to the
+ * access order right away. The buffers are drained in batches under a lock,
+ * so that a cache hit is a non-blocking {@code O(1)} operation.
+ *
+ * <p>Values are computed by the generator function given at construction time,
+ * on a cache miss. A capacity of {@code 0} disables caching, i.e. each call to
+ * {@link #get(Object)} invokes the generator.
+ *
+ * @since 5.2
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ */
+public class ConcurrentLruCache<K, V> {
+
+	private final int capacity;
+
+	private final Function<K, V> generator;
+
+	private final ConcurrentMap<K, Node<K, V>> cache;
+
+	private final ReadBuffers<K, V> readBuffers;
+
+	private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final EvictionQueue<K, V> evictionQueue = new EvictionQueue<>();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	/** Number of entries accounted for in the eviction queue, guarded by the eviction lock. */
+	private int currentSize;
+
+
+	/**
+	 * Create a new cache instance with the given capacity and generator function.
+	 * @param capacity the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value)
+	 * @param generator a function to generate a new value for a given key
+	 */
+	public ConcurrentLruCache(int capacity, Function<K, V> generator) {
+		Assert.isTrue(capacity >= 0, "Capacity must be >= 0");
+		Assert.notNull(generator, "Generator function must not be null");
+		this.capacity = capacity;
+		this.generator = generator;
+		this.cache = new ConcurrentHashMap<>(Math.min(capacity, 16) * 4 / 3 + 1);
+		this.readBuffers = new ReadBuffers<>();
+	}
+
+
+	/**
+	 * Retrieve an entry from the cache, potentially triggering generation
+	 * of the value.
+	 * @param key the key to retrieve the entry for
+	 * @return the cached or newly generated value
+	 */
+	public V get(K key) {
+		if (this.capacity == 0) {
+			this.missCount.increment();
+			return this.generator.apply(key);
+		}
+		Node<K, V> node = this.cache.get(key);
+		if (node == null) {
+			this.missCount.increment();
+			return put(key, this.generator.apply(key));
+		}
+		this.hitCount.increment();
+		afterRead(node);
+		return node.value;
+	}
+
+	private V put(K key, V value) {
+		Node<K, V> node = new Node<>(key, value);
+		Node<K, V> existing = this.cache.putIfAbsent(key, node);
+		if (existing != null) {
+			// Generated concurrently: keep the value which made it into the cache
+			afterRead(existing);
+			return existing.value;
+		}
+		afterWrite(() -> addNode(node));
+		return value;
+	}
+
+	/**
+	 * Determine whether the given key is present in this cache.
+	 * @param key the key to check for
+	 * @return {@code true} if the key is present, {@code false} if there was no matching key
+	 */
+	public boolean contains(K key) {
+		return this.cache.containsKey(key);
+	}
+
+	/**
+	 * Immediately remove the given key and any associated value.
+	 * @param key the key to evict the entry for
+	 * @return {@code true} if the key was present before,
+	 * {@code false} if there was no matching key
+	 */
+	public boolean remove(K key) {
+		Node<K, V> node = this.cache.remove(key);
+		if (node == null) {
+			return false;
+		}
+		node.retired = true;
+		afterWrite(() -> removeNode(node));
+		return true;
+	}
+
+	/**
+	 * Immediately remove all entries from this cache.
+	 */
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			drainBuffers();
+			Node<K, V> node;
+			while ((node = this.evictionQueue.poll()) != null) {
+				if (this.cache.remove(node.key, node)) {
+					node.retired = true;
+					this.currentSize--;
+				}
+			}
+			// Entries added or removed concurrently are accounted for by their pending write tasks
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Return the maximum number of entries in the cache
+	 * (0 indicates no caching, always generating a new value).
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Return the current size of the cache.
+	 */
+	public int size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls that returned a cached value.
+	 */
+	public long hitCount() {
+		return this.hitCount.sum();
+	}
+
+	/**
+	 * Return the number of {@link #get} calls that had to generate the value.
+	 */
+	public long missCount() {
+		return this.missCount.sum();
+	}
+
+	/**
+	 * Return the number of entries evicted in order to stay within the capacity.
+	 */
+	public long evictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ConcurrentLruCache[size=" + size() + ", capacity=" + this.capacity +
+				", hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount() + "]";
+	}
+
+
+	private void afterRead(Node<K, V> node) {
+		if (this.readBuffers.recordRead(node) && this.evictionLock.tryLock()) {
+			try {
+				drainBuffers();
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	private void afterWrite(Runnable task) {
+		this.writeBuffer.add(task);
+		this.evictionLock.lock();
+		try {
+			drainBuffers();
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Apply the recorded reads and pending writes to the eviction queue.
+	 * Must be called with the eviction lock held.
+	 */
+	private void drainBuffers() {
+		this.readBuffers.drain(this.evictionQueue);
+		Runnable task;
+		while ((task = this.writeBuffer.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void addNode(Node<K, V> node) {
+		this.currentSize++;
+		if (!node.retired) {
+			this.evictionQueue.add(node);
+		}
+		while (this.currentSize > this.capacity) {
+			Node<K, V> eldest = this.evictionQueue.poll();
+			if (eldest == null) {
+				break;
+			}
+			if (this.cache.remove(eldest.key, eldest)) {
+				eldest.retired = true;
+				this.currentSize--;
+				this.evictionCount.increment();
+			}
+		}
+	}
+
+	private void removeNode(Node<K, V> node) {
+		this.evictionQueue.remove(node);
+		this.currentSize--;
+	}
+
+
+	/**
+	 * A cache entry, linked into the eviction queue once its addition
+	 * has been applied.
+	 */
+	private static final class Node<K, V> {
+
+		final K key;
+
+		final V value;
+
+		volatile boolean retired;
+
+		// Guarded by the eviction lock
+		@Nullable
+		Node<K, V> prev;
+
+		@Nullable
+		Node<K, V> next;
+
+		boolean linked;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+
+	/**
+	 * Access-ordered doubly-linked list of cache entries, least recently used first.
+	 * Not thread-safe: guarded by the eviction lock.
+	 */
+	private static final class EvictionQueue<K, V> {
+
+		@Nullable
+		private Node<K, V> first;
+
+		@Nullable
+		private Node<K, V> last;
+
+		void add(Node<K, V> node) {
+			node.prev = this.last;
+			node.next = null;
+			if (this.last == null) {
+				this.first = node;
+			}
+			else {
+				this.last.next = node;
+			}
+			this.last = node;
+			node.linked = true;
+		}
+
+		void moveToBack(Node<K, V> node) {
+			if (node.linked && node != this.last) {
+				remove(node);
+				add(node);
+			}
+		}
+
+		@Nullable
+		Node<K, V> poll() {
+			Node<K, V> node = this.first;
+			if (node != null) {
+				remove(node);
+			}
+			return node;
+		}
+
+		void remove(Node<K, V> node) {
+			if (!node.linked) {
+				return;
+			}
+			Node<K, V> prev = node.prev;
+			Node<K, V> next = node.next;
+			if (prev == null) {
+				this.first = next;
+			}
+			else {
+				prev.next = next;
+			}
+			if (next == null) {
+				this.last = prev;
+			}
+			else {
+				next.prev = prev;
+			}
+			node.prev = null;
+			node.next = null;
+			node.linked = false;
+		}
+	}
+
+
+	/**
+	 * Striped ring buffers recording cache hits. Reads are dropped when a
+	 * buffer is full, which only affects the precision of the access order.
+	 */
+	private static final class ReadBuffers<K, V> {
+
+		private static final int BUFFER_SIZE = 128;
+
+		private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+
+		private static final int DRAIN_THRESHOLD = 32;
+
+		private final int bufferCount;
+
+		private final int bufferMask;
+
+		private final AtomicReferenceArray<Node<K, V>> buffers;
+
+		/** Number of reads recorded per buffer. */
+		private final AtomicLongArray writeCounts;
+
+		/** Number of reads drained per buffer, updated with the eviction lock held. */
+		private final AtomicLongArray readCounts;
+
+		ReadBuffers() {
+			int stripes = Math.min(4, Runtime.getRuntime().availableProcessors());
+			this.bufferCount = (stripes > 2 ? 4 : stripes);
+			this.bufferMask = this.bufferCount - 1;
+			this.buffers = new AtomicReferenceArray<>(this.bufferCount * BUFFER_SIZE);
+			this.writeCounts = new AtomicLongArray(this.bufferCount);
+			this.readCounts = new AtomicLongArray(this.bufferCount);
+		}
+
+		/**
+		 * Record a read of the given node.
+		 * @return whether the buffers should be drained
+		 */
+		boolean recordRead(Node<K, V> node) {
+			int index = (int) Thread.currentThread().getId() & this.bufferMask;
+			long writeCount = this.writeCounts.get(index);
+			long pending = writeCount - this.readCounts.get(index);
+			if (pending < BUFFER_SIZE && this.writeCounts.compareAndSet(index, writeCount, writeCount + 1)) {
+				this.buffers.lazySet(index * BUFFER_SIZE + (int) (writeCount & BUFFER_MASK), node);
+				pending++;
+			}
+			return (pending >= DRAIN_THRESHOLD);
+		}
+
+		void drain(EvictionQueue<K, V> evictionQueue) {
+			for (int index = 0; index < this.bufferCount; index++) {
+				long readCount = this.readCounts.get(index);
+				long writeCount = this.writeCounts.get(index);
+				for (; readCount < writeCount; readCount++) {
+					int slot = index * BUFFER_SIZE + (int) (readCount & BUFFER_MASK);
+					Node<K, V> node = this.buffers.get(slot);
+					if (node == null) {
+						// Not published yet: resume on the next drain
+						break;
+					}
+					this.buffers.lazySet(slot, null);
+					evictionQueue.moveToBack(node);
+				}
+				this.readCounts.lazySet(index, readCount);
+			}
+		}
+	}
+
+}
@@ -249,8 +249,18 @@ public abstract class StringUtils {
 		}
 
 		int len = str.length();
-		StringBuilder sb = new StringBuilder(str.length());
-		for (int i = 0; i < len; i++) {
+		int firstWhitespace = 0;
+		while (firstWhitespace < len && !Character.isWhitespace(str.charAt(firstWhitespace))) {
+			firstWhitespace++;
+		}
+		if (firstWhitespace == len) {
+			// No whitespace at all - common case e.g. for number parsing
+			return str;
+		}
+
+		StringBuilder sb = new StringBuilder(len);
+		sb.append(str, 0, firstWhitespace);
+		for (int i = firstWhitespace + 1; i < len; i++) {
 			char c = str.charAt(i);
 			if (!Character.isWhitespace(c)) {
 				sb.append(c);
@@ -26,6 +26,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -534,6 +535,34 @@ class AnnotationsScannerTests {
 		assertThat(result).isEqualTo("OK");
 	}
 
+	@Test
+	void typeHierarchyStrategyWhenScannedAgainScansSameAnnotations() {
+		Class<?> source = WithHierarchy.class;
+		List<String> first = scan(source, SearchStrategy.TYPE_HIERARCHY).collect(Collectors.toList());
+		assertThat(scan(source, SearchStrategy.TYPE_HIERARCHY)).containsExactlyElementsOf(first);
+		Method method = methodFrom(WithHierarchy.class);
+		first = scan(method, SearchStrategy.TYPE_HIERARCHY).collect(Collectors.toList());
+		assertThat(scan(method, SearchStrategy.TYPE_HIERARCHY)).containsExactlyElementsOf(first);
+	}
+
+	@Test
+	void isPossiblyPresentWhenInHierarchyReturnsTrue() {
+		assertThat(AnnotationsScanner.isPossiblyPresent(WithSingleSuperclass.class,
+				SearchStrategy.TYPE_HIERARCHY, TestAnnotation2.class.getName())).isTrue();
+		assertThat(AnnotationsScanner.isPossiblyPresent(methodFrom(WithSingleSuperclass.class),
+				SearchStrategy.TYPE_HIERARCHY, TestInheritedAnnotation2.class.getName())).isTrue();
+	}
+
+	@Test
+	void isPossiblyPresentWhenNotInHierarchyReturnsFalse() {
+		assertThat(AnnotationsScanner.isPossiblyPresent(WithSingleSuperclass.class,
+				SearchStrategy.TYPE_HIERARCHY, TestAnnotation3.class.getName())).isFalse();
+		assertThat(AnnotationsScanner.isPossiblyPresent(WithSingleSuperclass.class,
+				SearchStrategy.INHERITED_ANNOTATIONS, TestAnnotation2.class.getName())).isFalse();
+		assertThat(AnnotationsScanner.isPossiblyPresent(methodFrom(WithSingleSuperclass.class),
+				SearchStrategy.TYPE_HIERARCHY, TestAnnotation3.class.getName())).isFalse();
+	}
+
 
 	private Method methodFrom(Class<?> type) {
 		return ReflectionUtils.findMethod(type, "method");
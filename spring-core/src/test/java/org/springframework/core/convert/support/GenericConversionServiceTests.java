@@ -31,6 +31,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -473,6 +474,44 @@ class GenericConversionServiceTests {
 		assertThat(conversionService.canConvert(String.class, Color.class)).isFalse();
 	}
 
+	@Test
+	void convertByClassAfterAddingConverter() {
+		assertThat(conversionService.canConvert(String.class, Color.class)).isFalse();
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.canConvert(String.class, Color.class)).isTrue();
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		conversionService.addConverter(String.class, Color.class, source -> Color.WHITE);
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.WHITE);
+	}
+
+	@Test
+	void convertByClassHonorsOverriddenConvertMethod() {
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			public Object convert(@Nullable Object source, @Nullable TypeDescriptor sourceType, TypeDescriptor targetType) {
+				return (targetType.getType() == Color.class ? Color.WHITE : super.convert(source, sourceType, targetType));
+			}
+		};
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.WHITE);
+	}
+
+	@Test
+	void convertByClassHonorsOverriddenGetConverterMethod() {
+		AtomicInteger lookups = new AtomicInteger();
+		GenericConversionService conversionService = new GenericConversionService() {
+			@Override
+			protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+				lookups.incrementAndGet();
+				return super.getConverter(sourceType, targetType);
+			}
+		};
+		conversionService.addConverter(new ColorConverter());
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		assertThat(conversionService.convert("#000000", Color.class)).isEqualTo(Color.BLACK);
+		assertThat(lookups.get()).isEqualTo(2);
+	}
+
 	@Test
 	void conditionalConverter() {
 		MyConditionalConverter converter = new MyConditionalConverter();
@@ -332,4 +332,148 @@ class PropertySourcesPropertyResolverTests {
 			.withMessageContaining("Could not resolve placeholder 'bogus' in value \"${p1}:${p2}:${bogus}\"");
 	}
 
+	@Test
+	void propertySourceIndexPrecedence() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value").withProperty("p1", "v1"));
+		ps.addLast(new MockPropertySource("ps2").withProperty("pName", "ps2Value").withProperty("p2", "v2"));
+		ps.addLast(new PropertySource<Object>("nonEnumerable") {
+			@Override
+			public Object getProperty(String name) {
+				return ("p3".equals(name) || "pName".equals(name) ? "dynamic" : null);
+			}
+		});
+		ps.addLast(new MockPropertySource("ps3").withProperty("p3", "v3").withProperty("p4", "v4"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setUsePropertySourceIndex(true);
+
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+		assertThat(pr.getProperty("p1")).isEqualTo("v1");
+		assertThat(pr.getProperty("p2")).isEqualTo("v2");
+		assertThat(pr.getProperty("p3")).isEqualTo("dynamic");
+		assertThat(pr.getProperty("p4")).isEqualTo("v4");
+		assertThat(pr.getProperty("bogus")).isNull();
+		assertThat(pr.containsProperty("p4")).isTrue();
+		assertThat(pr.containsProperty("bogus")).isFalse();
+	}
+
+	@Test
+	void propertySourceIndexRebuiltOnModification() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setUsePropertySourceIndex(true);
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+
+		ps.addFirst(new MockPropertySource("ps2").withProperty("pName", "ps2Value"));
+		assertThat(pr.getProperty("pName")).isEqualTo("ps2Value");
+
+		ps.replace("ps2", new MockPropertySource("ps2").withProperty("pName", "replacedValue"));
+		assertThat(pr.getProperty("pName")).isEqualTo("replacedValue");
+
+		ps.remove("ps2");
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+	}
+
+	@Test
+	void propertySourceIndexWithSystemEnvironment() {
+		Map<String, Object> env = new HashMap<>();
+		env.put("SERVER_PORT", "8080");
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new SystemEnvironmentPropertySource("env", env));
+		ps.addLast(new MockPropertySource("defaults").withProperty("server.port", "80").withProperty("other", "x"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setUsePropertySourceIndex(true);
+
+		assertThat(pr.getProperty("server.port")).isEqualTo("8080");
+		assertThat(pr.getProperty("server-port")).isEqualTo("8080");
+		assertThat(pr.getProperty("SERVER_PORT")).isEqualTo("8080");
+		assertThat(pr.getProperty("other")).isEqualTo("x");
+		assertThat(pr.getProperty("bogus")).isNull();
+	}
+
+	@Test
+	void propertySourceIndexWithPlaceholders() {
+		MockPropertySource source = new MockPropertySource()
+				.withProperty("p1", "v1")
+				.withProperty("p2", "${p1}:${p3:def}");
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(source);
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setUsePropertySourceIndex(true);
+		assertThat(pr.getProperty("p2")).isEqualTo("v1:def");
+		assertThat(pr.getProperty("p2")).isEqualTo("v1:def");
+
+		// Added properties are detected through the size of the source map
+		source.setProperty("p3", "v3");
+		assertThat(pr.getProperty("p2")).isEqualTo("v1:v3");
+
+		// Changed values are not visible until the index is cleared
+		source.setProperty("p3", "changed");
+		assertThat(pr.getProperty("p2")).isEqualTo("v1:v3");
+		pr.clearPropertySourceIndex();
+		assertThat(pr.getProperty("p2")).isEqualTo("v1:changed");
+
+		pr.setUsePropertySourceIndex(false);
+		source.setProperty("p1", "changed");
+		assertThat(pr.getProperty("p2")).isEqualTo("changed:changed");
+	}
+
+	@Test
+	void propertySourceIndexWithSystemProperties() {
+		String key = getClass().getName() + ".indexed";
+		System.setProperty(key, "before");
+		try {
+			StandardEnvironment env = new StandardEnvironment();
+			env.getPropertySources().addLast(new MockPropertySource().withProperty("other", "value"));
+			env.setUsePropertySourceIndex(true);
+			assertThat(env.getProperty(key)).isEqualTo("before");
+			assertThat(env.getProperty("other")).isEqualTo("value");
+
+			System.setProperty(key, "after");
+			assertThat(env.getProperty(key)).isEqualTo("after");
+			System.clearProperty(key);
+			assertThat(env.getProperty(key)).isNull();
+			assertThat(env.containsProperty(key)).isFalse();
+		}
+		finally {
+			System.clearProperty(key);
+		}
+	}
+
+	@Test
+	void propertySourceIndexWithUnresolvablePlaceholders() {
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addFirst(new MockPropertySource().withProperty("p1", "${bogus}"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+		pr.setUsePropertySourceIndex(true);
+		assertThatIllegalArgumentException().isThrownBy(() -> pr.getProperty("p1"))
+			.withMessageContaining("Could not resolve placeholder 'bogus'");
+		pr.setIgnoreUnresolvableNestedPlaceholders(true);
+		assertThat(pr.getProperty("p1")).isEqualTo("${bogus}");
+	}
+
+	@Test
+	void propertySourceIndexWithNullValues() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("pNull", null);
+		map.put("pName", null);
+		MutablePropertySources ps = new MutablePropertySources();
+		ps.addLast(new MapPropertySource("nullValues", map));
+		ps.addLast(new MockPropertySource("ps1").withProperty("pName", "ps1Value"));
+		PropertySourcesPropertyResolver pr = new PropertySourcesPropertyResolver(ps);
+
+		pr.setUsePropertySourceIndex(true);
+		assertThat(pr.containsProperty("pNull")).isTrue();
+		assertThat(pr.getProperty("pNull")).isNull();
+		assertThat(pr.containsProperty("pName")).isTrue();
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+		assertThat(pr.containsProperty("bogus")).isFalse();
+
+		pr.setUsePropertySourceIndex(false);
+		assertThat(pr.containsProperty("pNull")).isTrue();
+		assertThat(pr.getProperty("pNull")).isNull();
+		assertThat(pr.getProperty("pName")).isEqualTo("ps1Value");
+	}
+
 }
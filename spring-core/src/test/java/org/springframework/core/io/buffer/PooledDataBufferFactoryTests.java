@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PooledDataBufferFactory}.
+ */
+class PooledDataBufferFactoryTests {
+
+	private final PooledDataBufferFactory bufferFactory = new PooledDataBufferFactory(false, 1024);
+
+
+	@Test
+	void releasedMemoryIsReused() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(120);
+		assertThat(other.capacity()).isEqualTo(120);
+		assertThat(other.readableByteCount()).isEqualTo(0);
+		assertThat(other.asByteBuffer(0, 3)).isEqualTo(ByteBuffer.wrap("foo".getBytes(StandardCharsets.UTF_8)));
+		DataBufferUtils.release(other);
+	}
+
+	@Test
+	void accessAfterRelease() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.retainedSlice(0, 3);
+		DataBufferUtils.release(slice);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+
+		assertThatIllegalStateException().isThrownBy(buffer::read);
+		assertThatIllegalStateException().isThrownBy(() -> buffer.getByte(0));
+		assertThatIllegalStateException().isThrownBy(() -> buffer.write((byte) 'x'));
+		assertThatIllegalStateException().isThrownBy(buffer::asByteBuffer);
+		assertThatIllegalStateException().isThrownBy(() -> buffer.toString(StandardCharsets.UTF_8));
+		assertThatIllegalStateException().isThrownBy(() -> slice.getByte(0));
+		assertThatIllegalStateException().isThrownBy(((PooledDataBuffer) buffer)::release);
+	}
+
+	@Test
+	void capacityBeyondPool() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(2048);
+		assertThat(buffer).isInstanceOf(PooledDataBuffer.class);
+		assertThat(buffer.capacity()).isEqualTo(2048);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+	}
+
+	@Test
+	void growAndShrink() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		byte[] bytes = new byte[600];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		buffer.write(bytes);
+		assertThat(buffer.capacity()).isGreaterThanOrEqualTo(600);
+		assertThat(buffer.readableByteCount()).isEqualTo(600);
+		assertThat(buffer.getByte(599)).isEqualTo((byte) 599);
+
+		buffer.capacity(50);
+		assertThat(buffer.capacity()).isEqualTo(50);
+		assertThat(buffer.getByte(49)).isEqualTo((byte) 49);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+	}
+
+	@Test
+	void retainedSlice() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(slice.toString(0, 3, StandardCharsets.UTF_8)).isEqualTo("bar");
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+	}
+
+	@Test
+	void retainedSliceSurvivesGrowth() {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foobar".getBytes(StandardCharsets.UTF_8));
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+
+		buffer.write(new byte[100]);
+		assertThat(buffer.capacity()).isGreaterThanOrEqualTo(106);
+
+		DefaultDataBuffer other = this.bufferFactory.allocateBuffer(10);
+		other.write("xxxxxx".getBytes(StandardCharsets.UTF_8));
+		assertThat(slice.toString(0, 3, StandardCharsets.UTF_8)).isEqualTo("bar");
+
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(slice);
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+	}
+
+	@Test
+	void inputStreamReleaseOnClose() throws Exception {
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		buffer.write("foo".getBytes(StandardCharsets.UTF_8));
+
+		InputStream inputStream = buffer.asInputStream(true);
+		assertThat(inputStream.read()).isEqualTo('f');
+		inputStream.close();
+		inputStream.close();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+	}
+
+	@Test
+	void leakDetection() {
+		this.bufferFactory.setLeakDetection(true);
+		DefaultDataBuffer buffer = this.bufferFactory.allocateBuffer(10);
+		DataBufferUtils.release(this.bufferFactory.allocateBuffer(10));
+
+		assertThatThrownBy(this.bufferFactory::checkForLeaks)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageStartingWith("1 buffer leak(s)")
+				.satisfies(ex -> assertThat(ex.getSuppressed()).hasSize(1));
+
+		DataBufferUtils.release(buffer);
+		this.bufferFactory.checkForLeaks();
+	}
+
+}
@@ -116,6 +116,32 @@ class PathMatchingResourcePatternResolverTests {
 		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
 	}
 
+	@Test
+	void classpathStarWithPatternInJarWithoutCachedJarEntries() throws IOException {
+		resolver.setCacheJarEntries(false);
+		Resource[] resources = resolver.getResources("classpath*:org/reactivestreams/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTIVESTREAMS);
+	}
+
+	@Test
+	void cachedJarEntriesMatchUncachedJarEntries() throws IOException {
+		PathMatchingResourcePatternResolver uncachedResolver = new PathMatchingResourcePatternResolver();
+		uncachedResolver.setCacheJarEntries(false);
+		// Populate the cache through a broader pattern first
+		resolver.getResources("classpath*:org/reactivestreams/**/*");
+		assertThat(resolver.getResources("classpath*:org/reactivestreams/*.class"))
+				.containsExactly(uncachedResolver.getResources("classpath*:org/reactivestreams/*.class"));
+		assertThat(resolver.getResources("classpath*:org/reactivestreams/Missing*.class")).isEmpty();
+	}
+
+	@Test
+	void parallelRootTraversalKeepsOrder() throws IOException {
+		String pattern = "classpath*:org/springframework/core/io/sup*/*.class";
+		Resource[] sequential = resolver.getResources(pattern);
+		resolver.setParallelRootTraversal(true);
+		assertThat(resolver.getResources(pattern)).containsExactly(sequential);
+	}
+
 	@Test
 	void rootPatternRetrievalInJarFiles() throws IOException {
 		Resource[] resources = resolver.getResources("classpath*:*.dtd");
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataReaderCache}.
+ */
+class PersistentMetadataReaderCacheTests {
+
+	private static final String ENTRY_NAME = "example/Fixture.class";
+
+
+	@Test
+	void metadataIsPersistedAcrossInstances(@TempDir Path tempDir) throws Exception {
+		Path jarFile = createJar(tempDir.resolve("fixture.jar"), AnnotatedFixture.class);
+		Path cacheDir = tempDir.resolve("cache");
+
+		CachingMetadataReaderFactory factory = createFactory(cacheDir);
+		assertAnnotatedFixture(factory.getMetadataReader(getResource(jarFile)).getAnnotationMetadata());
+		assertThat(cacheDir).doesNotExist();
+		factory.clearCache();
+		try (Stream<Path> files = Files.list(cacheDir)) {
+			assertThat(files).hasSize(1);
+		}
+
+		factory = createFactory(cacheDir);
+		assertAnnotatedFixture(factory.getMetadataReader(getResource(jarFile)).getAnnotationMetadata());
+	}
+
+	@Test
+	void modifiedJarInvalidatesCache(@TempDir Path tempDir) throws Exception {
+		Path jarFile = createJar(tempDir.resolve("fixture.jar"), AnnotatedFixture.class);
+		Path cacheDir = tempDir.resolve("cache");
+
+		CachingMetadataReaderFactory factory = createFactory(cacheDir);
+		assertAnnotatedFixture(factory.getMetadataReader(getResource(jarFile)).getAnnotationMetadata());
+		factory.clearCache();
+
+		createJar(jarFile, PlainFixture.class);
+		factory = createFactory(cacheDir);
+		AnnotationMetadata metadata = factory.getMetadataReader(getResource(jarFile)).getAnnotationMetadata();
+		assertThat(metadata.getClassName()).isEqualTo(PlainFixture.class.getName());
+		assertThat(metadata.getAnnotationTypes()).isEmpty();
+	}
+
+	@Test
+	void fileSystemResourceIsNotCached(@TempDir Path tempDir) throws Exception {
+		Path classFile = tempDir.resolve("Fixture.class");
+		try (InputStream in = getClassFile(AnnotatedFixture.class)) {
+			Files.copy(in, classFile);
+		}
+		Path cacheDir = tempDir.resolve("cache");
+
+		CachingMetadataReaderFactory factory = createFactory(cacheDir);
+		assertAnnotatedFixture(factory.getMetadataReader(new FileSystemResource(classFile)).getAnnotationMetadata());
+		factory.clearCache();
+		assertThat(cacheDir).doesNotExist();
+	}
+
+
+	private static CachingMetadataReaderFactory createFactory(Path cacheDir) {
+		CachingMetadataReaderFactory factory =
+				new CachingMetadataReaderFactory(PersistentMetadataReaderCacheTests.class.getClassLoader());
+		factory.setPersistentCache(new PersistentMetadataReaderCache(cacheDir));
+		return factory;
+	}
+
+	private static void assertAnnotatedFixture(AnnotationMetadata metadata) {
+		assertThat(metadata.getClassName()).isEqualTo(AnnotatedFixture.class.getName());
+		Map<String, Object> attributes = metadata.getAnnotationAttributes(Marker.class.getName(), true);
+		assertThat(attributes).containsEntry("value", "fixture")
+				.containsEntry("type", Integer.class.getName())
+				.containsEntry("element", ElementType.TYPE)
+				.containsEntry("counts", new int[] {1, 2});
+		assertThat(metadata.getAnnotatedMethods(Marker.class.getName()))
+				.extracting(MethodMetadata::getMethodName).containsExactly("marked");
+	}
+
+	private static Resource getResource(Path jarFile) throws IOException {
+		return new UrlResource("jar:" + jarFile.toUri() + "!/" + ENTRY_NAME);
+	}
+
+	private static Path createJar(Path jarFile, Class<?> fixture) throws IOException {
+		try (OutputStream out = Files.newOutputStream(jarFile);
+				JarOutputStream jar = new JarOutputStream(out);
+				InputStream in = getClassFile(fixture)) {
+			jar.putNextEntry(new JarEntry(ENTRY_NAME));
+			FileCopyUtils.copy(in, jar);
+			jar.closeEntry();
+		}
+		return jarFile;
+	}
+
+	private static InputStream getClassFile(Class<?> fixture) {
+		String name = fixture.getName();
+		return fixture.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class");
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Marker {
+
+		String value() default "";
+
+		Class<?> type() default Object.class;
+
+		ElementType element() default ElementType.METHOD;
+
+		int[] counts() default {};
+	}
+
+
+	@Marker(value = "fixture", type = Integer.class, element = ElementType.TYPE, counts = {1, 2})
+	static class AnnotatedFixture {
+
+		@Marker
+		public void marked() {
+		}
+
+		public void unmarked() {
+		}
+	}
+
+
+	static class PlainFixture {
+	}
+
+}
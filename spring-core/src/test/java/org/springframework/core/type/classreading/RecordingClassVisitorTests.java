@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RecordingClassVisitor}, running the {@link AnnotationMetadata}
+ * tests against metadata replayed from a recording.
+ */
+class RecordingClassVisitorTests extends AbstractAnnotationMetadataTests {
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			ClassLoader classLoader = source.getClassLoader();
+			Resource resource = new ClassPathResource(
+					ClassUtils.convertClassNameToResourcePath(source.getName()) + ClassUtils.CLASS_FILE_SUFFIX,
+					classLoader);
+			RecordingClassVisitor recorder =
+					new RecordingClassVisitor(new SimpleAnnotationMetadataReadingVisitor(classLoader));
+			SimpleMetadataReader.getClassReader(resource).accept(recorder, SimpleMetadataReader.PARSING_OPTIONS);
+
+			SimpleAnnotationMetadataReadingVisitor visitor = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+			RecordingClassVisitor.replay(recorder.getRecording(), visitor);
+			return visitor.getMetadata();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	void recordingIsDiscardedForOversizedString() {
+		char[] chars = new char[70000];
+		Arrays.fill(chars, 'x');
+		String value = new String(chars);
+		ClassLoader classLoader = getClass().getClassLoader();
+		SimpleAnnotationMetadataReadingVisitor delegate = new SimpleAnnotationMetadataReadingVisitor(classLoader);
+		RecordingClassVisitor recorder = new RecordingClassVisitor(delegate);
+		recorder.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "example/Oversized", null, "java/lang/Object", new String[0]);
+		AnnotationVisitor annotationVisitor = recorder.visitAnnotation(Type.getDescriptor(Marker.class), true);
+		annotationVisitor.visit("value", value);
+		annotationVisitor.visitEnd();
+		recorder.visitEnd();
+
+		assertThat(recorder.getRecording()).isNull();
+		assertThat(delegate.getMetadata().getAnnotationAttributes(Marker.class.getName()))
+				.containsEntry("value", value);
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Marker {
+
+		String value();
+	}
+
+}
@@ -642,6 +642,57 @@ class AntPathMatcherTests {
 		assertThat(pathMatcher.stringMatcherCache.size() > 65536).isTrue();
 	}
 
+	@Test
+	void patternCacheLimit() {
+		pathMatcher.setPatternCacheLimit(16);
+		match();
+		assertThat(pathMatcher.boundedStringMatcherCache.size()).isEqualTo(16);
+
+		for (int i = 0; i < 65536; i++) {
+			pathMatcher.match("test" + i, "test" + i);
+			assertThat(pathMatcher.match("/hotels/{hotel}", "/hotels/1")).isTrue();
+		}
+		// Bounded cache keeps the recurring pattern instead of being turned off
+		assertThat(pathMatcher.boundedStringMatcherCache.size()).isEqualTo(16);
+		assertThat(pathMatcher.boundedStringMatcherCache.contains("{hotel}")).isTrue();
+		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+	}
+
+	@Test
+	void patternCacheLimitWithCachePatternsSetToFalse() {
+		pathMatcher.setPatternCacheLimit(16);
+		pathMatcher.setCachePatterns(false);
+		match();
+		assertThat(pathMatcher.boundedStringMatcherCache.size()).isEqualTo(0);
+		assertThat(pathMatcher.stringMatcherCache.isEmpty()).isTrue();
+	}
+
+	@Test
+	void stringMatcherWithGreedyVariables() {
+		AntPathMatcher.AntPathStringMatcher matcher = new AntPathMatcher.AntPathStringMatcher("{name}-{version}.{ext}");
+		Map<String, String> variables = new LinkedHashMap<>();
+		assertThat(matcher.matchStrings("spring-core-5.2.0.jar", variables)).isTrue();
+		assertThat(variables).containsEntry("name", "spring-core").containsEntry("version", "5.2.0")
+				.containsEntry("ext", "jar");
+		assertThat(matcher.matchStrings("spring.jar", null)).isFalse();
+	}
+
+	@Test
+	void stringMatcherWithWildcards() {
+		AntPathMatcher.AntPathStringMatcher matcher = new AntPathMatcher.AntPathStringMatcher("t?st*.jsp");
+		assertThat(matcher.matchStrings("test.jsp", null)).isTrue();
+		assertThat(matcher.matchStrings("tast-1.jsp", null)).isTrue();
+		assertThat(matcher.matchStrings("tst.jsp", null)).isFalse();
+		assertThat(matcher.matchStrings("test.jspx", null)).isFalse();
+		assertThat(matcher.matchStrings("test\n.jsp", null)).isFalse();
+		assertThat(matcher.matchStrings("TEST.jsp", null)).isFalse();
+
+		matcher = new AntPathMatcher.AntPathStringMatcher("t?st*.jsp", false);
+		assertThat(matcher.matchStrings("TEST.JSP", null)).isTrue();
+		assertThat(matcher.matchStrings("T\u00c9ST.JSP", null)).isTrue();
+		assertThat(matcher.matchStrings("TeST.JSp", null)).isTrue();
+	}
+
 	@Test
 	void preventCreatingStringMatchersIfPathDoesNotStartsWithPatternPrefix() {
 		pathMatcher.setCachePatterns(true);
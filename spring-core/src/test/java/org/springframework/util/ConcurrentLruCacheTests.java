@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link ConcurrentLruCache}.
+ */
+public class ConcurrentLruCacheTests {
+
+	private final AtomicInteger generated = new AtomicInteger();
+
+	private final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, key -> {
+		this.generated.incrementAndGet();
+		return key + "value";
+	});
+
+
+	@Test
+	public void invalidCapacity() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrentLruCache<>(-1, key -> key));
+	}
+
+	@Test
+	public void getAndSize() {
+		assertThat(this.cache.capacity()).isEqualTo(2);
+		assertThat(this.cache.size()).isEqualTo(0);
+		assertThat(this.cache.get("k1")).isEqualTo("k1value");
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k1")).isTrue();
+		assertThat(this.cache.get("k2")).isEqualTo("k2value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.get("k3")).isEqualTo("k3value");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k1")).isFalse();
+		assertThat(this.cache.contains("k2")).isTrue();
+		assertThat(this.cache.contains("k3")).isTrue();
+	}
+
+	@Test
+	public void removeAndClear() {
+		this.cache.get("k1");
+		this.cache.get("k2");
+
+		assertThat(this.cache.remove("k1")).isTrue();
+		assertThat(this.cache.remove("k1")).isFalse();
+		assertThat(this.cache.size()).isEqualTo(1);
+		assertThat(this.cache.contains("k1")).isFalse();
+
+		this.cache.get("k3");
+		this.cache.get("k4");
+		assertThat(this.cache.size()).isEqualTo(2);
+		assertThat(this.cache.contains("k2")).isFalse();
+
+		this.cache.clear();
+		assertThat(this.cache.size()).isEqualTo(0);
+		this.cache.get("k5");
+		this.cache.get("k6");
+		assertThat(this.cache.contains("k5")).isTrue();
+		assertThat(this.cache.contains("k6")).isTrue();
+	}
+
+	@Test
+	public void zeroCapacity() {
+		ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(0, key -> key + "value");
+		assertThat(cache.get("k1")).isEqualTo("k1value");
+		assertThat(cache.get("k1")).isEqualTo("k1value");
+		assertThat(cache.size()).isEqualTo(0);
+		assertThat(cache.missCount()).isEqualTo(2);
+		assertThat(cache.hitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void statistics() {
+		this.cache.get("k1");
+		this.cache.get("k1");
+		this.cache.get("k2");
+		this.cache.get("k1");
+		this.cache.get("k3");
+
+		assertThat(this.cache.hitCount()).isEqualTo(2);
+		assertThat(this.cache.missCount()).isEqualTo(3);
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+		assertThat(this.generated.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void leastRecentlyUsedEviction() {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(64, key -> key);
+		for (int i = 0; i < 64; i++) {
+			cache.get(i);
+		}
+		// Enough reads to exceed the read buffer drain threshold
+		for (int round = 0; round < 4; round++) {
+			for (int i = 0; i < 32; i++) {
+				cache.get(i);
+			}
+		}
+		for (int i = 64; i < 96; i++) {
+			cache.get(i);
+		}
+		assertThat(cache.size()).isEqualTo(64);
+		for (int i = 0; i < 32; i++) {
+			assertThat(cache.contains(i)).as("recently used key %s", i).isTrue();
+		}
+		assertThat(cache.evictionCount()).isEqualTo(32);
+	}
+
+	@Test
+	public void concurrentAccess() throws Exception {
+		ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(100, key -> key * 2);
+		int threadCount = 8;
+		CountDownLatch latch = new CountDownLatch(threadCount);
+		List<Throwable> failures = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			int seed = t;
+			new Thread(() -> {
+				try {
+					for (int i = 0; i < 20000; i++) {
+						int key = (i * 31 + seed) % 500;
+						assertThat(cache.get(key)).isEqualTo(key * 2);
+						if (i % 1000 == 0) {
+							cache.remove(key);
+						}
+					}
+				}
+				catch (Throwable ex) {
+					synchronized (failures) {
+						failures.add(ex);
+					}
+				}
+				finally {
+					latch.countDown();
+				}
+			}).start();
+		}
+		latch.await();
+		assertThat(failures).isEmpty();
+		assertThat(cache.size()).isLessThanOrEqualTo(100);
+		assertThat(cache.hitCount() + cache.missCount()).isEqualTo(threadCount * 20000);
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.expression.spel;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Benchmarks for the evaluation of SpEL expressions, in interpreted
+ * and in compiled mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class SpelBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"OFF", "IMMEDIATE"})
+		public SpelCompilerMode compilerMode;
+
+		public EvaluationContext context;
+
+		public Order order;
+
+		public Expression propertyExpression;
+
+		public Expression methodExpression;
+
+		public Expression conditionExpression;
+
+		public Expression parseTarget;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			SpelParserConfiguration configuration = new SpelParserConfiguration(this.compilerMode, getClass().getClassLoader());
+			ExpressionParser parser = new SpelExpressionParser(configuration);
+			this.order = new Order("42", Arrays.asList("apple", "pear"), 12);
+			this.context = new StandardEvaluationContext(this.order);
+			this.propertyExpression = parser.parseExpression("customer.name");
+			this.methodExpression = parser.parseExpression("items.get(0).toUpperCase()");
+			this.conditionExpression = parser.parseExpression("quantity > 10 and id != null");
+			// Evaluate once so that expressions in IMMEDIATE mode get compiled
+			this.propertyExpression.getValue(this.context);
+			this.methodExpression.getValue(this.context);
+			this.conditionExpression.getValue(this.context);
+		}
+	}
+
+	@Benchmark
+	public Object propertyAccess(BenchmarkData data) {
+		return data.propertyExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object methodInvocation(BenchmarkData data) {
+		return data.methodExpression.getValue(data.context);
+	}
+
+	@Benchmark
+	public Object booleanCondition(BenchmarkData data) {
+		return data.conditionExpression.getValue(data.context, Boolean.class);
+	}
+
+	@Benchmark
+	public Expression parse() {
+		return new SpelExpressionParser().parseExpression("items.?[length() > 4].size() > 0 ? customer.name : 'none'");
+	}
+
+
+	public static class Order {
+
+		private final String id;
+
+		private final List<String> items;
+
+		private final int quantity;
+
+		private final Customer customer = new Customer("Sam");
+
+		public Order(String id, List<String> items, int quantity) {
+			this.id = id;
+			this.items = items;
+			this.quantity = quantity;
+		}
+
+		public String getId() {
+			return this.id;
+		}
+
+		public List<String> getItems() {
+			return this.items;
+		}
+
+		public int getQuantity() {
+			return this.quantity;
+		}
+
+		public Customer getCustomer() {
+			return this.customer;
+		}
+	}
+
+	public static class Customer {
+
+		private final String name;
+
+		public Customer(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+}
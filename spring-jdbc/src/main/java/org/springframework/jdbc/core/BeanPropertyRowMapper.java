@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.beans.PropertyDescriptor;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Locale;
@@ -273,6 +274,25 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 		return name.toLowerCase(Locale.US);
 	}
 
+	/**
+	 * Return the bean property that the given (lower-case) field name maps to.
+	 * @param field the field name as derived from a column name
+	 * @return the corresponding property, or {@code null} if none
+	 * @since 5.2
+	 */
+	@Nullable
+	PropertyDescriptor getMappedField(String field) {
+		return (this.mappedFields != null ? this.mappedFields.get(field) : null);
+	}
+
+	/**
+	 * Return the names of the bean properties that we provide mapping for.
+	 * @since 5.2
+	 */
+	Set<String> getMappedProperties() {
+		return (this.mappedProperties != null ? this.mappedProperties : Collections.emptySet());
+	}
+
 
 	/**
 	 * Extract the values for all columns in the current row.
@@ -362,8 +382,8 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 
 	/**
 	 * Retrieve a JDBC object value for the specified column.
-	 * <p>The default implementation calls
-	 * {@link JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)}.
+	 * <p>The default implementation delegates to
+	 * {@link #getColumnValue(ResultSet, int, Class)} with the property type.
 	 * Subclasses may override this to check specific value types upfront,
 	 * or to post-process values return from {@code getResultSetValue}.
 	 * @param rs is the ResultSet holding the data
@@ -375,7 +395,27 @@ public class BeanPropertyRowMapper<T> implements RowMapper<T> {
 	 */
 	@Nullable
 	protected Object getColumnValue(ResultSet rs, int index, PropertyDescriptor pd) throws SQLException {
-		return JdbcUtils.getResultSetValue(rs, index, pd.getPropertyType());
+		return getColumnValue(rs, index, pd.getPropertyType());
+	}
+
+	/**
+	 * Retrieve a JDBC object value for the specified column, for the given
+	 * target type, e.g. of a bean property or a constructor parameter.
+	 * <p>The default implementation calls
+	 * {@link JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)}.
+	 * Subclasses may override this to check specific value types upfront,
+	 * or to post-process values return from {@code getResultSetValue}.
+	 * @param rs is the ResultSet holding the data
+	 * @param index is the column index
+	 * @param paramType the target type
+	 * @return the Object value
+	 * @throws SQLException in case of extraction failure
+	 * @since 5.2
+	 * @see org.springframework.jdbc.support.JdbcUtils#getResultSetValue(java.sql.ResultSet, int, Class)
+	 */
+	@Nullable
+	protected Object getColumnValue(ResultSet rs, int index, Class<?> paramType) throws SQLException {
+		return JdbcUtils.getResultSetValue(rs, index, paramType);
 	}
 
 
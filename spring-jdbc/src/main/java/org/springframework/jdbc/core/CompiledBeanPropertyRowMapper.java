@@ -0,0 +1,932 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.beans.ConstructorProperties;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link BeanPropertyRowMapper} variant that resolves the mapping between
+ * columns and target properties once per result set shape (i.e. per sequence
+ * of column names) and then maps each row without a {@link BeanWrapper}.
+ *
+ * <p>For a public target class with public setters, the mapping plan is compiled
+ * into a generated class that calls typed {@code ResultSet.getXxx(int)} methods
+ * and the setters directly. Other target classes are mapped through cached
+ * reflective handles. Column values of types without a dedicated
+ * {@code ResultSet} getter are retrieved via {@link #getColumnValue} and
+ * converted with the configured {@link #getConversionService() ConversionService}.
+ * Generated classes are shared across mapper instances for the same mapped
+ * class and column layout, while each mapper keeps its own plan instances.
+ *
+ * <p>In addition to default-constructible JavaBeans, this mapper supports
+ * constructor binding for classes without a default constructor, e.g. Java
+ * records or Kotlin data classes: the parameters of the primary or single
+ * constructor are matched against column names the same way as property names,
+ * with any remaining columns applied to setters after construction. Parameter
+ * names are taken from a {@link ConstructorProperties} declaration if present,
+ * or otherwise from the {@link DefaultParameterNameDiscoverer}.
+ *
+ * <p>Note that values are bound through the {@code ConversionService} only;
+ * if {@link #initBeanWrapper} is overridden, e.g. to register custom property
+ * editors, this mapper falls back to the standard {@code BeanWrapper}-based
+ * mapping of its superclass.
+ *
+ * @since 5.2
+ * @param <T> the result type
+ * @see BeanPropertyRowMapper
+ */
+public class CompiledBeanPropertyRowMapper<T> extends BeanPropertyRowMapper<T> {
+
+	private static final int MAX_MAPPING_PLANS = 64;
+
+	private static final String RESULT_SET_NAME = Type.getInternalName(ResultSet.class);
+
+	private static final String MAPPING_PLAN_NAME = Type.getInternalName(MappingPlan.class);
+
+	private static final Map<Class<?>, String> resultSetGetters = new HashMap<>(32);
+
+	private static final AtomicInteger generatedClassCount = new AtomicInteger();
+
+	/** Generated (or reflective) plan classes per mapped class and column layout. */
+	private static final Map<MappingPlanKey, Class<?>> mappingPlanClassCache =
+			new ConcurrentReferenceHashMap<>(64);
+
+	/** ClassLoaders for generated plan classes per ClassLoader of the mapped class. */
+	private static final Map<ClassLoader, MappingPlanClassLoader> mappingPlanClassLoaders =
+			new ConcurrentReferenceHashMap<>(16);
+
+	static {
+		resultSetGetters.put(String.class, "getString");
+		resultSetGetters.put(boolean.class, "getBoolean");
+		resultSetGetters.put(Boolean.class, "getBoolean");
+		resultSetGetters.put(byte.class, "getByte");
+		resultSetGetters.put(Byte.class, "getByte");
+		resultSetGetters.put(short.class, "getShort");
+		resultSetGetters.put(Short.class, "getShort");
+		resultSetGetters.put(int.class, "getInt");
+		resultSetGetters.put(Integer.class, "getInt");
+		resultSetGetters.put(long.class, "getLong");
+		resultSetGetters.put(Long.class, "getLong");
+		resultSetGetters.put(float.class, "getFloat");
+		resultSetGetters.put(Float.class, "getFloat");
+		resultSetGetters.put(double.class, "getDouble");
+		resultSetGetters.put(Double.class, "getDouble");
+		resultSetGetters.put(BigDecimal.class, "getBigDecimal");
+		resultSetGetters.put(java.sql.Date.class, "getDate");
+		resultSetGetters.put(java.sql.Time.class, "getTime");
+		resultSetGetters.put(java.sql.Timestamp.class, "getTimestamp");
+		resultSetGetters.put(byte[].class, "getBytes");
+	}
+
+
+	private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+	private final boolean customBeanWrapper = isOverridden("initBeanWrapper", BeanWrapper.class);
+
+	private final boolean customColumnValues =
+			(isOverridden("getColumnValue", ResultSet.class, int.class, PropertyDescriptor.class) ||
+					isOverridden("getColumnValue", ResultSet.class, int.class, Class.class));
+
+	private final Map<List<String>, MappingPlan> mappingPlans = new ConcurrentHashMap<>(4);
+
+	@Nullable
+	private volatile CurrentMappingPlan currentMappingPlan;
+
+
+	/**
+	 * Create a new {@code CompiledBeanPropertyRowMapper} for bean-style configuration.
+	 * @see #setMappedClass
+	 * @see #setCheckFullyPopulated
+	 */
+	public CompiledBeanPropertyRowMapper() {
+	}
+
+	/**
+	 * Create a new {@code CompiledBeanPropertyRowMapper}, accepting unpopulated
+	 * properties in the target bean.
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public CompiledBeanPropertyRowMapper(Class<T> mappedClass) {
+		super(mappedClass);
+	}
+
+	/**
+	 * Create a new {@code CompiledBeanPropertyRowMapper}.
+	 * @param mappedClass the class that each row should be mapped to
+	 * @param checkFullyPopulated whether we're strictly validating that
+	 * all bean properties have been mapped from corresponding database fields
+	 */
+	public CompiledBeanPropertyRowMapper(Class<T> mappedClass, boolean checkFullyPopulated) {
+		super(mappedClass, checkFullyPopulated);
+	}
+
+
+	/**
+	 * Extract the values for all columns in the current row, using the
+	 * mapping plan for the shape of the given {@code ResultSet}.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T mapRow(ResultSet rs, int rowNumber) throws SQLException {
+		if (this.customBeanWrapper) {
+			return super.mapRow(rs, rowNumber);
+		}
+		MappingPlan plan = getMappingPlan(rs, rowNumber);
+		if (!plan.fullyPopulated && isCheckFullyPopulated()) {
+			throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain all fields " +
+					"necessary to populate object of class [" + plan.mappedClass.getName() + "]: " +
+					getMappedProperties());
+		}
+		return (T) plan.mapColumns(rs);
+	}
+
+	private MappingPlan getMappingPlan(ResultSet rs, int rowNumber) throws SQLException {
+		CurrentMappingPlan current = this.currentMappingPlan;
+		if (rowNumber > 0 && current != null && current.resultSet.get() == rs) {
+			return current.plan;
+		}
+		ResultSetMetaData rsmd = rs.getMetaData();
+		int columnCount = rsmd.getColumnCount();
+		String[] columns = new String[columnCount];
+		for (int index = 1; index <= columnCount; index++) {
+			columns[index - 1] = JdbcUtils.lookupColumnName(rsmd, index);
+		}
+		List<String> key = Arrays.asList(columns);
+		MappingPlan plan = this.mappingPlans.get(key);
+		if (plan == null) {
+			plan = createMappingPlan(columns);
+			if (this.mappingPlans.size() >= MAX_MAPPING_PLANS) {
+				this.mappingPlans.clear();
+			}
+			MappingPlan existing = this.mappingPlans.putIfAbsent(key, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		this.currentMappingPlan = new CurrentMappingPlan(rs, plan);
+		return plan;
+	}
+
+	private MappingPlan createMappingPlan(String[] columnNames) {
+		Class<T> mappedClass = getMappedClass();
+		Assert.state(mappedClass != null, "Mapped class was not specified");
+		Constructor<T> ctor = getMappingConstructor(mappedClass);
+		String[] paramNames = getParameterNames(ctor);
+
+		Map<String, Integer> columnIndexes = new HashMap<>();
+		String[] fields = new String[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			fields[i] = lowerCaseName(StringUtils.delete(columnNames[i], " "));
+			columnIndexes.putIfAbsent(fields[i], i + 1);
+		}
+
+		List<Column> columns = new ArrayList<>(columnNames.length);
+		Set<Integer> boundColumns = new HashSet<>();
+		Set<String> populatedProperties = new HashSet<>();
+		Set<String> mappedProperties = getMappedProperties();
+		for (int i = 0; i < paramNames.length; i++) {
+			String name = paramNames[i];
+			Integer index = columnIndexes.get(lowerCaseName(name));
+			if (index == null) {
+				index = columnIndexes.get(underscoreName(name));
+			}
+			if (index == null) {
+				throw new InvalidDataAccessApiUsageException("Given ResultSet does not contain a column " +
+						"for constructor parameter '" + name + "' of class [" + mappedClass.getName() + "]");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Mapping column '" + columnNames[index - 1] + "' to constructor parameter '" +
+						name + "' of type '" + ClassUtils.getQualifiedName(ctor.getParameterTypes()[i]) + "'");
+			}
+			columns.add(new Column(index, name, new MethodParameter(ctor, i), null, getResultSetGetter(
+					ctor.getParameterTypes()[i])));
+			boundColumns.add(index);
+			if (mappedProperties.contains(name)) {
+				populatedProperties.add(name);
+			}
+		}
+		int constructorColumnCount = columns.size();
+
+		for (int i = 0; i < columnNames.length; i++) {
+			int index = i + 1;
+			if (boundColumns.contains(index)) {
+				continue;
+			}
+			PropertyDescriptor pd = getMappedField(fields[i]);
+			if (pd != null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Mapping column '" + columnNames[i] + "' to property '" + pd.getName() +
+							"' of type '" + ClassUtils.getQualifiedName(pd.getPropertyType()) + "'");
+				}
+				columns.add(new Column(index, pd.getName(), BeanUtils.getWriteMethodParameter(pd), pd,
+						getResultSetGetter(pd.getPropertyType())));
+				populatedProperties.add(pd.getName());
+			}
+			else if (logger.isDebugEnabled()) {
+				logger.debug("No property found for column '" + columnNames[i] + "' mapped to field '" +
+						fields[i] + "'");
+			}
+		}
+
+		Column[] columnArray = columns.toArray(new Column[0]);
+		Class<?> planClass = (isCompilable(mappedClass, ctor, columnArray) ?
+				getMappingPlanClass(mappedClass, ctor, columnArray, constructorColumnCount) :
+				ReflectiveMappingPlan.class);
+		MappingPlan plan = BeanUtils.instantiateClass(planClass, MappingPlan.class);
+		plan.initialize(this, mappedClass, ctor, columnArray, constructorColumnCount,
+				populatedProperties.equals(mappedProperties));
+		return plan;
+	}
+
+	/**
+	 * Determine the constructor to use for the given mapped class: the
+	 * default constructor, if any, or the primary or single constructor
+	 * whose parameters are to be bound to columns.
+	 */
+	@SuppressWarnings("unchecked")
+	private Constructor<T> getMappingConstructor(Class<T> mappedClass) {
+		Constructor<T> ctor = BeanUtils.findPrimaryConstructor(mappedClass);
+		if (ctor != null) {
+			return ctor;
+		}
+		Constructor<?>[] ctors = mappedClass.getConstructors();
+		if (ctors.length == 1) {
+			return (Constructor<T>) ctors[0];
+		}
+		try {
+			return mappedClass.getDeclaredConstructor();
+		}
+		catch (NoSuchMethodException ex) {
+			ctors = mappedClass.getDeclaredConstructors();
+			if (ctors.length == 1) {
+				return (Constructor<T>) ctors[0];
+			}
+			throw new InvalidDataAccessApiUsageException("No default or unique constructor found " +
+					"for class [" + mappedClass.getName() + "]");
+		}
+	}
+
+	private String[] getParameterNames(Constructor<?> ctor) {
+		if (ctor.getParameterCount() == 0) {
+			return new String[0];
+		}
+		ConstructorProperties cp = ctor.getAnnotation(ConstructorProperties.class);
+		String[] paramNames = (cp != null ? cp.value() : this.parameterNameDiscoverer.getParameterNames(ctor));
+		if (paramNames == null || paramNames.length != ctor.getParameterCount()) {
+			throw new InvalidDataAccessApiUsageException("Cannot resolve parameter names for constructor " +
+					ctor + ": compile with '-parameters' or declare @ConstructorProperties");
+		}
+		return paramNames;
+	}
+
+	@Nullable
+	private String getResultSetGetter(Class<?> type) {
+		return (this.customColumnValues ? null : resultSetGetters.get(type));
+	}
+
+	private boolean isOverridden(String methodName, Class<?>... paramTypes) {
+		Method method = ReflectionUtils.findMethod(getClass(), methodName, paramTypes);
+		return (method != null && method.getDeclaringClass() != BeanPropertyRowMapper.class);
+	}
+
+
+	// Compilation of mapping plans
+
+	private boolean isCompilable(Class<?> mappedClass, Constructor<?> ctor, Column[] columns) {
+		if (!isPublic(mappedClass) || mappedClass.isInterface() || Modifier.isAbstract(mappedClass.getModifiers()) ||
+				!Modifier.isPublic(ctor.getModifiers())) {
+			return false;
+		}
+		for (Column column : columns) {
+			if (!isPublic(column.type) ||
+					(column.writeMethod != null && !Modifier.isPublic(column.writeMethod.getModifiers()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isPublic(Class<?> type) {
+		Class<?> candidate = type;
+		while (candidate.isArray()) {
+			candidate = candidate.getComponentType();
+		}
+		return (candidate.isPrimitive() || Modifier.isPublic(candidate.getModifiers()));
+	}
+
+	/**
+	 * Obtain the plan class for the given mapped class and column layout,
+	 * compiling it on first access.
+	 */
+	private Class<?> getMappingPlanClass(
+			Class<?> mappedClass, Constructor<?> ctor, Column[] columns, int constructorColumnCount) {
+
+		MappingPlanKey key = new MappingPlanKey(mappedClass, ctor, columns);
+		Class<?> planClass = mappingPlanClassCache.get(key);
+		if (planClass == null) {
+			planClass = compileMappingPlan(mappedClass, ctor, columns, constructorColumnCount);
+			Class<?> existing = mappingPlanClassCache.putIfAbsent(key, planClass);
+			if (existing != null) {
+				planClass = existing;
+			}
+		}
+		return planClass;
+	}
+
+	private Class<?> compileMappingPlan(
+			Class<?> mappedClass, Constructor<?> ctor, Column[] columns, int constructorColumnCount) {
+
+		String className = mappedClass.getName() + "$$SpringRowMapper$$" + generatedClassCount.getAndIncrement();
+		try {
+			byte[] bytes = generateMappingPlanClass(className, mappedClass, ctor, columns, constructorColumnCount);
+			Class<?> planClass = getMappingPlanClassLoader(mappedClass).defineClass(className, bytes);
+			if (MappingPlan.class.isAssignableFrom(planClass)) {
+				return planClass;
+			}
+			// Different copy of spring-jdbc visible from the mapped class
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to compile row mapping plan for class [" + mappedClass.getName() +
+						"] - falling back to reflective mapping", ex);
+			}
+		}
+		return ReflectiveMappingPlan.class;
+	}
+
+	private static MappingPlanClassLoader getMappingPlanClassLoader(Class<?> mappedClass) {
+		ClassLoader parent = mappedClass.getClassLoader();
+		if (parent == null) {
+			parent = CompiledBeanPropertyRowMapper.class.getClassLoader();
+		}
+		return mappingPlanClassLoaders.computeIfAbsent(parent, MappingPlanClassLoader::new);
+	}
+
+	private static byte[] generateMappingPlanClass(String className, Class<?> mappedClass,
+			Constructor<?> ctor, Column[] columns, int constructorColumnCount) throws NoSuchMethodException {
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				// Branches only ever merge null with a reference of the same type
+				return "java/lang/Object";
+			}
+		};
+		String internalName = className.replace('.', '/');
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+				internalName, null, MAPPING_PLAN_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, MAPPING_PLAN_NAME, "<init>", "()V", false);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(Opcodes.ACC_PROTECTED, "mapColumns",
+				"(L" + RESULT_SET_NAME + ";)Ljava/lang/Object;", null, new String[] {"java/sql/SQLException"});
+		mv.visitCode();
+		String mappedClassName = Type.getInternalName(mappedClass);
+		int nextLocal = 2;
+
+		// Constructor arguments, evaluated into locals first
+		int[] argLocals = new int[constructorColumnCount];
+		for (int slot = 0; slot < constructorColumnCount; slot++) {
+			nextLocal = generateColumnValue(mv, columns[slot], slot, nextLocal);
+			Type argType = Type.getType(columns[slot].type);
+			argLocals[slot] = nextLocal;
+			mv.visitVarInsn(argType.getOpcode(Opcodes.ISTORE), nextLocal);
+			nextLocal += argType.getSize();
+		}
+		mv.visitTypeInsn(Opcodes.NEW, mappedClassName);
+		mv.visitInsn(Opcodes.DUP);
+		for (int slot = 0; slot < constructorColumnCount; slot++) {
+			mv.visitVarInsn(Type.getType(columns[slot].type).getOpcode(Opcodes.ILOAD), argLocals[slot]);
+		}
+		mv.visitMethodInsn(Opcodes.INVOKESPECIAL, mappedClassName, "<init>",
+				Type.getConstructorDescriptor(ctor), false);
+		int objectLocal = nextLocal++;
+		mv.visitVarInsn(Opcodes.ASTORE, objectLocal);
+
+		// Property values, applied to setters in column order
+		for (int slot = constructorColumnCount; slot < columns.length; slot++) {
+			Method writeMethod = columns[slot].writeMethod;
+			Assert.state(writeMethod != null, "No write method");
+			if (columns[slot].type.isPrimitive()) {
+				nextLocal = generatePrimitivePropertyValue(
+						mv, columns[slot], slot, mappedClassName, writeMethod, objectLocal, nextLocal);
+			}
+			else {
+				mv.visitVarInsn(Opcodes.ALOAD, objectLocal);
+				nextLocal = generateColumnValue(mv, columns[slot], slot, nextLocal);
+				generateSetterInvocation(mv, mappedClassName, writeMethod);
+			}
+		}
+
+		mv.visitVarInsn(Opcodes.ALOAD, objectLocal);
+		mv.visitInsn(Opcodes.ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Generate the code applying the value of the given column to a primitive
+	 * property, leaving the property at its initial value (i.e. not invoking
+	 * the setter at all) for a SQL NULL value, as BeanPropertyRowMapper does.
+	 * @return the next free local variable index
+	 */
+	private static int generatePrimitivePropertyValue(MethodVisitor mv, Column column, int slot,
+			String mappedClassName, Method writeMethod, int objectLocal, int nextLocal) throws NoSuchMethodException {
+
+		Class<?> type = column.type;
+		int valueLocal = nextLocal;
+		Label end = new Label();
+		if (column.resultSetGetter == null) {
+			// Object value = getValue(rs, slot); if (value != null) setter(unboxed value)
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			generateInt(mv, slot);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MAPPING_PLAN_NAME, "getValue",
+					"(L" + RESULT_SET_NAME + ";I)Ljava/lang/Object;", false);
+			mv.visitVarInsn(Opcodes.ASTORE, valueLocal);
+			mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+			mv.visitJumpInsn(Opcodes.IFNULL, end);
+			mv.visitVarInsn(Opcodes.ALOAD, objectLocal);
+			mv.visitVarInsn(Opcodes.ALOAD, valueLocal);
+			generateUnboxing(mv, type);
+			generateSetterInvocation(mv, mappedClassName, writeMethod);
+			mv.visitLabel(end);
+			return nextLocal + 1;
+		}
+
+		// value = rs.getXxx(index); if (rs.wasNull()) checkNullValue(slot) else setter(value)
+		Method getter = ResultSet.class.getMethod(column.resultSetGetter, int.class);
+		Type primitiveType = Type.getType(type);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		generateInt(mv, column.index);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET_NAME, getter.getName(),
+				Type.getMethodDescriptor(getter), true);
+		mv.visitVarInsn(primitiveType.getOpcode(Opcodes.ISTORE), valueLocal);
+		Label notNull = new Label();
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET_NAME, "wasNull", "()Z", true);
+		mv.visitJumpInsn(Opcodes.IFEQ, notNull);
+		mv.visitVarInsn(Opcodes.ALOAD, 0);
+		generateInt(mv, slot);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MAPPING_PLAN_NAME, "checkNullValue", "(I)V", false);
+		mv.visitJumpInsn(Opcodes.GOTO, end);
+		mv.visitLabel(notNull);
+		mv.visitVarInsn(Opcodes.ALOAD, objectLocal);
+		mv.visitVarInsn(primitiveType.getOpcode(Opcodes.ILOAD), valueLocal);
+		generateSetterInvocation(mv, mappedClassName, writeMethod);
+		mv.visitLabel(end);
+		return nextLocal + primitiveType.getSize();
+	}
+
+	private static void generateSetterInvocation(MethodVisitor mv, String mappedClassName, Method writeMethod) {
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, mappedClassName, writeMethod.getName(),
+				Type.getMethodDescriptor(writeMethod), false);
+		Type returnType = Type.getReturnType(writeMethod);
+		if (returnType.getSize() > 0) {
+			mv.visitInsn(returnType.getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+		}
+	}
+
+	/**
+	 * Generate the code leaving the value of the given column on the stack,
+	 * as an instance of the column's target type. A SQL NULL value for a
+	 * primitive target results in the default value of that type.
+	 * @return the next free local variable index
+	 */
+	private static int generateColumnValue(MethodVisitor mv, Column column, int slot, int nextLocal)
+			throws NoSuchMethodException {
+
+		Class<?> type = column.type;
+		if (column.resultSetGetter == null) {
+			// Generic retrieval and conversion via MappingPlan.getValue
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			generateInt(mv, slot);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MAPPING_PLAN_NAME, "getValue",
+					"(L" + RESULT_SET_NAME + ";I)Ljava/lang/Object;", false);
+			if (type.isPrimitive()) {
+				// value != null ? unboxed value : default value
+				Label notNull = new Label();
+				Label end = new Label();
+				mv.visitInsn(Opcodes.DUP);
+				mv.visitJumpInsn(Opcodes.IFNONNULL, notNull);
+				mv.visitInsn(Opcodes.POP);
+				generateDefaultValue(mv, type);
+				mv.visitJumpInsn(Opcodes.GOTO, end);
+				mv.visitLabel(notNull);
+				generateUnboxing(mv, type);
+				mv.visitLabel(end);
+			}
+			else {
+				mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+			}
+			return nextLocal;
+		}
+
+		Method getter = ResultSet.class.getMethod(column.resultSetGetter, int.class);
+		mv.visitVarInsn(Opcodes.ALOAD, 1);
+		generateInt(mv, column.index);
+		mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET_NAME, getter.getName(),
+				Type.getMethodDescriptor(getter), true);
+		if (type.isPrimitive()) {
+			// if (rs.wasNull()) checkNullValue(slot), keeping the default value from the getter
+			Label notNull = new Label();
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET_NAME, "wasNull", "()Z", true);
+			mv.visitJumpInsn(Opcodes.IFEQ, notNull);
+			mv.visitVarInsn(Opcodes.ALOAD, 0);
+			generateInt(mv, slot);
+			mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, MAPPING_PLAN_NAME, "checkNullValue", "(I)V", false);
+			mv.visitLabel(notNull);
+		}
+		else if (getter.getReturnType().isPrimitive()) {
+			// rs.wasNull() ? null : Wrapper.valueOf(value)
+			Type primitiveType = Type.getType(getter.getReturnType());
+			int valueLocal = nextLocal;
+			mv.visitVarInsn(primitiveType.getOpcode(Opcodes.ISTORE), valueLocal);
+			Label notNull = new Label();
+			Label end = new Label();
+			mv.visitVarInsn(Opcodes.ALOAD, 1);
+			mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET_NAME, "wasNull", "()Z", true);
+			mv.visitJumpInsn(Opcodes.IFEQ, notNull);
+			mv.visitInsn(Opcodes.ACONST_NULL);
+			mv.visitJumpInsn(Opcodes.GOTO, end);
+			mv.visitLabel(notNull);
+			mv.visitVarInsn(primitiveType.getOpcode(Opcodes.ILOAD), valueLocal);
+			mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(type), "valueOf",
+					"(" + primitiveType.getDescriptor() + ")" + Type.getDescriptor(type), false);
+			mv.visitLabel(end);
+			return nextLocal + primitiveType.getSize();
+		}
+		return nextLocal;
+	}
+
+	private static void generateUnboxing(MethodVisitor mv, Class<?> primitiveType) {
+		Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(primitiveType);
+		mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(wrapper));
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(wrapper),
+				primitiveType.getName() + "Value", "()" + Type.getDescriptor(primitiveType), false);
+	}
+
+	private static void generateDefaultValue(MethodVisitor mv, Class<?> primitiveType) {
+		switch (Type.getType(primitiveType).getSort()) {
+			case Type.LONG:
+				mv.visitInsn(Opcodes.LCONST_0);
+				break;
+			case Type.FLOAT:
+				mv.visitInsn(Opcodes.FCONST_0);
+				break;
+			case Type.DOUBLE:
+				mv.visitInsn(Opcodes.DCONST_0);
+				break;
+			default:
+				mv.visitInsn(Opcodes.ICONST_0);
+		}
+	}
+
+	private static void generateInt(MethodVisitor mv, int value) {
+		if (value <= 5) {
+			mv.visitInsn(Opcodes.ICONST_0 + value);
+		}
+		else if (value <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(Opcodes.BIPUSH, value);
+		}
+		else if (value <= Short.MAX_VALUE) {
+			mv.visitIntInsn(Opcodes.SIPUSH, value);
+		}
+		else {
+			mv.visitLdcInsn(value);
+		}
+	}
+
+
+	/**
+	 * Static factory method to create a new {@code CompiledBeanPropertyRowMapper}
+	 * (with the mapped class specified only once).
+	 * @param mappedClass the class that each row should be mapped to
+	 */
+	public static <T> CompiledBeanPropertyRowMapper<T> newInstance(Class<T> mappedClass) {
+		return new CompiledBeanPropertyRowMapper<>(mappedClass);
+	}
+
+
+	/**
+	 * Base class for the mapping of a row to an instance of the mapped class
+	 * according to a plan resolved for a specific result set shape.
+	 * <p>Public for the benefit of generated subclasses only; not intended
+	 * to be used directly.
+	 */
+	public abstract static class MappingPlan {
+
+		@Nullable
+		CompiledBeanPropertyRowMapper<?> mapper;
+
+		@Nullable
+		Column[] columns;
+
+		Class<?> mappedClass = Object.class;
+
+		@Nullable
+		Constructor<?> constructor;
+
+		int constructorColumnCount;
+
+		boolean fullyPopulated;
+
+		protected MappingPlan() {
+		}
+
+		void initialize(CompiledBeanPropertyRowMapper<?> mapper, Class<?> mappedClass, Constructor<?> ctor,
+				Column[] columns, int constructorColumnCount, boolean fullyPopulated) {
+
+			this.mapper = mapper;
+			this.mappedClass = mappedClass;
+			this.constructor = ctor;
+			this.columns = columns;
+			this.constructorColumnCount = constructorColumnCount;
+			this.fullyPopulated = fullyPopulated;
+		}
+
+		/**
+		 * Create an instance of the mapped class from the current row.
+		 * @param rs the ResultSet positioned at the current row
+		 * @return the mapped object
+		 * @throws SQLException in case of extraction failure
+		 */
+		protected abstract Object mapColumns(ResultSet rs) throws SQLException;
+
+		/**
+		 * Retrieve the value of the column in the given slot of the plan,
+		 * converted to the type of the corresponding target.
+		 * <p>A SQL NULL value for a primitive target is passed to
+		 * {@link #checkNullValue} and returned as {@code null}, leaving it up
+		 * to the caller to use the default value for a constructor argument
+		 * or to not invoke the setter of a property at all.
+		 * @param rs the ResultSet positioned at the current row
+		 * @param slot the slot of the column in the plan
+		 * @return the value, or {@code null} for a SQL NULL value
+		 * @throws SQLException in case of extraction failure
+		 */
+		@Nullable
+		protected final Object getValue(ResultSet rs, int slot) throws SQLException {
+			Assert.state(this.mapper != null && this.columns != null, "Not initialized");
+			Column column = this.columns[slot];
+			Object value = (column.propertyDescriptor != null ?
+					this.mapper.getColumnValue(rs, column.index, column.propertyDescriptor) :
+					this.mapper.getColumnValue(rs, column.index, column.type));
+			if (value != null && !ClassUtils.isAssignableValue(column.type, value)) {
+				ConversionService cs = this.mapper.getConversionService();
+				if (cs == null) {
+					throw new TypeMismatchException(value, column.type);
+				}
+				try {
+					value = cs.convert(value, TypeDescriptor.forObject(value), column.typeDescriptor);
+				}
+				catch (ConversionException ex) {
+					throw new TypeMismatchException(value, column.type, ex);
+				}
+			}
+			if (value == null && column.type.isPrimitive()) {
+				checkNullValue(slot);
+			}
+			return value;
+		}
+
+		/**
+		 * Handle a null value for the primitive target in the given slot
+		 * of the plan, leaving the target at its default or initial value if
+		 * null values are to be defaulted and throwing a {@link TypeMismatchException}
+		 * otherwise.
+		 * @param slot the slot of the column in the plan
+		 * @see BeanPropertyRowMapper#setPrimitivesDefaultedForNullValue
+		 */
+		protected final void checkNullValue(int slot) {
+			Assert.state(this.mapper != null && this.columns != null, "Not initialized");
+			if (!this.mapper.isPrimitivesDefaultedForNullValue()) {
+				Column column = this.columns[slot];
+				throw new TypeMismatchException(
+						new PropertyChangeEvent(this.mapper, column.name, null, null), column.type);
+			}
+		}
+	}
+
+
+	/**
+	 * Mapping plan that invokes the constructor and setters reflectively,
+	 * for mapped classes that are not accessible to generated code.
+	 */
+	private static class ReflectiveMappingPlan extends MappingPlan {
+
+		@Override
+		protected Object mapColumns(ResultSet rs) throws SQLException {
+			Assert.state(this.constructor != null && this.columns != null, "Not initialized");
+			Object[] args = new Object[this.constructorColumnCount];
+			for (int slot = 0; slot < args.length; slot++) {
+				Object value = getValue(rs, slot);
+				args[slot] = (value != null ? value : this.columns[slot].defaultValue);
+			}
+			Object mappedObject = BeanUtils.instantiateClass(this.constructor, args);
+			for (int slot = args.length; slot < this.columns.length; slot++) {
+				Column column = this.columns[slot];
+				Assert.state(column.writeMethod != null, "No write method");
+				Object value = getValue(rs, slot);
+				if (value != null || !column.type.isPrimitive()) {
+					ReflectionUtils.invokeMethod(column.writeMethod, mappedObject, value);
+				}
+			}
+			return mappedObject;
+		}
+	}
+
+
+	/**
+	 * A column bound to a constructor parameter or bean property.
+	 */
+	private static final class Column {
+
+		final int index;
+
+		final String name;
+
+		final Class<?> type;
+
+		final TypeDescriptor typeDescriptor;
+
+		@Nullable
+		final PropertyDescriptor propertyDescriptor;
+
+		@Nullable
+		final Method writeMethod;
+
+		@Nullable
+		final String resultSetGetter;
+
+		@Nullable
+		final Object defaultValue;
+
+		Column(int index, String name, MethodParameter target, @Nullable PropertyDescriptor pd,
+				@Nullable String resultSetGetter) {
+
+			this.index = index;
+			this.name = name;
+			this.type = target.getParameterType();
+			this.typeDescriptor = new TypeDescriptor(target);
+			this.propertyDescriptor = pd;
+			this.writeMethod = (pd != null ? pd.getWriteMethod() : null);
+			this.resultSetGetter = resultSetGetter;
+			this.defaultValue = (this.type.isPrimitive() ? Array.get(Array.newInstance(this.type, 1), 0) : null);
+			if (this.writeMethod != null) {
+				ReflectionUtils.makeAccessible(this.writeMethod);
+			}
+		}
+	}
+
+
+	/**
+	 * Cache key for a plan class: the mapped class (and therefore its
+	 * ClassLoader) along with everything that the generated code depends on,
+	 * i.e. the constructor and, per column, the column index, the
+	 * {@code ResultSet} getter, the target type and the setter.
+	 */
+	private static final class MappingPlanKey {
+
+		private final Class<?> mappedClass;
+
+		private final String layout;
+
+		MappingPlanKey(Class<?> mappedClass, Constructor<?> ctor, Column[] columns) {
+			this.mappedClass = mappedClass;
+			StringBuilder layout = new StringBuilder(Type.getConstructorDescriptor(ctor));
+			for (Column column : columns) {
+				layout.append(' ').append(column.index).append(':').append(column.resultSetGetter);
+				layout.append(':').append(Type.getDescriptor(column.type));
+				if (column.writeMethod != null) {
+					layout.append(':').append(column.writeMethod.getName());
+					layout.append(Type.getMethodDescriptor(column.writeMethod));
+				}
+			}
+			this.layout = layout.toString();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof MappingPlanKey)) {
+				return false;
+			}
+			MappingPlanKey otherKey = (MappingPlanKey) other;
+			return (this.mappedClass == otherKey.mappedClass && this.layout.equals(otherKey.layout));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.mappedClass.hashCode() * 31 + this.layout.hashCode());
+		}
+	}
+
+
+	/**
+	 * The mapping plan for the most recently seen {@code ResultSet},
+	 * avoiding meta-data lookups for subsequent rows.
+	 */
+	private static final class CurrentMappingPlan {
+
+		final WeakReference<ResultSet> resultSet;
+
+		final MappingPlan plan;
+
+		CurrentMappingPlan(ResultSet resultSet, MappingPlan plan) {
+			this.resultSet = new WeakReference<>(resultSet);
+			this.plan = plan;
+		}
+	}
+
+
+	/**
+	 * ClassLoader for generated mapping plans, delegating to the loader of the
+	 * mapped class and resolving our own types from the loader of this class.
+	 */
+	private static final class MappingPlanClassLoader extends ClassLoader {
+
+		MappingPlanClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			return CompiledBeanPropertyRowMapper.class.getClassLoader().loadClass(name);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,10 +18,12 @@ package org.springframework.jdbc.core.namedparam;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -38,11 +40,13 @@ import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.SingleColumnRowMapper;
 import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.core.SqlRowSetResultSetExtractor;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
  * Template class with a basic set of JDBC operations, allowing the use
@@ -77,14 +81,12 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
 
 	/** Cache of original SQL String to ParsedSql representation. */
-	@SuppressWarnings("serial")
-	private final Map<String, ParsedSql> parsedSqlCache =
-			new LinkedHashMap<String, ParsedSql>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<String, ParsedSql> eldest) {
-					return size() > getCacheLimit();
-				}
-			};
+	private volatile ConcurrentLruCache<String, ParsedSql> parsedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, NamedParameterUtils::parseSqlStatement);
+
+	/** Cache of expanded SQL Strings per ParsedSql and shape of collection values. */
+	private volatile ConcurrentLruCache<ExpandedSqlKey, String> expandedSqlCache =
+			new ConcurrentLruCache<>(DEFAULT_CACHE_LIMIT, ExpandedSqlKey::substituteNamedParameters);
 
 
 	/**
@@ -131,10 +133,17 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 
 	/**
 	 * Specify the maximum number of entries for this template's SQL cache.
-	 * Default is 256.
+	 * Default is 256. A limit of 0 or less turns caching off.
+	 * <p>The limit applies to the parsed SQL statements as well as to the SQL
+	 * statements expanded for specific sizes of collection parameter values.
+	 * Setting the limit discards the currently cached statements.
 	 */
 	public void setCacheLimit(int cacheLimit) {
 		this.cacheLimit = cacheLimit;
+		this.parsedSqlCache = new ConcurrentLruCache<>(
+				Math.max(cacheLimit, 0), NamedParameterUtils::parseSqlStatement);
+		this.expandedSqlCache = new ConcurrentLruCache<>(
+				Math.max(cacheLimit, 0), ExpandedSqlKey::substituteNamedParameters);
 	}
 
 	/**
@@ -144,6 +153,26 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return this.cacheLimit;
 	}
 
+	/**
+	 * Return the number of lookups in this template's SQL cache that found
+	 * an already parsed SQL statement.
+	 * @since 5.2
+	 * @see #getParsedSql(String)
+	 */
+	public long getCacheHitCount() {
+		return this.parsedSqlCache.hitCount();
+	}
+
+	/**
+	 * Return the number of lookups in this template's SQL cache that had
+	 * to parse the SQL statement.
+	 * @since 5.2
+	 * @see #getParsedSql(String)
+	 */
+	public long getCacheMissCount() {
+		return this.parsedSqlCache.missCount();
+	}
+
 
 	@Override
 	@Nullable
@@ -227,6 +256,20 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 		return query(sql, EmptySqlParameterSource.INSTANCE, rowMapper);
 	}
 
+	@Override
+	public <T> Stream<T> queryForStream(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return getJdbcOperations().queryForStream(getPreparedStatementCreator(sql, paramSource), rowMapper);
+	}
+
+	@Override
+	public <T> Stream<T> queryForStream(String sql, Map<String, ?> paramMap, RowMapper<T> rowMapper)
+			throws DataAccessException {
+
+		return queryForStream(sql, new MapSqlParameterSource(paramMap), rowMapper);
+	}
+
 	@Override
 	@Nullable
 	public <T> T queryForObject(String sql, SqlParameterSource paramSource, RowMapper<T> rowMapper)
@@ -423,19 +466,14 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	 * <p>The default implementation uses an LRU cache with an upper limit of 256 entries.
 	 * @param sql the original SQL statement
 	 * @return a representation of the parsed SQL statement
+	 * @see #setCacheLimit
 	 */
 	protected ParsedSql getParsedSql(String sql) {
-		if (getCacheLimit() <= 0) {
+		int cacheLimit = getCacheLimit();
+		if (cacheLimit <= 0) {
 			return NamedParameterUtils.parseSqlStatement(sql);
 		}
-		synchronized (this.parsedSqlCache) {
-			ParsedSql parsedSql = this.parsedSqlCache.get(sql);
-			if (parsedSql == null) {
-				parsedSql = NamedParameterUtils.parseSqlStatement(sql);
-				this.parsedSqlCache.put(sql, parsedSql);
-			}
-			return parsedSql;
-		}
+		return this.parsedSqlCache.get(sql);
 	}
 
 	/**
@@ -450,9 +488,110 @@ public class NamedParameterJdbcTemplate implements NamedParameterJdbcOperations
 	protected PreparedStatementCreatorFactory getPreparedStatementCreatorFactory(
 			ParsedSql parsedSql, SqlParameterSource paramSource) {
 
-		String sqlToUse = NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		String sqlToUse = substituteNamedParameters(parsedSql, paramSource);
 		List<SqlParameter> declaredParameters = NamedParameterUtils.buildSqlParameterList(parsedSql, paramSource);
 		return new PreparedStatementCreatorFactory(sqlToUse, declaredParameters);
 	}
 
+	/**
+	 * Substitute the named parameters in the given SQL statement, reusing
+	 * a previously expanded statement for the same sizes of collection values.
+	 * @see NamedParameterUtils#substituteNamedParameters(ParsedSql, SqlParameterSource)
+	 */
+	private String substituteNamedParameters(ParsedSql parsedSql, SqlParameterSource paramSource) {
+		int cacheLimit = getCacheLimit();
+		if (cacheLimit <= 0 || parsedSql.getParameterNames().isEmpty()) {
+			return NamedParameterUtils.substituteNamedParameters(parsedSql, paramSource);
+		}
+		return this.expandedSqlCache.get(new ExpandedSqlKey(parsedSql, paramSource));
+	}
+
+
+	/**
+	 * Cache key for an expanded SQL statement: the parsed SQL statement
+	 * along with the number of elements of each collection parameter value
+	 * (and the length of each array element within such a collection).
+	 */
+	private static final class ExpandedSqlKey {
+
+		private final ParsedSql parsedSql;
+
+		private final int[] shape;
+
+		private final int hash;
+
+		ExpandedSqlKey(ParsedSql parsedSql, SqlParameterSource paramSource) {
+			List<String> paramNames = parsedSql.getParameterNames();
+			int[] shape = new int[paramNames.size()];
+			int length = 0;
+			for (String paramName : paramNames) {
+				Object value = (paramSource.hasValue(paramName) ? paramSource.getValue(paramName) : null);
+				if (value instanceof SqlParameterValue) {
+					value = ((SqlParameterValue) value).getValue();
+				}
+				shape = ensureCapacity(shape, length + 1);
+				if (value instanceof Iterable) {
+					int sizeIndex = length++;
+					int size = 0;
+					for (Object element : (Iterable<?>) value) {
+						shape = ensureCapacity(shape, length + 1);
+						shape[length++] = (element instanceof Object[] ? ((Object[]) element).length : -1);
+						size++;
+					}
+					shape[sizeIndex] = size;
+				}
+				else {
+					shape[length++] = -1;
+				}
+			}
+			this.parsedSql = parsedSql;
+			this.shape = (length == shape.length ? shape : Arrays.copyOf(shape, length));
+			this.hash = System.identityHashCode(parsedSql) * 31 + Arrays.hashCode(this.shape);
+		}
+
+		private static int[] ensureCapacity(int[] shape, int capacity) {
+			return (capacity <= shape.length ? shape : Arrays.copyOf(shape, Math.max(capacity, shape.length * 2)));
+		}
+
+		/**
+		 * Expand the SQL statement against placeholder parameter values of this shape.
+		 */
+		String substituteNamedParameters() {
+			MapSqlParameterSource paramSource = new MapSqlParameterSource();
+			int index = 0;
+			for (String paramName : this.parsedSql.getParameterNames()) {
+				int size = this.shape[index++];
+				if (size < 0) {
+					paramSource.addValue(paramName, null);
+				}
+				else {
+					List<Object> elements = new ArrayList<>(size);
+					for (int i = 0; i < size; i++) {
+						int length = this.shape[index++];
+						elements.add(length < 0 ? paramName : new Object[length]);
+					}
+					paramSource.addValue(paramName, elements);
+				}
+			}
+			return NamedParameterUtils.substituteNamedParameters(this.parsedSql, paramSource);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ExpandedSqlKey)) {
+				return false;
+			}
+			ExpandedSqlKey otherKey = (ExpandedSqlKey) other;
+			return (this.parsedSql == otherKey.parsedSql && Arrays.equals(this.shape, otherKey.shape));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+	}
+
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.test.ConcretePerson;
+import org.springframework.jdbc.core.test.ConstructorPerson;
+import org.springframework.jdbc.core.test.ExtendedPerson;
+import org.springframework.jdbc.core.test.Person;
+import org.springframework.jdbc.core.test.SpacePerson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link CompiledBeanPropertyRowMapper}.
+ */
+public class CompiledBeanPropertyRowMapperTests extends AbstractRowMapperTests {
+
+	@Test
+	public void staticQueryWithRowMapper() throws Exception {
+		Mock mock = new Mock();
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new CompiledBeanPropertyRowMapper<>(Person.class));
+		assertThat(result.size()).isEqualTo(1);
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingWithInheritance() throws Exception {
+		Mock mock = new Mock();
+		List<ConcretePerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new CompiledBeanPropertyRowMapper<>(ConcretePerson.class, true));
+		assertThat(result.size()).isEqualTo(1);
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingWithUnpopulatedFieldsNotAccepted() throws Exception {
+		Mock mock = new Mock();
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class).isThrownBy(() ->
+				mock.getJdbcTemplate().query("select name, age, birth_date, balance from people",
+						new CompiledBeanPropertyRowMapper<>(ExtendedPerson.class, true)));
+	}
+
+	@Test
+	public void mappingNullValue() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		assertThatExceptionOfType(TypeMismatchException.class).isThrownBy(() ->
+				mock.getJdbcTemplate().query("select name, null as age, birth_date, balance from people",
+						new CompiledBeanPropertyRowMapper<>(Person.class)));
+	}
+
+	@Test
+	public void mappingNullValueWithPrimitivesDefaulted() throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		CompiledBeanPropertyRowMapper<Person> mapper = new CompiledBeanPropertyRowMapper<>(Person.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+		assertThat(result.size()).isEqualTo(1);
+		assertThat(result.get(0).getName()).isEqualTo("Bubba");
+		assertThat(result.get(0).getAge()).isEqualTo(0L);
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingNullValueWithPrimitivesDefaultedKeepsInitialValue() throws Exception {
+		CompiledBeanPropertyRowMapper<InitializedAgePerson> mapper =
+				new CompiledBeanPropertyRowMapper<>(InitializedAgePerson.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		assertThat(queryAgeWithNullValue(mapper).getAge()).isEqualTo(-1L);
+		assertThat(getCurrentMappingPlan(mapper).getClass().getName()).contains("$$SpringRowMapper$$");
+	}
+
+	@Test
+	public void mappingNullValueWithPrimitivesDefaultedAndCustomColumnValueKeepsInitialValue() throws Exception {
+		CompiledBeanPropertyRowMapper<InitializedAgePerson> mapper =
+				new CompiledBeanPropertyRowMapper<InitializedAgePerson>(InitializedAgePerson.class) {
+					@Override
+					protected Object getColumnValue(ResultSet rs, int index, Class<?> paramType) throws SQLException {
+						return super.getColumnValue(rs, index, paramType);
+					}
+				};
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		assertThat(queryAgeWithNullValue(mapper).getAge()).isEqualTo(-1L);
+	}
+
+	@Test
+	public void mappingNullValueWithPrimitivesDefaultedAndReflectivePlanKeepsInitialValue() throws Exception {
+		CompiledBeanPropertyRowMapper<NonPublicInitializedAgePerson> mapper =
+				new CompiledBeanPropertyRowMapper<>(NonPublicInitializedAgePerson.class);
+		mapper.setPrimitivesDefaultedForNullValue(true);
+		assertThat(queryAgeWithNullValue(mapper).getAge()).isEqualTo(-1L);
+		assertThat(getCurrentMappingPlan(mapper).getClass().getName()).doesNotContain("$$SpringRowMapper$$");
+	}
+
+	private static <T> T queryAgeWithNullValue(CompiledBeanPropertyRowMapper<T> mapper) throws Exception {
+		Mock mock = new Mock(MockType.TWO);
+		List<T> result = mock.getJdbcTemplate().query(
+				"select name, null as age, birth_date, balance from people", mapper);
+		assertThat(result.size()).isEqualTo(1);
+		mock.verifyClosed();
+		return result.get(0);
+	}
+
+	@Test
+	public void queryWithSpaceInColumnNameAndLocalDateTime() throws Exception {
+		Mock mock = new Mock(MockType.THREE);
+		List<SpacePerson> result = mock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people",
+				new CompiledBeanPropertyRowMapper<>(SpacePerson.class));
+		assertThat(result.size()).isEqualTo(1);
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingWithConstructorBinding() throws Exception {
+		Mock mock = new Mock();
+		List<ConstructorPerson> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new CompiledBeanPropertyRowMapper<>(ConstructorPerson.class));
+		assertThat(result.size()).isEqualTo(1);
+		ConstructorPerson person = result.get(0);
+		assertThat(person.getName()).isEqualTo("Bubba");
+		assertThat(person.getAge()).isEqualTo(22L);
+		assertThat(person.getBirthDate()).usingComparator(Date::compareTo).isEqualTo(new Date(1221222L));
+		assertThat(person.getBalance()).isEqualTo(new BigDecimal("1234.56"));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingWithCustomBeanWrapper() throws Exception {
+		Mock mock = new Mock();
+		List<Person> result = mock.getJdbcTemplate().query(
+				"select name, age, birth_date, balance from people",
+				new CompiledBeanPropertyRowMapper<Person>(Person.class) {
+					@Override
+					protected void initBeanWrapper(BeanWrapper bw) {
+						super.initBeanWrapper(bw);
+						bw.setAutoGrowNestedPaths(true);
+					}
+				});
+		assertThat(result.size()).isEqualTo(1);
+		verifyPerson(result.get(0));
+		mock.verifyClosed();
+	}
+
+	@Test
+	public void mappingPlanIsReusedForSameColumns() throws Exception {
+		CompiledBeanPropertyRowMapper<Person> mapper = new CompiledBeanPropertyRowMapper<>(Person.class);
+		Mock mock = new Mock();
+		verifyPerson(mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper).get(0));
+		mock = new Mock();
+		verifyPerson(mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper).get(0));
+		Mock spaceMock = new Mock(MockType.THREE);
+		List<Person> result = spaceMock.getJdbcTemplate().query(
+				"select last_name as \"Last Name\", age, birth_date, balance from people", mapper);
+		assertThat(result.get(0).getName()).isNull();
+		assertThat(result.get(0).getAge()).isEqualTo(22L);
+	}
+
+	@Test
+	public void mappingPlanClassIsSharedAcrossMappers() throws Exception {
+		CompiledBeanPropertyRowMapper<Person> mapper1 = new CompiledBeanPropertyRowMapper<>(Person.class);
+		CompiledBeanPropertyRowMapper<Person> mapper2 = new CompiledBeanPropertyRowMapper<>(Person.class);
+		Mock mock = new Mock();
+		verifyPerson(mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper1).get(0));
+		mock = new Mock();
+		verifyPerson(mock.getJdbcTemplate().query("select name, age, birth_date, balance from people", mapper2).get(0));
+		Object plan1 = getCurrentMappingPlan(mapper1);
+		Object plan2 = getCurrentMappingPlan(mapper2);
+		assertThat(plan1).isNotSameAs(plan2);
+		assertThat(plan1.getClass()).isSameAs(plan2.getClass());
+		assertThat(plan1.getClass().getName()).contains("$$SpringRowMapper$$");
+	}
+
+	private static Object getCurrentMappingPlan(CompiledBeanPropertyRowMapper<?> mapper) {
+		return new DirectFieldAccessor(mapper).getPropertyValue("currentMappingPlan.plan");
+	}
+
+
+	public static class InitializedAgePerson {
+
+		private long age = -1;
+
+		public long getAge() {
+			return this.age;
+		}
+
+		public void setAge(long age) {
+			this.age = age;
+		}
+	}
+
+
+	static class NonPublicInitializedAgePerson {
+
+		private long age = -1;
+
+		public long getAge() {
+			return this.age;
+		}
+
+		public void setAge(long age) {
+			this.age = age;
+		}
+	}
+
+}
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +50,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -214,6 +217,48 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testParsedSqlCache() throws SQLException {
+		params.put("perfId", 1);
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+
+		assertThat(namedParameterTemplate.getCacheMissCount()).isEqualTo(1);
+		assertThat(namedParameterTemplate.getCacheHitCount()).isEqualTo(1);
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+	}
+
+	@Test
+	public void testParsedSqlCacheWithCollectionsOfDifferentSizes() throws SQLException {
+		params.put("id", 1);
+		params.put("typeIds", Arrays.asList(1, 2, 3));
+		namedParameterTemplate.update(UPDATE_ARRAY_PARAMETERS, params);
+		params.put("typeIds", Arrays.asList(4, 5));
+		namedParameterTemplate.update(UPDATE_ARRAY_PARAMETERS, params);
+		params.put("typeIds", Arrays.asList(6, 7, 8));
+		namedParameterTemplate.update(UPDATE_ARRAY_PARAMETERS, params);
+
+		verify(connection, times(2)).prepareStatement(UPDATE_ARRAY_PARAMETERS_PARSED);
+		verify(connection).prepareStatement("update customer set type = array[?, ?] where id = ?");
+		verify(preparedStatement).setObject(1, 6);
+		verify(preparedStatement).setObject(2, 7);
+		verify(preparedStatement).setObject(3, 8);
+	}
+
+	@Test
+	public void testParsedSqlCacheDisabled() throws SQLException {
+		namedParameterTemplate.setCacheLimit(0);
+		params.put("perfId", 1);
+		params.put("priceId", 1);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+		namedParameterTemplate.update(UPDATE_NAMED_PARAMETERS, params);
+
+		assertThat(namedParameterTemplate.getCacheMissCount()).isEqualTo(0);
+		assertThat(namedParameterTemplate.getCacheHitCount()).isEqualTo(0);
+		verify(connection, times(2)).prepareStatement(UPDATE_NAMED_PARAMETERS_PARSED);
+	}
+
 	@Test
 	public void testQueryWithResultSetExtractor() throws SQLException {
 		given(resultSet.next()).willReturn(true);
@@ -335,6 +380,36 @@ public class NamedParameterJdbcTemplateTests {
 		verify(connection).close();
 	}
 
+	@Test
+	public void testQueryForStreamWithRowMapper() throws SQLException {
+		given(resultSet.next()).willReturn(true, false);
+		given(resultSet.getInt("id")).willReturn(1);
+		given(resultSet.getString("forename")).willReturn("rod");
+
+		params.put("id", new SqlParameterValue(Types.DECIMAL, 1));
+		params.put("country", "UK");
+		List<Customer> customers;
+		try (Stream<Customer> stream = namedParameterTemplate.queryForStream(SELECT_NAMED_PARAMETERS, params,
+				(rs, rownum) -> {
+					Customer cust = new Customer();
+					cust.setId(rs.getInt(COLUMN_NAMES[0]));
+					cust.setForename(rs.getString(COLUMN_NAMES[1]));
+					return cust;
+				})) {
+			customers = stream.collect(Collectors.toList());
+			verify(preparedStatement, never()).close();
+		}
+		assertThat(customers.size()).isEqualTo(1);
+		assertThat(customers.get(0).getId() == 1).as("Customer id was assigned correctly").isTrue();
+		assertThat(customers.get(0).getForename().equals("rod")).as("Customer forename was assigned correctly").isTrue();
+		verify(connection).prepareStatement(SELECT_NAMED_PARAMETERS_PARSED);
+		verify(preparedStatement).setObject(1, 1, Types.DECIMAL);
+		verify(preparedStatement).setString(2, "UK");
+		verify(resultSet).close();
+		verify(preparedStatement).close();
+		verify(connection).close();
+	}
+
 	@Test
 	public void testQueryWithRowMapperNoParameters() throws SQLException {
 		given(resultSet.next()).willReturn(true, false);
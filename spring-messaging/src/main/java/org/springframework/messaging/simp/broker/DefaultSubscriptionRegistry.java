@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,12 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -25,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.BiConsumer;
 
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
@@ -181,7 +187,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 		if (info != null) {
 			String destination = info.removeSubscription(subsId);
 			if (destination != null) {
-				this.destinationCache.updateAfterRemovedSubscription(sessionId, subsId);
+				this.destinationCache.updateAfterRemovedSubscription(destination, sessionId, subsId);
 			}
 		}
 	}
@@ -249,6 +255,10 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	/**
 	 * A cache for destinations previously resolved via
 	 * {@link DefaultSubscriptionRegistry#findSubscriptionsInternal(String, Message)}.
+	 * <p>Subscribed destination patterns and cached destinations are also indexed
+	 * by their leading literal segments, so that look-ups and cache updates after
+	 * a subscription change only need to match the patterns and destinations
+	 * that share those segments.
 	 */
 	private class DestinationCache {
 
@@ -264,6 +274,7 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					protected boolean removeEldestEntry(Map.Entry<String, LinkedMultiValueMap<String, String>> eldest) {
 						if (size() > getCacheLimit()) {
 							accessCache.remove(eldest.getKey());
+							cachedDestinations.remove(eldest.getKey());
 							return true;
 						}
 						else {
@@ -272,23 +283,41 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 					}
 				};
 
+		/** The entries of the update cache, indexed by destination segments. */
+		private final DestinationTrie<LinkedMultiValueMap<String, String>> cachedDestinations =
+				new DestinationTrie<>();
+
+		/** Map from subscribed destination (pattern) to subscriptions, indexed by destination segments. */
+		private final DestinationTrie<SubscribedDestination> subscribedDestinations = new DestinationTrie<>();
+
+		private long nextSubscribedDestinationOrder;
+
 
 		public LinkedMultiValueMap<String, String> getSubscriptions(String destination, Message<?> message) {
 			LinkedMultiValueMap<String, String> result = this.accessCache.get(destination);
 			if (result == null) {
 				synchronized (this.updateCache) {
+					List<SubscribedDestination> matches = new ArrayList<>();
+					forEachSubscribedDestination(destination, (destinationPattern, subscribed) -> {
+						if (getPathMatcher().match(destinationPattern, destination)) {
+							matches.add(subscribed);
+						}
+					});
+					if (matches.size() > 1) {
+						matches.sort(Comparator.comparingLong(SubscribedDestination::getOrder));
+					}
 					result = new LinkedMultiValueMap<>();
-					for (SessionSubscriptionInfo info : subscriptionRegistry.getAllSubscriptions()) {
-						for (String destinationPattern : info.getDestinations()) {
-							if (getPathMatcher().match(destinationPattern, destination)) {
-								for (Subscription sub : info.getSubscriptions(destinationPattern)) {
-									result.add(info.sessionId, sub.getId());
-								}
+					for (SubscribedDestination subscribed : matches) {
+						for (Map.Entry<String, List<String>> entry : subscribed.getSubscriptions().entrySet()) {
+							for (String subsId : entry.getValue()) {
+								result.add(entry.getKey(), subsId);
 							}
 						}
 					}
 					if (!result.isEmpty()) {
-						this.updateCache.put(destination, result.deepCopy());
+						LinkedMultiValueMap<String, String> subscriptions = result.deepCopy();
+						this.cachedDestinations.put(destination, subscriptions);
+						this.updateCache.put(destination, subscriptions);
 						this.accessCache.put(destination, result);
 					}
 				}
@@ -298,7 +327,14 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 
 		public void updateAfterNewSubscription(String destination, String sessionId, String subsId) {
 			synchronized (this.updateCache) {
-				this.updateCache.forEach((cachedDestination, subscriptions) -> {
+				SubscribedDestination subscribed = this.subscribedDestinations.get(destination);
+				if (subscribed == null) {
+					subscribed = new SubscribedDestination(this.nextSubscribedDestinationOrder++);
+					this.subscribedDestinations.put(destination, subscribed);
+				}
+				subscribed.addSubscription(sessionId, subsId);
+
+				forEachCachedDestination(destination, (cachedDestination, subscriptions) -> {
 					if (getPathMatcher().match(destination, cachedDestination)) {
 						// Subscription id's may also be populated via getSubscriptions()
 						List<String> subsForSession = subscriptions.get(sessionId);
@@ -311,51 +347,108 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 			}
 		}
 
-		public void updateAfterRemovedSubscription(String sessionId, String subsId) {
+		public void updateAfterRemovedSubscription(String destination, String sessionId, String subsId) {
 			synchronized (this.updateCache) {
+				SubscribedDestination subscribed = this.subscribedDestinations.get(destination);
+				if (subscribed != null && subscribed.removeSubscription(sessionId, subsId)) {
+					this.subscribedDestinations.remove(destination);
+				}
+
 				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
+				forEachCachedDestination(destination, (cachedDestination, sessionMap) -> {
 					List<String> subscriptions = sessionMap.get(sessionId);
-					if (subscriptions != null) {
-						subscriptions.remove(subsId);
+					if (subscriptions != null && subscriptions.remove(subsId)) {
 						if (subscriptions.isEmpty()) {
 							sessionMap.remove(sessionId);
 						}
 						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
+							destinationsToRemove.add(cachedDestination);
 						}
 						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
+							this.accessCache.put(cachedDestination, sessionMap.deepCopy());
 						}
 					}
 				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
-				}
+				removeCachedDestinations(destinationsToRemove);
 			}
 		}
 
 		public void updateAfterRemovedSession(SessionSubscriptionInfo info) {
 			synchronized (this.updateCache) {
 				Set<String> destinationsToRemove = new HashSet<>();
-				this.updateCache.forEach((destination, sessionMap) -> {
-					if (sessionMap.remove(info.getSessionId()) != null) {
-						if (sessionMap.isEmpty()) {
-							destinationsToRemove.add(destination);
-						}
-						else {
-							this.accessCache.put(destination, sessionMap.deepCopy());
-						}
+				for (String destination : info.getDestinations()) {
+					SubscribedDestination subscribed = this.subscribedDestinations.get(destination);
+					if (subscribed != null && subscribed.removeSession(info.getSessionId())) {
+						this.subscribedDestinations.remove(destination);
 					}
-				});
-				for (String destination : destinationsToRemove) {
-					this.updateCache.remove(destination);
-					this.accessCache.remove(destination);
+					forEachCachedDestination(destination, (cachedDestination, sessionMap) -> {
+						if (sessionMap.remove(info.getSessionId()) != null) {
+							if (sessionMap.isEmpty()) {
+								destinationsToRemove.add(cachedDestination);
+							}
+							else {
+								this.accessCache.put(cachedDestination, sessionMap.deepCopy());
+							}
+						}
+					});
 				}
+				removeCachedDestinations(destinationsToRemove);
 			}
 		}
 
+		private void removeCachedDestinations(Set<String> destinationsToRemove) {
+			for (String destination : destinationsToRemove) {
+				this.updateCache.remove(destination);
+				this.accessCache.remove(destination);
+				this.cachedDestinations.remove(destination);
+			}
+		}
+
+		/**
+		 * Invoke the action for subscribed destination patterns that may match
+		 * the given destination, or for all of them if the index does not apply.
+		 * @see #isIndexedMatching()
+		 */
+		private void forEachSubscribedDestination(
+				String destination, BiConsumer<String, SubscribedDestination> action) {
+
+			if (isIndexedMatching()) {
+				this.subscribedDestinations.forEachPatternCandidate(destination, action);
+			}
+			else {
+				this.subscribedDestinations.forEach(action);
+			}
+		}
+
+		/**
+		 * Invoke the action for cached destinations that the given destination
+		 * pattern may match, or for all of them if the index does not apply.
+		 * @see #isIndexedMatching()
+		 */
+		private void forEachCachedDestination(
+				String destinationPattern, BiConsumer<String, LinkedMultiValueMap<String, String>> action) {
+
+			if (isIndexedMatching()) {
+				this.cachedDestinations.forEachDestinationCandidate(destinationPattern, action);
+			}
+			else {
+				this.updateCache.forEach(action);
+			}
+		}
+
+		/**
+		 * Whether the index applies to the PathMatcher in use: only for a plain
+		 * {@link AntPathMatcher} with one of the separators that the index splits at.
+		 */
+		private boolean isIndexedMatching() {
+			PathMatcher pathMatcher = getPathMatcher();
+			if (pathMatcher.getClass() != AntPathMatcher.class) {
+				return false;
+			}
+			String pathSeparator = ((AntPathMatcher) pathMatcher).getPathSeparator();
+			return (pathSeparator.equals("/") || pathSeparator.equals("."));
+		}
+
 		@Override
 		public String toString() {
 			return "cache[" + this.accessCache.size() + " destination(s)]";
@@ -363,6 +456,197 @@ public class DefaultSubscriptionRegistry extends AbstractSubscriptionRegistry {
 	}
 
 
+	/**
+	 * The subscriptions to a destination, or destination pattern, across sessions.
+	 */
+	private static final class SubscribedDestination {
+
+		private final long order;
+
+		// sessionId -> subscriptionIds
+		private final LinkedMultiValueMap<String, String> subscriptions = new LinkedMultiValueMap<>(4);
+
+		public SubscribedDestination(long order) {
+			this.order = order;
+		}
+
+		/**
+		 * Return the order in which the destination was first subscribed to.
+		 */
+		public long getOrder() {
+			return this.order;
+		}
+
+		public LinkedMultiValueMap<String, String> getSubscriptions() {
+			return this.subscriptions;
+		}
+
+		public void addSubscription(String sessionId, String subsId) {
+			List<String> subsForSession = this.subscriptions.get(sessionId);
+			if (subsForSession == null || !subsForSession.contains(subsId)) {
+				this.subscriptions.add(sessionId, subsId);
+			}
+		}
+
+		/**
+		 * Remove the given subscription.
+		 * @return whether no subscriptions are left
+		 */
+		public boolean removeSubscription(String sessionId, String subsId) {
+			List<String> subsForSession = this.subscriptions.get(sessionId);
+			if (subsForSession != null && subsForSession.remove(subsId) && subsForSession.isEmpty()) {
+				this.subscriptions.remove(sessionId);
+			}
+			return this.subscriptions.isEmpty();
+		}
+
+		/**
+		 * Remove all subscriptions of the given session.
+		 * @return whether no subscriptions are left
+		 */
+		public boolean removeSession(String sessionId) {
+			this.subscriptions.remove(sessionId);
+			return this.subscriptions.isEmpty();
+		}
+	}
+
+
+	/**
+	 * A trie of destinations, or destination patterns, keyed by their leading
+	 * literal segments, i.e. the segments before the first one with a wildcard.
+	 * <p>Destinations are split into segments at both "/" and "." so that the
+	 * index applies to an {@link AntPathMatcher} with either separator, but not
+	 * with any other separator; segments
+	 * are compared ignoring whitespace and case. As a result, the index yields
+	 * a superset of the actual matches that needs to be checked with the
+	 * PathMatcher. Not thread-safe.
+	 */
+	private static final class DestinationTrie<V> {
+
+		private static final String SEPARATORS = "/.";
+
+		private static final char[] WILDCARD_CHARS = {'*', '?', '{'};
+
+		private final Node<V> root = new Node<>();
+
+		@Nullable
+		public V get(String destination) {
+			Node<V> node = this.root;
+			for (String segment : getLiteralSegments(destination)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					return null;
+				}
+			}
+			return node.entries.get(destination);
+		}
+
+		public void put(String destination, V value) {
+			Node<V> node = this.root;
+			for (String segment : getLiteralSegments(destination)) {
+				node = node.children.computeIfAbsent(segment, key -> new Node<>());
+			}
+			node.entries.put(destination, value);
+		}
+
+		public void remove(String destination) {
+			List<String> segments = getLiteralSegments(destination);
+			Deque<Node<V>> parents = new ArrayDeque<>(segments.size());
+			Node<V> node = this.root;
+			for (String segment : segments) {
+				parents.push(node);
+				node = node.children.get(segment);
+				if (node == null) {
+					return;
+				}
+			}
+			node.entries.remove(destination);
+			for (int i = segments.size() - 1; i >= 0 && node.isEmpty(); i--) {
+				Node<V> parent = parents.pop();
+				parent.children.remove(segments.get(i));
+				node = parent;
+			}
+		}
+
+		/**
+		 * Invoke the action for entries whose literal segments are a prefix of
+		 * the segments of the given destination, i.e. for the patterns that may
+		 * match it.
+		 */
+		public void forEachPatternCandidate(String destination, BiConsumer<String, V> action) {
+			Node<V> node = this.root;
+			node.entries.forEach(action);
+			for (String segment : getLiteralSegments(destination)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					return;
+				}
+				node.entries.forEach(action);
+			}
+		}
+
+		/**
+		 * Invoke the action for entries whose segments start with the literal
+		 * segments of the given pattern, i.e. for the destinations it may match.
+		 */
+		public void forEachDestinationCandidate(String destinationPattern, BiConsumer<String, V> action) {
+			Node<V> node = this.root;
+			for (String segment : getLiteralSegments(destinationPattern)) {
+				node = node.children.get(segment);
+				if (node == null) {
+					return;
+				}
+			}
+			node.forEachInSubtree(action);
+		}
+
+		public void forEach(BiConsumer<String, V> action) {
+			this.root.forEachInSubtree(action);
+		}
+
+		private static List<String> getLiteralSegments(String destination) {
+			String[] segments = StringUtils.tokenizeToStringArray(destination, SEPARATORS);
+			List<String> result = new ArrayList<>(segments.length);
+			for (String segment : segments) {
+				for (char wildcard : WILDCARD_CHARS) {
+					if (segment.indexOf(wildcard) != -1) {
+						return result;
+					}
+				}
+				result.add(foldCase(segment));
+			}
+			return result;
+		}
+
+		private static String foldCase(String segment) {
+			char[] chars = segment.toCharArray();
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+			}
+			return new String(chars);
+		}
+
+
+		private static final class Node<V> {
+
+			private final Map<String, Node<V>> children = new HashMap<>(4);
+
+			private final Map<String, V> entries = new LinkedHashMap<>(2);
+
+			public boolean isEmpty() {
+				return (this.entries.isEmpty() && this.children.isEmpty());
+			}
+
+			public void forEachInSubtree(BiConsumer<String, V> action) {
+				this.entries.forEach(action);
+				for (Node<V> child : this.children.values()) {
+					child.forEachInSubtree(action);
+				}
+			}
+		}
+	}
+
+
 	/**
 	 * Provide access to session subscriptions by sessionId.
 	 */
@@ -17,11 +17,20 @@
 package org.springframework.messaging.simp.broker;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -70,9 +79,17 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	@Nullable
 	private MessageHeaderInitializer headerInitializer;
 
+	@Nullable
+	private Executor fanOutExecutor;
+
+	private int fanOutLaneCount = Runtime.getRuntime().availableProcessors();
+
 
 	private SubscriptionRegistry subscriptionRegistry;
 
+	@Nullable
+	private volatile FanOutLane[] fanOutLanes;
+
 	private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
 
 	@Nullable
@@ -249,6 +266,90 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		return this.headerInitializer;
 	}
 
+	/**
+	 * Configure an {@link Executor} to broadcast messages to subscribers with,
+	 * instead of sending to all subscribers from the thread that handles the
+	 * message. Subscribers are partitioned by session id across a fixed number
+	 * of {@link #setFanOutLaneCount lanes}; each message is split into one batch
+	 * per lane, and each lane sends its batches one at a time, in the order of
+	 * the messages, on a thread from the given executor. Messages addressed to
+	 * a single session, i.e. connect and disconnect acknowledgements as well as
+	 * heartbeats, are sent through the lane of that session too. As a result,
+	 * all messages for the same session are sent to the client outbound channel
+	 * in order, and {@link #setPreservePublishOrder preservePublishOrder} can be
+	 * used to keep that order further down the client outbound channel. Failures
+	 * to send are logged rather than propagated to the caller in that case.
+	 * <p>By default this is not set.
+	 * @since 5.2
+	 * @see #getFanOutStats()
+	 */
+	public void setFanOutExecutor(@Nullable Executor fanOutExecutor) {
+		this.fanOutExecutor = fanOutExecutor;
+		initFanOutLanes();
+	}
+
+	/**
+	 * Return the configured fan-out executor.
+	 * @since 5.2
+	 */
+	@Nullable
+	public Executor getFanOutExecutor() {
+		return this.fanOutExecutor;
+	}
+
+	/**
+	 * Configure the number of lanes to partition subscribers into when a
+	 * {@link #setFanOutExecutor fanOutExecutor} is configured, i.e. the
+	 * maximum number of threads that broadcast a message concurrently.
+	 * <p>By default this is set to the number of available processors.
+	 * @since 5.2
+	 */
+	public void setFanOutLaneCount(int fanOutLaneCount) {
+		Assert.isTrue(fanOutLaneCount > 0, "Fan-out lane count must be greater than 0");
+		this.fanOutLaneCount = fanOutLaneCount;
+		initFanOutLanes();
+	}
+
+	/**
+	 * Return the configured number of fan-out lanes.
+	 * @since 5.2
+	 */
+	public int getFanOutLaneCount() {
+		return this.fanOutLaneCount;
+	}
+
+	private void initFanOutLanes() {
+		if (this.fanOutExecutor != null) {
+			FanOutLane[] lanes = new FanOutLane[this.fanOutLaneCount];
+			for (int i = 0; i < lanes.length; i++) {
+				lanes[i] = new FanOutLane(i, this.fanOutExecutor);
+			}
+			this.fanOutLanes = lanes;
+		}
+		else {
+			this.fanOutLanes = null;
+		}
+	}
+
+	/**
+	 * Return a structured object with counters for each fan-out lane, or an
+	 * empty list if no {@link #setFanOutExecutor fanOutExecutor} is configured.
+	 * @since 5.2
+	 */
+	public List<FanOutLaneStats> getFanOutStats() {
+		FanOutLane[] lanes = this.fanOutLanes;
+		return (lanes != null ? Collections.unmodifiableList(Arrays.asList(lanes)) : Collections.emptyList());
+	}
+
+	/**
+	 * Return a String describing the counters of each fan-out lane.
+	 * Effectively {@code toString()} on {@link #getFanOutStats() getFanOutStats()}.
+	 * @since 5.2
+	 */
+	public String getFanOutStatsInfo() {
+		return getFanOutStats().toString();
+	}
+
 
 	@Override
 	public void startInternal() {
@@ -320,7 +421,7 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 				connectAck.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, message);
 				connectAck.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, heartbeatOut);
 				Message<byte[]> messageOut = MessageBuilder.createMessage(EMPTY_PAYLOAD, connectAck.getMessageHeaders());
-				getClientOutboundChannel().send(messageOut);
+				sendToSession(sessionId, getClientOutboundChannel(), messageOut);
 			}
 		}
 		else if (SimpMessageType.DISCONNECT.equals(messageType)) {
@@ -376,7 +477,26 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		}
 		initHeaders(accessor);
 		Message<byte[]> message = MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders());
-		getClientOutboundChannel().send(message);
+		sendToSession(sessionId, getClientOutboundChannel(), message);
+	}
+
+	/**
+	 * Send a message addressed to a single session as-is: through the fan-out
+	 * lane of the session, if any, so that it is sent in order with messages
+	 * broadcast to the session before.
+	 */
+	private void sendToSession(String sessionId, MessageChannel channel, Message<?> message) {
+		FanOutLane[] lanes = this.fanOutLanes;
+		if (lanes != null) {
+			lanes[getLaneIndex(sessionId, lanes.length)].submit(new FanOutBatch(message, channel));
+		}
+		else {
+			channel.send(message);
+		}
+	}
+
+	private static int getLaneIndex(String sessionId, int laneCount) {
+		return (sessionId.hashCode() & Integer.MAX_VALUE) % laneCount;
 	}
 
 	protected void sendMessageToSubscribers(@Nullable String destination, Message<?> message) {
@@ -384,33 +504,69 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 		if (!subscriptions.isEmpty() && logger.isDebugEnabled()) {
 			logger.debug("Broadcasting to " + subscriptions.size() + " sessions.");
 		}
-		long now = System.currentTimeMillis();
-		subscriptions.forEach((sessionId, subscriptionIds) -> {
-			for (String subscriptionId : subscriptionIds) {
-				SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
-				initHeaders(headerAccessor);
-				headerAccessor.setSessionId(sessionId);
-				headerAccessor.setSubscriptionId(subscriptionId);
-				headerAccessor.copyHeadersIfAbsent(message.getHeaders());
-				headerAccessor.setLeaveMutable(true);
-				Object payload = message.getPayload();
-				Message<?> reply = MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders());
+		FanOutLane[] lanes = this.fanOutLanes;
+		if (lanes != null) {
+			FanOutBatch[] batches = new FanOutBatch[lanes.length];
+			subscriptions.forEach((sessionId, subscriptionIds) -> {
+				// Resolve the session now: a subsequent disconnect is queued behind this batch
 				SessionInfo info = this.sessions.get(sessionId);
 				if (info != null) {
-					try {
-						info.getClientOutboundChannel().send(reply);
-					}
-					catch (Throwable ex) {
-						if (logger.isErrorEnabled()) {
-							logger.error("Failed to send " + message, ex);
-						}
-					}
-					finally {
-						info.setLastWriteTime(now);
+					int index = getLaneIndex(sessionId, lanes.length);
+					FanOutBatch batch = batches[index];
+					if (batch == null) {
+						batch = new FanOutBatch(message, null);
+						batches[index] = batch;
 					}
+					batch.add(info, subscriptionIds);
+				}
+			});
+			for (int i = 0; i < lanes.length; i++) {
+				if (batches[i] != null) {
+					lanes[i].submit(batches[i]);
+				}
+			}
+		}
+		else {
+			long now = System.currentTimeMillis();
+			subscriptions.forEach((sessionId, subscriptionIds) ->
+					sendMessageToSession(sessionId, subscriptionIds, message, now));
+		}
+	}
+
+	/**
+	 * Send the message to each of the given subscriptions of a session.
+	 * @return the number of messages sent
+	 */
+	private int sendMessageToSession(String sessionId, List<String> subscriptionIds, Message<?> message, long now) {
+		SessionInfo info = this.sessions.get(sessionId);
+		return (info != null ? sendMessageToSession(info, subscriptionIds, message, now) : 0);
+	}
+
+	private int sendMessageToSession(SessionInfo info, List<String> subscriptionIds, Message<?> message, long now) {
+		int count = 0;
+		for (String subscriptionId : subscriptionIds) {
+			SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+			initHeaders(headerAccessor);
+			headerAccessor.setSessionId(info.getSessionId());
+			headerAccessor.setSubscriptionId(subscriptionId);
+			headerAccessor.copyHeadersIfAbsent(message.getHeaders());
+			headerAccessor.setLeaveMutable(true);
+			Object payload = message.getPayload();
+			Message<?> reply = MessageBuilder.createMessage(payload, headerAccessor.getMessageHeaders());
+			try {
+				info.getClientOutboundChannel().send(reply);
+				count++;
+			}
+			catch (Throwable ex) {
+				if (logger.isErrorEnabled()) {
+					logger.error("Failed to send " + message, ex);
 				}
 			}
-		});
+			finally {
+				info.setLastWriteTime(now);
+			}
+		}
+		return count;
 	}
 
 	@Override
@@ -419,6 +575,185 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 	}
 
 
+	/**
+	 * Contract for access to the counters of a fan-out lane.
+	 * @since 5.2
+	 * @see #setFanOutExecutor
+	 */
+	public interface FanOutLaneStats {
+
+		/**
+		 * The index of the lane.
+		 */
+		int getIndex();
+
+		/**
+		 * The number of batches waiting to be sent, including messages
+		 * addressed to a single session.
+		 */
+		int getPendingBatches();
+
+		/**
+		 * The number of batches sent, i.e. the number of broadcast messages
+		 * with at least one subscriber in the lane.
+		 */
+		long getTotalBatches();
+
+		/**
+		 * The number of messages sent to subscribers.
+		 */
+		long getTotalMessages();
+	}
+
+
+	/**
+	 * The subscriptions of one fan-out lane to send a message to, or a message
+	 * to send as-is to a single session.
+	 */
+	private static class FanOutBatch {
+
+		private final Message<?> message;
+
+		@Nullable
+		private final MessageChannel channel;
+
+		private final List<SessionInfo> sessions = new ArrayList<>();
+
+		private final List<List<String>> subscriptionIds = new ArrayList<>();
+
+		/**
+		 * Create a batch for the given message.
+		 * @param message the message
+		 * @param channel the channel to send the message to as-is, or
+		 * {@code null} to send it to the {@link #add added} subscriptions
+		 */
+		public FanOutBatch(Message<?> message, @Nullable MessageChannel channel) {
+			this.message = message;
+			this.channel = channel;
+		}
+
+		public void add(SessionInfo session, List<String> subscriptionIds) {
+			this.sessions.add(session);
+			this.subscriptionIds.add(subscriptionIds);
+		}
+	}
+
+
+	/**
+	 * Sends batches one at a time, in the order of submission, on a thread from
+	 * the fan-out executor.
+	 */
+	private class FanOutLane implements Runnable, FanOutLaneStats {
+
+		private final int index;
+
+		private final Executor executor;
+
+		private final Queue<FanOutBatch> batches = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean sendInProgress = new AtomicBoolean(false);
+
+		private final AtomicInteger pendingBatches = new AtomicInteger();
+
+		private final AtomicLong totalBatches = new AtomicLong();
+
+		private final AtomicLong totalMessages = new AtomicLong();
+
+		public FanOutLane(int index, Executor executor) {
+			this.index = index;
+			this.executor = executor;
+		}
+
+		public void submit(FanOutBatch batch) {
+			this.pendingBatches.incrementAndGet();
+			this.batches.add(batch);
+			trySend();
+		}
+
+		private void trySend() {
+			// Take sendInProgress flag only if queue is not empty
+			if (this.batches.isEmpty()) {
+				return;
+			}
+			if (this.sendInProgress.compareAndSet(false, true)) {
+				try {
+					this.executor.execute(this);
+				}
+				catch (Throwable ex) {
+					// Batches stay queued until the next submission
+					this.sendInProgress.set(false);
+					if (logger.isErrorEnabled()) {
+						logger.error("Failed to execute fan-out lane " + this.index, ex);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				FanOutBatch batch;
+				while ((batch = this.batches.poll()) != null) {
+					this.pendingBatches.decrementAndGet();
+					if (batch.channel != null) {
+						send(batch.channel, batch.message);
+					}
+					else {
+						long now = System.currentTimeMillis();
+						for (int i = 0; i < batch.sessions.size(); i++) {
+							int count = sendMessageToSession(
+									batch.sessions.get(i), batch.subscriptionIds.get(i), batch.message, now);
+							this.totalMessages.addAndGet(count);
+						}
+						this.totalBatches.incrementAndGet();
+					}
+				}
+			}
+			finally {
+				this.sendInProgress.set(false);
+				trySend();
+			}
+		}
+
+		private void send(MessageChannel channel, Message<?> message) {
+			try {
+				channel.send(message);
+			}
+			catch (Throwable ex) {
+				if (logger.isErrorEnabled()) {
+					logger.error("Failed to send " + message, ex);
+				}
+			}
+		}
+
+		@Override
+		public int getIndex() {
+			return this.index;
+		}
+
+		@Override
+		public int getPendingBatches() {
+			return this.pendingBatches.get();
+		}
+
+		@Override
+		public long getTotalBatches() {
+			return this.totalBatches.get();
+		}
+
+		@Override
+		public long getTotalMessages() {
+			return this.totalMessages.get();
+		}
+
+		@Override
+		public String toString() {
+			return ("lane " + this.index + ": pending " + this.pendingBatches.get() + " batches, sent " +
+					this.totalBatches.get() + " batches with " + this.totalMessages.get() + " messages");
+		}
+	}
+
+
 	private static class SessionInfo {
 
 		/* STOMP spec: receiver SHOULD take into account an error margin */
@@ -517,7 +852,8 @@ public class SimpleBrokerMessageHandler extends AbstractBrokerMessageHandler {
 					initHeaders(accessor);
 					accessor.setLeaveMutable(true);
 					MessageHeaders headers = accessor.getMessageHeaders();
-					info.getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, headers));
+					sendToSession(info.getSessionId(), info.getClientOutboundChannel(),
+							MessageBuilder.createMessage(EMPTY_PAYLOAD, headers));
 				}
 			}
 		}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.messaging.simp.config;
 
+import java.util.concurrent.Executor;
+
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.SubscribableChannel;
@@ -39,6 +41,12 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 	@Nullable
 	private String selectorHeaderName = "selector";
 
+	@Nullable
+	private Executor fanOutExecutor;
+
+	@Nullable
+	private Integer fanOutLaneCount;
+
 
 	public SimpleBrokerRegistration(SubscribableChannel inChannel, MessageChannel outChannel, String[] prefixes) {
 		super(inChannel, outChannel, prefixes);
@@ -89,6 +97,31 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 		this.selectorHeaderName = selectorHeaderName;
 	}
 
+	/**
+	 * Configure an {@link Executor} to broadcast messages to subscribers with,
+	 * partitioning subscribers by session id across a number of lanes.
+	 * <p>By default this is not set and messages are broadcast from the thread
+	 * that handles them.
+	 * @since 5.2
+	 * @see SimpleBrokerMessageHandler#setFanOutExecutor
+	 */
+	public SimpleBrokerRegistration setFanOutExecutor(Executor fanOutExecutor) {
+		this.fanOutExecutor = fanOutExecutor;
+		return this;
+	}
+
+	/**
+	 * Configure the number of lanes to partition subscribers into when a
+	 * {@link #setFanOutExecutor fanOutExecutor} is configured.
+	 * <p>By default this is set to the number of available processors.
+	 * @since 5.2
+	 * @see SimpleBrokerMessageHandler#setFanOutLaneCount
+	 */
+	public SimpleBrokerRegistration setFanOutLaneCount(int fanOutLaneCount) {
+		this.fanOutLaneCount = fanOutLaneCount;
+		return this;
+	}
+
 
 	@Override
 	protected SimpleBrokerMessageHandler getMessageHandler(SubscribableChannel brokerChannel) {
@@ -101,6 +134,12 @@ public class SimpleBrokerRegistration extends AbstractBrokerRegistration {
 			handler.setHeartbeatValue(this.heartbeat);
 		}
 		handler.setSelectorHeaderName(this.selectorHeaderName);
+		if (this.fanOutLaneCount != null) {
+			handler.setFanOutLaneCount(this.fanOutLaneCount);
+		}
+		if (this.fanOutExecutor != null) {
+			handler.setFanOutExecutor(this.fanOutExecutor);
+		}
 		return handler;
 	}
 
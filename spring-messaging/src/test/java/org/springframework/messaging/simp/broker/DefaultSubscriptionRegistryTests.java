@@ -16,6 +16,7 @@
 
 package org.springframework.messaging.simp.broker;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -28,7 +29,9 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -438,6 +441,90 @@ public class DefaultSubscriptionRegistryTests {
 		assertThat(this.registry.findSubscriptions(createMessage("/bar")).size()).isEqualTo(2);
 	}
 
+	@Test
+	public void findSubscriptionsWithPatternsAcrossSeparators() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/PRICE.STOCK.*.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "/topic/**"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "3", "/*/PRICE.STOCK.NYSE.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "4", "/queue/PRICE.STOCK.NASDAQ.IBM"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "5", "/topic/PRICE.STOCK.NASDAQ.GOOG"));
+
+		MultiValueMap<String, String> actual = this.registry.findSubscriptions(createMessage("/topic/PRICE.STOCK.NASDAQ.IBM"));
+		assertThat(actual.get("sess1")).containsExactly("1", "2");
+
+		actual = this.registry.findSubscriptions(createMessage("/topic/PRICE.STOCK.NYSE.IBM"));
+		assertThat(actual.get("sess1")).containsExactly("1", "2", "3");
+
+		actual = this.registry.findSubscriptions(createMessage("/queue/PRICE.STOCK.NASDAQ.IBM"));
+		assertThat(actual.get("sess1")).containsExactly("4");
+	}
+
+	@Test
+	public void cachedSubscriptionsUpdatedForMatchingDestinationsOnly() {
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/a"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "2", "/topic/b"));
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/a")).get("sess1")).containsExactly("1");
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/b")).get("sess1")).containsExactly("2");
+
+		this.registry.registerSubscription(subscribeMessage("sess2", "1", "/topic/*"));
+		this.registry.registerSubscription(subscribeMessage("sess2", "2", "/queue/*"));
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/a")).get("sess2")).containsExactly("1");
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/b")).get("sess2")).containsExactly("1");
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess2", "1"));
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/a")).get("sess2")).isNull();
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/b")).get("sess2")).isNull();
+
+		this.registry.unregisterAllSubscriptions("sess1");
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/a"))).isEmpty();
+		assertThat(this.registry.findSubscriptions(createMessage("/topic/b"))).isEmpty();
+		assertThat(this.registry.findSubscriptions(createMessage("/queue/a")).get("sess2")).containsExactly("2");
+	}
+
+	@Test
+	public void findSubscriptionsWithCustomPathMatcher() {
+		this.registry.setPathMatcher(new AntPathMatcher() {
+			@Override
+			public boolean match(String pattern, String path) {
+				return super.match(pattern, StringUtils.delete(path, "/app"));
+			}
+		});
+		this.registry.registerSubscription(subscribeMessage("sess1", "1", "/topic/*"));
+
+		assertThat(this.registry.findSubscriptions(createMessage("/app/topic/a")).get("sess1")).containsExactly("1");
+	}
+
+	@Test
+	public void findSubscriptionsWithCustomPathSeparator() {
+		this.registry.setPathMatcher(new AntPathMatcher(":"));
+		// A PathMatcher subclass is never matched through the destination index
+		DefaultSubscriptionRegistry unindexedRegistry = new DefaultSubscriptionRegistry();
+		unindexedRegistry.setPathMatcher(new AntPathMatcher(":") {});
+
+		String[] patterns = {"topic:price.stock:*", "topic:**", "topic/a:*", "*:price.stock:ibm",
+				"queue:price.stock:ibm", "topic:price.stock:nasdaq/ibm"};
+		String[] destinations = {"topic:price.stock:ibm", "topic:price.stock:nasdaq/ibm", "topic/a:b",
+				"queue:price.stock:ibm", "topic", "other:x"};
+		for (int i = 0; i < patterns.length; i++) {
+			this.registry.registerSubscription(subscribeMessage("sess1", String.valueOf(i), patterns[i]));
+			unindexedRegistry.registerSubscription(subscribeMessage("sess1", String.valueOf(i), patterns[i]));
+		}
+		assertThat(findSubscriptionIds(this.registry, "topic:price.stock:ibm")).containsExactly("0", "1", "3");
+		for (String destination : destinations) {
+			assertThat(findSubscriptionIds(this.registry, destination)).as(destination)
+					.isEqualTo(findSubscriptionIds(unindexedRegistry, destination));
+		}
+
+		this.registry.unregisterSubscription(unsubscribeMessage("sess1", "1"));
+		unindexedRegistry.unregisterSubscription(unsubscribeMessage("sess1", "1"));
+		this.registry.registerSubscription(subscribeMessage("sess1", "6", "topic/a:**"));
+		unindexedRegistry.registerSubscription(subscribeMessage("sess1", "6", "topic/a:**"));
+		for (String destination : destinations) {
+			assertThat(findSubscriptionIds(this.registry, destination)).as(destination)
+					.isEqualTo(findSubscriptionIds(unindexedRegistry, destination));
+		}
+	}
+
 	private Message<?> createMessage(String destination) {
 		SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
 		accessor.setDestination(destination);
@@ -468,6 +555,11 @@ public class DefaultSubscriptionRegistryTests {
 		return MessageBuilder.createMessage("", accessor.getMessageHeaders());
 	}
 
+	private List<String> findSubscriptionIds(DefaultSubscriptionRegistry registry, String destination) {
+		List<String> subscriptionIds = registry.findSubscriptions(createMessage(destination)).get("sess1");
+		return (subscriptionIds != null ? sort(new ArrayList<>(subscriptionIds)) : Collections.emptyList());
+	}
+
 	private List<String> sort(List<String> list) {
 		Collections.sort(list);
 		return list;
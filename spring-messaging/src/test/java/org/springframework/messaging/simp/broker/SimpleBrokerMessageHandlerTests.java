@@ -17,6 +17,7 @@
 package org.springframework.messaging.simp.broker;
 
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
@@ -296,6 +297,93 @@ public class SimpleBrokerMessageHandlerTests {
 		assertThat(messages.get(0).getHeaders().get(SimpMessageHeaderAccessor.MESSAGE_TYPE_HEADER)).isEqualTo(SimpMessageType.CONNECT_ACK);
 	}
 
+	@Test
+	public void fanOut() {
+		this.messageHandler.setFanOutExecutor(Runnable::run);
+		this.messageHandler.setFanOutLaneCount(2);
+
+		startSession("sess1");
+		startSession("sess2");
+
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub2", "/foo"));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess2", "sub1", "/foo"));
+
+		this.messageHandler.handleMessage(createMessage("/foo", "message1"));
+
+		verify(this.clientOutChannel, times(3)).send(this.messageCaptor.capture());
+		assertThat(messageCaptured("sess1", "sub1", "/foo")).isTrue();
+		assertThat(messageCaptured("sess1", "sub2", "/foo")).isTrue();
+		assertThat(messageCaptured("sess2", "sub1", "/foo")).isTrue();
+
+		List<SimpleBrokerMessageHandler.FanOutLaneStats> stats = this.messageHandler.getFanOutStats();
+		assertThat(stats).hasSize(2);
+		assertThat(stats.stream().mapToLong(SimpleBrokerMessageHandler.FanOutLaneStats::getTotalMessages).sum()).isEqualTo(3);
+		assertThat(stats.stream().mapToInt(SimpleBrokerMessageHandler.FanOutLaneStats::getPendingBatches).sum()).isEqualTo(0);
+	}
+
+	@Test
+	public void fanOutPreservesOrderPerSession() {
+		List<Runnable> tasks = new ArrayList<>();
+		this.messageHandler.setFanOutExecutor(tasks::add);
+		this.messageHandler.setFanOutLaneCount(1);
+		this.messageHandler.start();
+
+		this.messageHandler.handleMessage(createConnectMessage("sess1", new TestPrincipal("joe"), null));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createMessage("/foo", "message1"));
+		this.messageHandler.handleMessage(createMessage("/foo", "message2"));
+
+		SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+		headers.setSessionId("sess1");
+		this.messageHandler.handleMessage(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+
+		assertThat(tasks).hasSize(1);
+		assertThat(this.messageHandler.getFanOutStats().get(0).getPendingBatches()).isEqualTo(4);
+		verifyNoMoreInteractions(this.clientOutChannel);
+
+		tasks.get(0).run();
+
+		verify(this.clientOutChannel, times(4)).send(this.messageCaptor.capture());
+		List<Message<?>> messages = this.messageCaptor.getAllValues();
+		assertThat(SimpMessageHeaderAccessor.getMessageType(messages.get(0).getHeaders())).isEqualTo(SimpMessageType.CONNECT_ACK);
+		assertThat(messages.get(1).getPayload()).isEqualTo("message1");
+		assertThat(messages.get(2).getPayload()).isEqualTo("message2");
+		assertThat(SimpMessageHeaderAccessor.getMessageType(messages.get(3).getHeaders())).isEqualTo(SimpMessageType.DISCONNECT_ACK);
+		assertThat(this.messageHandler.getFanOutStats().get(0).getTotalBatches()).isEqualTo(2);
+		assertThat(this.messageHandler.getFanOutStats().get(0).getPendingBatches()).isEqualTo(0);
+	}
+
+	@Test
+	public void fanOutSendsHeartbeatInOrder() throws Exception {
+		List<Runnable> tasks = new ArrayList<>();
+		this.messageHandler.setFanOutExecutor(tasks::add);
+		this.messageHandler.setFanOutLaneCount(1);
+		this.messageHandler.setTaskScheduler(this.taskScheduler);
+		this.messageHandler.setHeartbeatValue(new long[] {1, 0});
+		this.messageHandler.start();
+
+		ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(this.taskScheduler).scheduleWithFixedDelay(taskCaptor.capture(), eq(1L));
+		Runnable heartbeatTask = taskCaptor.getValue();
+
+		this.messageHandler.handleMessage(createConnectMessage("sess1", new TestPrincipal("joe"), new long[] {0, 1}));
+		this.messageHandler.handleMessage(createSubscriptionMessage("sess1", "sub1", "/foo"));
+		this.messageHandler.handleMessage(createMessage("/foo", "message1"));
+
+		Thread.sleep(10);
+		heartbeatTask.run();
+		verifyNoMoreInteractions(this.clientOutChannel);
+
+		tasks.get(0).run();
+
+		verify(this.clientOutChannel, times(3)).send(this.messageCaptor.capture());
+		List<Message<?>> messages = this.messageCaptor.getAllValues();
+		assertThat(SimpMessageHeaderAccessor.getMessageType(messages.get(0).getHeaders())).isEqualTo(SimpMessageType.CONNECT_ACK);
+		assertThat(messages.get(1).getPayload()).isEqualTo("message1");
+		assertThat(SimpMessageHeaderAccessor.getMessageType(messages.get(2).getHeaders())).isEqualTo(SimpMessageType.HEARTBEAT);
+	}
+
 
 	private Message<String> startSession(String id) {
 		this.messageHandler.start();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.codec.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+/**
+ * Benchmarks for {@link Jackson2JsonDecoder} and {@link Jackson2JsonEncoder}.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class Jackson2JsonCodecBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"1", "1000"})
+		public int elementCount;
+
+		public Jackson2JsonDecoder decoder = new Jackson2JsonDecoder();
+
+		public Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+
+		public DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+		public ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, Pojo.class);
+
+		public ResolvableType elementType = ResolvableType.forClass(Pojo.class);
+
+		public byte[] json;
+
+		public List<Pojo> pojos = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			StringBuilder builder = new StringBuilder("[");
+			for (int i = 0; i < this.elementCount; i++) {
+				if (i > 0) {
+					builder.append(',');
+				}
+				builder.append("{\"foo\":\"foo").append(i).append("\",\"bar\":\"bar").append(i).append("\"}");
+				Pojo pojo = new Pojo();
+				pojo.setFoo("foo" + i);
+				pojo.setBar("bar" + i);
+				this.pojos.add(pojo);
+			}
+			this.json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	@Benchmark
+	public Object decodeToMono(BenchmarkData data) {
+		Mono<DataBuffer> input = Mono.fromCallable(() -> data.bufferFactory.wrap(data.json));
+		return data.decoder.decodeToMono(input, data.listType, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).block();
+	}
+
+	@Benchmark
+	public Object decodeToFlux(BenchmarkData data) {
+		Mono<DataBuffer> input = Mono.fromCallable(() -> data.bufferFactory.wrap(data.json));
+		return data.decoder.decode(input, data.elementType, MediaType.APPLICATION_JSON,
+				Collections.emptyMap()).collectList().block();
+	}
+
+	@Benchmark
+	public DataBuffer encodeValue(BenchmarkData data) {
+		return data.encoder.encodeValue(data.pojos, data.bufferFactory, data.listType,
+				MediaType.APPLICATION_JSON, Collections.emptyMap());
+	}
+
+	@Benchmark
+	public Object encodeFlux(BenchmarkData data) {
+		return data.encoder.encode(Flux.fromIterable(data.pojos), data.bufferFactory, data.elementType,
+				MediaType.APPLICATION_STREAM_JSON, Collections.emptyMap())
+				.doOnNext(DataBufferUtils::release)
+				.count().block();
+	}
+
+
+	public static class Pojo {
+
+		private String foo;
+
+		private String bar;
+
+		public String getFoo() {
+			return this.foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return this.bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+	}
+
+}
@@ -20,11 +20,14 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -45,6 +48,7 @@ import org.springframework.core.codec.Hints;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
 import org.springframework.core.log.LogFormatUtils;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.HttpMessageEncoder;
@@ -78,6 +82,8 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 	private final List<MediaType> streamingMediaTypes = new ArrayList<>(1);
 
+	private int flushThreshold = -1;
+
 
 	/**
 	 * Constructor with a Jackson {@link ObjectMapper} to use.
@@ -99,6 +105,32 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		this.streamingMediaTypes.addAll(mediaTypes);
 	}
 
+	/**
+	 * Configure the number of bytes after which the output for a value is
+	 * split into a separate data buffer. When set, each value is written
+	 * to a chain of data buffers of this size, obtained from the
+	 * {@code DataBufferFactory}, which are then emitted one per request.
+	 * This avoids growing, and copying, a single buffer to the size of
+	 * the entire value.
+	 * <p>By default this is set to -1, in which case each value is encoded
+	 * into a single data buffer.
+	 * @param flushThreshold the size of the buffers to emit, or -1 to encode
+	 * each value into a single buffer
+	 * @since 5.2
+	 */
+	public void setFlushThreshold(int flushThreshold) {
+		Assert.isTrue(flushThreshold == -1 || flushThreshold > 0, "'flushThreshold' must be -1 or larger than 0");
+		this.flushThreshold = flushThreshold;
+	}
+
+	/**
+	 * Return the configured {@link #setFlushThreshold flush threshold}.
+	 * @since 5.2
+	 */
+	public int getFlushThreshold() {
+		return this.flushThreshold;
+	}
+
 
 	@Override
 	public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
@@ -118,30 +150,47 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		JsonEncoding encoding = getJsonEncoding(mimeType);
 
 		if (inputStream instanceof Mono) {
+			if (this.flushThreshold > 0) {
+				return Mono.from(inputStream).flatMapMany(value ->
+						encodeValueIncrementally(value, bufferFactory, elementType, mimeType, hints, encoding, null));
+			}
 			return Mono.from(inputStream).map(value ->
 					encodeValue(value, bufferFactory, elementType, mimeType, hints, encoding)).flux();
 		}
 		else {
-			return this.streamingMediaTypes.stream()
-					.filter(mediaType -> mediaType.isCompatibleWith(mimeType))
-					.findFirst()
-					.map(mediaType -> {
-						byte[] separator = STREAM_SEPARATORS.getOrDefault(mediaType, NEWLINE_SEPARATOR);
-						return Flux.from(inputStream).map(value -> {
-							DataBuffer buffer = encodeValue(
-									value, bufferFactory, elementType, mimeType, hints, encoding);
-							if (separator != null) {
-								buffer.write(separator);
-							}
-							return buffer;
-						});
-					})
-					.orElseGet(() -> {
-						ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
-						return Flux.from(inputStream).collectList().map(list ->
-								encodeValue(list, bufferFactory, listType, mimeType, hints, encoding)).flux();
-					});
+			byte[] separator = getStreamingMediaTypeSeparator(mimeType);
+			if (separator != null) {
+				if (this.flushThreshold > 0) {
+					return Flux.from(inputStream).concatMap(value -> encodeValueIncrementally(
+							value, bufferFactory, elementType, mimeType, hints, encoding, separator));
+				}
+				return Flux.from(inputStream).map(value -> {
+					DataBuffer buffer = encodeValue(value, bufferFactory, elementType, mimeType, hints, encoding);
+					buffer.write(separator);
+					return buffer;
+				});
+			}
+			else {
+				ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+				Mono<List<Object>> list = Flux.<Object>from(inputStream).collectList();
+				if (this.flushThreshold > 0) {
+					return list.flatMapMany(value ->
+							encodeValueIncrementally(value, bufferFactory, listType, mimeType, hints, encoding, null));
+				}
+				return list.map(value ->
+						encodeValue(value, bufferFactory, listType, mimeType, hints, encoding)).flux();
+			}
+		}
+	}
+
+	@Nullable
+	private byte[] getStreamingMediaTypeSeparator(@Nullable MimeType mimeType) {
+		for (MediaType streamingMediaType : this.streamingMediaTypes) {
+			if (streamingMediaType.isCompatibleWith(mimeType)) {
+				return STREAM_SEPARATORS.getOrDefault(streamingMediaType, NEWLINE_SEPARATOR);
+			}
 		}
+		return null;
 	}
 
 	@Override
@@ -154,6 +203,66 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 	private DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints, JsonEncoding encoding) {
 
+		DataBuffer buffer = bufferFactory.allocateBuffer();
+		boolean release = true;
+		try {
+			writeValue(value, buffer.asOutputStream(), valueType, mimeType, hints, encoding);
+			release = false;
+		}
+		finally {
+			if (release) {
+				DataBufferUtils.release(buffer);
+			}
+		}
+		return buffer;
+	}
+
+	/**
+	 * Encode the value to a chain of data buffers of the size of the
+	 * {@link #setFlushThreshold flush threshold}, emitting one buffer per
+	 * request. Jackson writes a value in one go, so the value is serialized
+	 * on subscription, and buffers not emitted yet are released on cancel.
+	 */
+	private Flux<DataBuffer> encodeValueIncrementally(Object value, DataBufferFactory bufferFactory,
+			ResolvableType valueType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints,
+			JsonEncoding encoding, @Nullable byte[] separator) {
+
+		return Flux.<DataBuffer, Deque<DataBuffer>>generate(
+				() -> {
+					Deque<DataBuffer> buffers = new ArrayDeque<>();
+					DataBufferChainOutputStream outputStream =
+							new DataBufferChainOutputStream(bufferFactory, this.flushThreshold, buffers::add);
+					try {
+						writeValue(value, outputStream, valueType, mimeType, hints, encoding);
+						if (separator != null) {
+							outputStream.write(separator);
+						}
+						outputStream.close();
+					}
+					catch (Throwable ex) {
+						outputStream.discard();
+						buffers.forEach(DataBufferUtils::release);
+						throw ex;
+					}
+					return buffers;
+				},
+				(buffers, sink) -> {
+					DataBuffer buffer = buffers.poll();
+					if (buffer != null) {
+						sink.next(buffer);
+					}
+					else {
+						sink.complete();
+					}
+					return buffers;
+				},
+				buffers -> buffers.forEach(DataBufferUtils::release))
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	private void writeValue(Object value, OutputStream outputStream, ResolvableType valueType,
+			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints, JsonEncoding encoding) {
+
 		if (!Hints.isLoggingSuppressed(hints)) {
 			LogFormatUtils.traceDebug(logger, traceOn -> {
 				String formatted = LogFormatUtils.formatValue(value, !traceOn);
@@ -172,15 +281,10 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 
 		writer = customizeWriter(writer, mimeType, valueType, hints);
 
-		DataBuffer buffer = bufferFactory.allocateBuffer();
-		boolean release = true;
-		OutputStream outputStream = buffer.asOutputStream();
-
 		try {
 			JsonGenerator generator = getObjectMapper().getFactory().createGenerator(outputStream, encoding);
 			writer.writeValue(generator, value);
 			generator.flush();
-			release = false;
 		}
 		catch (InvalidDefinitionException ex) {
 			throw new CodecException("Type definition error: " + ex.getType(), ex);
@@ -192,13 +296,6 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 			throw new IllegalStateException("Unexpected I/O error while writing to data buffer",
 					ex);
 		}
-		finally {
-			if (release) {
-				DataBufferUtils.release(buffer);
-			}
-		}
-
-		return buffer;
 	}
 
 	protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType,
@@ -252,4 +349,84 @@ public abstract class AbstractJackson2Encoder extends Jackson2CodecSupport imple
 		return parameter.getMethodAnnotation(annotType);
 	}
 
+
+	/**
+	 * OutputStream that writes to a chain of data buffers of a fixed size,
+	 * passing each buffer on as soon as it is full, and the last buffer on
+	 * {@link #close()}.
+	 */
+	private static class DataBufferChainOutputStream extends OutputStream {
+
+		private final DataBufferFactory bufferFactory;
+
+		private final int bufferSize;
+
+		private final Consumer<DataBuffer> consumer;
+
+		@Nullable
+		private DataBuffer buffer;
+
+		public DataBufferChainOutputStream(DataBufferFactory bufferFactory, int bufferSize,
+				Consumer<DataBuffer> consumer) {
+
+			this.bufferFactory = bufferFactory;
+			this.bufferSize = bufferSize;
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void write(int b) {
+			getBuffer().write((byte) b);
+			passOnIfFull();
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) {
+			while (len > 0) {
+				DataBuffer buffer = getBuffer();
+				int count = Math.min(len, this.bufferSize - buffer.writePosition());
+				buffer.write(bytes, off, count);
+				off += count;
+				len -= count;
+				passOnIfFull();
+			}
+		}
+
+		private DataBuffer getBuffer() {
+			if (this.buffer == null) {
+				this.buffer = this.bufferFactory.allocateBuffer(this.bufferSize);
+			}
+			return this.buffer;
+		}
+
+		private void passOnIfFull() {
+			if (this.buffer != null && this.buffer.writePosition() >= this.bufferSize) {
+				passOn();
+			}
+		}
+
+		private void passOn() {
+			if (this.buffer != null) {
+				DataBuffer buffer = this.buffer;
+				this.buffer = null;
+				this.consumer.accept(buffer);
+			}
+		}
+
+		@Override
+		public void close() {
+			passOn();
+		}
+
+		/**
+		 * Release the buffer that has not been passed on yet.
+		 */
+		public void discard() {
+			if (this.buffer != null) {
+				DataBufferUtils.release(this.buffer);
+				this.buffer = null;
+			}
+		}
+	}
+
 }
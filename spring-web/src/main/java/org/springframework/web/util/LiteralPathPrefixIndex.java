@@ -0,0 +1,221 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * A segment trie that indexes values by the leading literal segments of
+ * the URL path patterns they are registered with, e.g. {@code "orders"} and
+ * {@code "items"} for {@code "/orders/items/{id}"}.
+ *
+ * <p>A lookup for a concrete path walks the trie along the segments of the
+ * path and returns all values whose literal prefix is a prefix of that path.
+ * The result is a superset of the values whose patterns actually match: it
+ * narrows down the candidates that a caller then has to check with the full
+ * matching algorithm. Values registered with a pattern that starts with a
+ * wildcard or URI variable, or with no pattern at all, are always candidates.
+ *
+ * <p>Segments are compared after trimming whitespace and folding case, so the
+ * candidates also cover case-insensitive and token-trimming path matchers.
+ *
+ * <p>This class is not thread-safe: callers are expected to guard lookups
+ * against concurrent modification, e.g. with a read-write lock.
+ *
+ * @since 5.2
+ * @param <T> the type of values to index
+ */
+public class LiteralPathPrefixIndex<T> {
+
+	private static final String PATH_SEPARATOR = "/";
+
+	private static final char[] WILDCARD_CHARS = {'*', '?', '{'};
+
+
+	private final boolean indexLastSegment;
+
+	private final Node<T> root = new Node<>();
+
+
+	/**
+	 * Create a new index.
+	 * @param indexLastSegment whether the last segment of a pattern that
+	 * consists of literal segments only should be indexed as well; this should
+	 * be {@code false} if a pattern may match paths with a different last
+	 * segment, e.g. with suffix pattern matching ({@code "/foo"} matching
+	 * {@code "/foo.json"})
+	 */
+	public LiteralPathPrefixIndex(boolean indexLastSegment) {
+		this.indexLastSegment = indexLastSegment;
+	}
+
+
+	/**
+	 * Register a value with the given pattern.
+	 * @param pattern the URL path pattern, or {@code null} (or empty) to
+	 * register the value as a candidate for any path
+	 * @param value the value to register
+	 */
+	public void add(@Nullable String pattern, T value) {
+		Node<T> node = this.root;
+		for (String segment : getLiteralPrefix(pattern)) {
+			node = node.children.computeIfAbsent(segment, key -> new Node<>());
+		}
+		node.values.merge(value, 1, Integer::sum);
+	}
+
+	/**
+	 * Remove a value previously registered with the given pattern.
+	 * @param pattern the URL path pattern the value was registered with
+	 * @param value the value to remove
+	 */
+	public void remove(@Nullable String pattern, T value) {
+		Deque<Node<T>> nodes = new ArrayDeque<>();
+		List<String> segments = getLiteralPrefix(pattern);
+		Node<T> node = this.root;
+		for (String segment : segments) {
+			nodes.push(node);
+			node = node.children.get(segment);
+			if (node == null) {
+				return;
+			}
+		}
+		node.values.computeIfPresent(value, (key, count) -> (count > 1 ? count - 1 : null));
+		for (int i = segments.size() - 1; i >= 0 && node.isEmpty(); i--) {
+			Node<T> parent = nodes.pop();
+			parent.children.remove(segments.get(i));
+			node = parent;
+		}
+	}
+
+	/**
+	 * Return the values that may match the given path.
+	 * @param path the lookup path, with segments separated by {@code "/"}
+	 * @return the candidate values (never {@code null})
+	 */
+	public Collection<T> getCandidates(String path) {
+		return getCandidates(Arrays.asList(StringUtils.tokenizeToStringArray(path, PATH_SEPARATOR)));
+	}
+
+	/**
+	 * Return the values that may match a path with the given segments.
+	 * @param pathSegments the decoded segments of the lookup path
+	 * @return the candidate values (never {@code null})
+	 */
+	public Collection<T> getCandidates(Iterable<String> pathSegments) {
+		Collection<T> result = this.root.values.keySet();
+		Set<T> merged = null;
+		Node<T> node = this.root;
+		for (String segment : pathSegments) {
+			node = node.children.get(normalize(segment));
+			if (node == null) {
+				break;
+			}
+			if (!node.values.isEmpty()) {
+				if (result.isEmpty()) {
+					result = node.values.keySet();
+				}
+				else {
+					if (merged == null) {
+						merged = new LinkedHashSet<>(result);
+						result = merged;
+					}
+					merged.addAll(node.values.keySet());
+				}
+			}
+		}
+		return Collections.unmodifiableCollection(result);
+	}
+
+	private List<String> getLiteralPrefix(@Nullable String pattern) {
+		if (!StringUtils.hasLength(pattern)) {
+			return Collections.emptyList();
+		}
+		String[] segments = StringUtils.tokenizeToStringArray(pattern, PATH_SEPARATOR);
+		List<String> prefix = new ArrayList<>(segments.length);
+		for (String segment : segments) {
+			if (isWildcardSegment(segment)) {
+				return prefix;
+			}
+			prefix.add(normalize(segment));
+		}
+		if (!this.indexLastSegment && !prefix.isEmpty()) {
+			prefix.remove(prefix.size() - 1);
+		}
+		return prefix;
+	}
+
+	private static boolean isWildcardSegment(String segment) {
+		for (char wildcard : WILDCARD_CHARS) {
+			if (segment.indexOf(wildcard) != -1) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Trim the segment and fold its case the same way as
+	 * {@link String#equalsIgnoreCase(String)} does.
+	 */
+	private static String normalize(String segment) {
+		String trimmed = segment.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (foldCase(c) != c) {
+				char[] chars = trimmed.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = foldCase(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return trimmed;
+	}
+
+	private static char foldCase(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+
+	private static class Node<T> {
+
+		private final Map<String, Node<T>> children = new HashMap<>(4);
+
+		// Values with the number of patterns they were registered with at this node
+		private final Map<T, Integer> values = new LinkedHashMap<>(2);
+
+		boolean isEmpty() {
+			return (this.values.isEmpty() && this.children.isEmpty());
+		}
+	}
+
+}
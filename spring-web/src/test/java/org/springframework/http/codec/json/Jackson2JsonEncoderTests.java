@@ -134,6 +134,55 @@ public class Jackson2JsonEncoderTests extends AbstractEncoderTestCase<Jackson2Js
 				.verifyComplete());
 	}
 
+	@Test
+	public void encodeWithFlushThreshold() {
+		Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+		encoder.setFlushThreshold(16);
+		Mono<Pojo> input = Mono.just(new Pojo("foofoofoo", "barbarbar"));
+
+		Flux<DataBuffer> result = encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), APPLICATION_JSON, null);
+
+		StepVerifier.create(result)
+				.consumeNextWith(expectString("{\"foo\":\"foofoofo"))
+				.consumeNextWith(expectString("o\",\"bar\":\"barbar"))
+				.consumeNextWith(expectString("bar\"}"))
+				.verifyComplete();
+	}
+
+	@Test
+	public void encodeWithFlushThresholdOnDemand() {
+		Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+		encoder.setFlushThreshold(16);
+		Mono<Pojo> input = Mono.just(new Pojo("foofoofoo", "barbarbar"));
+
+		Flux<DataBuffer> result = encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), APPLICATION_JSON, null);
+
+		StepVerifier.create(result, 1)
+				.consumeNextWith(expectString("{\"foo\":\"foofoofo"))
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenRequest(1)
+				.consumeNextWith(expectString("o\",\"bar\":\"barbar"))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	public void encodeStreamWithFlushThreshold() {
+		Jackson2JsonEncoder encoder = new Jackson2JsonEncoder();
+		encoder.setFlushThreshold(1024);
+		Flux<Pojo> input = Flux.just(new Pojo("foo", "bar"), new Pojo("foofoo", "barbar"));
+
+		Flux<DataBuffer> result = encoder.encode(input, this.bufferFactory,
+				ResolvableType.forClass(Pojo.class), APPLICATION_STREAM_JSON, null);
+
+		StepVerifier.create(result)
+				.consumeNextWith(expectString("{\"foo\":\"foo\",\"bar\":\"bar\"}\n"))
+				.consumeNextWith(expectString("{\"foo\":\"foofoo\",\"bar\":\"barbar\"}\n"))
+				.verifyComplete();
+	}
+
 	@Test
 	public void encodeWithType() {
 		Flux<ParentClass> input = Flux.just(new Foo(), new Bar());
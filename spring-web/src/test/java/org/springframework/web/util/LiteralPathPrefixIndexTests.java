@@ -0,0 +1,122 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link LiteralPathPrefixIndex}.
+ */
+public class LiteralPathPrefixIndexTests {
+
+	private final LiteralPathPrefixIndex<String> index = new LiteralPathPrefixIndex<>(true);
+
+
+	@Test
+	public void literalPrefix() {
+		this.index.add("/orders/{id}", "order");
+		this.index.add("/orders/{id}/items/{itemId}", "item");
+		this.index.add("/customers/{id}", "customer");
+
+		assertThat(this.index.getCandidates("/orders/1")).containsExactly("order", "item");
+		assertThat(this.index.getCandidates("/customers/1")).containsExactly("customer");
+		assertThat(this.index.getCandidates("/invoices/1")).isEmpty();
+	}
+
+	@Test
+	public void wildcardsAndNoPattern() {
+		this.index.add("/{tenant}/orders", "tenant");
+		this.index.add("/**", "all");
+		this.index.add("/ord?rs", "single");
+		this.index.add(null, "none");
+		this.index.add("/orders/{id}", "order");
+
+		assertThat(this.index.getCandidates("/orders/1"))
+				.containsExactly("tenant", "all", "single", "none", "order");
+		assertThat(this.index.getCandidates("/invoices/1"))
+				.containsExactly("tenant", "all", "single", "none");
+	}
+
+	@Test
+	public void literalPatternWithLastSegment() {
+		this.index.add("/orders/list", "list");
+
+		assertThat(this.index.getCandidates("/orders/list")).containsExactly("list");
+		assertThat(this.index.getCandidates("/orders/list.json")).isEmpty();
+	}
+
+	@Test
+	public void literalPatternWithoutLastSegment() {
+		LiteralPathPrefixIndex<String> index = new LiteralPathPrefixIndex<>(false);
+		index.add("/orders/list", "list");
+
+		assertThat(index.getCandidates("/orders/list")).containsExactly("list");
+		assertThat(index.getCandidates("/orders/list.json")).containsExactly("list");
+		assertThat(index.getCandidates("/customers/list")).isEmpty();
+	}
+
+	@Test
+	public void caseInsensitiveAndTrimmed() {
+		this.index.add("/Orders/{id}", "order");
+
+		assertThat(this.index.getCandidates("/ORDERS/1")).containsExactly("order");
+		assertThat(this.index.getCandidates("/ orders /1")).containsExactly("order");
+	}
+
+	@Test
+	public void segments() {
+		this.index.add("/a b/{id}", "space");
+
+		assertThat(this.index.getCandidates(Arrays.asList("a b", "1"))).containsExactly("space");
+	}
+
+	@Test
+	public void sameValueWithMultiplePatterns() {
+		this.index.add("/orders/{id}", "order");
+		this.index.add("/orders/{id}/details", "order");
+		this.index.add("/{tenant}/orders/{id}", "order");
+
+		assertThat(this.index.getCandidates("/orders/1")).containsExactly("order");
+
+		this.index.remove("/orders/{id}", "order");
+		assertThat(this.index.getCandidates("/orders/1")).containsExactly("order");
+
+		this.index.remove("/orders/{id}/details", "order");
+		this.index.remove("/{tenant}/orders/{id}", "order");
+		assertThat(this.index.getCandidates("/orders/1")).isEmpty();
+	}
+
+	@Test
+	public void remove() {
+		this.index.add("/orders/{id}", "order");
+		this.index.add("/orders/{id}/items/{itemId}", "item");
+
+		this.index.remove("/orders/{id}", "order");
+		assertThat(this.index.getCandidates("/orders/1")).containsExactly("item");
+
+		this.index.remove("/orders/{id}/items/{itemId}", "item");
+		assertThat(this.index.getCandidates("/orders/1")).isEmpty();
+
+		this.index.remove("/unknown/{id}", "unknown");
+		assertThat(this.index.getCandidates("/unknown/1")).isEmpty();
+	}
+
+}
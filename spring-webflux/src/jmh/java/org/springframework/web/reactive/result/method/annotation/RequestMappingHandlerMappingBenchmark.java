@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.result.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for the handler lookup of {@link RequestMappingHandlerMapping}
+ * with a large number of pattern-based mappings.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100", "10000"})
+		public int mappingCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Handler handler = new Handler();
+			Method method = Handler.class.getMethod("handle");
+			for (int i = 0; i < this.mappingCount; i++) {
+				RequestMappingInfo info = RequestMappingInfo
+						.paths("/orders" + i + "/{id}/items/{itemId}", "/orders" + i + "/{id}")
+						.methods(RequestMethod.GET)
+						.build();
+				this.handlerMapping.registerMapping(info, handler, method);
+			}
+			this.handlerMapping.registerMapping(
+					RequestMappingInfo.paths("/{tenant}/customers/{id}").methods(RequestMethod.GET).build(),
+					handler, method);
+		}
+	}
+
+	@Benchmark
+	public Object patternPath(BenchmarkData data) {
+		String path = "/orders" + (data.mappingCount / 2) + "/42/items/7";
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+		return data.handlerMapping.getHandler(exchange).block();
+	}
+
+	@Benchmark
+	public Object leadingVariablePath(BenchmarkData data) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/acme/customers/42"));
+		return data.handlerMapping.getHandler(exchange).block();
+	}
+
+
+	public static class Handler {
+
+		public void handle() {
+		}
+	}
+
+}
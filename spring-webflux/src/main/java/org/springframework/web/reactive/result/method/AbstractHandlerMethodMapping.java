@@ -37,6 +37,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -47,6 +48,8 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.AbstractHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.LiteralPathPrefixIndex;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -311,7 +314,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected HandlerMethod lookupHandlerMethod(ServerWebExchange exchange) throws Exception {
 		List<Match> matches = new ArrayList<>();
-		addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, exchange);
+		PathContainer lookupPath = exchange.getRequest().getPath().pathWithinApplication();
+		addMatchingMappings(this.mappingRegistry.getMappingsByPath(lookupPath), matches, exchange);
 
 		if (!matches.isEmpty()) {
 			Comparator<Match> comparator = new MatchComparator(getMappingComparator(exchange));
@@ -413,6 +417,21 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	@Nullable
 	protected abstract T getMappingForMethod(Method method, Class<?> handlerType);
 
+	/**
+	 * Extract and return the URL path patterns contained in the supplied mapping.
+	 * <p>The patterns are used to index mappings by their leading literal
+	 * segments, so that only mappings that may match the lookup path of a
+	 * request are checked with {@link #getMatchingMapping}. A mapping is
+	 * expected to match only requests for one of its patterns.
+	 * <p>By default this returns an empty set, in which case the mapping
+	 * is checked for every request.
+	 * @param mapping the mapping to get the patterns for
+	 * @since 5.2
+	 */
+	protected Set<PathPattern> getMappingPathPatterns(T mapping) {
+		return Collections.emptySet();
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -444,6 +463,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final Map<T, HandlerMethod> mappingLookup = new LinkedHashMap<>();
 
+		private final LiteralPathPrefixIndex<T> patternLookup = new LiteralPathPrefixIndex<>(true);
+
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
 
 		private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
@@ -456,6 +477,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.mappingLookup;
 		}
 
+		/**
+		 * Return the mappings that may match the given lookup path, based on
+		 * the leading literal segments of their patterns. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPath(PathContainer lookupPath) {
+			List<String> segments = new ArrayList<>();
+			for (PathContainer.Element element : lookupPath.elements()) {
+				if (element instanceof PathContainer.PathSegment) {
+					String value = ((PathContainer.PathSegment) element).valueToMatch();
+					if (!value.isEmpty()) {
+						segments.add(value);
+					}
+				}
+			}
+			return this.patternLookup.getCandidates(segments);
+		}
+
 		/**
 		 * Return CORS configuration. Thread-safe for concurrent use.
 		 */
@@ -485,6 +524,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				HandlerMethod handlerMethod = createHandlerMethod(handler, method);
 				validateMethodMapping(handlerMethod, mapping);
 				this.mappingLookup.put(mapping, handlerMethod);
+				addPatternLookup(mapping);
 
 				CorsConfiguration corsConfig = initCorsConfiguration(handler, method, mapping);
 				if (corsConfig != null) {
@@ -509,6 +549,26 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			}
 		}
 
+		private void addPatternLookup(T mapping) {
+			Set<PathPattern> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.patternLookup.add(null, mapping);
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternLookup.add(pattern.getPatternString(), mapping);
+			}
+		}
+
+		private void removePatternLookup(T mapping) {
+			Set<PathPattern> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.patternLookup.remove(null, mapping);
+			}
+			for (PathPattern pattern : patterns) {
+				this.patternLookup.remove(pattern.getPatternString(), mapping);
+			}
+		}
+
 		public void unregister(T mapping) {
 			this.readWriteLock.writeLock().lock();
 			try {
@@ -518,6 +578,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				}
 
 				this.mappingLookup.remove(definition.getMapping());
+				removePatternLookup(definition.getMapping());
 				this.corsLookup.remove(definition.getHandlerMethod());
 			}
 			finally {
@@ -68,6 +68,20 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	}
 
 
+	/**
+	 * Get the URL path patterns associated with the supplied {@link RequestMappingInfo}.
+	 * <p>Returns an empty Set if the {@link #getPathPatternParser() PathPatternParser}
+	 * uses a separator other than "/", so that the mapping is checked for every request.
+	 */
+	@Override
+	protected Set<PathPattern> getMappingPathPatterns(RequestMappingInfo info) {
+		// Only "/"-separated patterns can be indexed by their literal segments
+		if (getPathPatternParser().getPathOptions().separator() != '/') {
+			return Collections.emptySet();
+		}
+		return info.getPatternsCondition().getPatterns();
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
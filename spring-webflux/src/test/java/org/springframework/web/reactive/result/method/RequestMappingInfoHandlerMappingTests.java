@@ -37,6 +37,8 @@ import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.web.test.server.MockServerWebExchange;
 import org.springframework.stereotype.Controller;
@@ -124,6 +126,40 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertThat(hm.getMethod()).isEqualTo(expected);
 	}
 
+	@Test
+	public void getHandlerSameBestMatchWithAndWithoutPatternIndex() throws Exception {
+		TestRequestMappingInfoHandlerMapping indexedMapping = new TestRequestMappingInfoHandlerMapping();
+		indexedMapping.registerHandler(new PatternController());
+
+		// Mappings without path patterns are checked for every request
+		TestRequestMappingInfoHandlerMapping unindexedMapping = new TestRequestMappingInfoHandlerMapping() {
+			@Override
+			protected Set<PathPattern> getMappingPathPatterns(RequestMappingInfo info) {
+				return Collections.emptySet();
+			}
+		};
+		unindexedMapping.registerHandler(new PatternController());
+
+		String[][] expectations = {{"/a/b", "literal"}, {"/a/b/", "literal"}, {"/a/c", "variable"},
+				{"/a/b/c", "all"}, {"/a", "all"}};
+		for (String[] expectation : expectations) {
+			Method expected = PatternController.class.getMethod(expectation[1]);
+			assertThat(getHandlerMethod(indexedMapping, expectation[0])).as(expectation[0]).isEqualTo(expected);
+			assertThat(getHandlerMethod(unindexedMapping, expectation[0])).as(expectation[0]).isEqualTo(expected);
+		}
+		assertThat(getHandlerMethod(indexedMapping, "/b/c")).isNull();
+		assertThat(getHandlerMethod(unindexedMapping, "/b/c")).isNull();
+	}
+
+	@Test
+	public void getMappingPathPatternsWithCustomSeparator() {
+		RequestMappingInfo info = paths("/a/{x}").options(new BuilderConfiguration()).build();
+		assertThat(this.handlerMapping.getMappingPathPatterns(info)).hasSize(1);
+
+		this.handlerMapping.getPathPatternParser().setPathOptions(PathContainer.Options.MESSAGE_ROUTE);
+		assertThat(this.handlerMapping.getMappingPathPatterns(info)).isEmpty();
+	}
+
 	@Test
 	public void getHandlerBestMatch() {
 		Method expected = on(TestController.class).annot(getMapping("/foo").params("p")).resolveMethod();
@@ -314,6 +350,12 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@Nullable
+	private Method getHandlerMethod(TestRequestMappingInfoHandlerMapping mapping, String path) {
+		Object handler = mapping.getHandler(MockServerWebExchange.from(get(path))).block();
+		return (handler != null ? ((HandlerMethod) handler).getMethod() : null);
+	}
+
 	@SuppressWarnings("unchecked")
 	private <T> void assertError(Mono<Object> mono, final Class<T> exceptionClass, final Consumer<T> consumer) {
 		StepVerifier.create(mono)
@@ -448,6 +490,24 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class PatternController {
+
+		@RequestMapping("/a/**")
+		public void all() {
+		}
+
+		@RequestMapping("/a/{x}")
+		public void variable() {
+		}
+
+		@RequestMapping("/a/b")
+		public void literal() {
+		}
+	}
+
+
 	private static class TestRequestMappingInfoHandlerMapping extends RequestMappingInfoHandlerMapping {
 
 		void registerHandler(Object handler) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+/**
+ * Benchmarks for the handler lookup of {@link RequestMappingHandlerMapping}
+ * with a large number of pattern-based mappings.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class BenchmarkData {
+
+		@Param({"100", "10000"})
+		public int mappingCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Handler handler = new Handler();
+			Method method = Handler.class.getMethod("handle");
+			for (int i = 0; i < this.mappingCount; i++) {
+				RequestMappingInfo info = RequestMappingInfo
+						.paths("/orders" + i + "/{id}/items/{itemId}", "/orders" + i + "/{id}")
+						.methods(RequestMethod.GET)
+						.build();
+				this.handlerMapping.registerMapping(info, handler, method);
+			}
+			this.handlerMapping.registerMapping(
+					RequestMappingInfo.paths("/{tenant}/customers/{id}").methods(RequestMethod.GET).build(),
+					handler, method);
+			this.handlerMapping.registerMapping(
+					RequestMappingInfo.paths("/status").methods(RequestMethod.GET).build(),
+					handler, method);
+		}
+	}
+
+	@Benchmark
+	public HandlerExecutionChain directPath(BenchmarkData data) throws Exception {
+		return data.handlerMapping.getHandler(new MockHttpServletRequest("GET", "/status"));
+	}
+
+	@Benchmark
+	public HandlerExecutionChain patternPath(BenchmarkData data) throws Exception {
+		String path = "/orders" + (data.mappingCount / 2) + "/42/items/7";
+		return data.handlerMapping.getHandler(new MockHttpServletRequest("GET", path));
+	}
+
+	@Benchmark
+	public HandlerExecutionChain leadingVariablePath(BenchmarkData data) throws Exception {
+		return data.handlerMapping.getHandler(new MockHttpServletRequest("GET", "/acme/customers/42"));
+	}
+
+
+	public static class Handler {
+
+		public void handle() {
+		}
+	}
+
+}
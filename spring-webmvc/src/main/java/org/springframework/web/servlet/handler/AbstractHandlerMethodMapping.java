@@ -39,14 +39,17 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.MethodIntrospector;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.LiteralPathPrefixIndex;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -384,8 +387,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// Go through all mappings that may match by the literal segments of their patterns...
+			addMatchingMappings(this.mappingRegistry.getMappingsByPattern(lookupPath), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -496,6 +499,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 	/**
 	 * Extract and return the URL paths contained in the supplied mapping.
+	 * <p>The paths are also used to index mappings by their leading literal
+	 * segments: a mapping is expected to match only requests for one of its
+	 * paths, or to return an empty set in order to be checked for every request.
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
@@ -531,6 +537,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final LiteralPathPrefixIndex<T> patternLookup = new LiteralPathPrefixIndex<>(false);
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -554,6 +562,23 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings that may match the given URL path, based on the
+		 * leading literal segments of their patterns. Falls back on all mappings
+		 * if a custom {@link org.springframework.util.PathMatcher} is in use, or
+		 * an {@link AntPathMatcher} with a path separator other than "/".
+		 * Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPattern(String urlPath) {
+			PathMatcher pathMatcher = getPathMatcher();
+			if (pathMatcher.getClass() != AntPathMatcher.class || !AntPathMatcher.DEFAULT_PATH_SEPARATOR.equals(
+					((AntPathMatcher) pathMatcher).getPathSeparator())) {
+				return this.mappingLookup.keySet();
+			}
+			return this.patternLookup.getCandidates(urlPath);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -595,6 +620,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				addPatternLookup(mapping);
 
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -635,6 +661,26 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return urls;
 		}
 
+		private void addPatternLookup(T mapping) {
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.patternLookup.add(null, mapping);
+			}
+			for (String pattern : patterns) {
+				this.patternLookup.add(pattern, mapping);
+			}
+		}
+
+		private void removePatternLookup(T mapping) {
+			Set<String> patterns = getMappingPathPatterns(mapping);
+			if (patterns.isEmpty()) {
+				this.patternLookup.remove(null, mapping);
+			}
+			for (String pattern : patterns) {
+				this.patternLookup.remove(pattern, mapping);
+			}
+		}
+
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
 			List<HandlerMethod> oldList = this.nameLookup.get(name);
 			if (oldList == null) {
@@ -672,6 +718,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 						}
 					}
 				}
+				removePatternLookup(definition.getMapping());
 
 				removeMappingName(definition);
 
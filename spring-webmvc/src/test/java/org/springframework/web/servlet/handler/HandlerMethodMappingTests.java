@@ -107,6 +107,21 @@ public class HandlerMethodMappingTests {
 				this.mapping.getHandlerInternal(new MockHttpServletRequest("GET", "/foo")));
 	}
 
+	@Test
+	public void mappingsByPatternRequireSlashSeparatedAntPathMatcher() {
+		this.mapping.registerMapping("/a/b", this.handler, this.method1);
+		this.mapping.registerMapping("/c/d", this.handler, this.method2);
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPattern("/c/d")).containsExactly("/c/d");
+
+		this.mapping.setPathMatcher(new AntPathMatcher(":"));
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPattern("/c/d"))
+				.containsExactlyInAnyOrder("/a/b", "/c/d");
+
+		this.mapping.setPathMatcher(new AntPathMatcher() {});
+		assertThat(this.mapping.getMappingRegistry().getMappingsByPattern("/c/d"))
+				.containsExactlyInAnyOrder("/a/b", "/c/d");
+	}
+
 	@Test
 	public void detectHandlerMethodsInAncestorContexts() {
 		StaticApplicationContext cxt = new StaticApplicationContext();
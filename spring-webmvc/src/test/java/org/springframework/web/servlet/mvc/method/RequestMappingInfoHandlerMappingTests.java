@@ -30,8 +30,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
 import org.springframework.mock.web.test.MockHttpServletRequest;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
@@ -132,6 +134,39 @@ public class RequestMappingInfoHandlerMappingTests {
 		assertThat(handlerMethod.getMethod()).isEqualTo(this.emptyMethod.getMethod());
 	}
 
+	@Test
+	public void getHandlerSameBestMatchWithAndWithoutPatternIndex() throws Exception {
+		TestRequestMappingInfoHandlerMapping indexedMapping = new TestRequestMappingInfoHandlerMapping();
+		indexedMapping.registerHandler(new PatternController());
+
+		// Any PathMatcher other than a plain AntPathMatcher disables the pattern index
+		TestRequestMappingInfoHandlerMapping unindexedMapping = new TestRequestMappingInfoHandlerMapping();
+		unindexedMapping.setPathMatcher(new AntPathMatcher() {});
+		unindexedMapping.registerHandler(new PatternController());
+
+		String[][] expectations = {{"/a/b", "literal"}, {"/a/b/", "literal"}, {"/a/c", "variable"},
+				{"/a/b/c", "all"}, {"/a", "all"}};
+		for (String[] expectation : expectations) {
+			Method expected = PatternController.class.getMethod(expectation[1]);
+			assertThat(getHandlerMethod(indexedMapping, expectation[0])).as(expectation[0]).isEqualTo(expected);
+			assertThat(getHandlerMethod(unindexedMapping, expectation[0])).as(expectation[0]).isEqualTo(expected);
+		}
+		assertThat(getHandlerMethod(indexedMapping, "/b/c")).isNull();
+		assertThat(getHandlerMethod(unindexedMapping, "/b/c")).isNull();
+	}
+
+	@Test
+	public void getHandlerWithCustomPathMatcher() throws Exception {
+		TestRequestMappingInfoHandlerMapping mapping = new TestRequestMappingInfoHandlerMapping();
+		mapping.setPathMatcher(new AliasPathMatcher("/legacy/", "/a/"));
+		mapping.registerHandler(new PatternController());
+
+		// Matches that the literal segments of the patterns would not suggest
+		assertThat(getHandlerMethod(mapping, "/legacy/b")).isEqualTo(PatternController.class.getMethod("literal"));
+		assertThat(getHandlerMethod(mapping, "/legacy/c")).isEqualTo(PatternController.class.getMethod("variable"));
+		assertThat(getHandlerMethod(mapping, "/legacy/b/c")).isEqualTo(PatternController.class.getMethod("all"));
+	}
+
 	@Test
 	public void getHandlerBestMatch() throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo");
@@ -373,6 +408,12 @@ public class RequestMappingInfoHandlerMappingTests {
 		return (HandlerMethod) chain.getHandler();
 	}
 
+	@Nullable
+	private Method getHandlerMethod(TestRequestMappingInfoHandlerMapping mapping, String path) throws Exception {
+		HandlerExecutionChain chain = mapping.getHandler(new MockHttpServletRequest("GET", path));
+		return (chain != null ? ((HandlerMethod) chain.getHandler()).getMethod() : null);
+	}
+
 	private void testHttpMediaTypeNotSupportedException(String url) throws Exception {
 		MockHttpServletRequest request = new MockHttpServletRequest("PUT", url);
 		request.setContentType("application/json");
@@ -492,6 +533,50 @@ public class RequestMappingInfoHandlerMappingTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	@Controller
+	private static class PatternController {
+
+		@RequestMapping("/a/**")
+		public void all() {
+		}
+
+		@RequestMapping("/a/{x}")
+		public void variable() {
+		}
+
+		@RequestMapping("/a/b")
+		public void literal() {
+		}
+	}
+
+
+	/**
+	 * Matches paths starting with an alias prefix as if they started with the target prefix.
+	 */
+	private static class AliasPathMatcher extends AntPathMatcher {
+
+		private final String alias;
+
+		private final String target;
+
+		AliasPathMatcher(String alias, String target) {
+			this.alias = alias;
+			this.target = target;
+		}
+
+		@Override
+		protected boolean doMatch(String pattern, @Nullable String path, boolean fullMatch,
+				@Nullable Map<String, String> uriTemplateVariables) {
+
+			if (path != null && path.startsWith(this.alias)) {
+				path = this.target + path.substring(this.alias.length());
+			}
+			return super.doMatch(pattern, path, fullMatch, uriTemplateVariables);
+		}
+	}
+
+
 	private static class TestRequestMappingInfoHandlerMapping extends RequestMappingInfoHandlerMapping {
 
 		public void registerHandler(Object handler) {